@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.onosproject.store.service.AsyncAtomicCounter;
+import org.onosproject.store.service.StorageService;
+
+/**
+ * Benchmark of the atomic counter.
+ * Keys and values are ignored; reads get the counter value and writes increment it.
+ */
+public class AtomicCounterTarget implements BenchmarkTarget {
+
+    private final AsyncAtomicCounter counter;
+
+    /**
+     * Creates the benchmark target.
+     *
+     * @param storageService storage service
+     * @param name name of the counter
+     */
+    public AtomicCounterTarget(StorageService storageService, String name) {
+        counter = storageService.atomicCounterBuilder()
+                .withName(name)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<?> read(int key) {
+        return counter.get();
+    }
+
+    @Override
+    public CompletableFuture<?> write(int key, byte[] value) {
+        return counter.incrementAndGet();
+    }
+}
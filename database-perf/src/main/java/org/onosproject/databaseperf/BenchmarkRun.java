@@ -0,0 +1,344 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import static org.onlab.util.Tools.groupedThreads;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+/**
+ * One run of the database benchmark.
+ * Worker threads issue reads and writes of the workload profile against the
+ * target until the configured number of operations or duration is reached,
+ * or until the run is stopped. Progress is logged every report period.
+ * <p>
+ * Each worker keeps up to the configured number of asynchronous operations
+ * in flight. Without a target rate, it issues a new operation whenever one
+ * completes. With a target rate, operations are scheduled at fixed
+ * intervals and their latency is measured from the scheduled start time,
+ * so that time spent waiting behind a slow operation is not omitted from
+ * the recorded latency.
+ * </p>
+ * <p>
+ * Latency of each operation is recorded by the worker into its own
+ * {@link LatencyRecorder}; the recorders are merged at report time into the
+ * latency percentiles of the report interval and of the whole run.
+ * Successful operations are also counted per database partition of the key.
+ * </p>
+ */
+public class BenchmarkRun {
+
+    private static final long REPORT_PERIOD = 5000L; //ms
+    private static final long DRAIN_TIMEOUT = 5; //s
+    private static final long STOP_TIMEOUT = 5; //s
+
+    private final WorkloadProfile profile;
+    private final BenchmarkTarget target;
+    private final KeyGenerator keys;
+    private final KeyPartitions partitions;
+    private final Logger log;
+
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final List<LatencyRecorder> recorders = new CopyOnWriteArrayList<>();
+    private final LatencyHistogram[] cumulative = LatencyRecorder.histograms();
+    private final LongAdder[] partitionOperations;
+    private final CompletableFuture<BenchmarkStatus> completion = new CompletableFuture<>();
+
+    private ExecutorService workers;
+    private ScheduledExecutorService reporter;
+    private volatile boolean running;
+    private volatile long startTime;
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private long reportNanos;
+    private long reportOperations;
+    private volatile Map<OperationType, LatencySummary> intervalLatency = ImmutableMap.of();
+    private volatile Map<OperationType, LatencySummary> cumulativeLatency = ImmutableMap.of();
+
+    /**
+     * Creates the benchmark run.
+     *
+     * @param profile workload profile
+     * @param target distributed primitive to exercise
+     * @param partitions mapping of the keys to the partitions of the target
+     * @param log logger of the progress reports
+     */
+    public BenchmarkRun(WorkloadProfile profile, BenchmarkTarget target, KeyPartitions partitions, Logger log) {
+        this.profile = profile;
+        this.target = target;
+        this.keys = KeyGenerator.of(profile);
+        this.partitions = partitions;
+        this.partitionOperations = new LongAdder[partitions.names().size()];
+        for (int i = 0; i < partitionOperations.length; i++) {
+            partitionOperations[i] = new LongAdder();
+        }
+        this.log = log;
+    }
+
+    /**
+     * Starts the worker threads and the progress reporting.
+     */
+    public synchronized void start() {
+        running = true;
+        startTime = System.currentTimeMillis();
+        startNanos = System.nanoTime();
+        reportNanos = startNanos;
+        workers = Executors.newFixedThreadPool(profile.threads(),
+                groupedThreads("onos/database-perf", "worker-%d"));
+        reporter = Executors.newSingleThreadScheduledExecutor(groupedThreads("onos/database-perf", "reporter"));
+        activeWorkers.set(profile.threads());
+        for (int i = 0; i < profile.threads(); i++) {
+            workers.execute(this::work);
+        }
+        reporter.scheduleAtFixedRate(this::report, REPORT_PERIOD, REPORT_PERIOD, TimeUnit.MILLISECONDS);
+        log.info("Benchmark started: {}", profile);
+    }
+
+    /**
+     * Stops the run and waits for the worker threads to finish.
+     */
+    public void stop() {
+        synchronized (this) {
+            if (workers == null) {
+                return;
+            }
+            running = false;
+        }
+        try {
+            completion.get(DRAIN_TIMEOUT + STOP_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            log.warn("Failed to stop worker.");
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Workers did not finish in time, forcing the end of the run");
+            ExecutorService stopped;
+            synchronized (this) {
+                stopped = workers;
+            }
+            if (stopped != null) {
+                stopped.shutdownNow();
+            }
+            finished();
+        }
+    }
+
+    private void work() {
+        Random random = ThreadLocalRandom.current();
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorders.add(recorder);
+        Semaphore inFlight = new Semaphore(profile.inFlight());
+        long deadline = profile.duration() > 0 ?
+                startNanos + TimeUnit.SECONDS.toNanos(profile.duration()) : Long.MAX_VALUE;
+        // interval between the scheduled operations of this worker
+        double interval = profile.targetRate() > 0 ?
+                (double) TimeUnit.SECONDS.toNanos(1) * profile.threads() / profile.targetRate() : 0;
+        long scheduled = 0;
+        try {
+            while (running && System.nanoTime() < deadline) {
+                if (profile.operations() > 0 && issued.incrementAndGet() > profile.operations()) {
+                    break;
+                }
+                long start = interval > 0 ? startNanos + (long) (scheduled++ * interval) : 0;
+                if (interval > 0 && !awaitScheduled(start)) {
+                    break;
+                }
+                inFlight.acquire();
+                if (interval == 0) {
+                    start = System.nanoTime();
+                }
+                performOperation(random, recorder, inFlight, start);
+                if (interval == 0 && profile.thinkTime() > 0) {
+                    Thread.sleep(profile.thinkTime());
+                }
+            }
+            // wait for the operations still in flight
+            inFlight.tryAcquire(profile.inFlight(), DRAIN_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (activeWorkers.decrementAndGet() == 0) {
+                finished();
+            }
+        }
+    }
+
+    private boolean awaitScheduled(long start) {
+        long now = System.nanoTime();
+        while (running && now < start) {
+            LockSupport.parkNanos(start - now);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            now = System.nanoTime();
+        }
+        return running;
+    }
+
+    private void performOperation(Random random, LatencyRecorder recorder, Semaphore inFlight, long start) {
+        int key = keys.next(random);
+        OperationType type = random.nextInt(100) < profile.readPercentage() ?
+                OperationType.READ : OperationType.WRITE;
+        CompletableFuture<?> future;
+        try {
+            future = type == OperationType.READ ? target.read(key) : target.write(key, newValue(random));
+        } catch (Exception e) {
+            failures.increment();
+            inFlight.release();
+            return;
+        }
+        future.whenComplete((result, error) -> {
+            long latency = System.nanoTime() - start;
+            inFlight.release();
+            if (error != null) {
+                failures.increment();
+            } else {
+                recorder.record(type, latency);
+                (type == OperationType.READ ? reads : writes).increment();
+                partitionOperations[partitions.partition(key)].increment();
+            }
+        });
+    }
+
+    // Each write gets its own value, since the targets may hold it until the write completes.
+    private byte[] newValue(Random random) {
+        byte[] value = new byte[profile.valueSize()];
+        random.nextBytes(value);
+        return value;
+    }
+
+    // Ends the run once, when the last worker is done or when the run is stopped.
+    private synchronized void finished() {
+        if (endNanos == 0) {
+            endNanos = System.nanoTime();
+            running = false;
+            if (workers != null) {
+                workers.shutdown();
+            }
+            if (reporter != null) {
+                reporter.shutdown();
+            }
+            target.close();
+            report();
+            BenchmarkStatus status = status();
+            log.info("Benchmark finished: {}", status);
+            completion.complete(status);
+        }
+    }
+
+    private synchronized void report() {
+        long now = System.nanoTime();
+        long operations = reads.sum() + writes.sum();
+        long delta = TimeUnit.NANOSECONDS.toMillis(now - reportNanos);
+        if (delta > 0) {
+            LatencyHistogram[] interval = LatencyRecorder.histograms();
+            recorders.forEach(r -> r.drainTo(interval));
+            Map<OperationType, LatencySummary> intervalSummaries = new EnumMap<>(OperationType.class);
+            Map<OperationType, LatencySummary> cumulativeSummaries = new EnumMap<>(OperationType.class);
+            for (OperationType type : OperationType.values()) {
+                cumulative[type.ordinal()].add(interval[type.ordinal()]);
+                intervalSummaries.put(type, interval[type.ordinal()].summary());
+                cumulativeSummaries.put(type, cumulative[type.ordinal()].summary());
+            }
+            intervalLatency = Maps.immutableEnumMap(intervalSummaries);
+            cumulativeLatency = Maps.immutableEnumMap(cumulativeSummaries);
+
+            int rate = (int) Math.round((operations - reportOperations) * 1000.0 / delta);
+            log.info("Passed: {}, Failed: {}, Rate: {}, Read p99: {}us, Write p99: {}us",
+                    operations - reportOperations, failures.sum(), rate,
+                    TimeUnit.NANOSECONDS.toMicros(intervalSummaries.get(OperationType.READ).p99()),
+                    TimeUnit.NANOSECONDS.toMicros(intervalSummaries.get(OperationType.WRITE).p99()));
+            reportNanos = now;
+            reportOperations = operations;
+        }
+    }
+
+    /**
+     * Returns the workload profile of the run.
+     *
+     * @return workload profile
+     */
+    public WorkloadProfile profile() {
+        return profile;
+    }
+
+    /**
+     * Returns future completed with the final status when the run ends.
+     *
+     * @return completion future
+     */
+    public CompletableFuture<BenchmarkStatus> completion() {
+        return completion;
+    }
+
+    /**
+     * Returns copy of the latency histograms of the whole run, as of the
+     * last report interval, indexed by operation type ordinal.
+     *
+     * @return cumulative latency histograms
+     */
+    public synchronized LatencyHistogram[] cumulativeHistograms() {
+        LatencyHistogram[] copy = LatencyRecorder.histograms();
+        for (int i = 0; i < copy.length; i++) {
+            copy[i].add(cumulative[i]);
+        }
+        return copy;
+    }
+
+    /**
+     * Returns current progress of the run.
+     *
+     * @return benchmark status
+     */
+    public BenchmarkStatus status() {
+        long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        Map<String, Long> operationsByPartition = new LinkedHashMap<>();
+        for (int i = 0; i < partitionOperations.length; i++) {
+            operationsByPartition.put(partitions.names().get(i), partitionOperations[i].sum());
+        }
+        return new BenchmarkStatus(profile.toString(), endNanos == 0, startTime,
+                TimeUnit.NANOSECONDS.toMillis(end - startNanos),
+                reads.sum(), writes.sum(), failures.sum(), intervalLatency, cumulativeLatency,
+                ImmutableMap.copyOf(operationsByPartition));
+    }
+}
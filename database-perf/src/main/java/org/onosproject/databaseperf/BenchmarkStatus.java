@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import java.util.Map;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Snapshot of the progress of a benchmark run.
+ */
+public final class BenchmarkStatus {
+
+    private final String profile;
+    private final boolean running;
+    private final long startTime;
+    private final long elapsed;
+    private final long reads;
+    private final long writes;
+    private final long failures;
+    private final Map<OperationType, LatencySummary> intervalLatency;
+    private final Map<OperationType, LatencySummary> cumulativeLatency;
+    private final Map<String, Long> partitionOperations;
+
+    /**
+     * Creates snapshot of the benchmark run.
+     *
+     * @param profile description of the workload profile
+     * @param running whether the run is still in progress
+     * @param startTime start time of the run in milliseconds
+     * @param elapsed duration of the run in milliseconds
+     * @param reads number of successful reads
+     * @param writes number of successful writes
+     * @param failures number of failed operations
+     * @param intervalLatency latencies of the last report interval by operation type
+     * @param cumulativeLatency latencies of the whole run by operation type
+     * @param partitionOperations successful operations by database partition
+     */
+    public BenchmarkStatus(String profile, boolean running, long startTime, long elapsed,
+                           long reads, long writes, long failures,
+                           Map<OperationType, LatencySummary> intervalLatency,
+                           Map<OperationType, LatencySummary> cumulativeLatency,
+                           Map<String, Long> partitionOperations) {
+        this.profile = profile;
+        this.running = running;
+        this.startTime = startTime;
+        this.elapsed = elapsed;
+        this.reads = reads;
+        this.writes = writes;
+        this.failures = failures;
+        this.intervalLatency = intervalLatency;
+        this.cumulativeLatency = cumulativeLatency;
+        this.partitionOperations = partitionOperations;
+    }
+
+    public String profile() {
+        return profile;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long startTime() {
+        return startTime;
+    }
+
+    public long elapsed() {
+        return elapsed;
+    }
+
+    public long reads() {
+        return reads;
+    }
+
+    public long writes() {
+        return writes;
+    }
+
+    public long failures() {
+        return failures;
+    }
+
+    /**
+     * Returns latency percentiles of the last report interval.
+     *
+     * @return latency summaries by operation type, empty before the first report
+     */
+    public Map<OperationType, LatencySummary> intervalLatency() {
+        return intervalLatency;
+    }
+
+    /**
+     * Returns latency percentiles since the start of the run, as of the last
+     * report interval.
+     *
+     * @return latency summaries by operation type, empty before the first report
+     */
+    public Map<OperationType, LatencySummary> cumulativeLatency() {
+        return cumulativeLatency;
+    }
+
+    /**
+     * Returns number of successful operations on the keys of each database
+     * partition.
+     *
+     * @return operations by partition name
+     */
+    public Map<String, Long> partitionOperations() {
+        return partitionOperations;
+    }
+
+    /**
+     * Returns successful operations per second over the whole run.
+     *
+     * @return throughput in operations per second
+     */
+    public double throughput() {
+        return elapsed > 0 ? (reads + writes) * 1000.0 / elapsed : 0;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("profile", profile)
+                .add("running", running)
+                .add("startTime", startTime)
+                .add("elapsed", elapsed)
+                .add("reads", reads)
+                .add("writes", writes)
+                .add("failures", failures)
+                .add("intervalLatency", intervalLatency)
+                .add("cumulativeLatency", cumulativeLatency)
+                .add("partitionOperations", partitionOperations)
+                .toString();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+
+import org.onosproject.codec.CodecContext;
+import org.onosproject.codec.JsonCodec;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * JSON codec of the benchmark status, shared by the CLI and REST API.
+ * Latencies are in nanoseconds.
+ */
+public final class BenchmarkStatusCodec extends JsonCodec<BenchmarkStatus> {
+
+    @Override
+    public ObjectNode encode(BenchmarkStatus status, CodecContext context) {
+        checkNotNull(status, "Benchmark status cannot be null");
+        ObjectNode result = context.mapper().createObjectNode()
+                .put("profile", status.profile())
+                .put("running", status.isRunning())
+                .put("startTime", status.startTime())
+                .put("elapsed", status.elapsed())
+                .put("reads", status.reads())
+                .put("writes", status.writes())
+                .put("failures", status.failures())
+                .put("throughput", status.throughput());
+        result.set("interval", encodeLatency(status.intervalLatency(), context));
+        result.set("cumulative", encodeLatency(status.cumulativeLatency(), context));
+        ObjectNode partitions = context.mapper().createObjectNode();
+        status.partitionOperations().forEach(partitions::put);
+        result.set("partitions", partitions);
+        return result;
+    }
+
+    static ObjectNode encodeLatency(Map<OperationType, LatencySummary> latency, CodecContext context) {
+        ObjectNode result = context.mapper().createObjectNode();
+        latency.forEach((type, summary) -> result.set(type.name().toLowerCase(), context.mapper().createObjectNode()
+                .put("count", summary.count())
+                .put("mean", summary.mean())
+                .put("p50", summary.p50())
+                .put("p90", summary.p90())
+                .put("p99", summary.p99())
+                .put("p999", summary.p999())
+                .put("max", summary.max())));
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Distributed primitive exercised by the benchmark.
+ * Operations are asynchronous; synchronous workers wait for the returned future.
+ */
+public interface BenchmarkTarget {
+
+    /**
+     * Reads the key.
+     *
+     * @param key key index
+     * @return future completed when the read is done
+     */
+    CompletableFuture<?> read(int key);
+
+    /**
+     * Writes the value under the key.
+     *
+     * @param key key index
+     * @param value value to write
+     * @return future completed when the write is done
+     */
+    CompletableFuture<?> write(int key, byte[] value);
+
+    /**
+     * Releases resources of the target.
+     */
+    default void close() {
+    }
+
+    /**
+     * Returns key of the given index.
+     *
+     * @param key key index
+     * @return key
+     */
+    static String key(int key) {
+        return "test" + key;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Results of a coordinated benchmark run merged over the cluster nodes that
+ * published them.
+ */
+public final class ClusterResults {
+
+    private final ClusterRun run;
+    private final int nodeCount;
+    private final List<NodeResult> nodes;
+    private final long reads;
+    private final long writes;
+    private final long failures;
+    private final double throughput;
+    private final Map<OperationType, LatencySummary> latency;
+    private final Map<String, Long> partitionOperations;
+
+    private ClusterResults(ClusterRun run, int nodeCount, List<NodeResult> nodes) {
+        this.run = run;
+        this.nodeCount = nodeCount;
+        this.nodes = nodes;
+        this.reads = nodes.stream().mapToLong(NodeResult::reads).sum();
+        this.writes = nodes.stream().mapToLong(NodeResult::writes).sum();
+        this.failures = nodes.stream().mapToLong(NodeResult::failures).sum();
+        // nodes run concurrently, so their rates add up
+        this.throughput = nodes.stream().mapToDouble(NodeResult::throughput).sum();
+
+        Map<OperationType, LatencySummary> summaries = new EnumMap<>(OperationType.class);
+        for (OperationType type : OperationType.values()) {
+            LatencyHistogram merged = new LatencyHistogram();
+            nodes.forEach(n -> merged.add(n.latency(type)));
+            summaries.put(type, merged.summary());
+        }
+        this.latency = ImmutableMap.copyOf(summaries);
+
+        Map<String, Long> partitions = new TreeMap<>();
+        nodes.forEach(n -> n.partitionOperations().forEach((p, ops) -> partitions.merge(p, ops, Long::sum)));
+        this.partitionOperations = ImmutableMap.copyOf(partitions);
+    }
+
+    /**
+     * Merges results published by the nodes for the coordinated run.
+     * Results of other runs are ignored.
+     *
+     * @param run coordinated run
+     * @param nodeCount number of nodes in the cluster
+     * @param published results published by the nodes
+     * @return merged results
+     */
+    public static ClusterResults merge(ClusterRun run, int nodeCount, Collection<NodeResult> published) {
+        List<NodeResult> nodes = published.stream()
+                .filter(r -> r.runId() == run.id())
+                .sorted(Comparator.comparing(NodeResult::nodeId))
+                .collect(Collectors.toList());
+        return new ClusterResults(run, nodeCount, nodes);
+    }
+
+    public ClusterRun run() {
+        return run;
+    }
+
+    /**
+     * Returns number of nodes in the cluster; when larger than the number
+     * of node results, some nodes have not finished the run yet.
+     *
+     * @return number of cluster nodes
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public List<NodeResult> nodes() {
+        return nodes;
+    }
+
+    public long reads() {
+        return reads;
+    }
+
+    public long writes() {
+        return writes;
+    }
+
+    public long failures() {
+        return failures;
+    }
+
+    /**
+     * Returns successful operations per second of the whole cluster.
+     *
+     * @return throughput in operations per second
+     */
+    public double throughput() {
+        return throughput;
+    }
+
+    /**
+     * Returns latency percentiles over all nodes by operation type.
+     *
+     * @return latency summaries
+     */
+    public Map<OperationType, LatencySummary> latency() {
+        return latency;
+    }
+
+    /**
+     * Returns number of successful operations of all nodes by database partition.
+     *
+     * @return operations by partition name
+     */
+    public Map<String, Long> partitionOperations() {
+        return partitionOperations;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("run", run)
+                .add("nodes", nodes.size() + "/" + nodeCount)
+                .add("reads", reads)
+                .add("writes", writes)
+                .add("failures", failures)
+                .add("throughput", throughput)
+                .toString();
+    }
+}
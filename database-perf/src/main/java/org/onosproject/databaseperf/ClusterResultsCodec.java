@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.onosproject.databaseperf.BenchmarkStatusCodec.encodeLatency;
+
+import org.onosproject.codec.CodecContext;
+import org.onosproject.codec.JsonCodec;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * JSON codec of the merged results of a coordinated benchmark run, shared
+ * by the CLI and REST API. Latencies are in nanoseconds.
+ */
+public final class ClusterResultsCodec extends JsonCodec<ClusterResults> {
+
+    @Override
+    public ObjectNode encode(ClusterResults results, CodecContext context) {
+        checkNotNull(results, "Cluster results cannot be null");
+        ObjectNode result = context.mapper().createObjectNode()
+                .put("runId", results.run().id())
+                .put("profile", results.run().profile().toString())
+                .put("startTime", results.run().startTime())
+                .put("stopped", results.run().isStopped())
+                .put("nodeCount", results.nodeCount())
+                .put("reportedNodes", results.nodes().size())
+                .put("reads", results.reads())
+                .put("writes", results.writes())
+                .put("failures", results.failures())
+                .put("throughput", results.throughput());
+        result.set("latency", encodeLatency(results.latency(), context));
+
+        ArrayNode nodes = result.putArray("nodes");
+        results.nodes().forEach(n -> {
+            ObjectNode node = context.mapper().createObjectNode()
+                    .put("node", n.nodeId())
+                    .put("elapsed", n.elapsed())
+                    .put("reads", n.reads())
+                    .put("writes", n.writes())
+                    .put("failures", n.failures())
+                    .put("throughput", n.throughput());
+            node.set("latency", encodeLatency(n.latencySummaries(), context));
+            nodes.add(node);
+        });
+
+        ObjectNode partitions = context.mapper().createObjectNode();
+        results.partitionOperations().forEach(partitions::put);
+        result.set("partitions", partitions);
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Benchmark run coordinated across the cluster.
+ * Published in the distributed store; every node starts the run with the
+ * same workload profile at the same wall clock time.
+ */
+public final class ClusterRun {
+
+    private final long id;
+    private final WorkloadProfile profile;
+    private final long startTime;
+    private final boolean stopped;
+
+    /**
+     * Creates coordinated benchmark run.
+     *
+     * @param id identifier of the run
+     * @param profile workload profile run by each node
+     * @param startTime wall clock time at which the nodes start, in milliseconds
+     * @param stopped whether the run was stopped
+     */
+    public ClusterRun(long id, WorkloadProfile profile, long startTime, boolean stopped) {
+        this.id = id;
+        this.profile = profile;
+        this.startTime = startTime;
+        this.stopped = stopped;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public WorkloadProfile profile() {
+        return profile;
+    }
+
+    public long startTime() {
+        return startTime;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Returns copy of this run marked as stopped.
+     *
+     * @return stopped run
+     */
+    public ClusterRun asStopped() {
+        return new ClusterRun(id, profile, startTime, true);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("id", id)
+                .add("profile", profile)
+                .add("startTime", startTime)
+                .add("stopped", stopped)
+                .toString();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.onosproject.store.service.AsyncConsistentMap;
+import org.onosproject.store.service.Serializer;
+import org.onosproject.store.service.StorageService;
+
+/**
+ * Benchmark of the partitioned consistent map.
+ */
+public class ConsistentMapTarget implements BenchmarkTarget {
+
+    private final AsyncConsistentMap<String, byte[]> map;
+
+    /**
+     * Creates the benchmark target.
+     *
+     * @param storageService storage service
+     * @param name name of the map
+     * @param serializer serializer of the keys and values
+     */
+    public ConsistentMapTarget(StorageService storageService, String name, Serializer serializer) {
+        map = storageService.<String, byte[]>consistentMapBuilder()
+                .withName(name)
+                .withSerializer(serializer)
+                .buildAsyncMap();
+    }
+
+    @Override
+    public CompletableFuture<?> read(int key) {
+        return map.get(BenchmarkTarget.key(key));
+    }
+
+    @Override
+    public CompletableFuture<?> write(int key, byte[] value) {
+        return map.put(BenchmarkTarget.key(key), value);
+    }
+}
@@ -15,43 +15,92 @@
  */
 package org.onosproject.databaseperf;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 import static org.apache.felix.scr.annotations.ReferenceCardinality.MANDATORY_UNARY;
-import static org.onlab.util.Tools.delay;
+import static org.onlab.util.Tools.get;
 import static org.onlab.util.Tools.groupedThreads;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.UUID;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Comparator;
+import java.util.Dictionary;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.IntStream;
+import java.util.stream.Collectors;
 
-import org.apache.commons.lang.math.RandomUtils;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Modified;
+import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
+import org.apache.felix.scr.annotations.Service;
 import org.onlab.util.KryoNamespace;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.ControllerNode;
+import org.onosproject.cluster.PartitionId;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
+import org.onosproject.store.primitives.PartitionService;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.AtomicCounter;
 import org.onosproject.store.service.ConsistentMap;
+import org.onosproject.store.service.MapEvent;
+import org.onosproject.store.service.MapEventListener;
 import org.onosproject.store.service.Serializer;
 import org.onosproject.store.service.StorageService;
+import org.onosproject.store.service.Versioned;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 
 /**
  * Application to measure partitioned database performance.
  */
 @Component(immediate = true)
-public class DatabasePerfInstaller {
+@Service
+public class DatabasePerfInstaller implements DatabasePerfService {
 
     private final Logger log = getLogger(getClass());
 
+    private static final String MAP_NAME = "onos-app-database-perf-test-map";
+    private static final String SET_NAME = "onos-app-database-perf-test-set";
+    private static final String COUNTER_NAME = "onos-app-database-perf-test-counter";
+    private static final String EC_MAP_NAME = "onos-app-database-perf-test-ecmap";
+    private static final String RUNS_NAME = "onos-app-database-perf-runs";
+    private static final String RESULTS_NAME = "onos-app-database-perf-results";
+    private static final String RUN_ID_NAME = "onos-app-database-perf-run-id";
+    private static final String CURRENT_RUN = "current";
+
+    private static final Serializer SERIALIZER = Serializer.using(KryoNamespaces.BASIC);
+
+    private static final Serializer CLUSTER_SERIALIZER = Serializer.using(KryoNamespace.newBuilder()
+            .register(KryoNamespaces.API)
+            .nextId(KryoNamespaces.BEGIN_USER_CUSTOM_ID)
+            .register(ClusterRun.class,
+                      NodeResult.class,
+                      WorkloadProfile.class,
+                      WorkloadProfile.Target.class,
+                      WorkloadProfile.KeyDistribution.class,
+                      OperationType.class)
+            .build());
+
+    private static final String TARGET = "CONSISTENT_MAP";
+    private static final int READ_PERCENTAGE = 50;
+    private static final int KEY_SPACE = 1000;
+    private static final String KEY_DISTRIBUTION = "UNIFORM";
+    private static final int VALUE_SIZE = 36;
+    private static final int THREADS = 2;
+    private static final long OPERATIONS = 0;
+    private static final int DURATION = 0;
+    private static final int THINK_TIME = 2;
+    private static final int IN_FLIGHT = 1;
+    private static final int TARGET_RATE = 0;
+    private static final boolean AUTO_START = true;
+
     @Reference(cardinality = MANDATORY_UNARY)
     protected CoreService coreService;
 
@@ -61,117 +110,328 @@ public class DatabasePerfInstaller {
     @Reference(cardinality = MANDATORY_UNARY)
     protected StorageService storageService;
 
-    private boolean stopped;
+    @Reference(cardinality = MANDATORY_UNARY)
+    protected PartitionService partitionService;
+
+    @Reference(cardinality = MANDATORY_UNARY)
+    protected ComponentConfigService cfgService;
 
-    private ApplicationId appId;
+    @Property(name = "Target", value = TARGET,
+            label = "Distributed primitive exercised by the benchmark: CONSISTENT_MAP, DISTRIBUTED_SET, "
+                    + "ATOMIC_COUNTER or EVENTUALLY_CONSISTENT_MAP")
+    private String target = TARGET;
+
+    @Property(name = "ReadPercentage", intValue = READ_PERCENTAGE,
+            label = "Percentage of the operations that are reads")
+    private int readPercentage = READ_PERCENTAGE;
+
+    @Property(name = "KeySpace", intValue = KEY_SPACE,
+            label = "Number of distinct keys accessed by the benchmark")
+    private int keySpace = KEY_SPACE;
 
-    private static final long REPORT_PERIOD = 5000L; //ms
-    private Timer reportTimer;
+    @Property(name = "KeyDistribution", value = KEY_DISTRIBUTION,
+            label = "Distribution of the accessed keys: UNIFORM or ZIPFIAN")
+    private String keyDistribution = KEY_DISTRIBUTION;
 
-    private AtomicInteger successCount = new AtomicInteger(0);
-    private AtomicInteger failureCount = new AtomicInteger(0);
+    @Property(name = "ValueSize", intValue = VALUE_SIZE,
+            label = "Size of the written values in bytes")
+    private int valueSize = VALUE_SIZE;
 
-    private ConsistentMap<String, String> cmap;
+    @Property(name = "Threads", intValue = THREADS,
+            label = "Number of worker threads issuing operations")
+    private int threads = THREADS;
+
+    @Property(name = "Operations", longValue = OPERATIONS,
+            label = "Total number of operations of the run, 0 for unlimited")
+    private long operations = OPERATIONS;
+
+    @Property(name = "Duration", intValue = DURATION,
+            label = "Duration of the run in seconds, 0 for unlimited")
+    private int duration = DURATION;
+
+    @Property(name = "ThinkTime", intValue = THINK_TIME,
+            label = "Delay between the operations of a worker thread in milliseconds")
+    private int thinkTime = THINK_TIME;
+
+    @Property(name = "InFlight", intValue = IN_FLIGHT,
+            label = "Number of asynchronous operations each worker thread keeps in flight")
+    private int inFlight = IN_FLIGHT;
+
+    @Property(name = "TargetRate", intValue = TARGET_RATE,
+            label = "Operations per second issued by all worker threads together, 0 for as fast as possible")
+    private int targetRate = TARGET_RATE;
+
+    @Property(name = "AutoStart", boolValue = AUTO_START,
+            label = "Start the benchmark with the configured profile when activated or reconfigured")
+    private boolean autoStart = AUTO_START;
+
+    private ApplicationId appId;
 
     private ControllerNode localNode;
 
-    private long reportStartTime = System.currentTimeMillis();
+    private BenchmarkRun run;
 
-    private static final int NUM_TASK_THREADS = 2;
-    private ExecutorService taskExecutor;
+    private long clusterRunId;
 
-    private static final Serializer SERIALIZER = new Serializer() {
+    private ConsistentMap<String, ClusterRun> runs;
 
-        KryoNamespace kryo = new KryoNamespace.Builder().build();
+    private ConsistentMap<String, NodeResult> results;
 
-        @Override
-        public <T> byte[] encode(T object) {
-            return kryo.serialize(object);
-        }
+    private AtomicCounter runIds;
 
-        @Override
-        public <T> T decode(byte[] bytes) {
-            return kryo.deserialize(bytes);
-        }
+    private final MapEventListener<String, ClusterRun> runListener = new ClusterRunListener();
 
-    };
+    private ScheduledExecutorService coordinator;
+
+    private ScheduledFuture<?> scheduledRun;
 
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
         localNode = clusterService.getLocalNode();
         String nodeId = localNode.ip().toString();
         appId = coreService.registerApplication("org.onosproject.nettyperf."
                                                         + nodeId);
-
-        cmap = storageService.<String, String>consistentMapBuilder()
-                .withName("onos-app-database-perf-test-map")
-                .withSerializer(SERIALIZER)
+        cfgService.registerProperties(getClass());
+        getProperties(context);
+        coordinator = newSingleThreadScheduledExecutor(groupedThreads("onos/database-perf", "coordinator"));
+        runs = storageService.<String, ClusterRun>consistentMapBuilder()
+                .withName(RUNS_NAME)
+                .withSerializer(CLUSTER_SERIALIZER)
                 .build();
-        taskExecutor = Executors.newFixedThreadPool(NUM_TASK_THREADS, groupedThreads("onos/database-perf", "worker"));
+        results = storageService.<String, NodeResult>consistentMapBuilder()
+                .withName(RESULTS_NAME)
+                .withSerializer(CLUSTER_SERIALIZER)
+                .build();
+        runIds = storageService.atomicCounterBuilder()
+                .withName(RUN_ID_NAME)
+                .build()
+                .asAtomicCounter();
+        runs.addListener(runListener);
         log.info("Started with Application ID {}", appId.id());
-        start();
+        Versioned<ClusterRun> current = runs.get(CURRENT_RUN);
+        if (current != null && !current.value().isStopped()
+                && current.value().startTime() > System.currentTimeMillis()) {
+            // join the coordinated run announced before this node was activated
+            coordinator.execute(() -> clusterRunUpdated(current.value()));
+        } else if (autoStart) {
+            start(defaultProfile());
+        }
     }
 
     @Deactivate
-    public void deactivate() {
+    public void deactivate(ComponentContext context) {
+        cfgService.unregisterProperties(getClass(), false);
+        runs.removeListener(runListener);
         stop();
+        coordinator.shutdownNow();
         log.info("Stopped");
     }
 
-    public void start() {
-        long delay = System.currentTimeMillis() % REPORT_PERIOD;
-        reportTimer = new Timer("onos-netty-perf-reporter");
-        reportTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                report();
+    @Modified
+    public void modified(ComponentContext context) {
+        WorkloadProfile oldProfile = defaultProfile();
+        getProperties(context);
+        WorkloadProfile profile = defaultProfile();
+        if (autoStart && !profile.equals(oldProfile)) {
+            start(profile);
+        }
+        log.info("Modified. {}", profile);
+    }
+
+    @Override
+    public WorkloadProfile defaultProfile() {
+        return WorkloadProfile.builder()
+                .withTarget(WorkloadProfile.Target.valueOf(target))
+                .withReadPercentage(readPercentage)
+                .withKeySpace(keySpace)
+                .withKeyDistribution(WorkloadProfile.KeyDistribution.valueOf(keyDistribution))
+                .withValueSize(valueSize)
+                .withThreads(threads)
+                .withOperations(operations)
+                .withDuration(duration)
+                .withThinkTime(thinkTime)
+                .withInFlight(inFlight)
+                .withTargetRate(targetRate)
+                .build();
+    }
+
+    @Override
+    public void start(WorkloadProfile profile) {
+        start(profile, null);
+    }
+
+    private synchronized void start(WorkloadProfile profile, ClusterRun clusterRun) {
+        stop();
+        run = new BenchmarkRun(profile, createTarget(profile.target()), createPartitions(profile), log);
+        clusterRunId = clusterRun == null ? 0 : clusterRun.id();
+        if (clusterRun != null) {
+            BenchmarkRun benchmark = run;
+            benchmark.completion().thenAcceptAsync(status -> publishResult(clusterRun, benchmark, status), coordinator);
+        }
+        run.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (run != null) {
+            run.stop();
+        }
+    }
+
+    @Override
+    public synchronized BenchmarkStatus status() {
+        return run == null ? null : run.status();
+    }
+
+    @Override
+    public ClusterRun startCluster(WorkloadProfile profile, int delay) {
+        checkArgument(profile.operations() > 0 || profile.duration() > 0,
+                      "Coordinated run must be limited by number of operations or duration");
+        checkArgument(delay >= 0, "Start delay cannot be negative");
+        ClusterRun clusterRun = new ClusterRun(runIds.incrementAndGet(), profile,
+                                               System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(delay), false);
+        runs.put(CURRENT_RUN, clusterRun);
+        return clusterRun;
+    }
+
+    @Override
+    public void stopCluster() {
+        runs.computeIfPresent(CURRENT_RUN, (key, clusterRun) -> clusterRun.asStopped());
+    }
+
+    @Override
+    public ClusterResults clusterResults() {
+        Versioned<ClusterRun> current = runs.get(CURRENT_RUN);
+        if (current == null) {
+            return null;
+        }
+        List<NodeResult> published = results.values().stream()
+                .map(Versioned::value)
+                .collect(Collectors.toList());
+        return ClusterResults.merge(current.value(), clusterService.getNodes().size(), published);
+    }
+
+    private synchronized void clusterRunUpdated(ClusterRun clusterRun) {
+        if (scheduledRun != null) {
+            scheduledRun.cancel(false);
+            scheduledRun = null;
+        }
+        if (clusterRun.isStopped()) {
+            if (clusterRunId == clusterRun.id()) {
+                stop();
             }
-        }, delay, REPORT_PERIOD);
-
-        stopped = false;
-        IntStream.range(0, NUM_TASK_THREADS).forEach(i -> {
-            taskExecutor.submit(() -> {
-                delay(2000); // take a breath to start
-                while (!stopped) {
-                    performDBOperation();
-                    delay(2); // take a breather
-                }
-            });
-        });
-    }
-
-    private void performDBOperation() {
-        String key = String.format("test%d", RandomUtils.nextInt(1000));
+            return;
+        }
+        long delay = Math.max(0, clusterRun.startTime() - System.currentTimeMillis());
+        log.info("Cluster run {} starts in {} ms", clusterRun.id(), delay);
+        scheduledRun = coordinator.schedule(() -> start(clusterRun.profile(), clusterRun),
+                                            delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void publishResult(ClusterRun clusterRun, BenchmarkRun benchmark, BenchmarkStatus status) {
+        String nodeId = localNode.id().toString();
+        results.put(nodeId, new NodeResult(clusterRun.id(), nodeId, status, benchmark.cumulativeHistograms()));
+        log.info("Published result of cluster run {}", clusterRun.id());
+    }
+
+    private KeyPartitions createPartitions(WorkloadProfile profile) {
+        switch (profile.target()) {
+            case CONSISTENT_MAP:
+            case DISTRIBUTED_SET:
+                List<String> names = partitionService.getAllPartitionIds().stream()
+                        .sorted(Comparator.comparing(PartitionId::id))
+                        .map(PartitionId::toString)
+                        .collect(Collectors.toList());
+                return KeyPartitions.hashed(names, profile.keySpace(), SERIALIZER);
+            default:
+                // not partitioned by key
+                return KeyPartitions.single(profile.target().name().toLowerCase());
+        }
+    }
+
+    private BenchmarkTarget createTarget(WorkloadProfile.Target type) {
+        switch (type) {
+            case DISTRIBUTED_SET:
+                return new DistributedSetTarget(storageService, SET_NAME, SERIALIZER);
+            case ATOMIC_COUNTER:
+                return new AtomicCounterTarget(storageService, COUNTER_NAME);
+            case EVENTUALLY_CONSISTENT_MAP:
+                return new EventuallyConsistentMapTarget(storageService, EC_MAP_NAME);
+            case CONSISTENT_MAP:
+            default:
+                return new ConsistentMapTarget(storageService, MAP_NAME, SERIALIZER);
+        }
+    }
+
+    private int getInt(Dictionary<?, ?> properties, String name, int current) {
+        String s = get(properties, name);
         try {
-            if (RandomUtils.nextBoolean()) {
-                cmap.put(key, UUID.randomUUID().toString());
-            } else {
-                cmap.get(key);
-            }
-            successCount.incrementAndGet();
-        } catch (Exception e) {
-            failureCount.incrementAndGet();
+            return isNullOrEmpty(s) ? current : Integer.parseInt(s.trim());
+        } catch (NumberFormatException | ClassCastException e) {
+            log.info("{} Format Exception", name);
+            return current;
         }
     }
 
-    private void report() {
-        long delta = System.currentTimeMillis() - reportStartTime;
-        if (delta > 0) {
-            int rate = (int) Math.round(((successCount.get() * 1000.0) / delta));
-            log.info("Passed: {}, Failed: {}, Rate: {}",
-                    successCount.getAndSet(0), failureCount.getAndSet(0), rate);
-            reportStartTime = System.currentTimeMillis();
+    private <E extends Enum<E>> String getEnum(Dictionary<?, ?> properties, String name,
+                                               Class<E> type, String current) {
+        String s = get(properties, name);
+        try {
+            return isNullOrEmpty(s) ? current : Enum.valueOf(type, s.trim().toUpperCase()).name();
+        } catch (IllegalArgumentException e) {
+            log.info("{} Format Exception", name);
+            return current;
         }
     }
 
-    public void stop() {
-        reportTimer.cancel();
-        reportTimer = null;
-        stopped = true;
+    public void getProperties(ComponentContext context) {
+        Dictionary<?, ?> properties = context.getProperties();
+
+        target = getEnum(properties, "Target", WorkloadProfile.Target.class, target);
+        keyDistribution = getEnum(properties, "KeyDistribution",
+                WorkloadProfile.KeyDistribution.class, keyDistribution);
+
+        int i = getInt(properties, "ReadPercentage", readPercentage);
+        readPercentage = i >= 0 && i <= 100 ? i : readPercentage;
+        i = getInt(properties, "KeySpace", keySpace);
+        keySpace = i > 0 ? i : keySpace;
+        i = getInt(properties, "ValueSize", valueSize);
+        valueSize = i >= 0 ? i : valueSize;
+        i = getInt(properties, "Threads", threads);
+        threads = i > 0 ? i : threads;
+        i = getInt(properties, "Duration", duration);
+        duration = i >= 0 ? i : duration;
+        i = getInt(properties, "ThinkTime", thinkTime);
+        thinkTime = i >= 0 ? i : thinkTime;
+        i = getInt(properties, "InFlight", inFlight);
+        inFlight = i > 0 ? i : inFlight;
+        i = getInt(properties, "TargetRate", targetRate);
+        targetRate = i >= 0 ? i : targetRate;
+
+        // parse Operations Property
+        String s = get(properties, "Operations");
         try {
-            taskExecutor.awaitTermination(5, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            log.warn("Failed to stop worker.");
+            long l = isNullOrEmpty(s) ? operations : Long.parseLong(s.trim());
+            operations = l >= 0 ? l : operations;
+        } catch (NumberFormatException | ClassCastException e) {
+            log.info("Operations Format Exception");
+        }
+
+        // parse AutoStart Property
+        s = get(properties, "AutoStart");
+        autoStart = isNullOrEmpty(s) ? AUTO_START : Boolean.valueOf(s);
+    }
+
+    /**
+     * Starts and stops the coordinated runs published in the store.
+     */
+    private class ClusterRunListener implements MapEventListener<String, ClusterRun> {
+        @Override
+        public void event(MapEvent<String, ClusterRun> event) {
+            if (event.newValue() != null) {
+                ClusterRun clusterRun = event.newValue().value();
+                coordinator.execute(() -> clusterRunUpdated(clusterRun));
+            }
         }
     }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+/**
+ * Service to run database performance benchmarks.
+ */
+public interface DatabasePerfService {
+
+    /**
+     * Returns the workload profile configured through the component properties.
+     *
+     * @return default workload profile
+     */
+    WorkloadProfile defaultProfile();
+
+    /**
+     * Starts a benchmark run, stopping the run in progress if any.
+     *
+     * @param profile workload profile of the run
+     */
+    void start(WorkloadProfile profile);
+
+    /**
+     * Stops the benchmark run in progress.
+     */
+    void stop();
+
+    /**
+     * Returns progress of the current or last benchmark run.
+     *
+     * @return benchmark status, null if no benchmark was run
+     */
+    BenchmarkStatus status();
+
+    /**
+     * Starts a benchmark run on all cluster nodes. The run is published in
+     * the distributed store and each node starts it at the same wall clock
+     * time, then publishes its result when the run ends.
+     *
+     * @param profile workload profile run by each node, limited by number
+     *                of operations or duration
+     * @param delay seconds until the nodes start the run
+     * @return coordinated run
+     */
+    ClusterRun startCluster(WorkloadProfile profile, int delay);
+
+    /**
+     * Stops the coordinated benchmark run on all cluster nodes.
+     */
+    void stopCluster();
+
+    /**
+     * Returns results of the last coordinated run merged over the nodes
+     * that have published them.
+     *
+     * @return merged results, null if no coordinated run was started
+     */
+    ClusterResults clusterResults();
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.onosproject.store.service.AsyncDistributedSet;
+import org.onosproject.store.service.Serializer;
+import org.onosproject.store.service.StorageService;
+
+/**
+ * Benchmark of the distributed set.
+ * Reads test membership of the key; writes add the key, or remove it when
+ * the first value byte is odd, so that the set does not only grow.
+ */
+public class DistributedSetTarget implements BenchmarkTarget {
+
+    private final AsyncDistributedSet<String> set;
+
+    /**
+     * Creates the benchmark target.
+     *
+     * @param storageService storage service
+     * @param name name of the set
+     * @param serializer serializer of the elements
+     */
+    public DistributedSetTarget(StorageService storageService, String name, Serializer serializer) {
+        set = storageService.<String>setBuilder()
+                .withName(name)
+                .withSerializer(serializer)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<?> read(int key) {
+        return set.contains(BenchmarkTarget.key(key));
+    }
+
+    @Override
+    public CompletableFuture<?> write(int key, byte[] value) {
+        if (value.length > 0 && (value[0] & 1) == 1) {
+            return set.remove(BenchmarkTarget.key(key));
+        }
+        return set.add(BenchmarkTarget.key(key));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.onlab.util.KryoNamespace;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.EventuallyConsistentMap;
+import org.onosproject.store.service.StorageService;
+import org.onosproject.store.service.WallClockTimestamp;
+
+/**
+ * Benchmark of the eventually consistent map.
+ * Operations are applied locally and replicated in the background, so they
+ * complete immediately.
+ */
+public class EventuallyConsistentMapTarget implements BenchmarkTarget {
+
+    private final EventuallyConsistentMap<String, byte[]> map;
+
+    /**
+     * Creates the benchmark target.
+     *
+     * @param storageService storage service
+     * @param name name of the map
+     */
+    public EventuallyConsistentMapTarget(StorageService storageService, String name) {
+        map = storageService.<String, byte[]>eventuallyConsistentMapBuilder()
+                .withName(name)
+                .withSerializer(KryoNamespace.newBuilder().register(KryoNamespaces.BASIC))
+                .withTimestampProvider((k, v) -> new WallClockTimestamp())
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<?> read(int key) {
+        return CompletableFuture.completedFuture(map.get(BenchmarkTarget.key(key)));
+    }
+
+    @Override
+    public CompletableFuture<?> write(int key, byte[] value) {
+        map.put(BenchmarkTarget.key(key), value);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void close() {
+        map.destroy();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import java.util.Random;
+
+/**
+ * Generator of the benchmark keys.
+ * Implementations are thread safe, the randomness is supplied by the caller.
+ */
+public interface KeyGenerator {
+
+    /**
+     * Returns next key index.
+     *
+     * @param random random number generator of the calling thread
+     * @return key index between 0 and key space size - 1
+     */
+    int next(Random random);
+
+    /**
+     * Returns key generator for the workload profile.
+     *
+     * @param profile workload profile
+     * @return key generator
+     */
+    static KeyGenerator of(WorkloadProfile profile) {
+        switch (profile.keyDistribution()) {
+            case ZIPFIAN:
+                return new ZipfianKeyGenerator(profile.keySpace());
+            case UNIFORM:
+            default:
+                return new UniformKeyGenerator(profile.keySpace());
+        }
+    }
+}
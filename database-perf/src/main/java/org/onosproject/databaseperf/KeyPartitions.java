@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+
+import org.onosproject.store.service.Serializer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+
+/**
+ * Mapping of the benchmark keys to the database partitions storing them.
+ * Keys are mapped the way the partitioned primitives hash them: SHA-256 of
+ * the serialized key, modulo the number of partitions in the order of
+ * their identifiers. The mapping is computed once per run, so counting an
+ * operation per partition is an array lookup.
+ */
+public final class KeyPartitions {
+
+    private final List<String> names;
+    private final int[] partitionOfKey;
+
+    private KeyPartitions(List<String> names, int[] partitionOfKey) {
+        this.names = names;
+        this.partitionOfKey = partitionOfKey;
+    }
+
+    /**
+     * Returns mapping of all keys to a single partition, for primitives that
+     * are not partitioned by key.
+     *
+     * @param name name of the partition
+     * @return key partitions
+     */
+    public static KeyPartitions single(String name) {
+        return new KeyPartitions(ImmutableList.of(name), null);
+    }
+
+    /**
+     * Returns mapping of the keys to the partitions of a partitioned primitive.
+     *
+     * @param names names of the partitions ordered by partition identifier
+     * @param keySpace number of keys
+     * @param serializer serializer of the keys used by the primitive
+     * @return key partitions
+     */
+    public static KeyPartitions hashed(List<String> names, int keySpace, Serializer serializer) {
+        checkArgument(!names.isEmpty(), "Partitions cannot be empty");
+        if (names.size() == 1) {
+            return single(names.get(0));
+        }
+        int[] partitionOfKey = new int[keySpace];
+        for (int key = 0; key < keySpace; key++) {
+            int hashCode = Hashing.sha256().hashBytes(serializer.encode(BenchmarkTarget.key(key))).asInt();
+            partitionOfKey[key] = Math.abs(hashCode % names.size());
+        }
+        return new KeyPartitions(ImmutableList.copyOf(names), partitionOfKey);
+    }
+
+    /**
+     * Returns names of the partitions.
+     *
+     * @return partition names
+     */
+    public List<String> names() {
+        return names;
+    }
+
+    /**
+     * Returns index of the partition storing the key.
+     *
+     * @param key benchmark key
+     * @return index of the partition in {@link #names()}
+     */
+    public int partition(int key) {
+        return partitionOfKey == null ? 0 : partitionOfKey[key];
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import java.util.Map;
+
+/**
+ * CSV format of the benchmark latencies, one row per report scope and
+ * operation type, so that results of different releases can be diffed.
+ * Latencies are in nanoseconds.
+ */
+public final class LatencyCsv {
+
+    /**
+     * Header row of the CSV output.
+     */
+    public static final String HEADER = "elapsed_ms,scope,operation,count,mean_ns,p50_ns,p90_ns,p99_ns,p999_ns,max_ns";
+
+    private static final String ROW = "%d,%s,%s,%d,%.0f,%d,%d,%d,%d,%d%n";
+
+    private LatencyCsv() {
+    }
+
+    /**
+     * Formats latencies of the benchmark status as CSV rows.
+     *
+     * @param status benchmark status
+     * @param header whether to start with the header row
+     * @return CSV rows, each terminated by a line separator
+     */
+    public static String format(BenchmarkStatus status, boolean header) {
+        StringBuilder sb = new StringBuilder();
+        if (header) {
+            sb.append(HEADER).append(System.lineSeparator());
+        }
+        append(sb, status.elapsed(), "interval", status.intervalLatency());
+        append(sb, status.elapsed(), "cumulative", status.cumulativeLatency());
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, long elapsed, String scope,
+                               Map<OperationType, LatencySummary> latency) {
+        latency.forEach((type, s) -> sb.append(String.format(ROW, elapsed, scope, type.name().toLowerCase(),
+                s.count(), s.mean(), s.p50(), s.p90(), s.p99(), s.p999(), s.max())));
+    }
+}
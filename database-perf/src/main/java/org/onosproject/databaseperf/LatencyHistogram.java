@@ -0,0 +1,222 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Log-linear histogram of operation latencies in nanoseconds.
+ * Values below 128 are counted exactly; larger values are counted in
+ * buckets whose width doubles every 64 buckets, so the recorded value is
+ * known with precision better than 1.6% over the whole range of long.
+ * Recording is an array increment without allocation. The histogram is not
+ * thread-safe; see {@link LatencyRecorder}.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+    static final int BUCKETS = (64 - SUB_BUCKET_BITS) * HALF_COUNT + SUB_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    /**
+     * Records one latency value.
+     *
+     * @param value latency in nanoseconds, negative values are counted as 0
+     */
+    public void record(long value) {
+        long v = Math.max(value, 0);
+        counts[index(v)]++;
+        count++;
+        sum += v;
+        if (v > max) {
+            max = v;
+        }
+    }
+
+    /**
+     * Adds all values recorded by another histogram to this one.
+     *
+     * @param other histogram to add
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Adds values counted in one bucket outside of the histogram.
+     *
+     * @param index bucket index
+     * @param bucketCount number of values in the bucket
+     */
+    void addBucket(int index, long bucketCount) {
+        counts[index] += bucketCount;
+        count += bucketCount;
+    }
+
+    /**
+     * Adds sum and maximum of values counted outside of the histogram.
+     *
+     * @param valueSum sum of the values
+     * @param valueMax maximum of the values
+     */
+    void addTotals(long valueSum, long valueMax) {
+        sum += valueSum;
+        max = Math.max(max, valueMax);
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    /**
+     * Returns number of recorded values.
+     *
+     * @return number of recorded values
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return maximum latency in nanoseconds
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Returns mean of the recorded values.
+     *
+     * @return mean latency in nanoseconds, 0 if nothing was recorded
+     */
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the value below or at which the given percentage of the
+     * recorded values are, reported as the upper bound of its bucket.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return latency in nanoseconds, 0 if nothing was recorded
+     */
+    public long valueAtPercentile(double percentile) {
+        checkArgument(percentile >= 0 && percentile <= 100, "Percentile must be 0-100");
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns summary of the recorded values.
+     *
+     * @return latency summary
+     */
+    public LatencySummary summary() {
+        return new LatencySummary(count, mean(), valueAtPercentile(50), valueAtPercentile(90),
+                valueAtPercentile(99), valueAtPercentile(99.9), max);
+    }
+
+    /**
+     * Encodes the histogram, listing only the non-empty buckets, so that it
+     * can be published to other cluster nodes.
+     *
+     * @return encoded histogram
+     */
+    public byte[] toBytes() {
+        int used = 0;
+        for (long c : counts) {
+            used += c == 0 ? 0 : 1;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(3 * Long.BYTES + Integer.BYTES
+                + used * (Short.BYTES + Long.BYTES));
+        buffer.putLong(count).putLong(sum).putLong(max).putInt(used);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                buffer.putShort((short) i).putLong(counts[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes histogram encoded by {@link #toBytes()}.
+     *
+     * @param bytes encoded histogram
+     * @return decoded histogram
+     */
+    public static LatencyHistogram fromBytes(byte[] bytes) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        histogram.count = buffer.getLong();
+        histogram.sum = buffer.getLong();
+        histogram.max = buffer.getLong();
+        int used = buffer.getInt();
+        for (int i = 0; i < used; i++) {
+            histogram.counts[buffer.getShort()] = buffer.getLong();
+        }
+        return histogram;
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * HALF_COUNT + (int) (value >>> shift);
+    }
+
+    static long highestValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / HALF_COUNT - 1;
+        long subBucket = index % HALF_COUNT + HALF_COUNT;
+        long upper = ((subBucket + 1) << shift) - 1;
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
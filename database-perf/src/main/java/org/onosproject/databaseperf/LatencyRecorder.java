@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency recorder of one benchmark worker.
+ * Latencies are recorded from the completion threads of the worker's
+ * asynchronous operations without a lock: the buckets are atomic counters
+ * of the same layout as {@link LatencyHistogram}, which the reporter moves
+ * into plain histograms at the end of each interval. A value recorded while
+ * the reporter drains may have its bucket and its sum counted in adjacent
+ * intervals.
+ */
+public final class LatencyRecorder {
+
+    private static final OperationType[] TYPES = OperationType.values();
+
+    private final AtomicLongArray[] counts = new AtomicLongArray[TYPES.length];
+    private final LongAdder[] sums = new LongAdder[TYPES.length];
+    private final AtomicLong[] maxima = new AtomicLong[TYPES.length];
+
+    /**
+     * Creates the recorder.
+     */
+    public LatencyRecorder() {
+        for (int i = 0; i < TYPES.length; i++) {
+            counts[i] = new AtomicLongArray(LatencyHistogram.BUCKETS);
+            sums[i] = new LongAdder();
+            maxima[i] = new AtomicLong();
+        }
+    }
+
+    /**
+     * Records latency of one operation.
+     *
+     * @param type operation type
+     * @param latency latency in nanoseconds, negative values are counted as 0
+     */
+    public void record(OperationType type, long latency) {
+        long v = Math.max(latency, 0);
+        int t = type.ordinal();
+        counts[t].incrementAndGet(LatencyHistogram.index(v));
+        sums[t].add(v);
+        AtomicLong max = maxima[t];
+        if (v > max.get()) {
+            max.accumulateAndGet(v, Math::max);
+        }
+    }
+
+    /**
+     * Adds the latencies recorded since the previous call to the given
+     * histograms, indexed by operation type ordinal, and starts a new interval.
+     *
+     * @param interval histograms to add the recorded latencies to
+     */
+    public void drainTo(LatencyHistogram[] interval) {
+        for (int t = 0; t < TYPES.length; t++) {
+            AtomicLongArray buckets = counts[t];
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                long c = buckets.get(i);
+                if (c != 0) {
+                    // values recorded meanwhile stay for the next interval
+                    buckets.addAndGet(i, -c);
+                    interval[t].addBucket(i, c);
+                }
+            }
+            interval[t].addTotals(sums[t].sumThenReset(), maxima[t].getAndSet(0));
+        }
+    }
+
+    /**
+     * Returns new histograms, one per operation type, indexed by its ordinal.
+     *
+     * @return array of empty histograms
+     */
+    public static LatencyHistogram[] histograms() {
+        LatencyHistogram[] histograms = new LatencyHistogram[TYPES.length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Percentiles of the operation latencies recorded over a period.
+ * All latencies are in nanoseconds.
+ */
+public final class LatencySummary {
+
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    /**
+     * Creates latency summary.
+     *
+     * @param count number of recorded operations
+     * @param mean mean latency
+     * @param p50 median latency
+     * @param p90 90th percentile latency
+     * @param p99 99th percentile latency
+     * @param p999 99.9th percentile latency
+     * @param max maximum latency
+     */
+    public LatencySummary(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double mean() {
+        return mean;
+    }
+
+    public long p50() {
+        return p50;
+    }
+
+    public long p90() {
+        return p90;
+    }
+
+    public long p99() {
+        return p99;
+    }
+
+    public long p999() {
+        return p999;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("count", count)
+                .add("mean", mean)
+                .add("p50", p50)
+                .add("p90", p90)
+                .add("p99", p99)
+                .add("p999", p999)
+                .add("max", max)
+                .toString();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Result of a coordinated benchmark run on one cluster node, published in
+ * the distributed store. Latency histograms are kept encoded, so that the
+ * percentiles of the whole cluster can be computed from them.
+ */
+public final class NodeResult {
+
+    private final long runId;
+    private final String nodeId;
+    private final long elapsed;
+    private final long reads;
+    private final long writes;
+    private final long failures;
+    private final HashMap<OperationType, byte[]> latency;
+    private final HashMap<String, Long> partitionOperations;
+
+    /**
+     * Creates node result of the coordinated run.
+     *
+     * @param runId identifier of the coordinated run
+     * @param nodeId identifier of the node
+     * @param status final status of the run on the node
+     * @param histograms latency histograms indexed by operation type ordinal
+     */
+    public NodeResult(long runId, String nodeId, BenchmarkStatus status, LatencyHistogram[] histograms) {
+        this.runId = runId;
+        this.nodeId = nodeId;
+        this.elapsed = status.elapsed();
+        this.reads = status.reads();
+        this.writes = status.writes();
+        this.failures = status.failures();
+        this.latency = new HashMap<>();
+        for (OperationType type : OperationType.values()) {
+            latency.put(type, histograms[type.ordinal()].toBytes());
+        }
+        this.partitionOperations = new HashMap<>(status.partitionOperations());
+    }
+
+    public long runId() {
+        return runId;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public long elapsed() {
+        return elapsed;
+    }
+
+    public long reads() {
+        return reads;
+    }
+
+    public long writes() {
+        return writes;
+    }
+
+    public long failures() {
+        return failures;
+    }
+
+    /**
+     * Returns successful operations per second of the node.
+     *
+     * @return throughput in operations per second
+     */
+    public double throughput() {
+        return elapsed > 0 ? (reads + writes) * 1000.0 / elapsed : 0;
+    }
+
+    /**
+     * Returns decoded latency histogram of the operation type.
+     *
+     * @param type operation type
+     * @return latency histogram
+     */
+    public LatencyHistogram latency(OperationType type) {
+        byte[] bytes = latency.get(type);
+        return bytes == null ? new LatencyHistogram() : LatencyHistogram.fromBytes(bytes);
+    }
+
+    /**
+     * Returns latency summaries of the node by operation type.
+     *
+     * @return latency summaries
+     */
+    public Map<OperationType, LatencySummary> latencySummaries() {
+        Map<OperationType, LatencySummary> summaries = new EnumMap<>(OperationType.class);
+        for (OperationType type : OperationType.values()) {
+            summaries.put(type, latency(type).summary());
+        }
+        return summaries;
+    }
+
+    /**
+     * Returns number of successful operations by database partition.
+     *
+     * @return operations by partition name
+     */
+    public Map<String, Long> partitionOperations() {
+        return partitionOperations;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("runId", runId)
+                .add("nodeId", nodeId)
+                .add("elapsed", elapsed)
+                .add("reads", reads)
+                .add("writes", writes)
+                .add("failures", failures)
+                .toString();
+    }
+}
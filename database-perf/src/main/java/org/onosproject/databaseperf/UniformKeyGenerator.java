@@ -0,0 +1,40 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import java.util.Random;
+
+/**
+ * Generator of uniformly distributed keys.
+ */
+public final class UniformKeyGenerator implements KeyGenerator {
+
+    private final int keySpace;
+
+    /**
+     * Creates the generator.
+     *
+     * @param keySpace number of distinct keys
+     */
+    public UniformKeyGenerator(int keySpace) {
+        this.keySpace = keySpace;
+    }
+
+    @Override
+    public int next(Random random) {
+        return random.nextInt(keySpace);
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Workload of one database benchmark run.
+ */
+public final class WorkloadProfile {
+
+    /**
+     * Distributed primitive exercised by the benchmark.
+     */
+    public enum Target {
+        /**
+         * Partitioned consistent map, accessed through its asynchronous API.
+         */
+        CONSISTENT_MAP,
+
+        /**
+         * Distributed set.
+         */
+        DISTRIBUTED_SET,
+
+        /**
+         * Atomic counter; reads get the value, writes increment it.
+         */
+        ATOMIC_COUNTER,
+
+        /**
+         * Eventually consistent map.
+         */
+        EVENTUALLY_CONSISTENT_MAP
+    }
+
+    /**
+     * Distribution of the keys accessed by the benchmark.
+     */
+    public enum KeyDistribution {
+        /**
+         * All keys are accessed with the same probability.
+         */
+        UNIFORM,
+
+        /**
+         * Few hot keys are accessed most of the time.
+         */
+        ZIPFIAN
+    }
+
+    private final Target target;
+    private final int readPercentage;
+    private final int keySpace;
+    private final KeyDistribution keyDistribution;
+    private final int valueSize;
+    private final int threads;
+    private final long operations;
+    private final int duration;
+    private final int thinkTime;
+    private final int inFlight;
+    private final int targetRate;
+
+    private WorkloadProfile(Builder builder) {
+        this.target = builder.target;
+        this.readPercentage = builder.readPercentage;
+        this.keySpace = builder.keySpace;
+        this.keyDistribution = builder.keyDistribution;
+        this.valueSize = builder.valueSize;
+        this.threads = builder.threads;
+        this.operations = builder.operations;
+        this.duration = builder.duration;
+        this.thinkTime = builder.thinkTime;
+        this.inFlight = builder.inFlight;
+        this.targetRate = builder.targetRate;
+    }
+
+    /**
+     * Returns distributed primitive exercised by the benchmark.
+     *
+     * @return benchmark target
+     */
+    public Target target() {
+        return target;
+    }
+
+    /**
+     * Returns percentage of read operations, the rest are writes.
+     *
+     * @return read percentage
+     */
+    public int readPercentage() {
+        return readPercentage;
+    }
+
+    /**
+     * Returns number of distinct keys.
+     *
+     * @return key space size
+     */
+    public int keySpace() {
+        return keySpace;
+    }
+
+    /**
+     * Returns distribution of the accessed keys.
+     *
+     * @return key distribution
+     */
+    public KeyDistribution keyDistribution() {
+        return keyDistribution;
+    }
+
+    /**
+     * Returns size of the written values in bytes.
+     *
+     * @return value size
+     */
+    public int valueSize() {
+        return valueSize;
+    }
+
+    /**
+     * Returns number of worker threads.
+     *
+     * @return number of threads
+     */
+    public int threads() {
+        return threads;
+    }
+
+    /**
+     * Returns number of operations after which the run ends, 0 for no limit.
+     *
+     * @return number of operations
+     */
+    public long operations() {
+        return operations;
+    }
+
+    /**
+     * Returns duration in seconds after which the run ends, 0 for no limit.
+     *
+     * @return run duration
+     */
+    public int duration() {
+        return duration;
+    }
+
+    /**
+     * Returns pause of each worker thread between operations in milliseconds.
+     * Not used when a target rate is set.
+     *
+     * @return think time
+     */
+    public int thinkTime() {
+        return thinkTime;
+    }
+
+    /**
+     * Returns maximum number of asynchronous operations each worker thread
+     * keeps in flight. With 1 the worker waits for each operation to
+     * complete before issuing the next one.
+     *
+     * @return operations in flight per thread
+     */
+    public int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Returns rate in operations per second at which all worker threads
+     * together issue operations, 0 to issue them as fast as possible.
+     *
+     * @return target rate
+     */
+    public int targetRate() {
+        return targetRate;
+    }
+
+    /**
+     * Returns new builder initialized with this profile.
+     *
+     * @return workload profile builder
+     */
+    public Builder toBuilder() {
+        return new Builder()
+                .withTarget(target)
+                .withReadPercentage(readPercentage)
+                .withKeySpace(keySpace)
+                .withKeyDistribution(keyDistribution)
+                .withValueSize(valueSize)
+                .withThreads(threads)
+                .withOperations(operations)
+                .withDuration(duration)
+                .withThinkTime(thinkTime)
+                .withInFlight(inFlight)
+                .withTargetRate(targetRate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(target, readPercentage, keySpace, keyDistribution, valueSize,
+                threads, operations, duration, thinkTime, inFlight, targetRate);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof WorkloadProfile)) {
+            return false;
+        }
+        WorkloadProfile that = (WorkloadProfile) obj;
+        return target == that.target &&
+                readPercentage == that.readPercentage &&
+                keySpace == that.keySpace &&
+                keyDistribution == that.keyDistribution &&
+                valueSize == that.valueSize &&
+                threads == that.threads &&
+                operations == that.operations &&
+                duration == that.duration &&
+                thinkTime == that.thinkTime &&
+                inFlight == that.inFlight &&
+                targetRate == that.targetRate;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("target", target)
+                .add("readPercentage", readPercentage)
+                .add("keySpace", keySpace)
+                .add("keyDistribution", keyDistribution)
+                .add("valueSize", valueSize)
+                .add("threads", threads)
+                .add("operations", operations)
+                .add("duration", duration)
+                .add("thinkTime", thinkTime)
+                .add("inFlight", inFlight)
+                .add("targetRate", targetRate)
+                .toString();
+    }
+
+    /**
+     * Returns new workload profile builder.
+     *
+     * @return workload profile builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder of the workload profile.
+     */
+    public static final class Builder {
+        private Target target = Target.CONSISTENT_MAP;
+        private int readPercentage = 50;
+        private int keySpace = 1000;
+        private KeyDistribution keyDistribution = KeyDistribution.UNIFORM;
+        private int valueSize = 36;
+        private int threads = 2;
+        private long operations = 0;
+        private int duration = 0;
+        private int thinkTime = 0;
+        private int inFlight = 1;
+        private int targetRate = 0;
+
+        private Builder() {
+        }
+
+        public Builder withTarget(Target target) {
+            this.target = target;
+            return this;
+        }
+
+        public Builder withReadPercentage(int readPercentage) {
+            this.readPercentage = readPercentage;
+            return this;
+        }
+
+        public Builder withKeySpace(int keySpace) {
+            this.keySpace = keySpace;
+            return this;
+        }
+
+        public Builder withKeyDistribution(KeyDistribution keyDistribution) {
+            this.keyDistribution = keyDistribution;
+            return this;
+        }
+
+        public Builder withValueSize(int valueSize) {
+            this.valueSize = valueSize;
+            return this;
+        }
+
+        public Builder withThreads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder withOperations(long operations) {
+            this.operations = operations;
+            return this;
+        }
+
+        public Builder withDuration(int duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        public Builder withThinkTime(int thinkTime) {
+            this.thinkTime = thinkTime;
+            return this;
+        }
+
+        public Builder withInFlight(int inFlight) {
+            this.inFlight = inFlight;
+            return this;
+        }
+
+        public Builder withTargetRate(int targetRate) {
+            this.targetRate = targetRate;
+            return this;
+        }
+
+        /**
+         * Builds the workload profile.
+         *
+         * @return workload profile
+         * @throws IllegalArgumentException if the profile is not valid
+         */
+        public WorkloadProfile build() {
+            checkNotNull(target, "Target cannot be null");
+            checkNotNull(keyDistribution, "Key distribution cannot be null");
+            checkArgument(readPercentage >= 0 && readPercentage <= 100, "Read percentage must be 0-100");
+            checkArgument(keySpace > 0, "Key space must be positive");
+            checkArgument(valueSize >= 0, "Value size cannot be negative");
+            checkArgument(threads > 0, "Number of threads must be positive");
+            checkArgument(operations >= 0, "Number of operations cannot be negative");
+            checkArgument(duration >= 0, "Duration cannot be negative");
+            checkArgument(thinkTime >= 0, "Think time cannot be negative");
+            checkArgument(inFlight > 0, "Number of operations in flight must be positive");
+            checkArgument(targetRate >= 0, "Target rate cannot be negative");
+            return new WorkloadProfile(this);
+        }
+    }
+}
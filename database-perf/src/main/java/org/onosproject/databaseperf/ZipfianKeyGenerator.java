@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import java.util.Random;
+
+/**
+ * Generator of Zipf distributed keys.
+ * Uses the algorithm of Gray et al. "Quickly Generating Billion-Record
+ * Synthetic Databases", as popularized by YCSB. Popularity ranks are
+ * scrambled by a hash, so that the hot keys are spread over the key space
+ * and therefore over the database partitions.
+ */
+public final class ZipfianKeyGenerator implements KeyGenerator {
+
+    /**
+     * Default skew of the distribution.
+     */
+    public static final double DEFAULT_THETA = 0.99;
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 1099511628211L;
+
+    private final int keySpace;
+    private final double theta;
+    private final double alpha;
+    private final double zetan;
+    private final double eta;
+    private final double halfPowTheta;
+
+    /**
+     * Creates the generator with the default skew.
+     *
+     * @param keySpace number of distinct keys
+     */
+    public ZipfianKeyGenerator(int keySpace) {
+        this(keySpace, DEFAULT_THETA);
+    }
+
+    /**
+     * Creates the generator.
+     *
+     * @param keySpace number of distinct keys
+     * @param theta skew of the distribution, between 0 and 1 exclusive
+     */
+    public ZipfianKeyGenerator(int keySpace, double theta) {
+        this.keySpace = keySpace;
+        this.theta = theta;
+        this.alpha = 1.0 / (1.0 - theta);
+        this.zetan = zeta(keySpace, theta);
+        double zeta2 = zeta(2, theta);
+        this.eta = (1 - Math.pow(2.0 / keySpace, 1 - theta)) / (1 - zeta2 / zetan);
+        this.halfPowTheta = 1 + Math.pow(0.5, theta);
+    }
+
+    private static double zeta(int n, double theta) {
+        double sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+
+    @Override
+    public int next(Random random) {
+        double u = random.nextDouble();
+        double uz = u * zetan;
+        long rank;
+        if (uz < 1.0) {
+            rank = 0;
+        } else if (uz < halfPowTheta) {
+            rank = 1;
+        } else {
+            rank = Math.min(keySpace - 1, (long) (keySpace * Math.pow(eta * u - eta + 1, alpha)));
+        }
+        return (int) Long.remainderUnsigned(fnvHash(rank), keySpace);
+    }
+
+    private static long fnvHash(long value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash ^= (value >>> (8 * i)) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "ZipfianKeyGenerator{keySpace=" + keySpace + ", theta=" + theta + "}";
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf.cli;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.karaf.shell.commands.Command;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.databaseperf.ClusterResults;
+import org.onosproject.databaseperf.ClusterResultsCodec;
+import org.onosproject.databaseperf.DatabasePerfService;
+import org.onosproject.databaseperf.LatencySummary;
+import org.onosproject.databaseperf.NodeResult;
+import org.onosproject.databaseperf.OperationType;
+
+/**
+ * CLI to show the results of the coordinated benchmark run merged over the
+ * cluster nodes.
+ */
+@Command(scope = "onos", name = "dbperf-cluster-results",
+        description = "Shows results of the coordinated database benchmark run merged over the cluster")
+public class DatabasePerfClusterResultsCommand extends AbstractShellCommand {
+
+    private static final String RUN_FORMAT = "run=%d, stopped=%s, reported=%d/%d nodes%n%s";
+    private static final String TOTAL_FORMAT = "total: reads=%d, writes=%d, failures=%d, throughput=%.1f ops/s%s";
+    private static final String NODE_FORMAT = "node %s: elapsed=%dms, reads=%d, writes=%d, failures=%d, "
+            + "throughput=%.1f ops/s%s";
+    private static final String LATENCY_FORMAT = ", %s p50/p99/p99.9/max=%.3f/%.3f/%.3f/%.3f ms";
+    private static final String PARTITION_FORMAT = "partition %s: operations=%d";
+
+    @Override
+    protected void execute() {
+        ClusterResults results = get(DatabasePerfService.class).clusterResults();
+        if (results == null) {
+            print("No cluster benchmark was run");
+            return;
+        }
+        if (outputJson()) {
+            print("%s", new ClusterResultsCodec().encode(results, this));
+            return;
+        }
+        print(RUN_FORMAT, results.run().id(), results.run().isStopped(), results.nodes().size(),
+              results.nodeCount(), results.run().profile());
+        print(TOTAL_FORMAT, results.reads(), results.writes(), results.failures(), results.throughput(),
+              latency(results.latency()));
+        for (NodeResult node : results.nodes()) {
+            print(NODE_FORMAT, node.nodeId(), node.elapsed(), node.reads(), node.writes(), node.failures(),
+                  node.throughput(), latency(node.latencySummaries()));
+        }
+        results.partitionOperations().forEach((partition, operations) ->
+                print(PARTITION_FORMAT, partition, operations));
+    }
+
+    private static String latency(Map<OperationType, LatencySummary> latency) {
+        StringBuilder sb = new StringBuilder();
+        latency.forEach((type, s) -> sb.append(String.format(LATENCY_FORMAT, type.name().toLowerCase(),
+                millis(s.p50()), millis(s.p99()), millis(s.p999()), millis(s.max()))));
+        return sb.toString();
+    }
+
+    private static double millis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
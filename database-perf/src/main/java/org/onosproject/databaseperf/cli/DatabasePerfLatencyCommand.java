@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf.cli;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.karaf.shell.commands.Command;
+import org.apache.karaf.shell.commands.Option;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.databaseperf.BenchmarkStatus;
+import org.onosproject.databaseperf.BenchmarkStatusCodec;
+import org.onosproject.databaseperf.DatabasePerfService;
+import org.onosproject.databaseperf.LatencyCsv;
+import org.onosproject.databaseperf.LatencySummary;
+import org.onosproject.databaseperf.OperationType;
+
+/**
+ * CLI to show latency percentiles of the database benchmark run.
+ */
+@Command(scope = "onos", name = "dbperf-latency",
+        description = "Shows latency percentiles of the database benchmark run")
+public class DatabasePerfLatencyCommand extends AbstractShellCommand {
+
+    private static final String HEADER = "%-10s %-5s %10s %10s %10s %10s %10s %10s %10s";
+    private static final String FORMAT = "%-10s %-5s %10d %10.3f %10.3f %10.3f %10.3f %10.3f %10.3f";
+
+    @Option(name = "-c", aliases = "--csv", description = "Output in CSV format")
+    private boolean csv = false;
+
+    @Option(name = "-n", aliases = "--no-header", description = "Omit the CSV header row")
+    private boolean noHeader = false;
+
+    @Override
+    protected void execute() {
+        BenchmarkStatus status = get(DatabasePerfService.class).status();
+        if (status == null) {
+            print("No benchmark was run");
+            return;
+        }
+        if (outputJson()) {
+            print("%s", new BenchmarkStatusCodec().encode(status, this));
+        } else if (csv) {
+            print("%s", LatencyCsv.format(status, !noHeader).trim());
+        } else {
+            print(HEADER, "scope", "op", "count", "mean(ms)", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+            status.intervalLatency().forEach((type, summary) -> printSummary("interval", type, summary));
+            status.cumulativeLatency().forEach((type, summary) -> printSummary("cumulative", type, summary));
+        }
+    }
+
+    private void printSummary(String scope, OperationType type, LatencySummary s) {
+        print(FORMAT, scope, type.name().toLowerCase(), s.count(), millis(s.mean()), millis(s.p50()),
+                millis(s.p90()), millis(s.p99()), millis(s.p999()), millis(s.max()));
+    }
+
+    private static double millis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
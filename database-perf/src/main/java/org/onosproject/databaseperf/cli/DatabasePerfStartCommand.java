@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf.cli;
+
+import org.apache.karaf.shell.commands.Command;
+import org.apache.karaf.shell.commands.Option;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.databaseperf.ClusterRun;
+import org.onosproject.databaseperf.DatabasePerfService;
+import org.onosproject.databaseperf.WorkloadProfile;
+
+/**
+ * CLI to start a database benchmark run.
+ * Options override the workload profile configured through the component
+ * properties. With --cluster, the run is started on all cluster nodes.
+ */
+@Command(scope = "onos", name = "dbperf-start",
+        description = "Starts a database benchmark run")
+public class DatabasePerfStartCommand extends AbstractShellCommand {
+
+    @Option(name = "-t", aliases = "--target",
+            description = "CONSISTENT_MAP, DISTRIBUTED_SET, ATOMIC_COUNTER or EVENTUALLY_CONSISTENT_MAP")
+    private String target = null;
+
+    @Option(name = "-r", aliases = "--reads", description = "Percentage of the operations that are reads")
+    private Integer readPercentage = null;
+
+    @Option(name = "-k", aliases = "--keys", description = "Number of distinct keys")
+    private Integer keySpace = null;
+
+    @Option(name = "-d", aliases = "--distribution", description = "Key distribution: UNIFORM or ZIPFIAN")
+    private String keyDistribution = null;
+
+    @Option(name = "-v", aliases = "--value-size", description = "Size of the written values in bytes")
+    private Integer valueSize = null;
+
+    @Option(name = "-n", aliases = "--threads", description = "Number of worker threads")
+    private Integer threads = null;
+
+    @Option(name = "-o", aliases = "--operations", description = "Total number of operations, 0 for unlimited")
+    private Long operations = null;
+
+    @Option(name = "-s", aliases = "--duration", description = "Duration in seconds, 0 for unlimited")
+    private Integer duration = null;
+
+    @Option(name = "-w", aliases = "--think-time",
+            description = "Delay between the operations of a worker in milliseconds")
+    private Integer thinkTime = null;
+
+    @Option(name = "-p", aliases = "--in-flight",
+            description = "Number of asynchronous operations each worker keeps in flight")
+    private Integer inFlight = null;
+
+    @Option(name = "-R", aliases = "--rate",
+            description = "Operations per second issued by all workers, 0 for as fast as possible")
+    private Integer targetRate = null;
+
+    @Option(name = "-c", aliases = "--cluster",
+            description = "Start the run on all cluster nodes at the same time")
+    private boolean cluster = false;
+
+    @Option(name = "-D", aliases = "--delay",
+            description = "Seconds until the cluster nodes start the run")
+    private int delay = 5;
+
+    @Override
+    protected void execute() {
+        DatabasePerfService service = get(DatabasePerfService.class);
+        WorkloadProfile.Builder builder = service.defaultProfile().toBuilder();
+        try {
+            if (target != null) {
+                builder.withTarget(WorkloadProfile.Target.valueOf(target.toUpperCase()));
+            }
+            if (readPercentage != null) {
+                builder.withReadPercentage(readPercentage);
+            }
+            if (keySpace != null) {
+                builder.withKeySpace(keySpace);
+            }
+            if (keyDistribution != null) {
+                builder.withKeyDistribution(WorkloadProfile.KeyDistribution.valueOf(keyDistribution.toUpperCase()));
+            }
+            if (valueSize != null) {
+                builder.withValueSize(valueSize);
+            }
+            if (threads != null) {
+                builder.withThreads(threads);
+            }
+            if (operations != null) {
+                builder.withOperations(operations);
+            }
+            if (duration != null) {
+                builder.withDuration(duration);
+            }
+            if (thinkTime != null) {
+                builder.withThinkTime(thinkTime);
+            }
+            if (inFlight != null) {
+                builder.withInFlight(inFlight);
+            }
+            if (targetRate != null) {
+                builder.withTargetRate(targetRate);
+            }
+            WorkloadProfile profile = builder.build();
+            if (cluster) {
+                ClusterRun run = service.startCluster(profile, delay);
+                print("Cluster run %d starts in %d seconds: %s", run.id(), delay, profile);
+            } else {
+                service.start(profile);
+                print("Started %s", profile);
+            }
+        } catch (IllegalArgumentException e) {
+            error("Invalid workload profile: %s", e.getMessage());
+        }
+    }
+}
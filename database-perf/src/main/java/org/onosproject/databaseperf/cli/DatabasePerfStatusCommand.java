@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf.cli;
+
+import org.apache.karaf.shell.commands.Command;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.databaseperf.BenchmarkStatus;
+import org.onosproject.databaseperf.BenchmarkStatusCodec;
+import org.onosproject.databaseperf.DatabasePerfService;
+
+/**
+ * CLI to show progress of the database benchmark run.
+ */
+@Command(scope = "onos", name = "dbperf-status",
+        description = "Shows progress of the database benchmark run")
+public class DatabasePerfStatusCommand extends AbstractShellCommand {
+
+    private static final String FORMAT = "%s%nrunning=%s, elapsed=%dms, reads=%d, writes=%d, failures=%d, "
+            + "throughput=%.1f ops/s";
+
+    @Override
+    protected void execute() {
+        BenchmarkStatus status = get(DatabasePerfService.class).status();
+        if (status == null) {
+            print("No benchmark was run");
+            return;
+        }
+        if (outputJson()) {
+            print("%s", new BenchmarkStatusCodec().encode(status, this));
+            return;
+        }
+        print(FORMAT, status.profile(), status.isRunning(), status.elapsed(),
+                status.reads(), status.writes(), status.failures(), status.throughput());
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf.cli;
+
+import org.apache.karaf.shell.commands.Command;
+import org.apache.karaf.shell.commands.Option;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.databaseperf.DatabasePerfService;
+
+/**
+ * CLI to stop the database benchmark run.
+ */
+@Command(scope = "onos", name = "dbperf-stop",
+        description = "Stops the database benchmark run")
+public class DatabasePerfStopCommand extends AbstractShellCommand {
+
+    @Option(name = "-c", aliases = "--cluster", description = "Stop the run on all cluster nodes")
+    private boolean cluster = false;
+
+    @Override
+    protected void execute() {
+        if (cluster) {
+            get(DatabasePerfService.class).stopCluster();
+        } else {
+            get(DatabasePerfService.class).stop();
+        }
+    }
+}
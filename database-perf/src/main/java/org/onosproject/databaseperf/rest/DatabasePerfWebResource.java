@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf.rest;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.onosproject.databaseperf.BenchmarkStatus;
+import org.onosproject.databaseperf.BenchmarkStatusCodec;
+import org.onosproject.databaseperf.ClusterResults;
+import org.onosproject.databaseperf.ClusterResultsCodec;
+import org.onosproject.databaseperf.DatabasePerfService;
+import org.onosproject.databaseperf.LatencyCsv;
+import org.onosproject.rest.AbstractWebResource;
+
+/**
+ * Database performance test web resource.
+ */
+@Path("")
+public class DatabasePerfWebResource extends AbstractWebResource {
+
+    private static final String TEXT_CSV = "text/csv";
+
+    /**
+     * Gets progress and latency percentiles of the benchmark run.
+     * Latencies are in nanoseconds.
+     *
+     * @return 200 OK with the benchmark status, 404 if no benchmark was run
+     */
+    @GET
+    @Path("status")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getStatus() {
+        BenchmarkStatus status = get(DatabasePerfService.class).status();
+        if (status == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return ok(new BenchmarkStatusCodec().encode(status, this)).build();
+    }
+
+    /**
+     * Gets latency percentiles of the benchmark run in CSV format.
+     * Latencies are in nanoseconds.
+     *
+     * @return 200 OK with the CSV rows, 404 if no benchmark was run
+     */
+    @GET
+    @Path("latency")
+    @Produces(TEXT_CSV)
+    public Response getLatencyCsv() {
+        BenchmarkStatus status = get(DatabasePerfService.class).status();
+        if (status == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(LatencyCsv.format(status, true), TEXT_CSV).build();
+    }
+
+    /**
+     * Gets results of the coordinated benchmark run merged over the cluster,
+     * with per node and per partition breakdowns. Latencies are in nanoseconds.
+     *
+     * @return 200 OK with the merged results, 404 if no coordinated run was started
+     */
+    @GET
+    @Path("cluster")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getClusterResults() {
+        ClusterResults results = get(DatabasePerfService.class).clusterResults();
+        if (results == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return ok(new ClusterResultsCodec().encode(results, this)).build();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for the log-linear latency histogram.
+ */
+public class LatencyHistogramTest {
+
+    private static final double MAX_RELATIVE_ERROR = 0.016;
+
+    /**
+     * Tests that values below 128 have buckets of their own.
+     */
+    @Test
+    public void exactSmallValues() {
+        for (int v = 0; v < 128; v++) {
+            assertEquals(v, LatencyHistogram.index(v));
+            assertEquals(v, LatencyHistogram.highestValue(v));
+        }
+    }
+
+    /**
+     * Tests bucket boundaries at the powers of two.
+     */
+    @Test
+    public void powerOfTwoBoundaries() {
+        assertEquals(128, LatencyHistogram.index(128));
+        assertEquals(128, LatencyHistogram.index(129));
+        assertEquals(129, LatencyHistogram.index(130));
+        assertEquals(129, LatencyHistogram.highestValue(LatencyHistogram.index(128)));
+        for (int bit = 8; bit < 63; bit++) {
+            long power = 1L << bit;
+            int below = LatencyHistogram.index(power - 1);
+            int at = LatencyHistogram.index(power);
+            assertEquals(below + 1, at);
+            assertEquals(power - 1, LatencyHistogram.highestValue(below));
+            assertTrue(LatencyHistogram.highestValue(at) >= power);
+        }
+    }
+
+    /**
+     * Tests that the upper bound of the bucket covers the value within the relative error.
+     */
+    @Test
+    public void relativeError() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            long v = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            long highest = LatencyHistogram.highestValue(LatencyHistogram.index(v));
+            assertTrue("value " + v, highest >= v);
+            assertTrue("value " + v, (double) (highest - v) / Math.max(v, 1) < MAX_RELATIVE_ERROR);
+        }
+    }
+
+    /**
+     * Tests percentiles, mean and maximum of the recorded values.
+     */
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.valueAtPercentile(50));
+        for (int v = 1; v <= 100; v++) {
+            histogram.record(v);
+        }
+        assertEquals(100, histogram.count());
+        assertEquals(50.5, histogram.mean(), 1e-9);
+        assertEquals(1, histogram.valueAtPercentile(0));
+        assertEquals(50, histogram.valueAtPercentile(50));
+        assertEquals(99, histogram.valueAtPercentile(99));
+        assertEquals(100, histogram.valueAtPercentile(100));
+
+        histogram.record(1000000);
+        long p100 = histogram.valueAtPercentile(100);
+        assertEquals(1000000, p100);
+        assertEquals(1000000, histogram.max());
+
+        histogram.record(-5);
+        assertEquals(1, histogram.valueAtPercentile(1));
+    }
+
+    /**
+     * Tests the largest recordable value.
+     */
+    @Test
+    public void maxValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValue(LatencyHistogram.index(Long.MAX_VALUE)));
+        assertEquals(Long.MAX_VALUE, histogram.valueAtPercentile(100));
+        assertEquals(Long.MAX_VALUE, histogram.max());
+    }
+
+    /**
+     * Tests that adding histograms gives the histogram of all their values.
+     */
+    @Test
+    public void add() {
+        LatencyHistogram all = new LatencyHistogram();
+        LatencyHistogram even = new LatencyHistogram();
+        LatencyHistogram odd = new LatencyHistogram();
+        for (long v = 0; v < 10000; v += 7) {
+            all.record(v * v);
+            (v % 2 == 0 ? even : odd).record(v * v);
+        }
+        even.add(odd);
+        assertEquals(all.count(), even.count());
+        assertEquals(all.max(), even.max());
+        assertEquals(all.mean(), even.mean(), 1e-9);
+        assertEquals(all.summary().toString(), even.summary().toString());
+        assertArrayEquals(all.toBytes(), even.toBytes());
+
+        even.reset();
+        assertEquals(0, even.count());
+        assertEquals(0, even.valueAtPercentile(99));
+    }
+
+    /**
+     * Tests that the encoded histogram decodes to the same histogram.
+     */
+    @Test
+    public void bytesRoundTrip() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            histogram.record(random.nextInt(10000000));
+        }
+        histogram.record(Long.MAX_VALUE);
+
+        LatencyHistogram decoded = LatencyHistogram.fromBytes(histogram.toBytes());
+        assertEquals(histogram.count(), decoded.count());
+        assertEquals(histogram.max(), decoded.max());
+        assertEquals(histogram.mean(), decoded.mean(), 1e-9);
+        for (double p : new double[] {0, 50, 90, 99, 99.9, 100}) {
+            assertEquals(histogram.valueAtPercentile(p), decoded.valueAtPercentile(p));
+        }
+        assertArrayEquals(histogram.toBytes(), decoded.toBytes());
+
+        LatencyHistogram empty = LatencyHistogram.fromBytes(new LatencyHistogram().toBytes());
+        assertEquals(0, empty.count());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.databaseperf;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for the lock-free latency recorder.
+ */
+public class LatencyRecorderTest {
+
+    private static final int THREADS = 4;
+    private static final int VALUES = 100000;
+
+    /**
+     * Tests that drained histograms hold the recorded values per operation type.
+     */
+    @Test
+    public void drain() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        LatencyHistogram expected = new LatencyHistogram();
+        for (long v = 1; v <= 1000; v++) {
+            recorder.record(OperationType.READ, v * 1000);
+            expected.record(v * 1000);
+        }
+        recorder.record(OperationType.WRITE, -1);
+
+        LatencyHistogram[] interval = LatencyRecorder.histograms();
+        recorder.drainTo(interval);
+        LatencyHistogram read = interval[OperationType.READ.ordinal()];
+        assertEquals(expected.summary().toString(), read.summary().toString());
+        assertEquals(1, interval[OperationType.WRITE.ordinal()].count());
+        assertEquals(0, interval[OperationType.WRITE.ordinal()].max());
+
+        // next interval starts empty
+        interval = LatencyRecorder.histograms();
+        recorder.drainTo(interval);
+        assertEquals(0, interval[OperationType.READ.ordinal()].count());
+        assertEquals(0, interval[OperationType.READ.ordinal()].max());
+    }
+
+    /**
+     * Tests that values recorded concurrently with the drains are all counted.
+     */
+    @Test
+    public void concurrentRecording() throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 1; i <= VALUES; i++) {
+                    recorder.record(OperationType.WRITE, i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        LatencyHistogram total = new LatencyHistogram();
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            LatencyHistogram[] interval = LatencyRecorder.histograms();
+            recorder.drainTo(interval);
+            total.add(interval[OperationType.WRITE.ordinal()]);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencyHistogram[] interval = LatencyRecorder.histograms();
+        recorder.drainTo(interval);
+        total.add(interval[OperationType.WRITE.ordinal()]);
+
+        assertEquals((long) THREADS * VALUES, total.count());
+        assertEquals((VALUES + 1) / 2.0, total.mean(), 1e-9);
+        assertEquals(VALUES, total.max());
+    }
+}
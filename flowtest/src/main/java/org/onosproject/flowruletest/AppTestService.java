@@ -1,8 +1,48 @@
 package org.onosproject.flowruletest;
 
+import java.io.IOException;
+
 /**
  * Applications test service.
  */
 public interface AppTestService {
 
+    /**
+     * Starts the flow rule installation benchmark on all available devices.
+     * Tracking of the previous benchmark, if any, is stopped; its rules
+     * stay installed.
+     *
+     * @param rulesPerDevice number of rules generated for each device
+     * @param batchSize number of rules in a batch of flow rule operations
+     * @param maxPendingBatches number of batches submitted before waiting for their completion
+     */
+    void startFlowBenchmark(int rulesPerDevice, int batchSize, int maxPendingBatches);
+
+    /**
+     * Removes the rules installed by the flow rule installation benchmark,
+     * measuring the removal throughput.
+     */
+    void removeFlowBenchmarkRules();
+
+    /**
+     * Returns the results of the flow rule installation benchmark.
+     *
+     * @return benchmark report, null if no benchmark was started
+     */
+    FlowBenchmarkReport getFlowBenchmarkReport();
+
+    /**
+     * Streams the rules of a file to the flow rule service, returning when
+     * the last batch of rules completed.
+     *
+     * @param path path of the file
+     * @param format format of the file: csv, json or payload; null to choose by file extension
+     * @param batchSize number of rules in a batch of flow rule operations
+     * @param maxPendingBatches number of batches submitted before waiting for their completion
+     * @param remove whether to remove the rules instead of applying them
+     * @return load report
+     * @throws IOException if the file cannot be read
+     */
+    FlowLoadReport loadFlowRules(String path, String format, int batchSize, int maxPendingBatches,
+                                 boolean remove) throws IOException;
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest;
+
+import org.onosproject.net.DeviceId;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Flow rule installation benchmark results of one device.
+ * Times are in milliseconds.
+ */
+public final class DeviceFlowReport {
+
+    private final DeviceId deviceId;
+    private final int rules;
+    private final long installed;
+    private final long installTime;
+    private final double meanTimeToAdded;
+    private final long maxTimeToAdded;
+    private final long removed;
+    private final long removeTime;
+    private final long failedBatches;
+
+    //CHECKSTYLE:OFF
+    /**
+     * Creates device report.
+     *
+     * @param deviceId device identifier
+     * @param rules number of generated rules
+     * @param installed number of rules that reached ADDED state
+     * @param installTime time from the first submission to the last rule in ADDED state
+     * @param meanTimeToAdded mean time from submission to ADDED state
+     * @param maxTimeToAdded maximum time from submission to ADDED state
+     * @param removed number of removed rules
+     * @param removeTime time from the first removal to the last rule removed
+     * @param failedBatches number of batches that failed on the device
+     */
+    public DeviceFlowReport(DeviceId deviceId, int rules, long installed, long installTime,
+                            double meanTimeToAdded, long maxTimeToAdded, long removed, long removeTime,
+                            long failedBatches) {
+        //CHECKSTYLE:ON
+        this.deviceId = deviceId;
+        this.rules = rules;
+        this.installed = installed;
+        this.installTime = installTime;
+        this.meanTimeToAdded = meanTimeToAdded;
+        this.maxTimeToAdded = maxTimeToAdded;
+        this.removed = removed;
+        this.removeTime = removeTime;
+        this.failedBatches = failedBatches;
+    }
+
+    public DeviceId deviceId() {
+        return deviceId;
+    }
+
+    public int rules() {
+        return rules;
+    }
+
+    public long installed() {
+        return installed;
+    }
+
+    public long installTime() {
+        return installTime;
+    }
+
+    public double meanTimeToAdded() {
+        return meanTimeToAdded;
+    }
+
+    public long maxTimeToAdded() {
+        return maxTimeToAdded;
+    }
+
+    public long removed() {
+        return removed;
+    }
+
+    public long removeTime() {
+        return removeTime;
+    }
+
+    public long failedBatches() {
+        return failedBatches;
+    }
+
+    /**
+     * Returns rules installed per second.
+     *
+     * @return install throughput
+     */
+    public double installThroughput() {
+        return installTime > 0 ? installed * 1000.0 / installTime : 0;
+    }
+
+    /**
+     * Returns rules removed per second.
+     *
+     * @return remove throughput
+     */
+    public double removeThroughput() {
+        return removeTime > 0 ? removed * 1000.0 / removeTime : 0;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("deviceId", deviceId)
+                .add("rules", rules)
+                .add("installed", installed)
+                .add("installTime", installTime)
+                .add("meanTimeToAdded", meanTimeToAdded)
+                .add("maxTimeToAdded", maxTimeToAdded)
+                .add("removed", removed)
+                .add("removeTime", removeTime)
+                .add("failedBatches", failedBatches)
+                .toString();
+    }
+}
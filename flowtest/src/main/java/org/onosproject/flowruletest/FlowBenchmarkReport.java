@@ -0,0 +1,162 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest;
+
+import java.util.List;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Flow rule installation benchmark results of all devices.
+ * Times are in milliseconds.
+ */
+public final class FlowBenchmarkReport {
+
+    private final int rulesPerDevice;
+    private final int batchSize;
+    private final long submittedBatches;
+    private final long failedBatches;
+    private final long installTime;
+    private final long removeTime;
+    private final long p50TimeToAdded;
+    private final long p99TimeToAdded;
+    private final List<DeviceFlowReport> devices;
+
+    //CHECKSTYLE:OFF
+    /**
+     * Creates benchmark report.
+     *
+     * @param rulesPerDevice number of rules generated for each device
+     * @param batchSize number of rules per flow rule operations batch
+     * @param submittedBatches number of submitted batches
+     * @param failedBatches number of failed batches
+     * @param installTime time from the first submission to the last rule in ADDED state on any device
+     * @param removeTime time from the first removal to the last rule removed on any device
+     * @param p50TimeToAdded median time from submission to ADDED state
+     * @param p99TimeToAdded 99th percentile of the time from submission to ADDED state
+     * @param devices per device results
+     */
+    public FlowBenchmarkReport(int rulesPerDevice, int batchSize, long submittedBatches, long failedBatches,
+                               long installTime, long removeTime, long p50TimeToAdded, long p99TimeToAdded,
+                               List<DeviceFlowReport> devices) {
+        //CHECKSTYLE:ON
+        this.rulesPerDevice = rulesPerDevice;
+        this.batchSize = batchSize;
+        this.submittedBatches = submittedBatches;
+        this.failedBatches = failedBatches;
+        this.installTime = installTime;
+        this.removeTime = removeTime;
+        this.p50TimeToAdded = p50TimeToAdded;
+        this.p99TimeToAdded = p99TimeToAdded;
+        this.devices = devices;
+    }
+
+    public int rulesPerDevice() {
+        return rulesPerDevice;
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    public long submittedBatches() {
+        return submittedBatches;
+    }
+
+    public long failedBatches() {
+        return failedBatches;
+    }
+
+    public long installTime() {
+        return installTime;
+    }
+
+    public long removeTime() {
+        return removeTime;
+    }
+
+    public long p50TimeToAdded() {
+        return p50TimeToAdded;
+    }
+
+    public long p99TimeToAdded() {
+        return p99TimeToAdded;
+    }
+
+    public List<DeviceFlowReport> devices() {
+        return devices;
+    }
+
+    /**
+     * Returns number of rules in ADDED state on all devices.
+     *
+     * @return installed rules
+     */
+    public long installed() {
+        return devices.stream().mapToLong(DeviceFlowReport::installed).sum();
+    }
+
+    /**
+     * Returns number of rules removed from all devices.
+     *
+     * @return removed rules
+     */
+    public long removed() {
+        return devices.stream().mapToLong(DeviceFlowReport::removed).sum();
+    }
+
+    /**
+     * Returns maximum time from submission to ADDED state on any device.
+     *
+     * @return maximum time to ADDED state
+     */
+    public long maxTimeToAdded() {
+        return devices.stream().mapToLong(DeviceFlowReport::maxTimeToAdded).max().orElse(0);
+    }
+
+    /**
+     * Returns rules installed per second on all devices together.
+     *
+     * @return install throughput
+     */
+    public double installThroughput() {
+        return installTime > 0 ? installed() * 1000.0 / installTime : 0;
+    }
+
+    /**
+     * Returns rules removed per second from all devices together.
+     *
+     * @return remove throughput
+     */
+    public double removeThroughput() {
+        return removeTime > 0 ? removed() * 1000.0 / removeTime : 0;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("rulesPerDevice", rulesPerDevice)
+                .add("batchSize", batchSize)
+                .add("submittedBatches", submittedBatches)
+                .add("failedBatches", failedBatches)
+                .add("installTime", installTime)
+                .add("removeTime", removeTime)
+                .add("p50TimeToAdded", p50TimeToAdded)
+                .add("p99TimeToAdded", p99TimeToAdded)
+                .add("devices", devices.size())
+                .toString();
+    }
+}
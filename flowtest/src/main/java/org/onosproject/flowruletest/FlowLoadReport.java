@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Result of streaming a flow rule file to the flow rule service.
+ */
+public final class FlowLoadReport {
+
+    private final String path;
+    private final long lines;
+    private final long rules;
+    private final long invalidLines;
+    private final long batches;
+    private final long failedBatches;
+    private final long elapsed;
+
+    /**
+     * Creates flow rule file load report.
+     *
+     * @param path path of the file
+     * @param lines number of lines read
+     * @param rules number of rules submitted
+     * @param invalidLines number of lines that could not be parsed
+     * @param batches number of submitted batches
+     * @param failedBatches number of failed batches
+     * @param elapsed time from opening the file to the completion of the last batch, in milliseconds
+     */
+    public FlowLoadReport(String path, long lines, long rules, long invalidLines,
+                          long batches, long failedBatches, long elapsed) {
+        this.path = path;
+        this.lines = lines;
+        this.rules = rules;
+        this.invalidLines = invalidLines;
+        this.batches = batches;
+        this.failedBatches = failedBatches;
+        this.elapsed = elapsed;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    public long lines() {
+        return lines;
+    }
+
+    public long rules() {
+        return rules;
+    }
+
+    public long invalidLines() {
+        return invalidLines;
+    }
+
+    public long batches() {
+        return batches;
+    }
+
+    public long failedBatches() {
+        return failedBatches;
+    }
+
+    public long elapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Returns rules submitted per second.
+     *
+     * @return load throughput
+     */
+    public double throughput() {
+        return elapsed > 0 ? rules * 1000.0 / elapsed : 0;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("path", path)
+                .add("lines", lines)
+                .add("rules", rules)
+                .add("invalidLines", invalidLines)
+                .add("batches", batches)
+                .add("failedBatches", failedBatches)
+                .add("elapsed", elapsed)
+                .toString();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest.cli;
+
+import org.apache.karaf.shell.commands.Command;
+import org.apache.karaf.shell.commands.Option;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.flowruletest.AppTestService;
+
+/**
+ * CLI to start the flow rule installation benchmark.
+ */
+@Command(scope = "onos", name = "flowtest-install",
+        description = "Installs generated flow rules on all available devices and measures the throughput")
+public class FlowBenchmarkInstallCommand extends AbstractShellCommand {
+
+    @Option(name = "-n", aliases = "--rules", description = "Number of rules per device")
+    private int rulesPerDevice = 1000;
+
+    @Option(name = "-b", aliases = "--batch", description = "Number of rules per batch of flow rule operations")
+    private int batchSize = 100;
+
+    @Option(name = "-p", aliases = "--pending",
+            description = "Number of batches submitted before waiting for their completion")
+    private int maxPendingBatches = 16;
+
+    @Override
+    protected void execute() {
+        try {
+            get(AppTestService.class).startFlowBenchmark(rulesPerDevice, batchSize, maxPendingBatches);
+        } catch (IllegalArgumentException e) {
+            error("Invalid benchmark parameters: %s", e.getMessage());
+        }
+    }
+}
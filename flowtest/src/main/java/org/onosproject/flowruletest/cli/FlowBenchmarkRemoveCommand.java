@@ -0,0 +1,33 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest.cli;
+
+import org.apache.karaf.shell.commands.Command;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.flowruletest.AppTestService;
+
+/**
+ * CLI to remove the rules of the flow rule installation benchmark.
+ */
+@Command(scope = "onos", name = "flowtest-remove",
+        description = "Removes the benchmark flow rules and measures the throughput")
+public class FlowBenchmarkRemoveCommand extends AbstractShellCommand {
+
+    @Override
+    protected void execute() {
+        get(AppTestService.class).removeFlowBenchmarkRules();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest.cli;
+
+import org.apache.karaf.shell.commands.Command;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.flowruletest.AppTestService;
+import org.onosproject.flowruletest.DeviceFlowReport;
+import org.onosproject.flowruletest.FlowBenchmarkReport;
+
+/**
+ * CLI to show the results of the flow rule installation benchmark.
+ */
+@Command(scope = "onos", name = "flowtest-report",
+        description = "Shows per device and overall results of the flow rule installation benchmark")
+public class FlowBenchmarkReportCommand extends AbstractShellCommand {
+
+    private static final String TOTAL_FORMAT = "rulesPerDevice=%d, batchSize=%d, batches=%d, failedBatches=%d%n"
+            + "installed=%d in %dms (%.1f rules/s), timeToAdded p50=%dms p99=%dms max=%dms%n"
+            + "removed=%d in %dms (%.1f rules/s)";
+    private static final String DEVICE_FORMAT = "%s: installed=%d/%d in %dms (%.1f rules/s), "
+            + "timeToAdded mean=%.1fms max=%dms, removed=%d in %dms (%.1f rules/s), failedBatches=%d";
+
+    @Override
+    protected void execute() {
+        FlowBenchmarkReport report = get(AppTestService.class).getFlowBenchmarkReport();
+        if (report == null) {
+            print("No benchmark was started");
+            return;
+        }
+        for (DeviceFlowReport d : report.devices()) {
+            print(DEVICE_FORMAT, d.deviceId(), d.installed(), d.rules(), d.installTime(), d.installThroughput(),
+                  d.meanTimeToAdded(), d.maxTimeToAdded(), d.removed(), d.removeTime(), d.removeThroughput(),
+                  d.failedBatches());
+        }
+        print(TOTAL_FORMAT, report.rulesPerDevice(), report.batchSize(), report.submittedBatches(),
+              report.failedBatches(), report.installed(), report.installTime(), report.installThroughput(),
+              report.p50TimeToAdded(), report.p99TimeToAdded(), report.maxTimeToAdded(),
+              report.removed(), report.removeTime(), report.removeThroughput());
+    }
+}
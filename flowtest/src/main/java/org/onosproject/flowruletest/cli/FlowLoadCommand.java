@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest.cli;
+
+import java.io.IOException;
+
+import org.apache.karaf.shell.commands.Argument;
+import org.apache.karaf.shell.commands.Command;
+import org.apache.karaf.shell.commands.Option;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.flowruletest.AppTestService;
+import org.onosproject.flowruletest.FlowLoadReport;
+
+/**
+ * CLI to stream the rules of a file to the flow rule service.
+ */
+@Command(scope = "onos", name = "flowtest-load",
+        description = "Streams the flow rules of a CSV, JSON or payload file to the flow rule service")
+public class FlowLoadCommand extends AbstractShellCommand {
+
+    private static final String FORMAT = "%s: lines=%d, rules=%d, invalidLines=%d, batches=%d, failedBatches=%d, "
+            + "elapsed=%dms (%.1f rules/s)";
+
+    @Argument(index = 0, name = "path", description = "Path of the flow rule file",
+            required = true, multiValued = false)
+    private String path = null;
+
+    @Option(name = "-f", aliases = "--format",
+            description = "File format: csv, json or payload; chosen by file extension if not set")
+    private String format = null;
+
+    @Option(name = "-b", aliases = "--batch", description = "Number of rules per batch of flow rule operations")
+    private int batchSize = 100;
+
+    @Option(name = "-p", aliases = "--pending",
+            description = "Number of batches submitted before waiting for their completion")
+    private int maxPendingBatches = 16;
+
+    @Option(name = "-r", aliases = "--remove", description = "Remove the rules of the file instead of applying them")
+    private boolean remove = false;
+
+    @Override
+    protected void execute() {
+        try {
+            FlowLoadReport r = get(AppTestService.class)
+                    .loadFlowRules(path, format, batchSize, maxPendingBatches, remove);
+            print(FORMAT, r.path(), r.lines(), r.rules(), r.invalidLines(), r.batches(), r.failedBatches(),
+                  r.elapsed(), r.throughput());
+        } catch (IOException e) {
+            error("Failed to read %s: %s", path, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            error("Invalid parameters: %s", e.getMessage());
+        }
+    }
+}
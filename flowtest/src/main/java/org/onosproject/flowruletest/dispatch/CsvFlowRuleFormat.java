@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest.dispatch;
+
+import org.onosproject.core.ApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.FlowRule;
+
+import com.google.common.base.Splitter;
+
+/**
+ * Flow rule format with one rule per line as comma separated values, in the
+ * column order of {@link FieldFlowRuleFormat#FIELDS}. Empty columns are
+ * wildcarded and trailing columns may be omitted. Lines starting with #
+ * and the header line, starting with deviceId, are skipped.
+ */
+public class CsvFlowRuleFormat extends FieldFlowRuleFormat {
+
+    private static final Splitter SPLITTER = Splitter.on(',').trimResults();
+
+    @Override
+    public FlowRule parse(String line, DeviceId defaultDevice, ApplicationId appId) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith(FIELDS[0])) {
+            return null;
+        }
+        String[] columns = new String[FIELDS.length];
+        int i = 0;
+        for (String column : SPLITTER.split(trimmed)) {
+            if (i == columns.length) {
+                throw new IllegalArgumentException("Too many columns");
+            }
+            columns[i++] = column;
+        }
+        return build(name -> column(columns, name), defaultDevice, appId);
+    }
+
+    private static String column(String[] columns, String name) {
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (FIELDS[i].equals(name)) {
+                return columns[i];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest.dispatch;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+
+import java.util.function.Function;
+
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.IPv4;
+import org.onlab.packet.IpPrefix;
+import org.onlab.packet.TpPort;
+import org.onlab.packet.VlanId;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.TrafficSelector;
+import org.onosproject.net.flow.TrafficTreatment;
+
+/**
+ * Flow rule format whose rules are described by named fields:
+ * deviceId, priority, timeout, inPort, ethType, vlan, ipSrc, ipDst,
+ * ipProto, tpSrc, tpDst and output. Missing fields are wildcarded; a rule
+ * without output drops the matched packets, and a rule without timeout is
+ * permanent. Prerequisites of the matched fields are added when not set:
+ * IPv4 ethType for IP fields and TCP ipProto for transport ports.
+ */
+public abstract class FieldFlowRuleFormat implements FlowRuleFormat {
+
+    /**
+     * Names of the fields, in the column order of the CSV format.
+     */
+    public static final String[] FIELDS = {
+        "deviceId", "priority", "timeout", "inPort", "ethType", "vlan",
+        "ipSrc", "ipDst", "ipProto", "tpSrc", "tpDst", "output"
+    };
+
+    private static final int DEFAULT_PRIORITY = 1000;
+    private static final int ETH_TYPE_IPV4 = Ethernet.TYPE_IPV4 & 0xffff;
+    private static final int ETH_TYPE_IPV6 = Ethernet.TYPE_IPV6 & 0xffff;
+
+    /**
+     * Builds flow rule from its fields.
+     *
+     * @param field function returning value of the named field, null or empty if not set
+     * @param defaultDevice device of the rules that do not name one, may be null
+     * @param appId application identifier of the rule
+     * @return flow rule
+     * @throws IllegalArgumentException if a field value is not valid or contradicts
+     *                                  the prerequisites of the other fields
+     */
+    protected FlowRule build(Function<String, String> field, DeviceId defaultDevice, ApplicationId appId) {
+        String device = field.apply("deviceId");
+        DeviceId deviceId = isNullOrEmpty(device) ? defaultDevice : DeviceId.deviceId(device);
+        if (deviceId == null) {
+            throw new IllegalArgumentException("Device not set");
+        }
+
+        String inPort = field.apply("inPort");
+        Integer ethType = intField(field, "ethType");
+        Integer vlan = intField(field, "vlan");
+        IpPrefix ipSrc = prefixField(field, "ipSrc");
+        IpPrefix ipDst = prefixField(field, "ipDst");
+        Integer proto = intField(field, "ipProto");
+        TpPort tpSrc = portField(field, "tpSrc");
+        TpPort tpDst = portField(field, "tpDst");
+
+        // add the prerequisites of the transport and IP fields when not set
+        if (tpSrc != null || tpDst != null) {
+            if (proto == null) {
+                proto = (int) IPv4.PROTOCOL_TCP;
+            } else if (proto != IPv4.PROTOCOL_TCP && proto != IPv4.PROTOCOL_UDP) {
+                throw new IllegalArgumentException("tpSrc and tpDst require TCP or UDP ipProto, not " + proto);
+            }
+        }
+        boolean ipAddress = ipSrc != null || ipDst != null;
+        if (ipAddress || proto != null) {
+            if (ethType == null) {
+                ethType = ETH_TYPE_IPV4;
+            } else if (ethType != ETH_TYPE_IPV4 && (ipAddress || ethType != ETH_TYPE_IPV6)) {
+                throw new IllegalArgumentException(String.format("IP fields require IP ethType, not 0x%x", ethType));
+            }
+        }
+
+        TrafficSelector.Builder selector = DefaultTrafficSelector.builder();
+        if (!isNullOrEmpty(inPort)) {
+            try {
+                selector.matchInPort(PortNumber.portNumber(inPort.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid inPort " + inPort);
+            }
+        }
+        if (ethType != null) {
+            selector.matchEthType(ethType.shortValue());
+        }
+        if (vlan != null) {
+            selector.matchVlanId(VlanId.vlanId(vlan.shortValue()));
+        }
+        if (ipSrc != null) {
+            selector.matchIPSrc(ipSrc);
+        }
+        if (ipDst != null) {
+            selector.matchIPDst(ipDst);
+        }
+        if (proto != null) {
+            selector.matchIPProtocol(proto.byteValue());
+        }
+        if (tpSrc != null) {
+            if (proto == IPv4.PROTOCOL_UDP) {
+                selector.matchUdpSrc(tpSrc);
+            } else {
+                selector.matchTcpSrc(tpSrc);
+            }
+        }
+        if (tpDst != null) {
+            if (proto == IPv4.PROTOCOL_UDP) {
+                selector.matchUdpDst(tpDst);
+            } else {
+                selector.matchTcpDst(tpDst);
+            }
+        }
+
+        TrafficTreatment.Builder treatment = DefaultTrafficTreatment.builder();
+        String output = field.apply("output");
+        if (!isNullOrEmpty(output) && !"drop".equalsIgnoreCase(output)) {
+            try {
+                treatment.setOutput("controller".equalsIgnoreCase(output) ?
+                                            PortNumber.CONTROLLER : PortNumber.portNumber(output));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid output " + output);
+            }
+        }
+
+        Integer priority = intField(field, "priority");
+        Integer timeout = intField(field, "timeout");
+
+        DefaultFlowRule.Builder rule = DefaultFlowRule.builder()
+                .forDevice(deviceId)
+                .withSelector(selector.build())
+                .withTreatment(treatment.build())
+                .withPriority(priority == null ? DEFAULT_PRIORITY : priority)
+                .fromApp(appId);
+        if (timeout != null && timeout > 0) {
+            rule.makeTemporary(timeout);
+        } else {
+            rule.makePermanent();
+        }
+        return rule.build();
+    }
+
+    private static Integer intField(Function<String, String> field, String name) {
+        String value = field.apply(name);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        String v = value.trim();
+        try {
+            return v.startsWith("0x") || v.startsWith("0X") ?
+                    Integer.parseInt(v.substring(2), 16) : Integer.parseInt(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + " " + value);
+        }
+    }
+
+    private static TpPort portField(Function<String, String> field, String name) {
+        Integer port = intField(field, name);
+        return port == null ? null : TpPort.tpPort(port);
+    }
+
+    private static IpPrefix prefixField(Function<String, String> field, String name) {
+        String value = field.apply(name);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        String v = value.trim();
+        IpPrefix prefix;
+        try {
+            prefix = IpPrefix.valueOf(v.indexOf('/') < 0 ? v + "/32" : v);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + name + " " + value);
+        }
+        if (!prefix.isIp4()) {
+            throw new IllegalArgumentException(name + " " + value + " is not an IPv4 prefix");
+        }
+        return prefix;
+    }
+}
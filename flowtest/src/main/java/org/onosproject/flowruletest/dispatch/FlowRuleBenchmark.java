@@ -0,0 +1,314 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest.dispatch;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.onlab.util.Tools.groupedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.IpPrefix;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.flowruletest.DeviceFlowReport;
+import org.onosproject.flowruletest.FlowBenchmarkReport;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.FlowRuleEvent;
+import org.onosproject.net.flow.FlowRuleListener;
+import org.onosproject.net.flow.FlowRuleOperations;
+import org.onosproject.net.flow.FlowRuleOperationsContext;
+import org.onosproject.net.flow.FlowRuleService;
+import org.slf4j.Logger;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Flow rule installation benchmark.
+ * Generates the given number of rules for each device, each matching its
+ * own IPv4 destination address, and submits them in batches of flow rule
+ * operations, one device per batch, going round the devices so that all of
+ * them are loaded at the same time. The number of batches waiting for
+ * completion is bounded. Time to ADDED state of every rule is measured
+ * from its submission to the flow rule event; the events are posted on the
+ * master of the device, so the benchmark should run on the instance
+ * mastering the devices, or on a single instance.
+ */
+public class FlowRuleBenchmark {
+
+    private static final int PRIORITY = 1000;
+    private static final int BASE_ADDRESS = 0x0a000000; // 10.0.0.0
+    private static final int MAX_RULES_PER_DEVICE = 1 << 24;
+    private static final int MAX_TIME_TO_ADDED = 60000; // ms, longer times are counted as this
+    private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Logger log = getLogger(getClass());
+    private final FlowRuleService flowRuleService;
+    private final ApplicationId appId;
+    private final int rulesPerDevice;
+    private final int batchSize;
+    private final Semaphore pendingBatches;
+    private final Map<DeviceId, DeviceProgress> devices;
+    private final FlowRuleListener listener = new InternalFlowRuleListener();
+    private final ExecutorService submitter =
+            Executors.newSingleThreadExecutor(groupedThreads("onos/flowtest", "submitter"));
+    private final AtomicLongArray timeToAdded = new AtomicLongArray(MAX_TIME_TO_ADDED + 1);
+    private final LongAdder submittedBatches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    private volatile long installStart;
+    private volatile long removeStart;
+
+    /**
+     * Creates flow rule installation benchmark.
+     *
+     * @param flowRuleService service for injecting flow rules into the environment
+     * @param deviceIds devices to generate the rules for
+     * @param appId application identifier
+     * @param rulesPerDevice number of rules for each device
+     * @param batchSize number of rules in a batch of flow rule operations
+     * @param maxPendingBatches number of batches submitted before waiting for their completion
+     */
+    public FlowRuleBenchmark(FlowRuleService flowRuleService, List<DeviceId> deviceIds, ApplicationId appId,
+                             int rulesPerDevice, int batchSize, int maxPendingBatches) {
+        checkArgument(rulesPerDevice > 0 && rulesPerDevice <= MAX_RULES_PER_DEVICE,
+                      "Rules per device must be 1-" + MAX_RULES_PER_DEVICE);
+        checkArgument(batchSize > 0, "Batch size must be positive");
+        checkArgument(maxPendingBatches > 0, "Pending batches must be positive");
+        this.flowRuleService = flowRuleService;
+        this.appId = appId;
+        this.rulesPerDevice = rulesPerDevice;
+        this.batchSize = batchSize;
+        this.pendingBatches = new Semaphore(maxPendingBatches);
+        ImmutableMap.Builder<DeviceId, DeviceProgress> builder = ImmutableMap.builder();
+        deviceIds.forEach(id -> builder.put(id, new DeviceProgress(id)));
+        this.devices = builder.build();
+        flowRuleService.addListener(listener);
+    }
+
+    /**
+     * Submits the generated rules of all devices.
+     */
+    public void install() {
+        submitter.execute(() -> submit(true));
+    }
+
+    /**
+     * Submits removal of the generated rules of all devices.
+     */
+    public void remove() {
+        submitter.execute(() -> submit(false));
+    }
+
+    /**
+     * Stops tracking of the benchmark rules; submissions not started yet are dropped.
+     */
+    public void close() {
+        submitter.shutdownNow();
+        flowRuleService.removeListener(listener);
+    }
+
+    private void submit(boolean add) {
+        if (add) {
+            installStart = System.nanoTime();
+        } else {
+            removeStart = System.nanoTime();
+        }
+        try {
+            for (int first = 0; first < rulesPerDevice; first += batchSize) {
+                int last = Math.min(first + batchSize, rulesPerDevice);
+                for (DeviceProgress device : devices.values()) {
+                    submitBatch(device, first, last, add);
+                }
+            }
+            log.info("{} rules submitted in {} batches", add ? "Install" : "Remove", submittedBatches.sum());
+        } catch (InterruptedException e) {
+            log.warn("Flow rule submission interrupted");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submitBatch(DeviceProgress device, int first, int last, boolean add) throws InterruptedException {
+        pendingBatches.acquire();
+        FlowRuleOperations.Builder ops = FlowRuleOperations.builder();
+        long now = System.nanoTime();
+        for (int i = first; i < last; i++) {
+            FlowRule rule = buildFlowRule(device.deviceId, i);
+            if (add) {
+                device.pending.put(rule.id().value(), now);
+                ops.add(rule);
+            } else {
+                device.pendingRemoval.add(rule.id().value());
+                ops.remove(rule);
+            }
+        }
+        submittedBatches.increment();
+        flowRuleService.apply(ops.build(new FlowRuleOperationsContext() {
+            @Override
+            public void onSuccess(FlowRuleOperations ops) {
+                pendingBatches.release();
+            }
+
+            @Override
+            public void onError(FlowRuleOperations ops) {
+                pendingBatches.release();
+                failedBatches.increment();
+                device.failedBatches.increment();
+            }
+        }));
+    }
+
+    private FlowRule buildFlowRule(DeviceId deviceId, int index) {
+        return DefaultFlowRule.builder()
+                .forDevice(deviceId)
+                .withSelector(DefaultTrafficSelector.builder()
+                                      .matchEthType(Ethernet.TYPE_IPV4)
+                                      .matchIPDst(IpPrefix.valueOf(BASE_ADDRESS + index, 32))
+                                      .build())
+                .withTreatment(DefaultTrafficTreatment.emptyTreatment())
+                .withPriority(PRIORITY)
+                .fromApp(appId)
+                .makePermanent()
+                .build();
+    }
+
+    /**
+     * Returns the per device and overall results measured so far.
+     *
+     * @return benchmark report
+     */
+    public FlowBenchmarkReport report() {
+        List<DeviceFlowReport> reports = devices.values().stream()
+                .map(DeviceProgress::report)
+                .collect(Collectors.toList());
+        long lastAdded = devices.values().stream().mapToLong(d -> d.lastAdded.get()).max().orElse(0);
+        long lastRemoved = devices.values().stream().mapToLong(d -> d.lastRemoved.get()).max().orElse(0);
+        return new FlowBenchmarkReport(rulesPerDevice, batchSize, submittedBatches.sum(), failedBatches.sum(),
+                                       millis(installStart, lastAdded), millis(removeStart, lastRemoved),
+                                       percentile(50), percentile(99), reports);
+    }
+
+    private long percentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < timeToAdded.length(); i++) {
+            total += timeToAdded.get(i);
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < timeToAdded.length(); i++) {
+            seen += timeToAdded.get(i);
+            if (seen >= rank) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static long millis(long start, long end) {
+        return start == 0 || end < start ? 0 : (end - start) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Benchmark progress of one device.
+     */
+    private final class DeviceProgress {
+        private final DeviceId deviceId;
+        private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+        private final Set<Long> pendingRemoval = ConcurrentHashMap.newKeySet();
+        private final LongAdder installed = new LongAdder();
+        private final LongAdder totalTimeToAdded = new LongAdder();
+        private final AtomicLong maxTimeToAdded = new AtomicLong();
+        private final AtomicLong lastAdded = new AtomicLong();
+        private final LongAdder removed = new LongAdder();
+        private final AtomicLong lastRemoved = new AtomicLong();
+        private final LongAdder failedBatches = new LongAdder();
+
+        private DeviceProgress(DeviceId deviceId) {
+            this.deviceId = deviceId;
+        }
+
+        private void added(long id, long now) {
+            Long submitted = pending.remove(id);
+            if (submitted != null) {
+                long time = now - submitted;
+                installed.increment();
+                totalTimeToAdded.add(time);
+                maxTimeToAdded.accumulateAndGet(time, Math::max);
+                lastAdded.accumulateAndGet(now, Math::max);
+                timeToAdded.incrementAndGet((int) Math.min(time / NANOS_PER_MILLI, MAX_TIME_TO_ADDED));
+            }
+        }
+
+        private void removed(long id, long now) {
+            if (pendingRemoval.remove(id)) {
+                removed.increment();
+                lastRemoved.accumulateAndGet(now, Math::max);
+            }
+        }
+
+        private DeviceFlowReport report() {
+            long count = installed.sum();
+            double mean = count == 0 ? 0 : (double) totalTimeToAdded.sum() / count / NANOS_PER_MILLI;
+            return new DeviceFlowReport(deviceId, rulesPerDevice, count, millis(installStart, lastAdded.get()),
+                                        mean, maxTimeToAdded.get() / NANOS_PER_MILLI,
+                                        removed.sum(), millis(removeStart, lastRemoved.get()),
+                                        failedBatches.sum());
+        }
+    }
+
+    /**
+     * Tracks the benchmark rules reaching ADDED state and being removed.
+     */
+    private class InternalFlowRuleListener implements FlowRuleListener {
+        @Override
+        public void event(FlowRuleEvent event) {
+            FlowRule rule = event.subject();
+            if (rule.appId() != appId.id()) {
+                return;
+            }
+            DeviceProgress device = devices.get(rule.deviceId());
+            if (device == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            switch (event.type()) {
+                case RULE_ADDED:
+                    device.added(rule.id().value(), now);
+                    break;
+                case RULE_REMOVED:
+                    device.removed(rule.id().value(), now);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
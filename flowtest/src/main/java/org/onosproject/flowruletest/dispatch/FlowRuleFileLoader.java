@@ -0,0 +1,168 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest.dispatch;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.onosproject.core.ApplicationId;
+import org.onosproject.flowruletest.FlowLoadReport;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.FlowRuleOperations;
+import org.onosproject.net.flow.FlowRuleOperationsContext;
+import org.onosproject.net.flow.FlowRuleService;
+import org.slf4j.Logger;
+
+/**
+ * Streams a flow rule file to the flow rule service.
+ * The file is read through a buffered channel and parsed line by line into
+ * batches of flow rule operations, which are applied as soon as they are
+ * full. At most the given number of batches wait for completion, so memory
+ * use depends on the batch size and not on the size of the file.
+ */
+public class FlowRuleFileLoader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int LOGGED_ERRORS = 10;
+    private static final long COMPLETION_TIMEOUT = 60; //s
+
+    private final Logger log = getLogger(getClass());
+    private final FlowRuleService flowRuleService;
+    private final ApplicationId appId;
+    private final int batchSize;
+    private final int maxPendingBatches;
+
+    /**
+     * Creates flow rule file loader.
+     *
+     * @param flowRuleService service for injecting flow rules into the environment
+     * @param appId application identifier of the loaded rules
+     * @param batchSize number of rules in a batch of flow rule operations
+     * @param maxPendingBatches number of batches submitted before waiting for their completion
+     */
+    public FlowRuleFileLoader(FlowRuleService flowRuleService, ApplicationId appId,
+                              int batchSize, int maxPendingBatches) {
+        checkArgument(batchSize > 0, "Batch size must be positive");
+        checkArgument(maxPendingBatches > 0, "Pending batches must be positive");
+        this.flowRuleService = flowRuleService;
+        this.appId = appId;
+        this.batchSize = batchSize;
+        this.maxPendingBatches = maxPendingBatches;
+    }
+
+    /**
+     * Reads the file and applies or removes its rules, returning when the
+     * last batch completed.
+     *
+     * @param path path of the file
+     * @param format format of the file lines
+     * @param defaultDevice device of the rules that do not name one, may be null
+     * @param remove whether to remove the rules instead of applying them
+     * @return load report
+     * @throws IOException if the file cannot be read
+     */
+    public FlowLoadReport load(Path path, FlowRuleFormat format, DeviceId defaultDevice, boolean remove)
+            throws IOException {
+        long start = System.nanoTime();
+        Semaphore pendingBatches = new Semaphore(maxPendingBatches);
+        LongAdder failedBatches = new LongAdder();
+        long lines = 0;
+        long rules = 0;
+        long invalidLines = 0;
+        long batches = 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             BufferedReader reader = new BufferedReader(
+                     Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), BUFFER_SIZE), BUFFER_SIZE)) {
+            FlowRuleOperations.Builder ops = FlowRuleOperations.builder();
+            int inBatch = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                FlowRule rule;
+                try {
+                    rule = format.parse(line, defaultDevice, appId);
+                } catch (IllegalArgumentException e) {
+                    if (invalidLines++ < LOGGED_ERRORS) {
+                        log.warn("{}:{}: {}", path, lines, e.getMessage());
+                    }
+                    continue;
+                }
+                if (rule == null) {
+                    continue;
+                }
+                if (remove) {
+                    ops.remove(rule);
+                } else {
+                    ops.add(rule);
+                }
+                rules++;
+                if (++inBatch == batchSize) {
+                    submit(ops, pendingBatches, failedBatches);
+                    batches++;
+                    ops = FlowRuleOperations.builder();
+                    inBatch = 0;
+                }
+            }
+            if (inBatch > 0) {
+                submit(ops, pendingBatches, failedBatches);
+                batches++;
+            }
+            // wait for the completion of the last batches
+            if (!pendingBatches.tryAcquire(maxPendingBatches, COMPLETION_TIMEOUT, TimeUnit.SECONDS)) {
+                log.warn("Batches of {} did not complete in {} seconds", path, COMPLETION_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            log.warn("Loading of {} interrupted", path);
+            Thread.currentThread().interrupt();
+        }
+
+        FlowLoadReport report = new FlowLoadReport(path.toString(), lines, rules, invalidLines, batches,
+                                                   failedBatches.sum(),
+                                                   TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Loaded {}", report);
+        return report;
+    }
+
+    private void submit(FlowRuleOperations.Builder ops, Semaphore pendingBatches, LongAdder failedBatches)
+            throws InterruptedException {
+        pendingBatches.acquire();
+        flowRuleService.apply(ops.build(new FlowRuleOperationsContext() {
+            @Override
+            public void onSuccess(FlowRuleOperations ops) {
+                pendingBatches.release();
+            }
+
+            @Override
+            public void onError(FlowRuleOperations ops) {
+                pendingBatches.release();
+                failedBatches.increment();
+            }
+        }));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest.dispatch;
+
+import org.onosproject.core.ApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.FlowRule;
+
+/**
+ * Format of one line of a flow rule file.
+ */
+public interface FlowRuleFormat {
+
+    /**
+     * Parses one line of the file into a flow rule.
+     *
+     * @param line line of the file without the line terminator
+     * @param defaultDevice device of the rules that do not name one, may be null
+     * @param appId application identifier of the rules
+     * @return flow rule, null if the line holds no rule
+     * @throws IllegalArgumentException if the line cannot be parsed
+     */
+    FlowRule parse(String line, DeviceId defaultDevice, ApplicationId appId);
+
+    /**
+     * Returns the format of the given name: csv, json or payload.
+     *
+     * @param name format name
+     * @return flow rule format
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    static FlowRuleFormat forName(String name) {
+        switch (name.toLowerCase()) {
+            case "csv":
+                return new CsvFlowRuleFormat();
+            case "json":
+            case "jsonl":
+                return new JsonFlowRuleFormat();
+            case "payload":
+            case "txt":
+                return new PayloadFlowRuleFormat();
+            default:
+                throw new IllegalArgumentException("Unknown flow rule format " + name);
+        }
+    }
+
+    /**
+     * Returns the format of the file, chosen by its extension.
+     *
+     * @param path path of the file
+     * @return flow rule format, the payload format for unknown extensions
+     */
+    static FlowRuleFormat forPath(String path) {
+        int dot = path.lastIndexOf('.');
+        try {
+            return forName(dot < 0 ? "payload" : path.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return new PayloadFlowRuleFormat();
+        }
+    }
+}
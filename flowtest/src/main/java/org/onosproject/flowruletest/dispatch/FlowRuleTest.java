@@ -2,17 +2,16 @@ package org.onosproject.flowruletest.dispatch;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
 
 import org.onosproject.core.ApplicationId;
+import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.device.DeviceService;
-import org.onosproject.net.flow.DefaultFlowRule;
-import org.onosproject.net.flow.FlowRule;
-import org.onosproject.net.flow.FlowRuleExtPayLoad;
 import org.onosproject.net.flow.FlowRuleService;
 import org.slf4j.Logger;
 
@@ -25,9 +24,10 @@ public class FlowRuleTest {
     protected FlowRuleService flowRuleService;
     protected DeviceService deviceService;
     private ApplicationId appId;
-    private FlowRule[] flowSet = new DefaultFlowRule[10];
     private DeviceId deviceId;
-    private static final String FILE_NAME = "/src/main/resource/org/onosproject/flowruletest/resource/flowruletest.txt";
+    private static final String FILE_NAME = "/src/main/resource/org/onosproject/flowrule/resource/flowrule.txt";
+    private static final int BATCH_SIZE = 100;
+    private static final int PENDING_BATCHES = 4;
 
     /**
      * Creates a flow rule test object.
@@ -39,58 +39,41 @@ public class FlowRuleTest {
                         DeviceService deviceService, ApplicationId appId) {
         this.flowRuleService = flowRuleService;
         this.deviceService = deviceService;
-        this.deviceId = deviceService.getAvailableDevices().iterator().next().id();
+        Iterator<Device> devices = deviceService.getAvailableDevices().iterator();
+        this.deviceId = devices.hasNext() ? devices.next().id() : null;
         this.appId = appId;
-        loadFile();
     }
 
-    private void loadFile() {
-        String relativelyPath = System.getProperty("user.dir");
-        File flowFile = new File(relativelyPath + FILE_NAME);
-        BufferedReader br = null;
+    private void loadFile(boolean remove) {
+        Path path = Paths.get(System.getProperty("user.dir") + FILE_NAME);
+        if (!Files.isReadable(path)) {
+            log.warn("Flow rule file {} does not exist", path);
+            return;
+        }
+        if (deviceId == null) {
+            log.warn("No available device for the rules of {}", path);
+            return;
+        }
         try {
-            FileReader in = new FileReader(flowFile);
-            br = new BufferedReader(in);
-            FlowRule rule = null;
-            int i = 0;
-            String flow = "";
-            while ((flow = br.readLine()) != null) {
-                rule = buildFlowRule(flow);
-                flowSet[i++] = rule;
-            }
+            new FlowRuleFileLoader(flowRuleService, appId, BATCH_SIZE, PENDING_BATCHES)
+                    .load(path, new PayloadFlowRuleFormat(), deviceId, remove);
         } catch (IOException e) {
-            log.info("file does not exist.");
-        } finally {
-            if (br != null) {
-                try {
-                    br.close();
-                } catch (IOException e) {
-                    log.info("nothing");
-                }
-            }
+            log.warn("Failed to read flow rule file {}", path, e);
         }
     }
 
-    private FlowRule buildFlowRule(String flow) {
-        FlowRuleExtPayLoad payLoad = FlowRuleExtPayLoad.flowRuleExtPayLoad(flow
-                .getBytes());
-        FlowRule flowRule = new DefaultFlowRule(deviceId, null, null, 0, appId,
-                                                0, false, payLoad);
-        return flowRule;
-    }
-
     /**
      * Apply flow rules to specific devices.
      */
     public void applyFlowRules() {
-        flowRuleService.applyFlowRules(flowSet);
+        loadFile(false);
     }
 
     /**
      * Remove flow rules from specific devices.
      */
     public void removeFlowRules() {
-        flowRuleService.removeFlowRules(flowSet);
+        loadFile(true);
     }
 
 }
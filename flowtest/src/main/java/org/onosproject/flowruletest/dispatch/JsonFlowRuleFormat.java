@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest.dispatch;
+
+import java.io.IOException;
+
+import org.onosproject.core.ApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.FlowRule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Flow rule format with one compact JSON object per line, whose members
+ * are the fields of {@link FieldFlowRuleFormat#FIELDS}, for example
+ * {"deviceId":"of:0000000000000001","ethType":"0x800","ipDst":"10.0.0.1","output":"2"}.
+ * Members may be strings or numbers; null members are wildcarded like
+ * missing ones. Empty lines are skipped.
+ */
+public class JsonFlowRuleFormat extends FieldFlowRuleFormat {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    public FlowRule parse(String line, DeviceId defaultDevice, ApplicationId appId) {
+        if (line.trim().isEmpty()) {
+            return null;
+        }
+        JsonNode node;
+        try {
+            node = mapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getMessage(), e);
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Rule is not a JSON object");
+        }
+        return build(name -> text(node, name), defaultDevice, appId);
+    }
+
+    private static String text(JsonNode node, String name) {
+        JsonNode value = node.path(name);
+        if (value.isMissingNode() || value.isNull()) {
+            return null;
+        }
+        if (value.isContainerNode()) {
+            throw new IllegalArgumentException("Invalid " + name + " " + value);
+        }
+        return value.asText();
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest.dispatch;
+
+import org.onosproject.core.ApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.FlowRuleExtPayLoad;
+
+/**
+ * Flow rule format with one extension payload per line, sent to the
+ * default device as is.
+ */
+public class PayloadFlowRuleFormat implements FlowRuleFormat {
+
+    @Override
+    public FlowRule parse(String line, DeviceId defaultDevice, ApplicationId appId) {
+        String payload = line.trim();
+        if (payload.isEmpty()) {
+            return null;
+        }
+        if (defaultDevice == null) {
+            throw new IllegalArgumentException("Device not set");
+        }
+        FlowRuleExtPayLoad payLoad = FlowRuleExtPayLoad.flowRuleExtPayLoad(payload.getBytes());
+        return new DefaultFlowRule(defaultDevice, null, null, 0, appId,
+                                   0, false, payLoad);
+    }
+}
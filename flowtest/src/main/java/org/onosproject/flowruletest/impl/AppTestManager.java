@@ -2,6 +2,13 @@ package org.onosproject.flowruletest.impl;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
@@ -11,7 +18,14 @@ import org.apache.felix.scr.annotations.Service;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
 import org.onosproject.flowruletest.AppTestService;
+import org.onosproject.flowruletest.FlowBenchmarkReport;
+import org.onosproject.flowruletest.FlowLoadReport;
+import org.onosproject.flowruletest.dispatch.FlowRuleBenchmark;
+import org.onosproject.flowruletest.dispatch.FlowRuleFileLoader;
+import org.onosproject.flowruletest.dispatch.FlowRuleFormat;
 import org.onosproject.flowruletest.dispatch.FlowRuleTest;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
 import org.onosproject.net.device.DeviceService;
 import org.onosproject.net.flow.FlowRuleService;
 import org.slf4j.Logger;
@@ -34,6 +48,7 @@ public class AppTestManager implements AppTestService {
     protected DeviceService deviceService;
     private ApplicationId appId;
     FlowRuleTest flowRule;
+    private FlowRuleBenchmark benchmark;
 
     @Activate
     protected void activate() {
@@ -46,6 +61,48 @@ public class AppTestManager implements AppTestService {
     @Deactivate
     protected void deactivate() {
         flowRule.removeFlowRules();
+        if (benchmark != null) {
+            benchmark.close();
+            benchmark = null;
+        }
+        flowRuleService.removeFlowRulesById(appId);
         log.info("APP-TEST Stopped");
     }
+
+    @Override
+    public synchronized void startFlowBenchmark(int rulesPerDevice, int batchSize, int maxPendingBatches) {
+        if (benchmark != null) {
+            benchmark.close();
+        }
+        List<DeviceId> devices = StreamSupport.stream(deviceService.getAvailableDevices().spliterator(), false)
+                .map(Device::id)
+                .collect(Collectors.toList());
+        benchmark = new FlowRuleBenchmark(flowRuleService, devices, appId,
+                                          rulesPerDevice, batchSize, maxPendingBatches);
+        log.info("Installing {} rules on each of {} devices in batches of {}",
+                 rulesPerDevice, devices.size(), batchSize);
+        benchmark.install();
+    }
+
+    @Override
+    public synchronized void removeFlowBenchmarkRules() {
+        if (benchmark != null) {
+            benchmark.remove();
+        }
+    }
+
+    @Override
+    public synchronized FlowBenchmarkReport getFlowBenchmarkReport() {
+        return benchmark == null ? null : benchmark.report();
+    }
+
+    @Override
+    public FlowLoadReport loadFlowRules(String path, String format, int batchSize, int maxPendingBatches,
+                                        boolean remove) throws IOException {
+        FlowRuleFormat ruleFormat = format == null ? FlowRuleFormat.forPath(path) : FlowRuleFormat.forName(format);
+        Iterator<Device> devices = deviceService.getAvailableDevices().iterator();
+        DeviceId defaultDevice = devices.hasNext() ? devices.next().id() : null;
+        return new FlowRuleFileLoader(flowRuleService, appId, batchSize, maxPendingBatches)
+                .load(Paths.get(path), ruleFormat, defaultDevice, remove);
+    }
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest.dispatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.onlab.packet.IpPrefix;
+import org.onlab.packet.TpPort;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.TrafficSelector;
+import org.onosproject.net.flow.criteria.Criteria;
+import org.onosproject.net.flow.criteria.Criterion;
+import org.onosproject.net.flow.instructions.Instructions;
+
+/**
+ * Tests for the CSV flow rule format.
+ */
+public class CsvFlowRuleFormatTest {
+
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.onosproject.flowtest");
+    private static final DeviceId DEVICE = DeviceId.deviceId("of:0000000000000001");
+    private static final DeviceId DEFAULT_DEVICE = DeviceId.deviceId("of:0000000000000002");
+
+    private final CsvFlowRuleFormat format = new CsvFlowRuleFormat();
+
+    private FlowRule parse(String line) {
+        return format.parse(line, DEFAULT_DEVICE, APP_ID);
+    }
+
+    /**
+     * Tests rule with all the fields set.
+     */
+    @Test
+    public void allFields() {
+        FlowRule rule = parse("of:0000000000000001,2000,30,1,0x800,10,10.0.0.1,10.0.0.2/24,17,1000,53,2");
+        assertEquals(DEVICE, rule.deviceId());
+        assertEquals(2000, rule.priority());
+        assertEquals(30, rule.timeout());
+        assertFalse(rule.isPermanent());
+
+        TrafficSelector selector = rule.selector();
+        assertEquals(Criteria.matchInPort(PortNumber.portNumber(1)), selector.getCriterion(Criterion.Type.IN_PORT));
+        assertEquals(Criteria.matchEthType(0x800), selector.getCriterion(Criterion.Type.ETH_TYPE));
+        assertEquals(Criteria.matchIPSrc(IpPrefix.valueOf("10.0.0.1/32")),
+                     selector.getCriterion(Criterion.Type.IPV4_SRC));
+        assertEquals(Criteria.matchIPDst(IpPrefix.valueOf("10.0.0.0/24")),
+                     selector.getCriterion(Criterion.Type.IPV4_DST));
+        assertEquals(Criteria.matchIPProtocol((short) 17), selector.getCriterion(Criterion.Type.IP_PROTO));
+        assertEquals(Criteria.matchUdpSrc(TpPort.tpPort(1000)), selector.getCriterion(Criterion.Type.UDP_SRC));
+        assertEquals(Criteria.matchUdpDst(TpPort.tpPort(53)), selector.getCriterion(Criterion.Type.UDP_DST));
+        assertEquals(Instructions.createOutput(PortNumber.portNumber(2)),
+                     rule.treatment().allInstructions().get(0));
+    }
+
+    /**
+     * Tests that missing fields are wildcarded or take their defaults.
+     */
+    @Test
+    public void missingFields() {
+        FlowRule rule = parse(",,,,0x806");
+        assertEquals(DEFAULT_DEVICE, rule.deviceId());
+        assertEquals(1000, rule.priority());
+        assertTrue(rule.isPermanent());
+        assertEquals(1, rule.selector().criteria().size());
+        assertTrue(rule.treatment().allInstructions().isEmpty());
+    }
+
+    /**
+     * Tests that the prerequisites of the IP and transport fields are added.
+     */
+    @Test
+    public void prerequisites() {
+        TrafficSelector selector = parse(",,,,,,,10.0.0.2").selector();
+        assertEquals(Criteria.matchEthType(0x800), selector.getCriterion(Criterion.Type.ETH_TYPE));
+
+        selector = parse(",,,,,,,,,,80").selector();
+        assertEquals(Criteria.matchEthType(0x800), selector.getCriterion(Criterion.Type.ETH_TYPE));
+        assertEquals(Criteria.matchIPProtocol((short) 6), selector.getCriterion(Criterion.Type.IP_PROTO));
+        assertEquals(Criteria.matchTcpDst(TpPort.tpPort(80)), selector.getCriterion(Criterion.Type.TCP_DST));
+
+        selector = parse(",,,,0x86dd,,,,6").selector();
+        assertEquals(Criteria.matchEthType(0x86dd), selector.getCriterion(Criterion.Type.ETH_TYPE));
+    }
+
+    /**
+     * Tests that comment, header and empty lines hold no rule.
+     */
+    @Test
+    public void skippedLines() {
+        assertNull(parse(""));
+        assertNull(parse("# rules of the first switch"));
+        assertNull(parse(String.join(",", FieldFlowRuleFormat.FIELDS)));
+    }
+
+    /**
+     * Tests that rule without device is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void missingDevice() {
+        format.parse(",,,,0x800", null, APP_ID);
+    }
+
+    /**
+     * Tests that rule with too many columns is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyColumns() {
+        parse(",,,,,,,,,,,,1");
+    }
+
+    /**
+     * Tests that number field with bad value is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void badNumber() {
+        parse(",,,,ipv4");
+    }
+
+    /**
+     * Tests that bad IP prefix is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void badPrefix() {
+        parse(",,,,,,,10.0.0.300");
+    }
+
+    /**
+     * Tests that IPv6 address in the IPv4 field is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void ipv6Prefix() {
+        parse(",,,,,,,::1");
+    }
+
+    /**
+     * Tests that transport port out of range is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void badPort() {
+        parse(",,,,,,,,,,70000");
+    }
+
+    /**
+     * Tests that IP field contradicting the ethType is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void ethTypeMismatch() {
+        parse(",,,,0x806,,,10.0.0.2");
+    }
+
+    /**
+     * Tests that transport port contradicting the ipProto is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void protocolMismatch() {
+        parse(",,,,,,,,1,,80");
+    }
+}
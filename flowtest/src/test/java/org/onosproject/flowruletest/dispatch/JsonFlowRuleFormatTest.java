@@ -0,0 +1,144 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.flowruletest.dispatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.onlab.packet.IpPrefix;
+import org.onlab.packet.TpPort;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.TrafficSelector;
+import org.onosproject.net.flow.criteria.Criteria;
+import org.onosproject.net.flow.criteria.Criterion;
+import org.onosproject.net.flow.instructions.Instructions;
+
+/**
+ * Tests for the JSON flow rule format.
+ */
+public class JsonFlowRuleFormatTest {
+
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.onosproject.flowtest");
+    private static final DeviceId DEVICE = DeviceId.deviceId("of:0000000000000001");
+    private static final DeviceId DEFAULT_DEVICE = DeviceId.deviceId("of:0000000000000002");
+
+    private final JsonFlowRuleFormat format = new JsonFlowRuleFormat();
+
+    private FlowRule parse(String line) {
+        return format.parse(line, DEFAULT_DEVICE, APP_ID);
+    }
+
+    /**
+     * Tests rule with string and number members.
+     */
+    @Test
+    public void validRule() {
+        FlowRule rule = parse("{\"deviceId\":\"of:0000000000000001\",\"priority\":2000,\"timeout\":30,"
+                + "\"ethType\":\"0x800\",\"ipDst\":\"10.0.0.1\",\"ipProto\":6,\"tpDst\":80,\"output\":\"2\"}");
+        assertEquals(DEVICE, rule.deviceId());
+        assertEquals(2000, rule.priority());
+        assertEquals(30, rule.timeout());
+        assertFalse(rule.isPermanent());
+
+        TrafficSelector selector = rule.selector();
+        assertEquals(4, selector.criteria().size());
+        assertEquals(Criteria.matchEthType(0x800), selector.getCriterion(Criterion.Type.ETH_TYPE));
+        assertEquals(Criteria.matchIPDst(IpPrefix.valueOf("10.0.0.1/32")),
+                     selector.getCriterion(Criterion.Type.IPV4_DST));
+        assertEquals(Criteria.matchIPProtocol((short) 6), selector.getCriterion(Criterion.Type.IP_PROTO));
+        assertEquals(Criteria.matchTcpDst(TpPort.tpPort(80)), selector.getCriterion(Criterion.Type.TCP_DST));
+        assertEquals(Instructions.createOutput(PortNumber.portNumber(2)),
+                     rule.treatment().allInstructions().get(0));
+    }
+
+    /**
+     * Tests that null members are wildcarded like missing ones.
+     */
+    @Test
+    public void nullMembers() {
+        FlowRule rule = parse("{\"deviceId\":null,\"ipDst\":null,\"tpDst\":null,\"output\":\"controller\"}");
+        assertEquals(DEFAULT_DEVICE, rule.deviceId());
+        assertEquals(1000, rule.priority());
+        assertTrue(rule.isPermanent());
+        assertTrue(rule.selector().criteria().isEmpty());
+        assertEquals(Instructions.createOutput(PortNumber.CONTROLLER),
+                     rule.treatment().allInstructions().get(0));
+    }
+
+    /**
+     * Tests that the prerequisites of the IP fields are added.
+     */
+    @Test
+    public void prerequisites() {
+        TrafficSelector selector = parse("{\"ipSrc\":\"10.0.0.0/8\"}").selector();
+        assertEquals(Criteria.matchEthType(0x800), selector.getCriterion(Criterion.Type.ETH_TYPE));
+    }
+
+    /**
+     * Tests that empty lines hold no rule.
+     */
+    @Test
+    public void emptyLine() {
+        assertNull(parse(" "));
+    }
+
+    /**
+     * Tests that rule without device is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void missingDevice() {
+        format.parse("{\"ethType\":\"0x800\"}", null, APP_ID);
+    }
+
+    /**
+     * Tests that malformed JSON is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void malformed() {
+        parse("{\"ethType\":");
+    }
+
+    /**
+     * Tests that line which is not a JSON object is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void notObject() {
+        parse("[\"of:0000000000000001\"]");
+    }
+
+    /**
+     * Tests that member holding an object is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void objectMember() {
+        parse("{\"ipDst\":{\"address\":\"10.0.0.1\"}}");
+    }
+
+    /**
+     * Tests that number field with bad value is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void badNumber() {
+        parse("{\"priority\":\"high\"}");
+    }
+}
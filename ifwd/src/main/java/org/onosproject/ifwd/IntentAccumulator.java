@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ifwd;
+
+import org.onlab.util.AbstractAccumulator;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentService;
+import org.onosproject.net.intent.Key;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+
+/**
+ * Coalesces host-to-host intents requested within a short time window and
+ * submits them together, keeping only the latest intent for each key.
+ */
+public class IntentAccumulator extends AbstractAccumulator<Intent> {
+
+    private static final int MAX_INTENTS = 1000;
+    private static final int MAX_BATCH_MS = 50;
+    private static final int MAX_IDLE_MS = 10;
+
+    private final IntentService intentService;
+
+    /**
+     * Creates an intent accumulator submitting to the given intent service.
+     *
+     * @param timer timer used to trigger batch processing
+     * @param intentService intent service
+     */
+    public IntentAccumulator(Timer timer, IntentService intentService) {
+        super(timer, MAX_INTENTS, MAX_BATCH_MS, MAX_IDLE_MS);
+        this.intentService = intentService;
+    }
+
+    @Override
+    public void processItems(List<Intent> items) {
+        Map<Key, Intent> intents = new LinkedHashMap<>();
+        items.forEach(intent -> intents.put(intent.key(), intent));
+        intents.values().forEach(intentService::submit);
+    }
+}
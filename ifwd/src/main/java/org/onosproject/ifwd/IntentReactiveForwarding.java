@@ -15,14 +15,21 @@
  */
 package org.onosproject.ifwd;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Modified;
+import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
+import org.apache.felix.scr.annotations.Service;
 import org.onlab.packet.Ethernet;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreService;
+import org.onosproject.net.DeviceId;
 import org.onosproject.net.Host;
 import org.onosproject.net.HostId;
 import org.onosproject.net.PortNumber;
@@ -36,6 +43,9 @@ import org.onosproject.net.flowobjective.FlowObjectiveService;
 import org.onosproject.net.flowobjective.ForwardingObjective;
 import org.onosproject.net.host.HostService;
 import org.onosproject.net.intent.HostToHostIntent;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentEvent;
+import org.onosproject.net.intent.IntentListener;
 import org.onosproject.net.intent.IntentService;
 import org.onosproject.net.intent.IntentState;
 import org.onosproject.net.intent.Key;
@@ -47,17 +57,28 @@ import org.onosproject.net.packet.PacketPriority;
 import org.onosproject.net.packet.PacketProcessor;
 import org.onosproject.net.packet.PacketService;
 import org.onosproject.net.topology.TopologyService;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 
+import java.util.Dictionary;
 import java.util.EnumSet;
-
+import java.util.Map;
+import java.util.Objects;
+import java.util.Timer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.onlab.util.Tools.get;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * WORK-IN-PROGRESS: Sample reactive forwarding application using intent framework.
  */
 @Component(immediate = true)
-public class IntentReactiveForwarding {
+@Service
+public class IntentReactiveForwarding implements IntentReactiveForwardingService {
 
     private final Logger log = getLogger(getClass());
 
@@ -82,9 +103,39 @@ public class IntentReactiveForwarding {
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected FlowObjectiveService flowObjectiveService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected ComponentConfigService cfgService;
+
+    private static final int PACKET_IN_RATE = 1000;
+    private static final int PACKET_IN_BURST = 2000;
+    private static final int PENDING_PAIR_TIMEOUT = 500;
+
+    @Property(name = "packetInRate", intValue = PACKET_IN_RATE,
+            label = "Packet-ins per second handled for each device, 0 for unlimited")
+    private int packetInRate = PACKET_IN_RATE;
+
+    @Property(name = "packetInBurst", intValue = PACKET_IN_BURST,
+            label = "Maximum number of packet-ins handled in a burst for each device")
+    private int packetInBurst = PACKET_IN_BURST;
+
+    @Property(name = "pendingPairTimeout", intValue = PENDING_PAIR_TIMEOUT,
+            label = "Time in milliseconds during which further packet-ins of a host pair "
+                    + "being set up are only forwarded")
+    private int pendingPairTimeout = PENDING_PAIR_TIMEOUT;
+
     private ReactivePacketProcessor processor = new ReactivePacketProcessor();
+    private final IntentListener intentListener = new InternalIntentListener();
     private ApplicationId appId;
 
+    // Last known state of the host pair intents of this app, kept up to date by intent events
+    private final ConcurrentMap<Key, IntentState> intentStates = new ConcurrentHashMap<>();
+    private Timer intentTimer;
+    private IntentAccumulator intentAccumulator;
+
+    private final PacketInLimiter packetInLimiter = new PacketInLimiter(PACKET_IN_RATE, PACKET_IN_BURST);
+    // Recently processed host pairs and their destination, expiring after the pending pair timeout
+    private volatile Cache<HostPair, Host> pendingPairs = newPendingPairs(PENDING_PAIR_TIMEOUT);
+
     private static final int DROP_RULE_TIMEOUT = 300;
 
     private static final EnumSet<IntentState> WITHDRAWN_STATES = EnumSet.of(IntentState.WITHDRAWN,
@@ -92,8 +143,15 @@ public class IntentReactiveForwarding {
                                                                             IntentState.WITHDRAW_REQ);
 
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
         appId = coreService.registerApplication("org.onosproject.ifwd");
+        cfgService.registerProperties(getClass());
+        readComponentConfiguration(context);
+
+        intentTimer = new Timer("onos-ifwd-intents");
+        intentAccumulator = new IntentAccumulator(intentTimer, intentService);
+        intentService.addListener(intentListener);
+        loadIntentStates();
 
         packetService.addProcessor(processor, PacketProcessor.director(2));
 
@@ -106,11 +164,63 @@ public class IntentReactiveForwarding {
 
     @Deactivate
     public void deactivate() {
+        cfgService.unregisterProperties(getClass(), false);
         packetService.removeProcessor(processor);
         processor = null;
+        intentService.removeListener(intentListener);
+        intentTimer.cancel();
+        intentStates.clear();
+        pendingPairs.invalidateAll();
+        packetInLimiter.clear();
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        readComponentConfiguration(context);
+        log.info("Reconfigured");
+    }
+
+    @Override
+    public Map<DeviceId, PacketInCounters> packetInCounters() {
+        return packetInLimiter.counters();
+    }
+
+    /**
+     * Extracts properties from the component configuration context.
+     *
+     * @param context the component context
+     */
+    private void readComponentConfiguration(ComponentContext context) {
+        Dictionary<?, ?> properties = context.getProperties();
+        packetInRate = getInt(properties, "packetInRate", packetInRate);
+        packetInBurst = getInt(properties, "packetInBurst", packetInBurst);
+        int timeout = getInt(properties, "pendingPairTimeout", pendingPairTimeout);
+        if (timeout != pendingPairTimeout) {
+            pendingPairTimeout = timeout;
+            pendingPairs = newPendingPairs(pendingPairTimeout);
+        }
+        packetInLimiter.setBudget(packetInRate, packetInBurst);
+        log.info("Configured. Packet-in rate is {}/s, burst {}, pending pair timeout {}ms",
+                 packetInRate, packetInBurst, pendingPairTimeout);
+    }
+
+    private int getInt(Dictionary<?, ?> properties, String name, int current) {
+        String s = get(properties, name);
+        try {
+            return isNullOrEmpty(s) ? current : Integer.parseInt(s.trim());
+        } catch (NumberFormatException | ClassCastException e) {
+            log.info("{} Format Exception", name);
+            return current;
+        }
+    }
+
+    private static Cache<HostPair, Host> newPendingPairs(int timeout) {
+        return CacheBuilder.newBuilder()
+                .expireAfterWrite(Math.max(timeout, 0), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
     /**
      * Packet processor responsible for forwarding packets along their paths.
      */
@@ -130,11 +240,28 @@ public class IntentReactiveForwarding {
                 return;
             }
 
+            // Drop packets beyond the budget of the device they came from.
+            DeviceId deviceId = pkt.receivedFrom().deviceId();
+            if (!packetInLimiter.tryAcquire(deviceId)) {
+                context.block();
+                return;
+            }
+
             HostId srcId = HostId.hostId(ethPkt.getSourceMAC());
             HostId dstId = HostId.hostId(ethPkt.getDestinationMAC());
 
+            // Is this pair being set up already? If so, just forward.
+            HostPair pair = new HostPair(srcId, dstId);
+            Cache<HostPair, Host> pending = pendingPairs;
+            Host dst = pending.getIfPresent(pair);
+            if (dst != null) {
+                packetInLimiter.deduplicated(deviceId);
+                forwardPacketToDst(context, dst);
+                return;
+            }
+
             // Do we know who this is for? If not, flood and bail.
-            Host dst = hostService.getHost(dstId);
+            dst = hostService.getHost(dstId);
             if (dst == null) {
                 flood(context);
                 return;
@@ -142,6 +269,7 @@ public class IntentReactiveForwarding {
 
             // Otherwise forward and be done with it.
             setUpConnectivity(context, srcId, dstId);
+            pending.put(pair, dst);
             forwardPacketToDst(context, dst);
         }
     }
@@ -167,14 +295,11 @@ public class IntentReactiveForwarding {
         OutboundPacket packet = new DefaultOutboundPacket(dst.location().deviceId(),
                                                           treatment, context.inPacket().unparsed());
         packetService.emit(packet);
-        log.info("sending packet: {}", packet);
+        log.trace("sending packet: {}", packet);
     }
 
     // Install a rule forwarding the packet to the specified port.
     private void setUpConnectivity(PacketContext context, HostId srcId, HostId dstId) {
-        TrafficSelector selector = DefaultTrafficSelector.emptySelector();
-        TrafficTreatment treatment = DefaultTrafficTreatment.emptyTreatment();
-
         Key key;
         if (srcId.toString().compareTo(dstId.toString()) < 0) {
             key = Key.of(srcId.toString() + dstId.toString(), appId);
@@ -182,53 +307,140 @@ public class IntentReactiveForwarding {
             key = Key.of(dstId.toString() + srcId.toString(), appId);
         }
 
-        HostToHostIntent intent = (HostToHostIntent) intentService.getIntent(key);
+        IntentState state = intentStates.get(key);
         // TODO handle the FAILED state
-        if (intent != null) {
-            if (WITHDRAWN_STATES.contains(intentService.getIntentState(key))) {
-                HostToHostIntent hostIntent = HostToHostIntent.builder()
-                        .appId(appId)
-                        .key(key)
-                        .one(srcId)
-                        .two(dstId)
-                        .selector(selector)
-                        .treatment(treatment)
-                        .build();
-
-                intentService.submit(hostIntent);
-            } else if (intentService.getIntentState(key) == IntentState.FAILED) {
-
-                TrafficSelector objectiveSelector = DefaultTrafficSelector.builder()
-                        .matchEthSrc(srcId.mac()).matchEthDst(dstId.mac()).build();
-
-                TrafficTreatment dropTreatment = DefaultTrafficTreatment.builder()
-                        .drop().build();
-
-                ForwardingObjective objective = DefaultForwardingObjective.builder()
-                        .withSelector(objectiveSelector)
-                        .withTreatment(dropTreatment)
-                        .fromApp(appId)
-                        .withPriority(intent.priority() - 1)
-                        .makeTemporary(DROP_RULE_TIMEOUT)
-                        .withFlag(ForwardingObjective.Flag.VERSATILE)
-                        .add();
-
-                flowObjectiveService.forward(context.outPacket().sendThrough(), objective);
+        if (state == null || WITHDRAWN_STATES.contains(state)) {
+            submitIntent(key, srcId, dstId);
+        } else if (state == IntentState.FAILED) {
+            Intent intent = intentService.getIntent(key);
+            if (intent == null) {
+                submitIntent(key, srcId, dstId);
+                return;
+            }
+
+            TrafficSelector objectiveSelector = DefaultTrafficSelector.builder()
+                    .matchEthSrc(srcId.mac()).matchEthDst(dstId.mac()).build();
+
+            TrafficTreatment dropTreatment = DefaultTrafficTreatment.builder()
+                    .drop().build();
+
+            ForwardingObjective objective = DefaultForwardingObjective.builder()
+                    .withSelector(objectiveSelector)
+                    .withTreatment(dropTreatment)
+                    .fromApp(appId)
+                    .withPriority(intent.priority() - 1)
+                    .makeTemporary(DROP_RULE_TIMEOUT)
+                    .withFlag(ForwardingObjective.Flag.VERSATILE)
+                    .add();
+
+            flowObjectiveService.forward(context.outPacket().sendThrough(), objective);
+        }
+    }
+
+    // Queues a host to host intent for the next batched submit and marks it as requested.
+    private void submitIntent(Key key, HostId srcId, HostId dstId) {
+        IntentState previous = intentStates.get(key);
+        boolean requested = previous == null ?
+                intentStates.putIfAbsent(key, IntentState.INSTALL_REQ) == null :
+                intentStates.replace(key, previous, IntentState.INSTALL_REQ);
+        if (!requested) {
+            // another packet for the same pair got here first
+            return;
+        }
+
+        HostToHostIntent hostIntent = HostToHostIntent.builder()
+                .appId(appId)
+                .key(key)
+                .one(srcId)
+                .two(dstId)
+                .selector(DefaultTrafficSelector.emptySelector())
+                .treatment(DefaultTrafficTreatment.emptyTreatment())
+                .build();
+
+        intentAccumulator.add(hostIntent);
+    }
+
+    // Seeds the intent state cache with the intents of this app already in the store.
+    private void loadIntentStates() {
+        for (Intent intent : intentService.getIntents()) {
+            if (appId.equals(intent.appId())) {
+                IntentState state = intentService.getIntentState(intent.key());
+                if (state != null) {
+                    intentStates.putIfAbsent(intent.key(), state);
+                }
+            }
+        }
+    }
+
+    /**
+     * Source and destination of the packets of a host pair being set up.
+     */
+    private static final class HostPair {
+        private final HostId src;
+        private final HostId dst;
+
+        private HostPair(HostId src, HostId dst) {
+            this.src = src;
+            this.dst = dst;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(src, dst);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
             }
+            if (!(obj instanceof HostPair)) {
+                return false;
+            }
+            HostPair that = (HostPair) obj;
+            return Objects.equals(src, that.src) && Objects.equals(dst, that.dst);
+        }
+    }
+
+    /**
+     * Keeps the intent state cache in sync with the intent store.
+     */
+    private class InternalIntentListener implements IntentListener {
 
-        } else if (intent == null) {
-            HostToHostIntent hostIntent = HostToHostIntent.builder()
-                    .appId(appId)
-                    .key(key)
-                    .one(srcId)
-                    .two(dstId)
-                    .selector(selector)
-                    .treatment(treatment)
-                    .build();
-
-            intentService.submit(hostIntent);
+        @Override
+        public boolean isRelevant(IntentEvent event) {
+            return appId.equals(event.subject().appId());
         }
 
+        @Override
+        public void event(IntentEvent event) {
+            Key key = event.subject().key();
+            switch (event.type()) {
+                case INSTALL_REQ:
+                    intentStates.put(key, IntentState.INSTALL_REQ);
+                    break;
+                case INSTALLED:
+                    intentStates.put(key, IntentState.INSTALLED);
+                    break;
+                case FAILED:
+                    intentStates.put(key, IntentState.FAILED);
+                    break;
+                case WITHDRAW_REQ:
+                    intentStates.put(key, IntentState.WITHDRAW_REQ);
+                    break;
+                case WITHDRAWN:
+                    intentStates.put(key, IntentState.WITHDRAWN);
+                    break;
+                case CORRUPT:
+                    intentStates.put(key, IntentState.CORRUPT);
+                    break;
+                case PURGED:
+                    intentStates.remove(key);
+                    break;
+                default:
+                    break;
+            }
+        }
     }
 
 }
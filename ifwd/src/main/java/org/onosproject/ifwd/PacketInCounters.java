@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ifwd;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Packet-in counters of a single device.
+ */
+public final class PacketInCounters {
+
+    private final long accepted;
+    private final long deduplicated;
+    private final long dropped;
+
+    /**
+     * Creates packet-in counters.
+     *
+     * @param accepted number of packet-ins within the device budget
+     * @param deduplicated number of accepted packet-ins that were only forwarded
+     *                     because their host pair was already being set up
+     * @param dropped number of packet-ins dropped because the device budget was exceeded
+     */
+    public PacketInCounters(long accepted, long deduplicated, long dropped) {
+        this.accepted = accepted;
+        this.deduplicated = deduplicated;
+        this.dropped = dropped;
+    }
+
+    /**
+     * Returns number of packet-ins within the device budget.
+     *
+     * @return number of accepted packet-ins
+     */
+    public long accepted() {
+        return accepted;
+    }
+
+    /**
+     * Returns number of accepted packet-ins that were only forwarded because
+     * their host pair was already being set up.
+     *
+     * @return number of deduplicated packet-ins
+     */
+    public long deduplicated() {
+        return deduplicated;
+    }
+
+    /**
+     * Returns number of packet-ins dropped because the device budget was exceeded.
+     *
+     * @return number of dropped packet-ins
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("accepted", accepted)
+                .add("deduplicated", deduplicated)
+                .add("dropped", dropped)
+                .toString();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ifwd;
+
+import com.google.common.collect.ImmutableMap;
+import org.onosproject.net.DeviceId;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per device token bucket limiting the packet-ins handled by the reactive
+ * processor, so that a single device cannot monopolize the packet processor
+ * thread. Also keeps per device packet-in counters.
+ */
+public class PacketInLimiter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentMap<DeviceId, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private volatile int rate;
+    private volatile int burst;
+
+    /**
+     * Creates a packet-in limiter.
+     *
+     * @param rate packet-ins per second handled for each device, 0 for unlimited
+     * @param burst maximum number of packet-ins handled in a burst
+     */
+    public PacketInLimiter(int rate, int burst) {
+        setBudget(rate, burst);
+    }
+
+    /**
+     * Changes the packet-in budget of all devices.
+     *
+     * @param rate packet-ins per second handled for each device, 0 for unlimited
+     * @param burst maximum number of packet-ins handled in a burst
+     */
+    public void setBudget(int rate, int burst) {
+        this.rate = rate;
+        this.burst = Math.max(burst, 1);
+    }
+
+    /**
+     * Takes a token from the bucket of the device the packet was received from.
+     *
+     * @param deviceId device that sent the packet-in
+     * @return true if the packet-in should be handled, false if it should be dropped
+     */
+    public boolean tryAcquire(DeviceId deviceId) {
+        return buckets.computeIfAbsent(deviceId, d -> new Bucket(burst)).tryAcquire(rate, burst);
+    }
+
+    /**
+     * Counts a packet-in that was only forwarded because its host pair is already being set up.
+     *
+     * @param deviceId device that sent the packet-in
+     */
+    public void deduplicated(DeviceId deviceId) {
+        Bucket bucket = buckets.get(deviceId);
+        if (bucket != null) {
+            bucket.deduplicated();
+        }
+    }
+
+    /**
+     * Returns the packet-in counters of all devices that sent packet-ins.
+     *
+     * @return packet-in counters by device
+     */
+    public Map<DeviceId, PacketInCounters> counters() {
+        ImmutableMap.Builder<DeviceId, PacketInCounters> counters = ImmutableMap.builder();
+        buckets.forEach((deviceId, bucket) -> counters.put(deviceId, bucket.counters()));
+        return counters.build();
+    }
+
+    /**
+     * Clears the buckets and counters of all devices.
+     */
+    public void clear() {
+        buckets.clear();
+    }
+
+    /**
+     * Token bucket and counters of a single device.
+     */
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+        private long accepted;
+        private long deduplicated;
+        private long dropped;
+
+        private Bucket(int burst) {
+            this.tokens = burst;
+        }
+
+        private synchronized boolean tryAcquire(int rate, int burst) {
+            if (rate <= 0) {
+                accepted++;
+                return true;
+            }
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (double) (now - lastRefill) * rate / NANOS_PER_SECOND);
+            lastRefill = now;
+            if (tokens < 1) {
+                dropped++;
+                return false;
+            }
+            tokens--;
+            accepted++;
+            return true;
+        }
+
+        private synchronized void deduplicated() {
+            deduplicated++;
+        }
+
+        private synchronized PacketInCounters counters() {
+            return new PacketInCounters(accepted, deduplicated, dropped);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ifwd.cli;
+
+import org.apache.karaf.shell.commands.Command;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.ifwd.IntentReactiveForwardingService;
+import org.onosproject.ifwd.PacketInCounters;
+import org.onosproject.net.DeviceId;
+
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * CLI to show the per device packet-in counters of the reactive forwarding.
+ */
+@Command(scope = "onos", name = "ifwd-packet-ins",
+        description = "Shows per device packet-in counters of the intent reactive forwarding")
+public class PacketInCountersCommand extends AbstractShellCommand {
+
+    private static final String FORMAT = "%s: accepted=%d, deduplicated=%d, dropped=%d";
+
+    @Override
+    protected void execute() {
+        Map<DeviceId, PacketInCounters> counters = get(IntentReactiveForwardingService.class).packetInCounters();
+        counters.entrySet().stream()
+                .sorted(Comparator.comparing(e -> e.getKey().toString()))
+                .forEach(e -> print(FORMAT, e.getKey(), e.getValue().accepted(),
+                                    e.getValue().deduplicated(), e.getValue().dropped()));
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+/**
+ * IPFIX Data record of a flow whose counters can be merged in the flow cache.
+ */
+public interface AggregatableDataRecord {
+
+    /**
+     * Merges counters of another observation of the same flow into this record.
+     *
+     * @param start start timestamp of the observed flow
+     * @param end end timestamp of the observed flow
+     * @param octets number of bytes matched by the observed flow
+     * @param packets number of packets matched by the observed flow
+     */
+    void aggregate(long start, long end, long octets, long packets);
+}
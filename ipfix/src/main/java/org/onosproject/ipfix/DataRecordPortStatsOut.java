@@ -15,11 +15,13 @@
  */
 package org.onosproject.ipfix;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 import org.onlab.packet.Ip6Address;
 import org.onlab.packet.IpAddress;
 import org.onosproject.ipfix.packet.DataRecord;
+import org.onosproject.ipfix.packet.EncodedTemplateRecord;
 import org.onosproject.ipfix.packet.HeaderException;
 import org.onosproject.ipfix.packet.Ie;
 import org.onosproject.ipfix.packet.InformationElement;
@@ -36,6 +38,11 @@ public class DataRecordPortStatsOut extends DataRecord {
     public static final int FIELD_COUNT = 7;
     public static final int LENGTH = 56;
 
+    /**
+     * IPFIX Template record of this data record, encoded once for the export.
+     */
+    public static final EncodedTemplateRecord TEMPLATE_RECORD = EncodedTemplateRecord.of(portStatsOutTemplateRecord());
+
     private IpAddress exporterIPv4Address;
     private Ip6Address exporterIPv6Address;
     private int egressInterface;
@@ -91,6 +98,21 @@ public class DataRecordPortStatsOut extends DataRecord {
         }
     }
 
+    @Override
+    public void writeTo(ByteBuffer buffer) throws HeaderException {
+        try {
+            buffer.put(exporterIPv4Address.toOctets());
+            buffer.put(exporterIPv6Address.toOctets());
+            buffer.putInt(egressInterface);
+            buffer.putLong(octetDeltaCount);
+            buffer.putLong(packetDeltaCount);
+            buffer.putLong(flowStartMilliseconds);
+            buffer.putLong(flowEndMilliseconds);
+        } catch (Exception e) {
+            throw new HeaderException("Error while writing the bytes: " + e.getMessage());
+        }
+    }
+
     /**
      * IPFIX template record for switch port transmit statistics.
      *
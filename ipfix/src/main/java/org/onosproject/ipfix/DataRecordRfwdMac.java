@@ -15,12 +15,14 @@
  */
 package org.onosproject.ipfix;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 import org.onlab.packet.Ip6Address;
 import org.onlab.packet.IpAddress;
 import org.onlab.packet.MacAddress;
 import org.onosproject.ipfix.packet.DataRecord;
+import org.onosproject.ipfix.packet.EncodedTemplateRecord;
 import org.onosproject.ipfix.packet.HeaderException;
 import org.onosproject.ipfix.packet.Ie;
 import org.onosproject.ipfix.packet.InformationElement;
@@ -33,11 +35,16 @@ import com.google.common.primitives.Shorts;
 /**
  * IPFIX Data record for Reactive Forwarding application with L2 fields matching.
  */
-public class DataRecordRfwdMac extends DataRecord {
+public class DataRecordRfwdMac extends DataRecord implements AggregatableDataRecord {
     public static final int TEMPLATE_ID = 331;
     public static final int FIELD_COUNT = 12;
     public static final int LENGTH = 76;
 
+    /**
+     * IPFIX Template record of this data record, encoded once for the export.
+     */
+    public static final EncodedTemplateRecord TEMPLATE_RECORD = EncodedTemplateRecord.of(getTemplateRecord());
+
     private IpAddress exporterIPv4Address;
     private IpAddress exporterIPv6Address;
     private long flowStartMilliseconds;
@@ -94,6 +101,14 @@ public class DataRecordRfwdMac extends DataRecord {
         vlanId = vlan;
     }
 
+    @Override
+    public void aggregate(long start, long end, long octets, long packets) {
+        flowStartMilliseconds = Math.min(flowStartMilliseconds, start);
+        flowEndMilliseconds = Math.max(flowEndMilliseconds, end);
+        octetDeltaCount += octets;
+        packetDeltaCount += packets;
+    }
+
     @Override
     public int getLength() {
         return LENGTH;
@@ -123,6 +138,26 @@ public class DataRecordRfwdMac extends DataRecord {
         }
     }
 
+    @Override
+    public void writeTo(ByteBuffer buffer) throws HeaderException {
+        try {
+            buffer.put(exporterIPv4Address.toOctets());
+            buffer.put(exporterIPv6Address.toOctets());
+            buffer.putLong(flowStartMilliseconds);
+            buffer.putLong(flowEndMilliseconds);
+            buffer.putLong(octetDeltaCount);
+            buffer.putLong(packetDeltaCount);
+            buffer.putInt(ingressInterface);
+            buffer.putInt(egressInterface);
+            putMac(buffer, sourceMacAddress);
+            putMac(buffer, destinationMacAddress);
+            buffer.putShort(ethernetType);
+            buffer.putShort(vlanId);
+        } catch (Exception e) {
+            throw new HeaderException("Error while writing the bytes: " + e.getMessage());
+        }
+    }
+
     /**
      * IPFIX Template record for Reactive Forwarding application with L2 fields matching.
      *
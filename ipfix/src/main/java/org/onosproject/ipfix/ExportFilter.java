@@ -0,0 +1,201 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.CoreService;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.TrafficSelector;
+import org.onosproject.net.flow.criteria.Criterion;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Compiled filter selecting the flows exported over IPFIX.
+ * Flow is exported when it was installed by one of the configured
+ * applications and its selector satisfies the configured criteria.
+ * Application names are resolved to their short identifiers once, on the
+ * first flow of each application, so that per-flow evaluation is an array
+ * lookup followed by a few selector criterion checks.
+ *
+ * Applications are configured as comma separated list of application
+ * names, each optionally followed by the base Template ID of its template
+ * family, e.g. {@code org.onosproject.fwd,org.onosproject.ifwd:351}.
+ * Selector filter is comma separated list of criterion types that must be
+ * present, or must be absent when prefixed by {@code !}, in the flow
+ * selector, e.g. {@code IPV4_DST,!VLAN_VID}.
+ */
+public final class ExportFilter {
+
+    private static final Object NOT_EXPORTED = new Object();
+    private static final int INITIAL_IDS = 64;
+
+    private final CoreService coreService;
+    private final Map<String, TemplateFamily> applications;
+    private final Criterion.Type[] required;
+    private final Criterion.Type[] excluded;
+
+    // template family per application short identifier, resolved on first use
+    private volatile Object[] resolved = new Object[INITIAL_IDS];
+
+    private ExportFilter(CoreService coreService, Map<String, TemplateFamily> applications,
+                         Criterion.Type[] required, Criterion.Type[] excluded) {
+        this.coreService = coreService;
+        this.applications = applications;
+        this.required = required;
+        this.excluded = excluded;
+    }
+
+    /**
+     * Compiles the export filter from its configuration.
+     *
+     * @param coreService core service used to resolve application identifiers
+     * @param applications comma separated application names with optional base Template IDs
+     * @param selectorFilter comma separated required or excluded criterion types
+     * @return compiled export filter
+     * @throws IllegalArgumentException if the configuration can not be parsed, or base Template IDs
+     *                                  are invalid, duplicate or their template families overlap
+     */
+    public static ExportFilter compile(CoreService coreService, String applications, String selectorFilter) {
+        Map<String, TemplateFamily> families = new HashMap<>();
+        for (String app : split(applications)) {
+            int colon = app.lastIndexOf(':');
+            if (colon < 0) {
+                families.put(app, TemplateFamily.DEFAULT);
+                continue;
+            }
+            TemplateFamily family;
+            try {
+                family = TemplateFamily.of(Integer.parseInt(app.substring(colon + 1).trim()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Rejected " + app + ": " + e.getMessage());
+            }
+            for (Map.Entry<String, TemplateFamily> other : families.entrySet()) {
+                if (other.getValue() != TemplateFamily.DEFAULT && other.getValue().overlaps(family)) {
+                    throw new IllegalArgumentException("Rejected " + app + ": Template IDs overlap those of "
+                            + other.getKey());
+                }
+            }
+            families.put(app.substring(0, colon).trim(), family);
+        }
+
+        List<Criterion.Type> required = new ArrayList<>();
+        List<Criterion.Type> excluded = new ArrayList<>();
+        for (String type : split(selectorFilter)) {
+            if (type.startsWith("!")) {
+                excluded.add(Criterion.Type.valueOf(type.substring(1).trim()));
+            } else {
+                required.add(Criterion.Type.valueOf(type));
+            }
+        }
+
+        return new ExportFilter(coreService, families,
+                required.toArray(new Criterion.Type[required.size()]),
+                excluded.toArray(new Criterion.Type[excluded.size()]));
+    }
+
+    private static List<String> split(String list) {
+        List<String> items = new ArrayList<>();
+        if (list != null) {
+            for (String item : list.split(",")) {
+                if (!item.trim().isEmpty()) {
+                    items.add(item.trim());
+                }
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Returns template family for the export of the flow, or null if the
+     * flow is not exported.
+     *
+     * @param rule flow rule
+     * @return template family of the flow application, null if not exported
+     */
+    public TemplateFamily match(FlowRule rule) {
+        TemplateFamily family = family(rule.appId());
+        if (family == null) {
+            return null;
+        }
+        TrafficSelector selector = rule.selector();
+        for (Criterion.Type type : required) {
+            if (selector.getCriterion(type) == null) {
+                return null;
+            }
+        }
+        for (Criterion.Type type : excluded) {
+            if (selector.getCriterion(type) != null) {
+                return null;
+            }
+        }
+        return family;
+    }
+
+    /**
+     * Returns template family of the application, or null if its flows are not exported.
+     *
+     * @param appId short application identifier
+     * @return template family, null if the application is not exported
+     */
+    private TemplateFamily family(short appId) {
+        if (appId < 0) {
+            return null;
+        }
+        Object[] current = resolved;
+        Object family = appId < current.length ? current[appId] : null;
+        if (family == null) {
+            family = resolve(appId);
+        }
+        return family == NOT_EXPORTED ? null : (TemplateFamily) family;
+    }
+
+    /**
+     * Resolves template family of the application and remembers it.
+     *
+     * @param appId short application identifier
+     * @return template family, or the not exported marker
+     */
+    private synchronized Object resolve(short appId) {
+        ApplicationId id = coreService.getAppId(appId);
+        if (id == null) {
+            // not remembered, the application may register later
+            return NOT_EXPORTED;
+        }
+        TemplateFamily family = applications.get(id.name());
+        Object result = family == null ? NOT_EXPORTED : family;
+        Object[] current = resolved;
+        current = Arrays.copyOf(current, Math.max(current.length, appId + 1));
+        current[appId] = result;
+        resolved = current;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("applications", applications)
+                .add("required", Arrays.toString(required))
+                .add("excluded", Arrays.toString(excluded))
+                .toString();
+    }
+}
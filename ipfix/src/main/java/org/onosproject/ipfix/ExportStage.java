@@ -0,0 +1,203 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.onlab.util.Tools.groupedThreads;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded worker stage of the IPFIX export.
+ * Listener events are queued here and the IPFIX records are built on the
+ * worker thread, so that ONOS event dispatch threads are never stalled by
+ * the export. When the queue is full, either the oldest queued event or
+ * the new event is dropped, according to the drop policy.
+ */
+public class ExportStage {
+
+    /**
+     * Policy applied when the worker queue is full.
+     */
+    public enum DropPolicy {
+        /**
+         * Oldest queued event is dropped to make room for the new one.
+         */
+        DROP_OLDEST,
+
+        /**
+         * New event is dropped.
+         */
+        DROP_NEWEST
+    }
+
+    private final IpfixManager ipfixManager;
+    private final BlockingQueue<Runnable> queue;
+    private final int capacity;
+    private final DropPolicy dropPolicy;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    private ExecutorService worker;
+
+    /**
+     * Creates the worker stage.
+     *
+     * @param ipfixManager ipfix manager instance
+     * @param capacity maximum number of queued events
+     * @param dropPolicy policy applied when the queue is full
+     */
+    public ExportStage(IpfixManager ipfixManager, int capacity, DropPolicy dropPolicy) {
+        this.ipfixManager = ipfixManager;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.dropPolicy = dropPolicy;
+    }
+
+    /**
+     * Starts the worker thread.
+     */
+    public void start() {
+        worker = newSingleThreadExecutor(groupedThreads("onos/ipfix", "worker"));
+        worker.execute(this::workLoop);
+    }
+
+    /**
+     * Stops the worker thread. Events still waiting in the queue are discarded.
+     */
+    public void stop() {
+        if (worker != null) {
+            worker.shutdownNow();
+            worker = null;
+        }
+        queue.clear();
+    }
+
+    /**
+     * Queues the export work of one listener event.
+     *
+     * @param task record construction and export of the event
+     */
+    public void submit(Runnable task) {
+        while (!queue.offer(task)) {
+            if (dropPolicy == DropPolicy.DROP_NEWEST) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (queue.poll() != null) {
+                dropped.incrementAndGet();
+            }
+        }
+        enqueued.incrementAndGet();
+    }
+
+    /**
+     * Queues work that can be skipped, such as the periodic statistics
+     * updates, only while the queue is at most half full. The rest of the
+     * queue is left to the work that must not be lost, like the flow
+     * removals, and neither the drop policy nor the drop counter apply.
+     *
+     * @param task work to queue
+     * @return true if the task was queued
+     */
+    public boolean submitIfIdle(Runnable task) {
+        if (queue.size() * 2 > capacity || !queue.offer(task)) {
+            return false;
+        }
+        enqueued.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Runs queued tasks until interrupted.
+     */
+    private void workLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Runnable task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                errors.incrementAndGet();
+                ipfixManager.log.warn("IPFIX record construction problem: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns number of events accepted into the queue.
+     *
+     * @return number of enqueued events
+     */
+    public long enqueued() {
+        return enqueued.get();
+    }
+
+    /**
+     * Returns number of events dropped because the queue was full.
+     *
+     * @return number of dropped events
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns number of events whose records could not be built.
+     *
+     * @return number of failed events
+     */
+    public long errors() {
+        return errors.get();
+    }
+
+    /**
+     * Returns number of events waiting in the queue.
+     *
+     * @return queue depth
+     */
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Returns maximum number of events waiting in the queue.
+     *
+     * @return queue capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns policy applied when the queue is full.
+     *
+     * @return drop policy
+     */
+    public DropPolicy dropPolicy() {
+        return dropPolicy;
+    }
+}
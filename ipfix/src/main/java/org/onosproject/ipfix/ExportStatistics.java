@@ -0,0 +1,160 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Snapshot of the IPFIX export counters.
+ */
+public final class ExportStatistics {
+
+    private final long enqueued;
+    private final long exported;
+    private final long dropped;
+    private final long serializationErrors;
+    private final int workerQueueDepth;
+    private final int workerQueueCapacity;
+    private final int exportQueueDepth;
+    private final int exportQueueCapacity;
+    private final ExportStage.DropPolicy dropPolicy;
+
+    //CHECKSTYLE:OFF
+    /**
+     * Creates snapshot of the IPFIX export counters.
+     *
+     * @param enqueued number of listener events queued to the worker stage
+     * @param exported number of data records sent to the collector
+     * @param dropped number of events and records dropped on full queues or failed sends
+     * @param serializationErrors number of events and messages that failed to serialize
+     * @param workerQueueDepth number of events waiting in the worker queue
+     * @param workerQueueCapacity capacity of the worker queue
+     * @param exportQueueDepth number of records waiting in the export queue
+     * @param exportQueueCapacity capacity of the export queue
+     * @param dropPolicy policy applied when the worker queue is full
+     */
+    public ExportStatistics(long enqueued, long exported, long dropped, long serializationErrors,
+                            int workerQueueDepth, int workerQueueCapacity,
+                            int exportQueueDepth, int exportQueueCapacity,
+                            ExportStage.DropPolicy dropPolicy) {
+        //CHECKSTYLE:ON
+        this.enqueued = enqueued;
+        this.exported = exported;
+        this.dropped = dropped;
+        this.serializationErrors = serializationErrors;
+        this.workerQueueDepth = workerQueueDepth;
+        this.workerQueueCapacity = workerQueueCapacity;
+        this.exportQueueDepth = exportQueueDepth;
+        this.exportQueueCapacity = exportQueueCapacity;
+        this.dropPolicy = dropPolicy;
+    }
+
+    /**
+     * Returns number of listener events queued to the worker stage.
+     *
+     * @return number of enqueued events
+     */
+    public long enqueued() {
+        return enqueued;
+    }
+
+    /**
+     * Returns number of data records sent to the collector.
+     *
+     * @return number of exported records
+     */
+    public long exported() {
+        return exported;
+    }
+
+    /**
+     * Returns number of events and records dropped because a queue was full or their message could not be sent.
+     *
+     * @return number of dropped events and records
+     */
+    public long dropped() {
+        return dropped;
+    }
+
+    /**
+     * Returns number of events and messages that failed to serialize.
+     *
+     * @return number of serialization errors
+     */
+    public long serializationErrors() {
+        return serializationErrors;
+    }
+
+    /**
+     * Returns number of events waiting in the worker queue.
+     *
+     * @return worker queue depth
+     */
+    public int workerQueueDepth() {
+        return workerQueueDepth;
+    }
+
+    /**
+     * Returns capacity of the worker queue.
+     *
+     * @return worker queue capacity
+     */
+    public int workerQueueCapacity() {
+        return workerQueueCapacity;
+    }
+
+    /**
+     * Returns number of records waiting in the export queue.
+     *
+     * @return export queue depth
+     */
+    public int exportQueueDepth() {
+        return exportQueueDepth;
+    }
+
+    /**
+     * Returns capacity of the export queue.
+     *
+     * @return export queue capacity
+     */
+    public int exportQueueCapacity() {
+        return exportQueueCapacity;
+    }
+
+    /**
+     * Returns policy applied when the worker queue is full.
+     *
+     * @return drop policy
+     */
+    public ExportStage.DropPolicy dropPolicy() {
+        return dropPolicy;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("enqueued", enqueued)
+                .add("exported", exported)
+                .add("dropped", dropped)
+                .add("serializationErrors", serializationErrors)
+                .add("workerQueueDepth", workerQueueDepth)
+                .add("workerQueueCapacity", workerQueueCapacity)
+                .add("exportQueueDepth", exportQueueDepth)
+                .add("exportQueueCapacity", exportQueueCapacity)
+                .add("dropPolicy", dropPolicy)
+                .toString();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.onosproject.codec.CodecContext;
+import org.onosproject.codec.JsonCodec;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * JSON codec of the IPFIX export counters, shared by the CLI and REST API.
+ */
+public final class ExportStatisticsCodec extends JsonCodec<ExportStatistics> {
+
+    @Override
+    public ObjectNode encode(ExportStatistics stats, CodecContext context) {
+        checkNotNull(stats, "Export statistics cannot be null");
+        return context.mapper().createObjectNode()
+                .put("enqueued", stats.enqueued())
+                .put("exported", stats.exported())
+                .put("dropped", stats.dropped())
+                .put("serializationErrors", stats.serializationErrors())
+                .put("workerQueueDepth", stats.workerQueueDepth())
+                .put("workerQueueCapacity", stats.workerQueueCapacity())
+                .put("exportQueueDepth", stats.exportQueueDepth())
+                .put("exportQueueCapacity", stats.exportQueueCapacity())
+                .put("dropPolicy", stats.dropPolicy().name());
+    }
+}
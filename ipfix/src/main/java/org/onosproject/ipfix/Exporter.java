@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import org.onlab.packet.Ip6Address;
+import org.onlab.packet.IpAddress;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * IPFIX exporter identity of the OpenFlow switch.
+ * Holds the exporter addresses in the form used by the data records,
+ * computed once per device instead of on every exported flow.
+ */
+public final class Exporter {
+
+    private final long dpid;
+    private final IpAddress ipv4;
+    private final Ip6Address ipv6;
+
+    /**
+     * Creates the exporter identity of the switch.
+     * Exporter IPv6 address carries the DPID of the switch in its lower 64 bits.
+     *
+     * @param dpid switch DPID
+     * @param ipv4 management IPv4 address of the switch
+     */
+    public Exporter(long dpid, IpAddress ipv4) {
+        this.dpid = dpid;
+        this.ipv4 = ipv4;
+        byte[] ipv6Bytes = new byte[Ip6Address.BYTE_LENGTH];
+        for (int i = 0; i < Long.BYTES; i++) {
+            ipv6Bytes[Ip6Address.BYTE_LENGTH - 1 - i] = (byte) (dpid >>> (8 * i));
+        }
+        this.ipv6 = Ip6Address.valueOf(ipv6Bytes);
+    }
+
+    /**
+     * Returns switch DPID, used as IPFIX observation domain.
+     *
+     * @return switch DPID
+     */
+    public long dpid() {
+        return dpid;
+    }
+
+    /**
+     * Returns exporter IPv4 address.
+     *
+     * @return exporter IPv4 address
+     */
+    public IpAddress ipv4() {
+        return ipv4;
+    }
+
+    /**
+     * Returns exporter IPv6 address.
+     *
+     * @return exporter IPv6 address
+     */
+    public Ip6Address ipv6() {
+        return ipv6;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("dpid", dpid)
+                .add("ipv4", ipv4)
+                .add("ipv6", ipv6)
+                .toString();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.onlab.packet.IpAddress;
+import org.onosproject.net.AnnotationKeys;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.device.DeviceListener;
+import org.onosproject.openflow.controller.Dpid;
+
+/**
+ * Cache of the IPFIX exporter identities of the OpenFlow switches.
+ * Exporter identity is resolved from the device annotations when the device
+ * is first seen and kept up to date by the device events.
+ */
+public class ExporterCache implements DeviceListener {
+
+    private static final IpAddress UNKNOWN_ADDRESS = IpAddress.valueOf(0);
+    private static final String OPENFLOW_SCHEME = "of";
+
+    private final IpfixManager ipfixManager;
+    private final Map<DeviceId, Exporter> exporters = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the exporter identity cache.
+     *
+     * @param ipfixManager ipfix manager instance
+     */
+    public ExporterCache(IpfixManager ipfixManager) {
+        this.ipfixManager = ipfixManager;
+    }
+
+    @Override
+    public void event(DeviceEvent event) {
+        switch (event.type()) {
+            case DEVICE_ADDED:
+            case DEVICE_UPDATED:
+                Exporter exporter = exporter(event.subject());
+                if (exporter != null) {
+                    exporters.put(event.subject().id(), exporter);
+                } else {
+                    exporters.remove(event.subject().id());
+                }
+                break;
+            case DEVICE_REMOVED:
+                exporters.remove(event.subject().id());
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public boolean isRelevant(DeviceEvent event) {
+        return event.type() == DeviceEvent.Type.DEVICE_ADDED ||
+                event.type() == DeviceEvent.Type.DEVICE_UPDATED ||
+                event.type() == DeviceEvent.Type.DEVICE_REMOVED;
+    }
+
+    /**
+     * Returns exporter identity of the device.
+     * Devices added before the cache was started are resolved on first use.
+     *
+     * @param deviceId device identifier
+     * @return exporter identity, null if the device is unknown or not an OpenFlow switch
+     */
+    public Exporter get(DeviceId deviceId) {
+        Exporter exporter = exporters.get(deviceId);
+        if (exporter != null) {
+            return exporter;
+        }
+        return exporters.computeIfAbsent(deviceId, id -> {
+            Device device = ipfixManager.deviceService.getDevice(id);
+            return device == null ? null : exporter(device);
+        });
+    }
+
+    /**
+     * Returns exporter identity of the device.
+     *
+     * @param device device
+     * @return exporter identity, null if the device is not an OpenFlow switch
+     */
+    public Exporter get(Device device) {
+        Exporter exporter = exporters.get(device.id());
+        if (exporter != null) {
+            return exporter;
+        }
+        return exporters.computeIfAbsent(device.id(), id -> exporter(device));
+    }
+
+    /**
+     * Removes all cached exporter identities.
+     */
+    public void clear() {
+        exporters.clear();
+    }
+
+    /**
+     * Builds exporter identity from the device DPID and management address.
+     *
+     * @param device device
+     * @return exporter identity, null if the device is not an OpenFlow switch
+     */
+    private Exporter exporter(Device device) {
+        if (!OPENFLOW_SCHEME.equals(device.id().uri().getScheme())) {
+            ipfixManager.log.debug("Device {} is not an OpenFlow switch, not an IPFIX exporter", device.id());
+            return null;
+        }
+        return new Exporter(Dpid.dpid(device.id().uri()).value(), managementAddress(device));
+    }
+
+    /**
+     * Resolves IPv4 management address of the device.
+     * Uses management address annotation, or the address part of the
+     * OpenFlow channel identifier when the management address is not set.
+     *
+     * @param device device
+     * @return management IPv4 address, 0.0.0.0 if it can not be resolved
+     */
+    private IpAddress managementAddress(Device device) {
+        String address = device.annotations().value(AnnotationKeys.MANAGEMENT_ADDRESS);
+        if (address == null) {
+            String channelId = device.annotations().value(AnnotationKeys.CHANNEL_ID);
+            if (channelId != null && channelId.lastIndexOf(':') > 0) {
+                address = channelId.substring(0, channelId.lastIndexOf(':'));
+            }
+        }
+        if (address != null) {
+            try {
+                IpAddress ip = IpAddress.valueOf(address);
+                if (ip.isIp4()) {
+                    return ip;
+                }
+            } catch (IllegalArgumentException e) {
+                ipfixManager.log.debug("Invalid management address {} of device {}", address, device.id());
+            }
+        }
+        return UNKNOWN_ADDRESS;
+    }
+}
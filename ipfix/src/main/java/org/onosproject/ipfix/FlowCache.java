@@ -0,0 +1,194 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.onlab.util.Tools.groupedThreads;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.onosproject.ipfix.packet.DataRecord;
+import org.onosproject.ipfix.packet.EncodedTemplateRecord;
+
+/**
+ * Exporter side flow cache.
+ * Merges counters of the removed flows with the same flow key and exports
+ * the merged record when the flow key was not seen for the inactive timeout,
+ * when the record is older than the active timeout, or when the cache is full
+ * and the least recently updated record has to be evicted.
+ */
+public class FlowCache {
+
+    private static final long SWEEP_INTERVAL = 1;
+
+    private final IpfixManager ipfixManager;
+    private final int maxEntries;
+    private final long activeTimeout;
+    private final long inactiveTimeout;
+    private final Map<FlowKey, CacheEntry> cache;
+
+    private ScheduledExecutorService sweeper;
+    private long evicted;
+
+    /**
+     * Creates the flow cache.
+     *
+     * @param ipfixManager ipfix manager instance
+     * @param maxEntries maximum number of cached flows
+     * @param activeTimeout active timeout in seconds
+     * @param inactiveTimeout inactive timeout in seconds
+     */
+    public FlowCache(IpfixManager ipfixManager, int maxEntries, int activeTimeout, int inactiveTimeout) {
+        this.ipfixManager = ipfixManager;
+        this.maxEntries = maxEntries;
+        this.activeTimeout = TimeUnit.SECONDS.toMillis(activeTimeout);
+        this.inactiveTimeout = TimeUnit.SECONDS.toMillis(inactiveTimeout);
+        // access ordered, so the eldest entry is the least recently updated one
+        this.cache = new LinkedHashMap<FlowKey, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<FlowKey, CacheEntry> eldest) {
+                if (size() > FlowCache.this.maxEntries) {
+                    evicted++;
+                    export(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Starts periodic expiration of the cached flows.
+     */
+    public void start() {
+        sweeper = newSingleThreadScheduledExecutor(groupedThreads("onos/ipfix", "flow-cache"));
+        sweeper.scheduleAtFixedRate(this::expire, SWEEP_INTERVAL, SWEEP_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops expiration and exports all cached flows.
+     */
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+        List<Map.Entry<FlowKey, CacheEntry>> remaining;
+        synchronized (this) {
+            remaining = new ArrayList<>(cache.entrySet());
+            cache.clear();
+        }
+        remaining.forEach(e -> export(e.getKey(), e.getValue()));
+    }
+
+    /**
+     * Adds removed flow to the cache, merging it with the cached record of
+     * the same flow key.
+     *
+     * @param key flow key
+     * @param template IPFIX template of the record
+     * @param record data record of the removed flow
+     * @param start start timestamp of the flow
+     * @param end end timestamp of the flow
+     * @param octets number of bytes matched by the flow
+     * @param packets number of packets matched by the flow
+     * @param <R> aggregatable data record type
+     */
+    public synchronized <R extends DataRecord & AggregatableDataRecord> void add(
+            FlowKey key, EncodedTemplateRecord template, R record,
+            long start, long end, long octets, long packets) {
+        long now = System.currentTimeMillis();
+        CacheEntry entry = cache.get(key);
+        if (entry == null) {
+            cache.put(key, new CacheEntry(template, record, record, now));
+        } else {
+            entry.aggregatable.aggregate(start, end, octets, packets);
+            entry.lastUpdated = now;
+        }
+    }
+
+    /**
+     * Returns number of cached flows.
+     *
+     * @return number of cached flows
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * Returns number of flows exported early because the cache was full.
+     *
+     * @return number of evicted flows
+     */
+    public synchronized long evicted() {
+        return evicted;
+    }
+
+    /**
+     * Exports and removes flows that reached active or inactive timeout.
+     */
+    private void expire() {
+        long now = System.currentTimeMillis();
+        List<Map.Entry<FlowKey, CacheEntry>> expired = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<FlowKey, CacheEntry>> it = cache.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<FlowKey, CacheEntry> e = it.next();
+                CacheEntry entry = e.getValue();
+                if (now - entry.lastUpdated >= inactiveTimeout || now - entry.created >= activeTimeout) {
+                    expired.add(e);
+                    it.remove();
+                }
+            }
+        }
+        expired.forEach(e -> export(e.getKey(), e.getValue()));
+    }
+
+    private void export(FlowKey key, CacheEntry entry) {
+        IpfixSender sender = ipfixManager.ipfixSender;
+        if (sender != null) {
+            sender.sendRecords(entry.template, Collections.singletonList(entry.record), key.dpid());
+        }
+    }
+
+    /**
+     * Cached flow record.
+     */
+    private static final class CacheEntry {
+        private final EncodedTemplateRecord template;
+        private final DataRecord record;
+        private final AggregatableDataRecord aggregatable;
+        private final long created;
+        private long lastUpdated;
+
+        private CacheEntry(EncodedTemplateRecord template, DataRecord record,
+                           AggregatableDataRecord aggregatable, long now) {
+            this.template = template;
+            this.record = record;
+            this.aggregatable = aggregatable;
+            this.created = now;
+            this.lastUpdated = now;
+        }
+    }
+}
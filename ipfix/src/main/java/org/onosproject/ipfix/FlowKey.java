@@ -0,0 +1,144 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import java.util.Objects;
+
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.MacAddress;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Flow cache key of the exported flow.
+ * Identifies the flow by the switch DPID, input and output ports, L2 fields
+ * and IP 5-tuple, so that records of short-lived flows between the same
+ * endpoints are merged.
+ */
+public final class FlowKey {
+
+    private final long dpid;
+    private final int templateId;
+    private final int intfIn;
+    private final int intfOut;
+    private final MacAddress srcMac;
+    private final MacAddress dstMac;
+    private final short ethType;
+    private final short vlan;
+    private final IpAddress srcIp;
+    private final IpAddress dstIp;
+    private final byte proto;
+    private final byte tos;
+    private final short srcPort;
+    private final short dstPort;
+
+    //CHECKSTYLE:OFF
+    /**
+     * Creates flow cache key.
+     *
+     * @param dpid switch DPID
+     * @param templateId IPFIX template ID of the flow record
+     * @param intfIn switch input interface of the flow
+     * @param intfOut switch output interface of the flow
+     * @param srcMac source MAC address
+     * @param dstMac destination MAC address
+     * @param ethType etherType field of the flow
+     * @param vlan VLAN ID of the flow
+     * @param srcIp source IP address of the flow, null if not matched
+     * @param dstIp destination IP address of the flow, null if not matched
+     * @param proto IP protocol field of the flow
+     * @param tos IP ToS field of the flow
+     * @param srcPort source transport protocol port
+     * @param dstPort destination transport protocol port
+     */
+    public FlowKey(long dpid, int templateId, int intfIn, int intfOut,
+                   MacAddress srcMac, MacAddress dstMac, short ethType, short vlan,
+                   IpAddress srcIp, IpAddress dstIp, byte proto, byte tos,
+                   short srcPort, short dstPort) {
+        //CHECKSTYLE:ON
+        this.dpid = dpid;
+        this.templateId = templateId;
+        this.intfIn = intfIn;
+        this.intfOut = intfOut;
+        this.srcMac = srcMac;
+        this.dstMac = dstMac;
+        this.ethType = ethType;
+        this.vlan = vlan;
+        this.srcIp = srcIp;
+        this.dstIp = dstIp;
+        this.proto = proto;
+        this.tos = tos;
+        this.srcPort = srcPort;
+        this.dstPort = dstPort;
+    }
+
+    /**
+     * Returns switch DPID of the flow, used as IPFIX observation domain.
+     *
+     * @return switch DPID
+     */
+    public long dpid() {
+        return dpid;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dpid, templateId, intfIn, intfOut, srcMac, dstMac, ethType, vlan,
+                srcIp, dstIp, proto, tos, srcPort, dstPort);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof FlowKey)) {
+            return false;
+        }
+        FlowKey that = (FlowKey) obj;
+        return dpid == that.dpid &&
+                templateId == that.templateId &&
+                intfIn == that.intfIn &&
+                intfOut == that.intfOut &&
+                ethType == that.ethType &&
+                vlan == that.vlan &&
+                proto == that.proto &&
+                tos == that.tos &&
+                srcPort == that.srcPort &&
+                dstPort == that.dstPort &&
+                Objects.equals(srcMac, that.srcMac) &&
+                Objects.equals(dstMac, that.dstMac) &&
+                Objects.equals(srcIp, that.srcIp) &&
+                Objects.equals(dstIp, that.dstIp);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("dpid", dpid)
+                .add("templateId", templateId)
+                .add("intfIn", intfIn)
+                .add("intfOut", intfOut)
+                .add("srcMac", srcMac)
+                .add("dstMac", dstMac)
+                .add("srcIp", srcIp)
+                .add("dstIp", dstIp)
+                .add("proto", proto)
+                .add("srcPort", srcPort)
+                .add("dstPort", dstPort)
+                .toString();
+    }
+}
@@ -15,7 +15,7 @@
  */
 package org.onosproject.ipfix;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.onlab.packet.Ethernet;
@@ -25,6 +25,7 @@ import org.onlab.packet.Ip6Address;
 import org.onlab.packet.IpAddress;
 import org.onlab.packet.MacAddress;
 import org.onosproject.ipfix.packet.DataRecord;
+import org.onosproject.ipfix.packet.EncodedTemplateRecord;
 import org.onosproject.net.flow.FlowEntry;
 import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.FlowRuleEvent;
@@ -47,9 +48,6 @@ import org.onosproject.net.flow.criteria.VlanIdCriterion;
 import org.onosproject.net.flow.criteria.Criterion.Type;
 import org.onosproject.net.flow.instructions.Instruction;
 import org.onosproject.net.flow.instructions.Instructions.OutputInstruction;
-import org.onosproject.openflow.controller.Dpid;
-
-import com.google.common.primitives.Longs;
 
 /**
  * Flow Rule Listener for detecting flow removal or flow statistics update by ONOS.
@@ -59,7 +57,7 @@ public class FlowRemovedListener implements FlowRuleListener {
     private IpfixManager ipfixManager;
 
     /**
-     * Flow Event listerner for Flow removed events of Reactive Forwarding application.
+     * Flow Event listerner for Flow removed events of the exported applications.
      *
      * @param ipfixManager ipfix manager instance
      */
@@ -69,12 +67,28 @@ public class FlowRemovedListener implements FlowRuleListener {
 
     @Override
     public void event(FlowRuleEvent event) {
+        FlowRule rule = event.subject();
+        TemplateFamily family;
+        FlowStatsTable table;
         switch (event.type()) {
             case RULE_REMOVED:
-                FlowRule rule = event.subject();
-                FlowEntry entry = (FlowEntry) rule;
-                if (entry.appId() == ipfixManager.coreService.getAppId("org.onosproject.fwd").id()) {
-                    flowRemovedRfwd(entry);
+                family = ipfixManager.exportFilter.match(rule);
+                if (family != null) {
+                    FlowEntry entry = (FlowEntry) rule;
+                    table = ipfixManager.flowStatsTable;
+                    ipfixManager.exportStage.submit(() -> flowRemoved(entry, family, table));
+                }
+                break;
+            case RULE_UPDATED:
+                table = ipfixManager.flowStatsTable;
+                if (table.activeTimeout() <= 0) {
+                    break;
+                }
+                family = ipfixManager.exportFilter.match(rule);
+                if (family != null) {
+                    FlowEntry entry = (FlowEntry) rule;
+                    // skipped update is caught up by the next one, the counters are cumulative
+                    ipfixManager.exportStage.submitIfIdle(() -> flowUpdated(entry, family, table));
                 }
                 break;
             default:
@@ -83,33 +97,119 @@ public class FlowRemovedListener implements FlowRuleListener {
     }
 
     /**
-     * Handle ONOS Reactive forwarding application flow removal.
-     * When flow is removed, generate and send IPFIX record.
+     * Handle removal of the flow selected by the export filter.
+     * When flow is removed, generate and send IPFIX record with the
+     * counters not exported yet on the active timeout.
+     * Runs on the IPFIX worker thread.
      *
      * @param entry flow entry removed from ONOS
+     * @param family template family of the flow application
+     * @param table previous counters of the long-lived flows
      */
-    private void flowRemovedRfwd(FlowEntry entry) {
+    private void flowRemoved(FlowEntry entry, TemplateFamily family, FlowStatsTable table) {
 
         //Log
-        ipfixManager.log.trace("Flow Removed from Reactive Forwarding, id={}, device={}, selector={}, treatment={}",
-                entry.id(), entry.deviceId(), entry.selector(), entry.treatment());
-
-        // Exporters
-        IpAddress exporterIpv4 = IpAddress.valueOf(ipfixManager.deviceService.getDevice(
-                entry.deviceId()).annotations().toString().split("=")[2].split(":")[0]);
-
-        long dpid = Dpid.dpid(entry.deviceId().uri()).value();
-        byte[] byteExporterIpv6 = new byte[16];
-        System.arraycopy(Longs.toByteArray(0), 0, byteExporterIpv6, 0, 8);
-        System.arraycopy(Longs.toByteArray(dpid), 0, byteExporterIpv6, 8, 8);
-        Ip6Address exporterIpv6 = Ip6Address.valueOf(byteExporterIpv6);
+        ipfixManager.log.trace("Flow Removed, appId={}, id={}, device={}, selector={}, treatment={}",
+                entry.appId(), entry.id(), entry.deviceId(), entry.selector(), entry.treatment());
 
         // Timestamps, octets, packets
-        long start = System.currentTimeMillis() - (1000 * entry.life());
         long end = System.currentTimeMillis();
+        long start = end - (1000 * entry.life());
         long octets = entry.bytes();
         long packets = entry.packets();
 
+        long flowId = entry.id().value();
+        synchronized (table) {
+            int index = table.find(flowId);
+            if (index >= 0) {
+                start = table.lastExportAt(index);
+                octets = delta(octets, table.octetsAt(index));
+                packets = delta(packets, table.packetsAt(index));
+                table.remove(flowId);
+            }
+        }
+
+        exportFlow(entry, family, start, end, octets, packets);
+    }
+
+    /**
+     * Handle statistics update of the flow selected by the export filter.
+     * When the flow was not exported for the active timeout, generate and
+     * send IPFIX record with the counters accumulated since the last export.
+     * Runs on the IPFIX worker thread, in order with the flow removals.
+     *
+     * @param entry flow entry with updated statistics
+     * @param family template family of the flow application
+     * @param table previous counters of the long-lived flows
+     */
+    private void flowUpdated(FlowEntry entry, TemplateFamily family, FlowStatsTable table) {
+        long now = System.currentTimeMillis();
+        long flowId = entry.id().value();
+        long start;
+        long octets;
+        long packets;
+
+        synchronized (table) {
+            int index = table.find(flowId);
+            if (index < 0) {
+                // start tracking from the flow installation
+                if (!table.put(flowId, 0, 0, now - (1000 * entry.life()))) {
+                    // table is full, the flow is exported only when removed
+                    return;
+                }
+                index = table.find(flowId);
+            }
+            start = table.lastExportAt(index);
+            if (table.activeTimeout() <= 0 || now - start < table.activeTimeout()) {
+                return;
+            }
+            octets = delta(entry.bytes(), table.octetsAt(index));
+            packets = delta(entry.packets(), table.packetsAt(index));
+            table.put(flowId, entry.bytes(), entry.packets(), now);
+        }
+
+        ipfixManager.log.trace("Flow active timeout, appId={}, id={}, device={}, octets={}, packets={}",
+                entry.appId(), entry.id(), entry.deviceId(), octets, packets);
+        if (octets != 0 || packets != 0) {
+            exportFlow(entry, family, start, now, octets, packets);
+        }
+    }
+
+    /**
+     * Returns counter increase since the last export, or the current counter
+     * if the flow counters were reset.
+     *
+     * @param current current counter value
+     * @param previous counter value at the last export
+     * @return counter delta
+     */
+    private static long delta(long current, long previous) {
+        return current >= previous ? current - previous : current;
+    }
+
+    /**
+     * Generates and sends IPFIX record of the flow.
+     *
+     * @param entry flow entry
+     * @param family template family of the flow application
+     * @param start start timestamp of the exported interval
+     * @param end end timestamp of the exported interval
+     * @param octets number of bytes matched by the flow in the interval
+     * @param packets number of packets matched by the flow in the interval
+     */
+    private void exportFlow(FlowEntry entry, TemplateFamily family,
+                            long start, long end, long octets, long packets) {
+
+        // Exporters
+        Exporter exporter = ipfixManager.exporterCache.get(entry.deviceId());
+        if (exporter == null) {
+            ipfixManager.log.debug("Unknown exporter device={}, flow not exported", entry.deviceId());
+            return;
+        }
+        IpAddress exporterIpv4 = exporter.ipv4();
+        Ip6Address exporterIpv6 = exporter.ipv6();
+        long dpid = exporter.dpid();
+
         // Input and Output ports
         PortCriterion portCrit = (PortCriterion) entry.selector().getCriterion(Type.IN_PORT);
         int intfIn = (portCrit == null) ? 0 : (int) portCrit.port().toLong();
@@ -150,10 +250,9 @@ public class FlowRemovedListener implements FlowRuleListener {
                     intfIn, intfOut,
                     srcMac, dstMac,
                     ethType, vlan);
-            List<DataRecord> recordList = new ArrayList<DataRecord>();
-            recordList.add(record);
-            ipfixManager.ipfixSender.sendRecords(DataRecordRfwdMac.getTemplateRecord(),
-                    recordList, dpid, IpfixManager.collectorIp, IpfixManager.collectorPort);
+            FlowKey key = new FlowKey(dpid, family.mac().getTemplateID(), intfIn, intfOut,
+                    srcMac, dstMac, ethType, vlan, null, null, (byte) 0, (byte) 0, (short) 0, (short) 0);
+            export(family.mac(), record, key, start, end, octets, packets);
         } else {
             // Checking IPv4 and IPv6 criterions
             IPProtocolCriterion protocolCrit = (IPProtocolCriterion) entry.selector().getCriterion(Type.IP_PROTO);
@@ -212,10 +311,10 @@ public class FlowRemovedListener implements FlowRuleListener {
                         srcIp, dstIp,
                         ipProtocol, tos,
                         (short) srcPort, (short) dstPort);
-                List<DataRecord> recordList = new ArrayList<DataRecord>();
-                recordList.add(record);
-                ipfixManager.ipfixSender.sendRecords(DataRecordRfwdIpv4.getTemplateRecord(),
-                        recordList, dpid, IpfixManager.collectorIp, IpfixManager.collectorPort);
+                FlowKey key = new FlowKey(dpid, family.ipv4().getTemplateID(), intfIn, intfOut,
+                        srcMac, dstMac, ethType, vlan, srcIp, dstIp, ipProtocol, tos,
+                        (short) srcPort, (short) dstPort);
+                export(family.ipv4(), record, key, start, end, octets, packets);
             }
             // If IPv6 than send IPv6 Data record
             if ((srcIp6Crit != null || dstIp6Crit != null) && ethType == Ethernet.TYPE_IPV6) {
@@ -234,11 +333,35 @@ public class FlowRemovedListener implements FlowRuleListener {
                     flowLabelIpv6,
                     ipProtocol, tos,
                     (short) srcPort, (short) dstPort);
-                List<DataRecord> recordList = new ArrayList<DataRecord>();
-                recordList.add(record);
-                ipfixManager.ipfixSender.sendRecords(DataRecordRfwdIpv6.getTemplateRecord(),
-                        recordList, dpid, IpfixManager.collectorIp, IpfixManager.collectorPort);
+                FlowKey key = new FlowKey(dpid, family.ipv6().getTemplateID(), intfIn, intfOut,
+                        srcMac, dstMac, ethType, vlan, srcIp6, dstIp6, ipProtocol, tos,
+                        (short) srcPort, (short) dstPort);
+                export(family.ipv6(), record, key, start, end, octets, packets);
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Exports data record of the removed flow, either directly or through
+     * the flow cache when flow aggregation is enabled.
+     *
+     * @param template IPFIX template of the record
+     * @param record data record of the removed flow
+     * @param key flow cache key of the removed flow
+     * @param start start timestamp of the flow
+     * @param end end timestamp of the flow
+     * @param octets number of bytes matched by the flow
+     * @param packets number of packets matched by the flow
+     * @param <R> aggregatable data record type
+     */
+    private <R extends DataRecord & AggregatableDataRecord> void export(
+            EncodedTemplateRecord template, R record, FlowKey key,
+            long start, long end, long octets, long packets) {
+        FlowCache flowCache = ipfixManager.flowCache;
+        if (flowCache != null) {
+            flowCache.add(key, template, record, start, end, octets, packets);
+        } else {
+            ipfixManager.ipfixSender.sendRecords(template, Collections.singletonList(record), key.dpid());
+        }
+    }
+}
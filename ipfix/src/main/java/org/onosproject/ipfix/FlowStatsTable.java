@@ -0,0 +1,317 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Previous counters of the long-lived flows exported on the active timeout.
+ * Open addressing hash table keyed by the flow ID, with the counters kept
+ * in primitive arrays, so that the memory used per tracked flow is a few
+ * longs. Number of tracked flows is bounded; flows that do not fit are
+ * exported only when they are removed. Flows not updated for several
+ * active timeouts, e.g. because their removal was never seen, are expired.
+ * The limits can be changed while the flows are tracked, so that the flows
+ * already exported on the active timeout keep their previous counters.
+ * Not thread safe. The table is used by the IPFIX worker thread and only
+ * reconfigured from other threads; callers synchronize on the table.
+ */
+public class FlowStatsTable {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long EMPTY = 0;
+    private static final int STALE_TIMEOUTS = 3;
+
+    private int maxFlows;
+    private volatile long activeTimeout;
+
+    private long[] keys;
+    private long[] octets;
+    private long[] packets;
+    private long[] lastExport;
+    private int size;
+    private long rejected;
+    private long expired;
+    private long nextSweep;
+
+    /**
+     * Creates the table.
+     *
+     * @param maxFlows maximum number of tracked flows
+     * @param activeTimeout active timeout in seconds, 0 if the active timeout export is disabled
+     */
+    public FlowStatsTable(int maxFlows, int activeTimeout) {
+        this.maxFlows = maxFlows;
+        this.activeTimeout = TimeUnit.SECONDS.toMillis(activeTimeout);
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Changes the limits of the table keeping the tracked flows.
+     * When more flows are tracked than the new maximum, the flows over
+     * the maximum stop being tracked and are exported with all their
+     * counters when removed.
+     *
+     * @param newMaxFlows maximum number of tracked flows
+     * @param newActiveTimeout active timeout in seconds, 0 if the active timeout export is disabled
+     * @return number of flows that stopped being tracked
+     */
+    public int reconfigure(int newMaxFlows, int newActiveTimeout) {
+        maxFlows = newMaxFlows;
+        activeTimeout = TimeUnit.SECONDS.toMillis(newActiveTimeout);
+        nextSweep = 0;
+        int excess = size - maxFlows;
+        if (excess <= 0) {
+            return 0;
+        }
+        long[] evicted = new long[excess];
+        int count = 0;
+        for (int i = 0; i < keys.length && count < excess; i++) {
+            if (keys[i] != EMPTY) {
+                evicted[count++] = keys[i];
+            }
+        }
+        for (int k = 0; k < count; k++) {
+            remove(evicted[k]);
+        }
+        return count;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        octets = new long[capacity];
+        packets = new long[capacity];
+        lastExport = new long[capacity];
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Returns interval after which long-lived flows are exported.
+     *
+     * @return active timeout in milliseconds, 0 if the active timeout export is disabled
+     */
+    public long activeTimeout() {
+        return activeTimeout;
+    }
+
+    /**
+     * Returns index of the tracked flow, valid until the table is modified.
+     *
+     * @param flowId flow ID
+     * @return index of the flow, -1 if the flow is not tracked
+     */
+    public int find(long flowId) {
+        if (flowId == EMPTY) {
+            return -1;
+        }
+        int i = slot(flowId);
+        return keys[i] == flowId ? i : -1;
+    }
+
+    /**
+     * Returns octet count of the tracked flow at its last export.
+     *
+     * @param index index of the flow
+     * @return exported octet count
+     */
+    public long octetsAt(int index) {
+        return octets[index];
+    }
+
+    /**
+     * Returns packet count of the tracked flow at its last export.
+     *
+     * @param index index of the flow
+     * @return exported packet count
+     */
+    public long packetsAt(int index) {
+        return packets[index];
+    }
+
+    /**
+     * Returns time of the last export of the tracked flow.
+     *
+     * @param index index of the flow
+     * @return time of the last export in milliseconds
+     */
+    public long lastExportAt(int index) {
+        return lastExport[index];
+    }
+
+    /**
+     * Records counters of the flow at its export.
+     *
+     * @param flowId flow ID
+     * @param octetCount exported octet count
+     * @param packetCount exported packet count
+     * @param time time of the export in milliseconds
+     * @return false if the flow is not tracked because the table is full
+     */
+    public boolean put(long flowId, long octetCount, long packetCount, long time) {
+        if (flowId == EMPTY) {
+            return false;
+        }
+        int i = slot(flowId);
+        if (keys[i] != flowId) {
+            if (size >= maxFlows) {
+                rejected++;
+                return false;
+            }
+            if ((size + 1) * 4 > keys.length * 3) {
+                rehash(keys.length * 2);
+                i = slot(flowId);
+            }
+            keys[i] = flowId;
+            size++;
+        }
+        octets[i] = octetCount;
+        packets[i] = packetCount;
+        lastExport[i] = time;
+        return true;
+    }
+
+    /**
+     * Stops tracking of the flow.
+     *
+     * @param flowId flow ID
+     */
+    public void remove(long flowId) {
+        if (flowId == EMPTY) {
+            return;
+        }
+        int mask = keys.length - 1;
+        int i = slot(flowId);
+        if (keys[i] != flowId) {
+            return;
+        }
+        keys[i] = EMPTY;
+        size--;
+        // shift back following entries of the probe sequence
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == EMPTY) {
+                return;
+            }
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                octets[i] = octets[j];
+                packets[i] = packets[j];
+                lastExport[i] = lastExport[j];
+                keys[j] = EMPTY;
+                i = j;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldOctets = octets;
+        long[] oldPackets = packets;
+        long[] oldLastExport = lastExport;
+        allocate(capacity);
+        for (int k = 0; k < oldKeys.length; k++) {
+            if (oldKeys[k] != EMPTY) {
+                int i = slot(oldKeys[k]);
+                keys[i] = oldKeys[k];
+                octets[i] = oldOctets[k];
+                packets[i] = oldPackets[k];
+                lastExport[i] = oldLastExport[k];
+            }
+        }
+    }
+
+    /**
+     * Stops tracking of the flows not exported for several active timeouts.
+     * Tracked flows are exported at least once per active timeout while
+     * their statistics are updated, so such flows were removed without
+     * the removal being seen. The table is swept at most once per active
+     * timeout. Flows are not expired while the active timeout export is
+     * disabled, since they are not updated then.
+     *
+     * @param now current time in milliseconds
+     * @return number of expired flows
+     */
+    public int expire(long now) {
+        if (activeTimeout <= 0 || now < nextSweep) {
+            return 0;
+        }
+        nextSweep = now + activeTimeout;
+        long olderThan = now - STALE_TIMEOUTS * activeTimeout;
+        long[] stale = new long[size];
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY && lastExport[i] < olderThan) {
+                stale[count++] = keys[i];
+            }
+        }
+        for (int k = 0; k < count; k++) {
+            remove(stale[k]);
+        }
+        expired += count;
+        return count;
+    }
+
+    /**
+     * Removes all tracked flows.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Returns number of tracked flows.
+     *
+     * @return number of tracked flows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns number of flows that were not tracked because the table was full.
+     *
+     * @return number of rejected flows
+     */
+    public long rejected() {
+        return rejected;
+    }
+
+    /**
+     * Returns number of flows expired without their removal being seen.
+     *
+     * @return number of expired flows
+     */
+    public long expired() {
+        return expired;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.onlab.util.Tools.groupedThreads;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.onosproject.ipfix.packet.HeaderException;
+import org.onosproject.ipfix.packet.IpfixDecoder;
+import org.onosproject.ipfix.packet.IpfixRecordVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Minimal in-process IPFIX collector.
+ * Receives IPFIX messages over UDP, decodes them with the streaming decoder
+ * and keeps counters of the received messages and records. Data record
+ * sequence numbers are checked per observation domain, so export throughput
+ * and losses can be measured on one machine without an external collector.
+ * Records of data sets whose template is not known yet can not be counted,
+ * so the sequence check of their observation domain restarts with the next
+ * message.
+ */
+public class IpfixCollector implements IpfixRecordVisitor {
+
+    private static final int MAX_UDP_PAYLOAD = 65507;
+    private static final int MIN_DATA_SET_ID = 256;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final IpfixRecordVisitor delegate;
+    private final IpfixDecoder decoder = new IpfixDecoder();
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(MAX_UDP_PAYLOAD);
+    private final Map<Long, Long> expectedSequence = new HashMap<>();
+
+    private final AtomicLong messages = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong templateRecords = new AtomicLong();
+    private final AtomicLong dataRecords = new AtomicLong();
+    private final AtomicLong unknownSets = new AtomicLong();
+    private final AtomicLong decodeErrors = new AtomicLong();
+    private final AtomicLong sequenceErrors = new AtomicLong();
+
+    private DatagramChannel channel;
+    private ExecutorService receiver;
+
+    private long messageOid;
+    private long messageSequence;
+    private long messageRecords;
+    private boolean messageUncounted;
+
+    /**
+     * Creates collector that only counts received records.
+     */
+    public IpfixCollector() {
+        this(null);
+    }
+
+    /**
+     * Creates collector that hands received records to the visitor.
+     * The visitor is called from the receiver thread of the collector.
+     *
+     * @param delegate visitor receiving decoded messages, may be null
+     */
+    public IpfixCollector(IpfixRecordVisitor delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Binds the collector socket and starts the receiver thread.
+     *
+     * @param address local address to listen on, port 0 picks a free port
+     * @return address the collector listens on
+     * @throws IOException if the socket can not be bound
+     */
+    public InetSocketAddress start(InetSocketAddress address) throws IOException {
+        channel = DatagramChannel.open();
+        channel.bind(address);
+        receiver = newSingleThreadExecutor(groupedThreads("onos/ipfix", "collector"));
+        receiver.execute(this::receiveLoop);
+        return (InetSocketAddress) channel.getLocalAddress();
+    }
+
+    /**
+     * Stops the receiver thread and closes the collector socket.
+     */
+    public void stop() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("IPFIX collector channel close problem: {}", e.getMessage());
+            }
+            channel = null;
+        }
+        if (receiver != null) {
+            receiver.shutdownNow();
+            receiver = null;
+        }
+    }
+
+    public long messages() {
+        return messages.get();
+    }
+
+    public long bytes() {
+        return bytes.get();
+    }
+
+    public long templateRecords() {
+        return templateRecords.get();
+    }
+
+    public long dataRecords() {
+        return dataRecords.get();
+    }
+
+    public long unknownSets() {
+        return unknownSets.get();
+    }
+
+    public long decodeErrors() {
+        return decodeErrors.get();
+    }
+
+    public long sequenceErrors() {
+        return sequenceErrors.get();
+    }
+
+    private void receiveLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                receiveBuffer.clear();
+                channel.receive(receiveBuffer);
+                receiveBuffer.flip();
+                messages.incrementAndGet();
+                bytes.addAndGet(receiveBuffer.remaining());
+                decode(receiveBuffer);
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (IOException e) {
+                log.warn("IPFIX collector receive problem: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Decodes one received IPFIX message and checks its sequence number.
+     *
+     * @param buffer buffer holding the message
+     */
+    void decode(ByteBuffer buffer) {
+        messageRecords = 0;
+        messageUncounted = false;
+        try {
+            decoder.decode(buffer, this);
+        } catch (HeaderException e) {
+            decodeErrors.incrementAndGet();
+            log.debug("IPFIX collector decode problem: {}", e.getMessage());
+            return;
+        }
+        Long expected = expectedSequence.get(messageOid);
+        if (expected != null && expected != messageSequence) {
+            sequenceErrors.incrementAndGet();
+        }
+        if (messageUncounted) {
+            expectedSequence.remove(messageOid);
+        } else {
+            expectedSequence.put(messageOid, (messageSequence + messageRecords) & 0xffffffffL);
+        }
+    }
+
+    @Override
+    public void messageHeader(int versionNumber, int length, long exportTime,
+                              long sequenceNumber, long observationDomainID) {
+        messageOid = observationDomainID;
+        messageSequence = sequenceNumber;
+        if (delegate != null) {
+            delegate.messageHeader(versionNumber, length, exportTime, sequenceNumber, observationDomainID);
+        }
+    }
+
+    @Override
+    public void templateRecord(long observationDomainID, int templateID, int fieldCount) {
+        templateRecords.incrementAndGet();
+        if (delegate != null) {
+            delegate.templateRecord(observationDomainID, templateID, fieldCount);
+        }
+    }
+
+    @Override
+    public void informationElement(long observationDomainID, int templateID,
+                                   int informationElementID, int fieldLength, long enterpriseNumber) {
+        if (delegate != null) {
+            delegate.informationElement(observationDomainID, templateID,
+                    informationElementID, fieldLength, enterpriseNumber);
+        }
+    }
+
+    @Override
+    public void dataRecord(long observationDomainID, int templateID,
+                           ByteBuffer buffer, int offset, int length) {
+        messageRecords++;
+        dataRecords.incrementAndGet();
+        if (delegate != null) {
+            delegate.dataRecord(observationDomainID, templateID, buffer, offset, length);
+        }
+    }
+
+    @Override
+    public void unknownSet(long observationDomainID, int setID,
+                           ByteBuffer buffer, int offset, int length) {
+        unknownSets.incrementAndGet();
+        if (setID >= MIN_DATA_SET_ID) {
+            // data set without template, its records are not counted
+            messageUncounted = true;
+        }
+        if (delegate != null) {
+            delegate.unknownSet(observationDomainID, setID, buffer, offset, length);
+        }
+    }
+}
@@ -16,9 +16,13 @@
 package org.onosproject.ipfix;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 import static org.onlab.util.Tools.get;
+import static org.onlab.util.Tools.groupedThreads;
 
 import java.util.Dictionary;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
@@ -27,6 +31,7 @@ import org.apache.felix.scr.annotations.Modified;
 import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
+import org.apache.felix.scr.annotations.Service;
 import org.onlab.packet.IpAddress;
 import org.onosproject.app.ApplicationService;
 import org.onosproject.cfg.ComponentConfigService;
@@ -49,7 +54,8 @@ import com.google.common.base.Strings;
  * OpenFlow to IPFIX Manager.
  */
 @Component(immediate = true)
-public class IpfixManager {
+@Service
+public class IpfixManager implements IpfixService {
 
     protected final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -85,15 +91,35 @@ public class IpfixManager {
 
     private ApplicationId appId;
 
+    protected ExporterCache exporterCache = null;
     protected FlowRemovedListener flowRemovedListener = null;
-    protected PortStatsListener portStatsListener = null;
-    protected IpfixSender ipfixSender = null;
+    protected volatile PortStatsListener portStatsListener = null;
+    protected volatile IpfixSender ipfixSender = null;
+    protected volatile ExportStage exportStage = null;
+    protected volatile ExportFilter exportFilter = null;
+    protected volatile FlowStatsTable flowStatsTable = null;
+    protected volatile FlowCache flowCache = null;
+    private ScheduledExecutorService flowStatsSweeper = null;
+
+    private static final long FLOW_STATS_SWEEP_INTERVAL = 10;
 
     private static final boolean R_FWD_FLOWS_EXPORT = true;
     @Property(name = "ReactiveForwardingFlowExport", boolValue = R_FWD_FLOWS_EXPORT,
             label = "Reactive Forwarding application flows exported over IPFIX when removed")
     private boolean reactiveForwardingFlowExport = R_FWD_FLOWS_EXPORT;
 
+    private static final String EXPORT_APPLICATIONS = "org.onosproject.fwd";
+    @Property(name = "ExportApplications", value = EXPORT_APPLICATIONS,
+            label = "Comma separated names of the applications whose flows are exported over IPFIX when removed, "
+                    + "each optionally followed by :<base Template ID> of its own template family")
+    private String exportApplications = EXPORT_APPLICATIONS;
+
+    private static final String EXPORT_SELECTOR_FILTER = "";
+    @Property(name = "ExportSelectorFilter", value = EXPORT_SELECTOR_FILTER,
+            label = "Comma separated criterion types required in the selector of the exported flows, "
+                    + "prefixed by ! when the criterion must be absent")
+    private String exportSelectorFilter = EXPORT_SELECTOR_FILTER;
+
     private static final boolean PORTSTATS_FLOWS_EXPORT = false;
     @Property(name = "PortStatsFlowExport", boolValue = PORTSTATS_FLOWS_EXPORT,
             label = "Switch Port Statistics exported over IPFIX")
@@ -110,21 +136,98 @@ public class IpfixManager {
     label = "IPFIX Collector UDP Port")
     protected static int collectorPort = COLLECTOR_PORT;
 
+    private static final int EXPORT_QUEUE_SIZE = 4096;
+    @Property(name = "ExportQueueSize", intValue = EXPORT_QUEUE_SIZE,
+    label = "Maximum number of IPFIX records waiting for export")
+    private int exportQueueSize = EXPORT_QUEUE_SIZE;
+
+    private static final int EXPORT_MTU = 1500;
+    @Property(name = "ExportMtu", intValue = EXPORT_MTU,
+    label = "MTU of the path towards IPFIX Collector, used to pack records into messages")
+    private int exportMtu = EXPORT_MTU;
+
+    private static final int TEMPLATE_REFRESH_TIMEOUT = 600;
+    @Property(name = "TemplateRefreshTimeout", intValue = TEMPLATE_REFRESH_TIMEOUT,
+    label = "Interval in seconds after which IPFIX Templates are resent to the collector, 0 to disable")
+    private int templateRefreshTimeout = TEMPLATE_REFRESH_TIMEOUT;
+
+    private static final int TEMPLATE_REFRESH_PACKETS = 0;
+    @Property(name = "TemplateRefreshPackets", intValue = TEMPLATE_REFRESH_PACKETS,
+    label = "Number of IPFIX packets after which IPFIX Templates are resent to the collector, 0 to disable")
+    private int templateRefreshPackets = TEMPLATE_REFRESH_PACKETS;
+
+    private static final int WORKER_QUEUE_SIZE = 10000;
+    @Property(name = "WorkerQueueSize", intValue = WORKER_QUEUE_SIZE,
+    label = "Maximum number of flow and port statistics events waiting for IPFIX record construction")
+    private int workerQueueSize = WORKER_QUEUE_SIZE;
+
+    private static final String WORKER_DROP_POLICY = "DROP_NEWEST";
+    @Property(name = "WorkerDropPolicy", value = WORKER_DROP_POLICY,
+    label = "Event dropped when the worker queue is full: DROP_NEWEST or DROP_OLDEST")
+    private ExportStage.DropPolicy workerDropPolicy = ExportStage.DropPolicy.valueOf(WORKER_DROP_POLICY);
+
+    private static final int PORT_STATS_WORKERS = 4;
+    @Property(name = "PortStatsWorkers", intValue = PORT_STATS_WORKERS,
+    label = "Number of workers computing and exporting port statistics, each handling a subset of devices")
+    private int portStatsWorkers = PORT_STATS_WORKERS;
+
+    private static final int FLOW_ACTIVE_TIMEOUT = 0;
+    @Property(name = "FlowActiveTimeout", intValue = FLOW_ACTIVE_TIMEOUT,
+    label = "Seconds after which statistics of long-lived flows are exported from flow updates, 0 to disable")
+    private int flowActiveTimeout = FLOW_ACTIVE_TIMEOUT;
+
+    private static final int FLOW_ACTIVE_MAX_FLOWS = 200000;
+    @Property(name = "FlowActiveMaxFlows", intValue = FLOW_ACTIVE_MAX_FLOWS,
+    label = "Maximum number of long-lived flows tracked for the active timeout export")
+    private int flowActiveMaxFlows = FLOW_ACTIVE_MAX_FLOWS;
+
+    private static final boolean FLOW_CACHE_ENABLED = false;
+    @Property(name = "FlowCacheEnabled", boolValue = FLOW_CACHE_ENABLED,
+            label = "Reactive Forwarding flows with the same flow key are merged before the export")
+    private boolean flowCacheEnabled = FLOW_CACHE_ENABLED;
+
+    private static final int FLOW_CACHE_MAX_ENTRIES = 10000;
+    @Property(name = "FlowCacheMaxEntries", intValue = FLOW_CACHE_MAX_ENTRIES,
+    label = "Maximum number of flows in the flow cache, least recently updated flow is exported when full")
+    private int flowCacheMaxEntries = FLOW_CACHE_MAX_ENTRIES;
+
+    private static final int FLOW_CACHE_ACTIVE_TIMEOUT = 60;
+    @Property(name = "FlowCacheActiveTimeout", intValue = FLOW_CACHE_ACTIVE_TIMEOUT,
+    label = "Seconds after which cached flow is exported even when it is still updated")
+    private int flowCacheActiveTimeout = FLOW_CACHE_ACTIVE_TIMEOUT;
+
+    private static final int FLOW_CACHE_INACTIVE_TIMEOUT = 15;
+    @Property(name = "FlowCacheInactiveTimeout", intValue = FLOW_CACHE_INACTIVE_TIMEOUT,
+    label = "Seconds without update after which cached flow is exported")
+    private int flowCacheInactiveTimeout = FLOW_CACHE_INACTIVE_TIMEOUT;
+
     @Activate
     public void activate(ComponentContext context) {
         appId = coreService.registerApplication("net.sdnmon.of2ipfix");
         cfgService.registerProperties(getClass());
         getProperties(context);
+        updateExportFilter();
+        updateFlowStatsTable();
         collectorIp = IpAddress.valueOf(collectorAddress);
+        ipfixSender = new IpfixSender(this, exportQueueSize, exportMtu);
+        ipfixSender.setCollector(collectorIp, collectorPort);
+        ipfixSender.setTemplateRefresh(templateRefreshTimeout, templateRefreshPackets);
+        ipfixSender.start();
+        exportStage = new ExportStage(this, workerQueueSize, workerDropPolicy);
+        exportStage.start();
+        flowStatsSweeper = newSingleThreadScheduledExecutor(groupedThreads("onos/ipfix", "flow-stats"));
+        flowStatsSweeper.scheduleAtFixedRate(this::sweepFlowStatsTable,
+                FLOW_STATS_SWEEP_INTERVAL, FLOW_STATS_SWEEP_INTERVAL, TimeUnit.SECONDS);
+        updateFlowCache(false);
+        exporterCache = new ExporterCache(this);
+        deviceService.addListener(exporterCache);
         if (reactiveForwardingFlowExport) {
             flowRemovedListener = new FlowRemovedListener(this);
             flowRuleService.addListener(flowRemovedListener);
         }
         if (portStatsFlowExport) {
-            portStatsListener = new PortStatsListener(this);
-            deviceService.addListener(portStatsListener);
+            startPortStatsListener();
         }
-        ipfixSender = new IpfixSender(this);
         log.info("Started. reactiveForwardingFlowExport={}, portStatsFlowExport={}, IPFIX collector: ip={}, port={}",
                 reactiveForwardingFlowExport, portStatsFlowExport, collectorAddress, collectorPort);
     }
@@ -136,17 +239,64 @@ public class IpfixManager {
             flowRuleService.removeListener(flowRemovedListener);
             flowRemovedListener = null;
         }
-        if (portStatsListener != null) {
-            deviceService.removeListener(portStatsListener);
-            portStatsListener = null;
+        stopPortStatsListener();
+        flowStatsSweeper.shutdownNow();
+        flowStatsSweeper = null;
+        exportStage.stop();
+        exportStage = null;
+        if (flowCache != null) {
+            flowCache.stop();
+            flowCache = null;
         }
+        deviceService.removeListener(exporterCache);
+        exporterCache = null;
+        ipfixSender.stop();
         ipfixSender = null;
         log.info("Stopped");
     }
 
     @Modified
     public void modified(ComponentContext context) {
+        int oldQueueSize = exportQueueSize;
+        int oldMtu = exportMtu;
+        int oldWorkerQueueSize = workerQueueSize;
+        int oldPortStatsWorkers = portStatsWorkers;
+        ExportStage.DropPolicy oldWorkerDropPolicy = workerDropPolicy;
+        String oldExportApplications = exportApplications;
+        String oldExportSelectorFilter = exportSelectorFilter;
+        int oldFlowActiveTimeout = flowActiveTimeout;
+        int oldFlowActiveMaxFlows = flowActiveMaxFlows;
+        int oldCacheMaxEntries = flowCacheMaxEntries;
+        int oldCacheActiveTimeout = flowCacheActiveTimeout;
+        int oldCacheInactiveTimeout = flowCacheInactiveTimeout;
         getProperties(context);
+        if (!exportApplications.equals(oldExportApplications) ||
+                !exportSelectorFilter.equals(oldExportSelectorFilter)) {
+            updateExportFilter();
+        }
+        if (flowActiveTimeout != oldFlowActiveTimeout || flowActiveMaxFlows != oldFlowActiveMaxFlows) {
+            updateFlowStatsTable();
+        }
+        if (exportQueueSize != oldQueueSize || exportMtu != oldMtu) {
+            IpfixSender oldSender = ipfixSender;
+            ipfixSender = new IpfixSender(this, exportQueueSize, exportMtu);
+            ipfixSender.setCollector(collectorIp, collectorPort);
+            ipfixSender.setTemplateRefresh(templateRefreshTimeout, templateRefreshPackets);
+            ipfixSender.start();
+            oldSender.stop();
+        } else {
+            ipfixSender.setCollector(collectorIp, collectorPort);
+            ipfixSender.setTemplateRefresh(templateRefreshTimeout, templateRefreshPackets);
+        }
+        if (workerQueueSize != oldWorkerQueueSize || workerDropPolicy != oldWorkerDropPolicy) {
+            ExportStage oldStage = exportStage;
+            exportStage = new ExportStage(this, workerQueueSize, workerDropPolicy);
+            exportStage.start();
+            oldStage.stop();
+        }
+        updateFlowCache(flowCacheMaxEntries != oldCacheMaxEntries ||
+                flowCacheActiveTimeout != oldCacheActiveTimeout ||
+                flowCacheInactiveTimeout != oldCacheInactiveTimeout);
         if (reactiveForwardingFlowExport) {
             if (flowRemovedListener == null) {
                 flowRemovedListener = new FlowRemovedListener(this);
@@ -158,19 +308,149 @@ public class IpfixManager {
             flowRemovedListener = null;
         }
         if (portStatsFlowExport) {
+            if (portStatsListener != null && (portStatsWorkers != oldPortStatsWorkers ||
+                    workerQueueSize != oldWorkerQueueSize || workerDropPolicy != oldWorkerDropPolicy)) {
+                stopPortStatsListener();
+            }
             if (portStatsListener == null) {
-                portStatsListener = new PortStatsListener(this);
-                deviceService.addListener(portStatsListener);
+                startPortStatsListener();
             }
-        } else if (portStatsListener != null) {
+        } else {
             // portStatsFlowExport is false
-            deviceService.removeListener(portStatsListener);
-            portStatsListener = null;
+            stopPortStatsListener();
         }
         log.info("Modified. reactiveForwardingFlowExport={}, portStatsFlowExport={}, IPFIX collector: ip={}, port={}",
                 reactiveForwardingFlowExport, portStatsFlowExport, collectorAddress, collectorPort);
     }
 
+    @Override
+    public ExportStatistics getExportStatistics() {
+        ExportStage stage = exportStage;
+        IpfixSender sender = ipfixSender;
+        if (stage == null || sender == null) {
+            return new ExportStatistics(0, 0, 0, 0, 0, 0, 0, 0, workerDropPolicy);
+        }
+        long enqueued = stage.enqueued();
+        long dropped = stage.dropped() + sender.dropped();
+        long errors = stage.errors() + sender.serializationErrors();
+        int depth = stage.queueDepth();
+        int capacity = stage.capacity();
+        PortStatsListener listener = portStatsListener;
+        if (listener != null) {
+            for (ExportStage shard : listener.shards()) {
+                enqueued += shard.enqueued();
+                dropped += shard.dropped();
+                errors += shard.errors();
+                depth += shard.queueDepth();
+                capacity += shard.capacity();
+            }
+        }
+        return new ExportStatistics(enqueued, sender.exported(), dropped, errors,
+                depth, capacity, sender.queueDepth(), sender.queueCapacity(), stage.dropPolicy());
+    }
+
+    /**
+     * Starts export of the port statistics.
+     */
+    private void startPortStatsListener() {
+        PortStatsListener listener = new PortStatsListener(this, portStatsWorkers,
+                workerQueueSize, workerDropPolicy);
+        listener.start();
+        portStatsListener = listener;
+        deviceService.addListener(listener);
+    }
+
+    /**
+     * Stops export of the port statistics.
+     */
+    private void stopPortStatsListener() {
+        PortStatsListener listener = portStatsListener;
+        if (listener != null) {
+            deviceService.removeListener(listener);
+            portStatsListener = null;
+            listener.stop();
+        }
+    }
+
+    /**
+     * Compiles the filter of the exported flows from the configuration.
+     * Previous filter is kept when the configuration is invalid.
+     */
+    private void updateExportFilter() {
+        try {
+            exportFilter = ExportFilter.compile(coreService, exportApplications, exportSelectorFilter);
+            log.info("IPFIX export filter: {}", exportFilter);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid IPFIX export filter: " + e.getMessage());
+            if (exportFilter == null) {
+                exportFilter = ExportFilter.compile(coreService, EXPORT_APPLICATIONS, EXPORT_SELECTOR_FILTER);
+            }
+        }
+    }
+
+    /**
+     * Creates the table of the long-lived flows or changes its limits according to the configuration.
+     * The table is kept when the active timeout export is disabled, so that the flows already
+     * exported on the active timeout are exported with only their remaining counters when removed.
+     */
+    private void updateFlowStatsTable() {
+        FlowStatsTable table = flowStatsTable;
+        if (table == null) {
+            flowStatsTable = new FlowStatsTable(flowActiveMaxFlows, Math.max(flowActiveTimeout, 0));
+            return;
+        }
+        int evicted;
+        synchronized (table) {
+            evicted = table.reconfigure(flowActiveMaxFlows, Math.max(flowActiveTimeout, 0));
+        }
+        if (evicted > 0) {
+            log.warn("FlowActiveMaxFlows {} is below the number of tracked flows, {} flows no longer tracked",
+                    flowActiveMaxFlows, evicted);
+        }
+    }
+
+    /**
+     * Queues expiry of the stale long-lived flows to the IPFIX worker, so that
+     * the table is swept on the same thread that handles the flow updates
+     * and removals. Sweep skipped while the worker is busy runs on the next interval.
+     */
+    private void sweepFlowStatsTable() {
+        FlowStatsTable table = flowStatsTable;
+        ExportStage stage = exportStage;
+        if (table == null || stage == null || table.activeTimeout() <= 0) {
+            return;
+        }
+        stage.submitIfIdle(() -> {
+            int expired;
+            synchronized (table) {
+                expired = table.expire(System.currentTimeMillis());
+            }
+            if (expired > 0) {
+                log.debug("Expired {} long-lived flows without seen removal", expired);
+            }
+        });
+    }
+
+    /**
+     * Creates, recreates or removes the flow cache according to the configuration.
+     * Removed flow cache exports all its cached flows.
+     *
+     * @param restart whether flow cache parameters changed
+     */
+    private void updateFlowCache(boolean restart) {
+        if (flowCache != null && (restart || !flowCacheEnabled)) {
+            FlowCache oldCache = flowCache;
+            flowCache = null;
+            oldCache.stop();
+        }
+        if (flowCacheEnabled && flowCache == null) {
+            FlowCache newCache = new FlowCache(this, flowCacheMaxEntries,
+                    flowCacheActiveTimeout, flowCacheInactiveTimeout);
+            newCache.start();
+            flowCache = newCache;
+        }
+    }
+
     public void getProperties(ComponentContext context) {
         Dictionary<?, ?> properties = context.getProperties();
 
@@ -182,11 +462,157 @@ public class IpfixManager {
             log.info("CollectorPort Format Exception");
         }
 
+        // parse ExportQueueSize Property
+        s = get(properties, "ExportQueueSize");
+        try {
+            int queueSize = isNullOrEmpty(s) ? exportQueueSize : Integer.parseInt(s.trim());
+            if (queueSize > 0) {
+                exportQueueSize = queueSize;
+            } else {
+                log.warn("ExportQueueSize {} is not positive, keeping {}", queueSize, exportQueueSize);
+            }
+        } catch (NumberFormatException | ClassCastException e) {
+            log.info("ExportQueueSize Format Exception");
+        }
+
+        // parse ExportMtu Property
+        s = get(properties, "ExportMtu");
+        try {
+            int mtu = isNullOrEmpty(s) ? exportMtu : Integer.parseInt(s.trim());
+            exportMtu = Math.max(IpfixSender.MIN_MTU, Math.min(IpfixSender.MAX_MTU, mtu));
+            if (exportMtu != mtu) {
+                log.warn("ExportMtu {} outside of {}-{}, using {}", mtu,
+                        IpfixSender.MIN_MTU, IpfixSender.MAX_MTU, exportMtu);
+            }
+        } catch (NumberFormatException | ClassCastException e) {
+            log.info("ExportMtu Format Exception");
+        }
+
+        // parse TemplateRefreshTimeout Property
+        s = get(properties, "TemplateRefreshTimeout");
+        try {
+            templateRefreshTimeout = isNullOrEmpty(s) ? templateRefreshTimeout : Integer.parseInt(s.trim());
+        } catch (NumberFormatException | ClassCastException e) {
+            log.info("TemplateRefreshTimeout Format Exception");
+        }
+
+        // parse TemplateRefreshPackets Property
+        s = get(properties, "TemplateRefreshPackets");
+        try {
+            templateRefreshPackets = isNullOrEmpty(s) ? templateRefreshPackets : Integer.parseInt(s.trim());
+        } catch (NumberFormatException | ClassCastException e) {
+            log.info("TemplateRefreshPackets Format Exception");
+        }
+
+        // parse WorkerQueueSize Property
+        s = get(properties, "WorkerQueueSize");
+        try {
+            int queueSize = isNullOrEmpty(s) ? workerQueueSize : Integer.parseInt(s.trim());
+            if (queueSize > 0) {
+                workerQueueSize = queueSize;
+            } else {
+                log.warn("WorkerQueueSize {} is not positive, keeping {}", queueSize, workerQueueSize);
+            }
+        } catch (NumberFormatException | ClassCastException e) {
+            log.info("WorkerQueueSize Format Exception");
+        }
+
+        // parse WorkerDropPolicy Property
+        s = get(properties, "WorkerDropPolicy");
+        try {
+            workerDropPolicy = isNullOrEmpty(s) ? workerDropPolicy : ExportStage.DropPolicy.valueOf(s.trim());
+        } catch (IllegalArgumentException e) {
+            log.info("WorkerDropPolicy Format Exception");
+        }
+
+        // parse PortStatsWorkers Property
+        s = get(properties, "PortStatsWorkers");
+        try {
+            int workers = isNullOrEmpty(s) ? portStatsWorkers : Integer.parseInt(s.trim());
+            if (workers > 0) {
+                portStatsWorkers = workers;
+            } else {
+                log.warn("PortStatsWorkers {} is not positive, keeping {}", workers, portStatsWorkers);
+            }
+        } catch (NumberFormatException | ClassCastException e) {
+            log.info("PortStatsWorkers Format Exception");
+        }
+
+        // parse FlowActiveTimeout Property
+        s = get(properties, "FlowActiveTimeout");
+        try {
+            flowActiveTimeout = isNullOrEmpty(s) ? flowActiveTimeout : Integer.parseInt(s.trim());
+        } catch (NumberFormatException | ClassCastException e) {
+            log.info("FlowActiveTimeout Format Exception");
+        }
+
+        // parse FlowActiveMaxFlows Property
+        s = get(properties, "FlowActiveMaxFlows");
+        try {
+            int maxFlows = isNullOrEmpty(s) ? flowActiveMaxFlows : Integer.parseInt(s.trim());
+            if (maxFlows > 0) {
+                flowActiveMaxFlows = maxFlows;
+            } else {
+                log.warn("FlowActiveMaxFlows {} is not positive, keeping {}", maxFlows, flowActiveMaxFlows);
+            }
+        } catch (NumberFormatException | ClassCastException e) {
+            log.info("FlowActiveMaxFlows Format Exception");
+        }
+
+        // parse FlowCacheMaxEntries Property
+        s = get(properties, "FlowCacheMaxEntries");
+        try {
+            int maxEntries = isNullOrEmpty(s) ? flowCacheMaxEntries : Integer.parseInt(s.trim());
+            if (maxEntries > 0) {
+                flowCacheMaxEntries = maxEntries;
+            } else {
+                log.warn("FlowCacheMaxEntries {} is not positive, keeping {}", maxEntries, flowCacheMaxEntries);
+            }
+        } catch (NumberFormatException | ClassCastException e) {
+            log.info("FlowCacheMaxEntries Format Exception");
+        }
+
+        // parse FlowCacheActiveTimeout Property
+        s = get(properties, "FlowCacheActiveTimeout");
+        try {
+            int activeTimeout = isNullOrEmpty(s) ? flowCacheActiveTimeout : Integer.parseInt(s.trim());
+            if (activeTimeout > 0) {
+                flowCacheActiveTimeout = activeTimeout;
+            } else {
+                log.warn("FlowCacheActiveTimeout {} is not positive, keeping {}",
+                        activeTimeout, flowCacheActiveTimeout);
+            }
+        } catch (NumberFormatException | ClassCastException e) {
+            log.info("FlowCacheActiveTimeout Format Exception");
+        }
+
+        // parse FlowCacheInactiveTimeout Property
+        s = get(properties, "FlowCacheInactiveTimeout");
+        try {
+            int inactiveTimeout = isNullOrEmpty(s) ? flowCacheInactiveTimeout : Integer.parseInt(s.trim());
+            if (inactiveTimeout > 0) {
+                flowCacheInactiveTimeout = inactiveTimeout;
+            } else {
+                log.warn("FlowCacheInactiveTimeout {} is not positive, keeping {}",
+                        inactiveTimeout, flowCacheInactiveTimeout);
+            }
+        } catch (NumberFormatException | ClassCastException e) {
+            log.info("FlowCacheInactiveTimeout Format Exception");
+        }
+
         // parse CollectorAddress Property
         s = get(properties, "CollectorAddress");
         collectorAddress = isNullOrEmpty(s) ? collectorAddress : s;
         collectorIp = IpAddress.valueOf(collectorAddress);
 
+        // parse ExportApplications Property
+        s = get(properties, "ExportApplications");
+        exportApplications = isNullOrEmpty(s) ? exportApplications : s;
+
+        // parse ExportSelectorFilter Property
+        s = get(properties, "ExportSelectorFilter");
+        exportSelectorFilter = (s == null) ? exportSelectorFilter : s;
+
         // parse reactiveForwardingFlowExport Property
         s = get(properties, "ReactiveForwardingFlowExport");
         reactiveForwardingFlowExport = Strings.isNullOrEmpty(s) ? R_FWD_FLOWS_EXPORT : Boolean.valueOf(s);
@@ -194,6 +620,10 @@ public class IpfixManager {
         // parse portStatsFlowExport Property
         s = get(properties, "PortStatsFlowExport");
         portStatsFlowExport = Strings.isNullOrEmpty(s) ? PORTSTATS_FLOWS_EXPORT : Boolean.valueOf(s);
+
+        // parse flowCacheEnabled Property
+        s = get(properties, "FlowCacheEnabled");
+        flowCacheEnabled = Strings.isNullOrEmpty(s) ? FLOW_CACHE_ENABLED : Boolean.valueOf(s);
     }
 
 }
\ No newline at end of file
@@ -15,119 +15,483 @@
  */
 package org.onosproject.ipfix;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.onlab.util.Tools.groupedThreads;
+
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
+import java.net.Inet6Address;
 import java.net.InetAddress;
-import java.net.SocketException;
+import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
-import java.util.Date;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.onlab.packet.IpAddress;
 import org.onosproject.ipfix.packet.DataRecord;
+import org.onosproject.ipfix.packet.EncodedTemplateRecord;
 import org.onosproject.ipfix.packet.HeaderException;
-import org.onosproject.ipfix.packet.MessageHeader;
-import org.onosproject.ipfix.packet.SetHeader;
-import org.onosproject.ipfix.packet.TemplateRecord;
 
 /**
  * Sends IPFIX records.
+ * Records are queued by the listeners and exported by a single flusher thread
+ * over one long-lived UDP channel, packing as many data records of the same
+ * template and observation domain as fit into one MTU-sized IPFIX message.
+ * Templates are announced once per observation domain and then refreshed
+ * only on the configured interval or packet count.
  */
 public class IpfixSender {
 
-    private static int seqNumber;
     private static final int IPFIX_VERSION = 10;
     private static final int TEMPLATE_SETID = 2;
 
-    private IpfixManager ipfixManager;
+    private static final int MESSAGE_HEADER_LENGTH = 16;
+    private static final int SET_HEADER_LENGTH = 4;
+    private static final int UDP_HEADER_LENGTH = 8;
+    private static final int IPV4_HEADER_LENGTH = 20;
+    private static final int IPV6_HEADER_LENGTH = 40;
+
+    private static final int MAX_UDP_PAYLOAD = 65507;
+    private static final int MAX_BATCH = 1024;
+    private static final long DRAIN_TIMEOUT = 2000; // ms
+    private static final long DRAIN_POLL_INTERVAL = 10; // ms
+
+    /**
+     * Smallest supported MTU of the path towards the IPFIX collector.
+     */
+    public static final int MIN_MTU = 576;
+
+    /**
+     * Largest supported MTU of the path towards the IPFIX collector,
+     * the largest IPv4 datagram carrying the largest UDP payload.
+     */
+    public static final int MAX_MTU = MAX_UDP_PAYLOAD + UDP_HEADER_LENGTH + IPV4_HEADER_LENGTH;
+
+    private final IpfixManager ipfixManager;
+    private final BlockingQueue<ExportEntry> queue;
+    private final int queueSize;
+    private final int mtu;
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(MAX_UDP_PAYLOAD);
+
+    private final Map<Long, DomainState> domains = new HashMap<>();
+
+    // records queued and not yet flushed, including the batch being flushed
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final AtomicLong exported = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong serializationErrors = new AtomicLong();
+
+    private ExecutorService flusher;
+    private DatagramChannel channel;
+    private volatile InetSocketAddress collector;
+    private volatile int templateRefreshTimeout;
+    private volatile int templateRefreshPackets;
+    private InetSocketAddress announcedCollector;
 
     /**
      * Creates instance of the IPFIX Sender.
      *
      * @param ipfixManager IpfixManager instance
+     * @param queueSize maximum number of records waiting for export
+     * @param mtu MTU of the path towards the IPFIX collector
+     * @throws IllegalArgumentException if the queue size is not positive
+     *                                  or the MTU is not supported
      */
-    public IpfixSender(IpfixManager ipfixManager) {
+    public IpfixSender(IpfixManager ipfixManager, int queueSize, int mtu) {
+        checkArgument(queueSize > 0, "Invalid export queue size %s", queueSize);
+        checkArgument(mtu >= MIN_MTU && mtu <= MAX_MTU, "Invalid export MTU %s", mtu);
         this.ipfixManager = ipfixManager;
-        seqNumber = 0;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.queueSize = queueSize;
+        this.mtu = mtu;
+    }
+
+    /**
+     * Opens the export channel and starts the flusher thread.
+     */
+    public void start() {
+        try {
+            channel = DatagramChannel.open();
+        } catch (IOException e) {
+            ipfixManager.log.warn("IPFIX datagram channel problem: " + e.getMessage());
+            return;
+        }
+        flusher = newSingleThreadExecutor(groupedThreads("onos/ipfix", "sender"));
+        flusher.execute(this::flushLoop);
+    }
+
+    /**
+     * Stops the flusher thread and closes the export channel.
+     * Queued records are given a bounded time to be exported, records still
+     * waiting in the queue afterwards are discarded.
+     */
+    public void stop() {
+        if (flusher != null) {
+            drain();
+            flusher.shutdownNow();
+            flusher = null;
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                ipfixManager.log.warn("IPFIX datagram channel close problem: " + e.getMessage());
+            }
+            channel = null;
+        }
+        queue.clear();
+    }
+
+    /**
+     * Waits until the queued records are exported, at most the drain timeout.
+     */
+    private void drain() {
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT;
+        while (pending.get() > 0 && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(DRAIN_POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (pending.get() > 0) {
+            ipfixManager.log.warn("IPFIX export stopped with {} records not exported", pending.get());
+        }
     }
 
     /**
-     * Send IPFIX Template and coresponding list of data records.
+     * Sets the IPFIX collector to which records are exported.
      *
-     * @param tr Template Record to send
+     * @param collectorIp IPFIX collector IP address
+     * @param port IPFIX collector UDP port
+     */
+    public void setCollector(IpAddress collectorIp, int port) {
+        try {
+            InetAddress address = InetAddress.getByAddress(collectorIp.toOctets());
+            collector = new InetSocketAddress(address, port);
+        } catch (UnknownHostException e) {
+            ipfixManager.log.warn("IPFIX Collector IP address format problem: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sets how often Templates are resent to the IPFIX collector.
+     * Template is resent with the first message after either limit is reached.
+     *
+     * @param timeout template refresh timeout in seconds, 0 to disable
+     * @param packets number of messages with data records of the template
+     *                after which it is resent, 0 to disable
+     */
+    public void setTemplateRefresh(int timeout, int packets) {
+        templateRefreshTimeout = timeout;
+        templateRefreshPackets = packets;
+    }
+
+    /**
+     * Queues list of data records for the export with their IPFIX Template.
+     * Records that do not fit into the export queue are dropped.
+     *
+     * @param tr Template Record of the data records
      * @param recordsList List of corresponding IPFIX records to send
      * @param oid observation domain ID
-     * @param collector IPFIX collector IP address
-     * @param port IPFIX collector UDP port
      */
-    public void sendRecords(TemplateRecord tr, List<DataRecord> recordsList,
-                             long oid, IpAddress collector, int port) {
+    public void sendRecords(EncodedTemplateRecord tr, List<DataRecord> recordsList, long oid) {
+        for (DataRecord record : recordsList) {
+            pending.incrementAndGet();
+            if (!queue.offer(new ExportEntry(tr, record, oid))) {
+                pending.decrementAndGet();
+                dropped.incrementAndGet();
+                ipfixManager.log.debug("IPFIX export queue full, dropping record for template {}",
+                        tr.getTemplateID());
+            }
+        }
+    }
 
-        MessageHeader mh = new MessageHeader();
-        mh.setVersionNumber(IPFIX_VERSION);
-        mh.setObservationDomainID(oid);
-        seqNumber++;
-        mh.setSequenceNumber(seqNumber);
-        mh.setExportTime(new Date());
+    /**
+     * Returns number of data records sent to the collector.
+     *
+     * @return number of exported records
+     */
+    public long exported() {
+        return exported.get();
+    }
 
-        // Set header for the template
-        SetHeader shTemplate = new SetHeader();
-        shTemplate.setSetID(TEMPLATE_SETID);
+    /**
+     * Returns number of data records dropped because the export queue was full
+     * or their message could not be sent.
+     *
+     * @return number of dropped records
+     */
+    public long dropped() {
+        return dropped.get();
+    }
 
-        // Add template record
-        List<TemplateRecord> trTemp = shTemplate.getTemplateRecords();
-        trTemp.add(tr);
-        shTemplate.setTemplateRecords(trTemp);
+    /**
+     * Returns number of IPFIX messages that failed to serialize.
+     *
+     * @return number of serialization errors
+     */
+    public long serializationErrors() {
+        return serializationErrors.get();
+    }
 
-        // Set header for the Data Records
-        SetHeader shData = new SetHeader();
-        shData.setSetID(tr.getTemplateID());
+    /**
+     * Returns number of records waiting in the export queue.
+     *
+     * @return export queue depth
+     */
+    public int queueDepth() {
+        return queue.size();
+    }
 
-        // Add Data records from the recordsList
-        List<DataRecord> drTemp = shData.getDataRecords();
-        for (DataRecord tempRecord : recordsList) {
-            drTemp.add(tempRecord);
-        }
-        shData.setDataRecords(drTemp);
+    /**
+     * Returns maximum number of records waiting in the export queue.
+     *
+     * @return export queue capacity
+     */
+    public int queueCapacity() {
+        return queueSize;
+    }
 
-        // Make Set Headers from Template and Data
-        List<SetHeader> shTemp = mh.getSetHeaders();
-        shTemp.add(shTemplate);
-        shTemp.add(shData);
-        mh.setSetHeaders(shTemp);
+    /**
+     * Waits for queued records and exports them in batches until interrupted.
+     */
+    private void flushLoop() {
+        List<ExportEntry> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            try {
+                flush(batch);
+            } catch (RuntimeException e) {
+                ipfixManager.log.warn("IPFIX export problem: " + e.getMessage());
+            }
+            pending.addAndGet(-batch.size());
+            batch.clear();
+        }
+    }
 
-        // socket handling and IPFIX UDP packet sending
-        InetAddress collectorAddress = null;
-        try {
-            collectorAddress = InetAddress.getByAddress(collector.toOctets());
-        } catch (UnknownHostException e) {
-            ipfixManager.log.warn("IPFIX Collector IP address format problem: " + e.getMessage());
+    /**
+     * Groups batch of records per observation domain and template and
+     * sends them in as few IPFIX messages as possible.
+     *
+     * @param batch records to export
+     */
+    private void flush(List<ExportEntry> batch) {
+        InetSocketAddress target = collector;
+        if (target == null) {
             return;
         }
-        DatagramSocket dSocket = null;
-        DatagramPacket dPacket = null;
-        try {
-            dSocket = new DatagramSocket();
-        } catch (SocketException e) {
-            ipfixManager.log.warn("IPFIX datagram socket problem: " + e.getMessage());
-            return;
+        if (!target.equals(announcedCollector)) {
+            // new transport session, nothing has been announced to this collector yet
+            domains.clear();
+            announcedCollector = target;
+        }
+
+        Map<ExportKey, List<ExportEntry>> groups = new LinkedHashMap<>();
+        for (ExportEntry entry : batch) {
+            groups.computeIfAbsent(new ExportKey(entry.oid, entry.template.getTemplateID()),
+                    k -> new ArrayList<>()).add(entry);
+        }
+
+        int maxPayload = mtu - UDP_HEADER_LENGTH -
+                ((target.getAddress() instanceof Inet6Address) ? IPV6_HEADER_LENGTH : IPV4_HEADER_LENGTH);
+        long now = System.currentTimeMillis();
+
+        for (Map.Entry<ExportKey, List<ExportEntry>> group : groups.entrySet()) {
+            List<ExportEntry> entries = group.getValue();
+            EncodedTemplateRecord tr = entries.get(0).template;
+            DomainState domain = domains.computeIfAbsent(group.getKey().oid, k -> new DomainState());
+
+            int from = 0;
+            while (from < entries.size()) {
+                boolean withTemplate = domain.templateDue(tr.getTemplateID(), now,
+                        templateRefreshTimeout, templateRefreshPackets);
+                int room = maxPayload - MESSAGE_HEADER_LENGTH - SET_HEADER_LENGTH -
+                        (withTemplate ? SET_HEADER_LENGTH + tr.getLength() : 0);
+                int perMessage = Math.max(1, room / entries.get(0).record.getLength());
+                int to = Math.min(entries.size(), from + perMessage);
+                if (send(tr, withTemplate, entries.subList(from, to), group.getKey().oid, domain, target)) {
+                    domain.sent(tr.getTemplateID(), withTemplate, to - from, now);
+                }
+                from = to;
+            }
+        }
+    }
+
+    /**
+     * Serializes IPFIX message with corresponding data records, optionally
+     * preceded by their Template, into the reusable send buffer and sends it
+     * over the export channel.
+     *
+     * @param tr Template of the data records
+     * @param withTemplate whether Template Set is included in the message
+     * @param entries data records to send
+     * @param oid observation domain ID
+     * @param domain export state of the observation domain
+     * @param target IPFIX collector socket address
+     * @return true if the message was sent
+     */
+    private boolean send(EncodedTemplateRecord tr, boolean withTemplate, List<ExportEntry> entries,
+                         long oid, DomainState domain, InetSocketAddress target) {
+        int dataLength = SET_HEADER_LENGTH;
+        for (ExportEntry entry : entries) {
+            dataLength += entry.record.getLength();
         }
+        int templateLength = withTemplate ? SET_HEADER_LENGTH + tr.getLength() : 0;
+
         try {
-            dPacket = new DatagramPacket(mh.getBytes(), mh.getBytes().length, collectorAddress, port);
+            sendBuffer.clear();
+            // message header
+            sendBuffer.putShort((short) IPFIX_VERSION);
+            sendBuffer.putShort((short) (MESSAGE_HEADER_LENGTH + templateLength + dataLength));
+            sendBuffer.putInt((int) (System.currentTimeMillis() / 1000));
+            sendBuffer.putInt((int) domain.sequenceNumber);
+            sendBuffer.putInt((int) oid);
+            // template set
+            if (withTemplate) {
+                sendBuffer.putShort((short) TEMPLATE_SETID);
+                sendBuffer.putShort((short) templateLength);
+                tr.writeTo(sendBuffer);
+            }
+            // data set
+            sendBuffer.putShort((short) tr.getTemplateID());
+            sendBuffer.putShort((short) dataLength);
+            for (ExportEntry entry : entries) {
+                entry.record.writeTo(sendBuffer);
+            }
+            sendBuffer.flip();
+            channel.send(sendBuffer, target);
+            exported.addAndGet(entries.size());
+            return true;
         } catch (HeaderException e) {
+            serializationErrors.incrementAndGet();
             ipfixManager.log.warn("IPFIX datagram packet problem: " + e.getMessage());
-            dSocket.close();
-            return;
-        }
-        try {
-            dSocket.send(dPacket);
         } catch (IOException e) {
+            dropped.addAndGet(entries.size());
             ipfixManager.log.warn("IPFIX packet send IO exception: " + e.getMessage());
-            dSocket.close();
-            return;
         }
-        dSocket.close();
+        return false;
+    }
+
+    /**
+     * Data record waiting for export.
+     */
+    private static final class ExportEntry {
+        private final EncodedTemplateRecord template;
+        private final DataRecord record;
+        private final long oid;
+
+        private ExportEntry(EncodedTemplateRecord template, DataRecord record, long oid) {
+            this.template = template;
+            this.record = record;
+            this.oid = oid;
+        }
+    }
+
+    /**
+     * Observation domain and template pair used to group records into messages.
+     */
+    private static final class ExportKey {
+        private final long oid;
+        private final int templateId;
+
+        private ExportKey(long oid, int templateId) {
+            this.oid = oid;
+            this.templateId = templateId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(oid, templateId);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ExportKey)) {
+                return false;
+            }
+            ExportKey that = (ExportKey) obj;
+            return oid == that.oid && templateId == that.templateId;
+        }
+    }
+
+    /**
+     * Export state of one observation domain towards the current collector.
+     * Tracks sequence number of the exported data records and when each
+     * Template was last announced, following RFC 7011 rules for UDP.
+     */
+    private static final class DomainState {
+        private long sequenceNumber;
+        private final Map<Integer, TemplateState> templates = new HashMap<>();
+
+        /**
+         * Returns true if the Template has to be sent with the next message.
+         *
+         * @param templateId template ID
+         * @param now current time in milliseconds
+         * @param refreshTimeout template refresh timeout in seconds, 0 to disable
+         * @param refreshPackets template refresh packet count, 0 to disable
+         * @return true if the Template is not announced yet or has to be refreshed
+         */
+        private boolean templateDue(int templateId, long now, int refreshTimeout, int refreshPackets) {
+            TemplateState state = templates.get(templateId);
+            if (state == null) {
+                return true;
+            }
+            if (refreshTimeout > 0 && now - state.lastSent >= TimeUnit.SECONDS.toMillis(refreshTimeout)) {
+                return true;
+            }
+            return refreshPackets > 0 && state.packetsSinceSent >= refreshPackets;
+        }
+
+        /**
+         * Updates the state after the message was sent.
+         *
+         * @param templateId template ID
+         * @param withTemplate whether the Template was included in the message
+         * @param records number of data records in the message
+         * @param now current time in milliseconds
+         */
+        private void sent(int templateId, boolean withTemplate, int records, long now) {
+            sequenceNumber = (sequenceNumber + records) & 0xffffffffL;
+            TemplateState state = templates.computeIfAbsent(templateId, k -> new TemplateState());
+            if (withTemplate) {
+                state.lastSent = now;
+                state.packetsSinceSent = 0;
+            } else {
+                state.packetsSinceSent++;
+            }
+        }
     }
 
+    /**
+     * Announcement state of one Template in one observation domain.
+     */
+    private static final class TemplateState {
+        private long lastSent;
+        private int packetsSinceSent;
+    }
 }
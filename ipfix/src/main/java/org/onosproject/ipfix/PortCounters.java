@@ -0,0 +1,173 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import java.util.Arrays;
+
+/**
+ * Previous port statistics counters of one device.
+ * Counters are kept in primitive arrays indexed by port slot. Ports with
+ * numbers up to {@value #MAX_DIRECT_PORT} are mapped to their slot by a
+ * direct index array, other ports (e.g. OpenFlow LOCAL port) are found by
+ * a scan of the few such slots.
+ * Not thread safe, each device is handled by a single port statistics worker.
+ */
+public final class PortCounters {
+
+    static final int MAX_DIRECT_PORT = 0xffff;
+
+    private static final int INITIAL_PORTS = 64;
+
+    // port number to slot + 1, 0 if port has no slot yet
+    private int[] directIndex = new int[INITIAL_PORTS];
+    private long[] ports = new long[INITIAL_PORTS];
+    private long[] rxBytes = new long[INITIAL_PORTS];
+    private long[] rxPackets = new long[INITIAL_PORTS];
+    private long[] txBytes = new long[INITIAL_PORTS];
+    private long[] txPackets = new long[INITIAL_PORTS];
+    private long[] time = new long[INITIAL_PORTS];
+    private int slots;
+
+    // deltas computed by the last update
+    private long rxBytesDelta;
+    private long rxPacketsDelta;
+    private long txBytesDelta;
+    private long txPacketsDelta;
+    private long previousTime;
+
+    /**
+     * Updates counters of the port and computes their deltas since the
+     * previous update, available through the delta accessors.
+     *
+     * @param port port number, unsigned
+     * @param rxBytesNow received bytes counter
+     * @param rxPacketsNow received packets counter
+     * @param txBytesNow sent bytes counter
+     * @param txPacketsNow sent packets counter
+     * @param now time of the update in milliseconds
+     * @return false if this is the first update of the port and no deltas are available
+     */
+    public boolean update(long port, long rxBytesNow, long rxPacketsNow,
+                          long txBytesNow, long txPacketsNow, long now) {
+        int slot = slot(port);
+        boolean known = slot >= 0;
+        if (known) {
+            rxBytesDelta = delta(rxBytesNow, rxBytes[slot]);
+            rxPacketsDelta = delta(rxPacketsNow, rxPackets[slot]);
+            txBytesDelta = delta(txBytesNow, txBytes[slot]);
+            txPacketsDelta = delta(txPacketsNow, txPackets[slot]);
+            previousTime = time[slot];
+        } else {
+            slot = addSlot(port);
+        }
+        rxBytes[slot] = rxBytesNow;
+        rxPackets[slot] = rxPacketsNow;
+        txBytes[slot] = txBytesNow;
+        txPackets[slot] = txPacketsNow;
+        time[slot] = now;
+        return known;
+    }
+
+    private static long delta(long current, long previous) {
+        return current >= previous ? current - previous : current;
+    }
+
+    private int slot(long port) {
+        if (port <= MAX_DIRECT_PORT) {
+            return port < directIndex.length ? directIndex[(int) port] - 1 : -1;
+        }
+        for (int i = 0; i < slots; i++) {
+            if (ports[i] == port) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int addSlot(long port) {
+        if (slots == ports.length) {
+            int capacity = slots * 2;
+            ports = Arrays.copyOf(ports, capacity);
+            rxBytes = Arrays.copyOf(rxBytes, capacity);
+            rxPackets = Arrays.copyOf(rxPackets, capacity);
+            txBytes = Arrays.copyOf(txBytes, capacity);
+            txPackets = Arrays.copyOf(txPackets, capacity);
+            time = Arrays.copyOf(time, capacity);
+        }
+        if (port <= MAX_DIRECT_PORT) {
+            if (port >= directIndex.length) {
+                directIndex = Arrays.copyOf(directIndex, (int) Math.max(directIndex.length * 2, port + 1));
+            }
+            directIndex[(int) port] = slots + 1;
+        }
+        ports[slots] = port;
+        return slots++;
+    }
+
+    /**
+     * Returns received bytes since the previous update of the port.
+     *
+     * @return received bytes delta
+     */
+    public long rxBytesDelta() {
+        return rxBytesDelta;
+    }
+
+    /**
+     * Returns received packets since the previous update of the port.
+     *
+     * @return received packets delta
+     */
+    public long rxPacketsDelta() {
+        return rxPacketsDelta;
+    }
+
+    /**
+     * Returns sent bytes since the previous update of the port.
+     *
+     * @return sent bytes delta
+     */
+    public long txBytesDelta() {
+        return txBytesDelta;
+    }
+
+    /**
+     * Returns sent packets since the previous update of the port.
+     *
+     * @return sent packets delta
+     */
+    public long txPacketsDelta() {
+        return txPacketsDelta;
+    }
+
+    /**
+     * Returns time of the previous update of the port.
+     *
+     * @return previous update time in milliseconds
+     */
+    public long previousTime() {
+        return previousTime;
+    }
+
+    /**
+     * Returns number of tracked ports.
+     *
+     * @return number of ports
+     */
+    public int size() {
+        return slots;
+    }
+}
@@ -16,43 +16,78 @@
 package org.onosproject.ipfix;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.onlab.packet.Ip6Address;
 import org.onlab.packet.IpAddress;
 import org.onosproject.ipfix.packet.DataRecord;
-import org.onosproject.ipfix.packet.TemplateRecord;
-import org.onosproject.net.ConnectPoint;
+import org.onosproject.ipfix.packet.EncodedTemplateRecord;
 import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
 import org.onosproject.net.MastershipRole;
 import org.onosproject.net.device.DeviceEvent;
 import org.onosproject.net.device.DeviceListener;
 import org.onosproject.net.device.PortStatistics;
-import org.onosproject.openflow.controller.Dpid;
-
-import com.google.common.primitives.Longs;
 
 /**
  * Internal PortStats Listener.
  * Exports IPFIX statistics when PortStats are updated.
+ * Port statistics of each device are processed by one of a small pool of
+ * workers, chosen by the device, so that devices are handled in parallel
+ * while updates of the same device stay ordered.
  */
 public class PortStatsListener implements DeviceListener {
 
-    public Map<ConnectPoint, List<Long>> prevStatsMap = new HashMap<ConnectPoint, List<Long>>();
-
-    private IpfixManager ipfixManager;
+    private final IpfixManager ipfixManager;
+    private final ExportStage[] shards;
+    private final Map<DeviceId, PortCounters> counters = new ConcurrentHashMap<>();
 
     /**
      * Internal PortStats Listener.
      * Exports IPFIX statistics when PortStats are updated.
      *
      * @param ipfixManager ipfix manager instance
+     * @param workers number of port statistics workers
+     * @param queueSize maximum number of events waiting for each worker
+     * @param dropPolicy policy applied when the worker queue is full
      */
-    public PortStatsListener(IpfixManager ipfixManager) {
+    public PortStatsListener(IpfixManager ipfixManager, int workers, int queueSize,
+                             ExportStage.DropPolicy dropPolicy) {
         this.ipfixManager = ipfixManager;
+        this.shards = new ExportStage[Math.max(1, workers)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new ExportStage(ipfixManager, queueSize, dropPolicy);
+        }
+    }
+
+    /**
+     * Starts the port statistics workers.
+     */
+    public void start() {
+        for (ExportStage shard : shards) {
+            shard.start();
+        }
+    }
+
+    /**
+     * Stops the port statistics workers.
+     */
+    public void stop() {
+        for (ExportStage shard : shards) {
+            shard.stop();
+        }
+        counters.clear();
+    }
+
+    /**
+     * Returns the port statistics workers.
+     *
+     * @return worker stages
+     */
+    public ExportStage[] shards() {
+        return shards.clone();
     }
 
     @Override
@@ -62,62 +97,79 @@ public class PortStatsListener implements DeviceListener {
 
         switch (event.type()) {
             case PORT_STATS_UPDATED:
-                if (ipfixManager.deviceService.getRole(device.id()) == MastershipRole.MASTER) {
-                    ipfixManager.log.trace("PortStats Updated: I am MASTER for deviceId={}", device.id().toString());
-
-                    List<DataRecord> recordsInList = new ArrayList<DataRecord>();
-                    List<DataRecord> recordsOutList = new ArrayList<DataRecord>();
-
-                    IpAddress exporterIpv4 =
-                            IpAddress.valueOf(device.annotations().toString().split("=")[2].split(":")[0]);
-                    long dpid = Dpid.dpid(device.id().uri()).value();
-                    byte[] byteExporterIpv6 = new byte[16];
-                    System.arraycopy(Longs.toByteArray(0), 0, byteExporterIpv6, 0, 8);
-                    System.arraycopy(Longs.toByteArray(dpid), 0, byteExporterIpv6, 8, 8);
-                    Ip6Address exporterIpv6 = Ip6Address.valueOf(byteExporterIpv6);
-
-                    for (PortStatistics stat : ipfixManager.deviceService.getPortDeltaStatistics(device.id())) {
-
-                        final String format = "PortStatsListener Delta Stats: port={}, pktRx={}, pktTx={},"
-                                + "bytesRx={}, bytesTx={}, pktRxDrp={}, pktTxDrp={}, Dur={}.{}";
-                        ipfixManager.log.trace(format, stat.port(), stat.packetsReceived(), stat.packetsSent(),
-                                stat.bytesReceived(), stat.bytesSent(),
-                                stat.packetsRxDropped(), stat.packetsTxDropped(),
-                                stat.durationSec(), (stat.durationNano() / 1000000));
-
-                        long inBytes = stat.bytesReceived();
-                        long inPackets = stat.packetsReceived();
-                        long outBytes = stat.bytesSent();
-                        long outPackets = stat.packetsSent();
-                        long endTime = System.currentTimeMillis();
-                        long startTime = endTime - (stat.durationSec() * TimeUnit.SECONDS.toMillis(1) +
-                                stat.durationNano() / TimeUnit.MILLISECONDS.toNanos(1));
-
-                        DataRecordPortStatsIn recordIn = new DataRecordPortStatsIn(exporterIpv4, exporterIpv6,
-                                stat.port(), inBytes, inPackets, startTime, endTime);
-                        DataRecordPortStatsOut recordOut = new DataRecordPortStatsOut(exporterIpv4, exporterIpv6,
-                                stat.port(), outBytes, outPackets, startTime, endTime);
-
-                        recordsInList.add(recordIn);
-                        recordsOutList.add(recordOut);
-                    }
-
-                    if (recordsInList.isEmpty() && recordsOutList.isEmpty()) {
-                        ipfixManager.log.trace("PortStats: Previous PortStats for device={} where zero,"
-                                + "not sending IPFIX flow", device.id());
-                    } else {
-                        TemplateRecord trIn = DataRecordPortStatsIn.portStatsInTemplateRecord();
-                        TemplateRecord trOut = DataRecordPortStatsOut.portStatsOutTemplateRecord();
-                        ipfixManager.ipfixSender.sendRecords(trIn, recordsInList, dpid,
-                                IpfixManager.collectorIp, IpfixManager.collectorPort);
-                        ipfixManager.ipfixSender.sendRecords(trOut, recordsOutList, dpid,
-                                IpfixManager.collectorIp, IpfixManager.collectorPort);
-                    }
-                }
+                shard(device.id()).submit(() -> portStatsUpdated(device));
+                break;
+
+            case DEVICE_REMOVED:
+                shard(device.id()).submit(() -> counters.remove(device.id()));
                 break;
 
             default:
                 break;
         }
     }
+
+    private ExportStage shard(DeviceId deviceId) {
+        return shards[(deviceId.hashCode() & Integer.MAX_VALUE) % shards.length];
+    }
+
+    /**
+     * Computes port statistics deltas of the device and exports them if
+     * this instance is its master. Ports without traffic since the previous
+     * update are not exported.
+     * Runs on the port statistics worker of the device.
+     *
+     * @param device device whose port statistics were updated
+     */
+    private void portStatsUpdated(Device device) {
+        boolean master = ipfixManager.deviceService.getRole(device.id()) == MastershipRole.MASTER;
+        PortCounters deviceCounters = counters.computeIfAbsent(device.id(), k -> new PortCounters());
+        long now = System.currentTimeMillis();
+
+        List<DataRecord> recordsInList = new ArrayList<DataRecord>();
+        List<DataRecord> recordsOutList = new ArrayList<DataRecord>();
+        Exporter exporter = master ? ipfixManager.exporterCache.get(device) : null;
+
+        for (PortStatistics stat : ipfixManager.deviceService.getPortStatistics(device.id())) {
+            long port = stat.port() & 0xffffffffL;
+            boolean known = deviceCounters.update(port, stat.bytesReceived(), stat.packetsReceived(),
+                    stat.bytesSent(), stat.packetsSent(), now);
+            if (!known || exporter == null) {
+                // not the master, or not an OpenFlow switch
+                continue;
+            }
+
+            ipfixManager.log.trace("PortStatsListener Delta Stats: port={}, pktRx={}, pktTx={}, bytesRx={}, "
+                    + "bytesTx={}", port, deviceCounters.rxPacketsDelta(), deviceCounters.txPacketsDelta(),
+                    deviceCounters.rxBytesDelta(), deviceCounters.txBytesDelta());
+
+            IpAddress exporterIpv4 = exporter.ipv4();
+            Ip6Address exporterIpv6 = exporter.ipv6();
+            long startTime = deviceCounters.previousTime();
+
+            if (deviceCounters.rxBytesDelta() != 0 || deviceCounters.rxPacketsDelta() != 0) {
+                recordsInList.add(new DataRecordPortStatsIn(exporterIpv4, exporterIpv6, stat.port(),
+                        deviceCounters.rxBytesDelta(), deviceCounters.rxPacketsDelta(), startTime, now));
+            }
+            if (deviceCounters.txBytesDelta() != 0 || deviceCounters.txPacketsDelta() != 0) {
+                recordsOutList.add(new DataRecordPortStatsOut(exporterIpv4, exporterIpv6, stat.port(),
+                        deviceCounters.txBytesDelta(), deviceCounters.txPacketsDelta(), startTime, now));
+            }
+        }
+
+        if (!master) {
+            return;
+        }
+        ipfixManager.log.trace("PortStats Updated: I am MASTER for deviceId={}, in={}, out={}",
+                device.id(), recordsInList.size(), recordsOutList.size());
+        // the sender splits the records into MTU sized messages
+        if (!recordsInList.isEmpty()) {
+            EncodedTemplateRecord trIn = DataRecordPortStatsIn.TEMPLATE_RECORD;
+            ipfixManager.ipfixSender.sendRecords(trIn, recordsInList, exporter.dpid());
+        }
+        if (!recordsOutList.isEmpty()) {
+            EncodedTemplateRecord trOut = DataRecordPortStatsOut.TEMPLATE_RECORD;
+            ipfixManager.ipfixSender.sendRecords(trOut, recordsOutList, exporter.dpid());
+        }
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import org.onosproject.ipfix.packet.EncodedTemplateRecord;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Family of IPFIX Templates used for the flows of one application.
+ * The family consists of the L2, IPv4 and IPv6 flow Templates with
+ * consecutive Template IDs, so that the collector can tell the flows
+ * of different applications apart by the Template ID.
+ */
+public final class TemplateFamily {
+
+    /**
+     * Template family of the Reactive Forwarding application flows.
+     */
+    public static final TemplateFamily DEFAULT = new TemplateFamily(DataRecordRfwdMac.TEMPLATE_RECORD,
+            DataRecordRfwdIpv4.TEMPLATE_RECORD, DataRecordRfwdIpv6.TEMPLATE_RECORD);
+
+    /**
+     * Number of Templates in the family.
+     */
+    public static final int SIZE = 3;
+
+    // lowest and highest Template IDs of the data sets, lower IDs are reserved for the set IDs
+    private static final int MIN_TEMPLATE_ID = 256;
+    private static final int MAX_TEMPLATE_ID = 65535;
+
+    // Template IDs of the built-in Templates
+    private static final int[] BUILT_IN_IDS = {
+            DataRecordRfwdMac.TEMPLATE_ID, DataRecordRfwdIpv4.TEMPLATE_ID, DataRecordRfwdIpv6.TEMPLATE_ID,
+            DataRecordPortStatsIn.TEMPLATE_ID, DataRecordPortStatsOut.TEMPLATE_ID
+    };
+
+    private final EncodedTemplateRecord mac;
+    private final EncodedTemplateRecord ipv4;
+    private final EncodedTemplateRecord ipv6;
+
+    private TemplateFamily(EncodedTemplateRecord mac, EncodedTemplateRecord ipv4, EncodedTemplateRecord ipv6) {
+        this.mac = mac;
+        this.ipv4 = ipv4;
+        this.ipv6 = ipv6;
+    }
+
+    /**
+     * Returns template family with Template IDs starting at the given ID.
+     * L2 Template has the base ID, IPv4 and IPv6 Templates the next two IDs.
+     *
+     * @param baseTemplateId Template ID of the L2 flow Template
+     * @return template family
+     * @throws IllegalArgumentException if the Template IDs are not valid data set IDs
+     *                                  or overlap the built-in Template IDs
+     */
+    public static TemplateFamily of(int baseTemplateId) {
+        int lastTemplateId = baseTemplateId + SIZE - 1;
+        if (baseTemplateId < MIN_TEMPLATE_ID || lastTemplateId > MAX_TEMPLATE_ID) {
+            throw new IllegalArgumentException(String.format("Template IDs %d-%d outside of the data set IDs %d-%d",
+                    baseTemplateId, lastTemplateId, MIN_TEMPLATE_ID, MAX_TEMPLATE_ID));
+        }
+        for (int id : BUILT_IN_IDS) {
+            if (id >= baseTemplateId && id <= lastTemplateId) {
+                throw new IllegalArgumentException(String.format("Template IDs %d-%d overlap built-in Template ID %d",
+                        baseTemplateId, lastTemplateId, id));
+            }
+        }
+        return new TemplateFamily(DEFAULT.mac.withTemplateID(baseTemplateId),
+                DEFAULT.ipv4.withTemplateID(baseTemplateId + 1),
+                DEFAULT.ipv6.withTemplateID(baseTemplateId + 2));
+    }
+
+    /**
+     * Returns whether the Template IDs of the two families overlap.
+     *
+     * @param other other template family
+     * @return true if some Template ID is used by both families
+     */
+    public boolean overlaps(TemplateFamily other) {
+        return Math.abs(mac.getTemplateID() - other.mac.getTemplateID()) < SIZE;
+    }
+
+    /**
+     * Returns Template of the flows with L2 fields matching.
+     *
+     * @return L2 flow Template
+     */
+    public EncodedTemplateRecord mac() {
+        return mac;
+    }
+
+    /**
+     * Returns Template of the flows with IPv4 fields matching.
+     *
+     * @return IPv4 flow Template
+     */
+    public EncodedTemplateRecord ipv4() {
+        return ipv4;
+    }
+
+    /**
+     * Returns Template of the flows with IPv6 fields matching.
+     *
+     * @return IPv6 flow Template
+     */
+    public EncodedTemplateRecord ipv6() {
+        return ipv6;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("mac", mac.getTemplateID())
+                .add("ipv4", ipv4.getTemplateID())
+                .add("ipv6", ipv6.getTemplateID())
+                .toString();
+    }
+}
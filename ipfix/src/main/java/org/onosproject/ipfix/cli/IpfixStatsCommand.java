@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix.cli;
+
+import org.apache.karaf.shell.commands.Command;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.ipfix.ExportStatistics;
+import org.onosproject.ipfix.ExportStatisticsCodec;
+import org.onosproject.ipfix.IpfixService;
+
+/**
+ * CLI to show the IPFIX export counters.
+ */
+@Command(scope = "onos", name = "ipfix-stats",
+        description = "Shows IPFIX export counters and queue depths")
+public class IpfixStatsCommand extends AbstractShellCommand {
+
+    private static final String FORMAT = "enqueued=%d, exported=%d, dropped=%d, serializationErrors=%d%n"
+            + "workerQueue=%d/%d, exportQueue=%d/%d, dropPolicy=%s";
+
+    @Override
+    protected void execute() {
+        ExportStatistics stats = get(IpfixService.class).getExportStatistics();
+        if (outputJson()) {
+            print("%s", new ExportStatisticsCodec().encode(stats, this));
+        } else {
+            print(FORMAT, stats.enqueued(), stats.exported(), stats.dropped(), stats.serializationErrors(),
+                    stats.workerQueueDepth(), stats.workerQueueCapacity(),
+                    stats.exportQueueDepth(), stats.exportQueueCapacity(), stats.dropPolicy());
+        }
+    }
+}
@@ -15,6 +15,8 @@
 */
 package org.onosproject.ipfix.packet;
 
+import java.nio.ByteBuffer;
+
 /**
  * Abstract Interface for IPFIX entities.
  * Used for Records, Headers and Information Elements.
@@ -36,4 +38,13 @@ public interface AbstractIpfixPacketInterface {
      * @throws HeaderException header exception
      */
     public byte[] getBytes() throws HeaderException;
+
+    /**
+     * Writes the IPFIX entity into the buffer at its current position.
+     * Used for IPFIX packet serialization without intermediate byte arrays.
+     *
+     * @param buffer buffer to write the IPFIX entity into
+     * @throws HeaderException header exception
+     */
+    public void writeTo(ByteBuffer buffer) throws HeaderException;
 }
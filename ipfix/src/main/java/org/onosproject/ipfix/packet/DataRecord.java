@@ -15,8 +15,24 @@
  */
 package org.onosproject.ipfix.packet;
 
+import java.nio.ByteBuffer;
+
+import org.onlab.packet.MacAddress;
+
 /**
  * IPFIX Data Record entity.
  */
 public abstract class DataRecord extends Record {
+
+    /**
+     * Writes 6 bytes of the MAC address into the buffer.
+     *
+     * @param buffer buffer to write the MAC address into
+     * @param mac MAC address
+     */
+    protected static void putMac(ByteBuffer buffer, MacAddress mac) {
+        long value = mac.toLong();
+        buffer.putShort((short) (value >>> 32));
+        buffer.putInt((int) value);
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix.packet;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Immutable IPFIX Template Record, encoded once into its wire form.
+ */
+public final class EncodedTemplateRecord implements AbstractIpfixPacketInterface {
+
+    private final int templateID;
+    private final int fieldCount;
+    private final byte[] data;
+
+    private EncodedTemplateRecord(int templateID, int fieldCount, byte[] data) {
+        this.templateID = templateID;
+        this.fieldCount = fieldCount;
+        this.data = data;
+    }
+
+    /**
+     * Encodes the Template Record.
+     *
+     * @param tr Template Record to encode
+     * @return encoded Template Record
+     * @throws IllegalArgumentException if the Template Record can not be encoded
+     */
+    public static EncodedTemplateRecord of(TemplateRecord tr) {
+        ByteBuffer buffer = ByteBuffer.allocate(tr.getLength());
+        try {
+            tr.writeTo(buffer);
+        } catch (HeaderException e) {
+            throw new IllegalArgumentException("Template " + tr.getTemplateID() +
+                    " can not be encoded: " + e.getMessage());
+        }
+        return new EncodedTemplateRecord(tr.getTemplateID(), tr.getFieldCount(), buffer.array());
+    }
+
+    /**
+     * Returns copy of this Template Record with a different Template ID,
+     * used to export the same record layout under several Template IDs.
+     *
+     * @param id Template ID of the copy
+     * @return encoded Template Record with the given Template ID
+     * @throws IllegalArgumentException if the Template ID is not a valid data set ID
+     */
+    public EncodedTemplateRecord withTemplateID(int id) {
+        if (id < 256 || id > 65535) {
+            throw new IllegalArgumentException("Invalid Template ID " + id);
+        }
+        byte[] copy = data.clone();
+        ByteBuffer.wrap(copy).putShort(0, (short) id);
+        return new EncodedTemplateRecord(id, fieldCount, copy);
+    }
+
+    public int getTemplateID() {
+        return templateID;
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public int getLength() {
+        return data.length;
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return data.clone();
+    }
+
+    @Override
+    public void writeTo(ByteBuffer buffer) throws HeaderException {
+        try {
+            buffer.put(data);
+        } catch (Exception e) {
+            throw new HeaderException("Error while writing the bytes: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[EncodedTemplateRecord]: ");
+        sb.append("Template ID: ");
+        sb.append(templateID);
+        sb.append(", Field count: ");
+        sb.append(fieldCount);
+        sb.append(", Length: ");
+        sb.append(data.length);
+        return sb.toString();
+    }
+}
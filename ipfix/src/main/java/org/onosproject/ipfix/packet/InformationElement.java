@@ -15,6 +15,8 @@
  */
 package org.onosproject.ipfix.packet;
 
+import java.nio.ByteBuffer;
+
 import com.google.common.primitives.Ints;
 import com.google.common.primitives.Shorts;
 
@@ -92,6 +94,17 @@ public class InformationElement implements AbstractIpfixPacketInterface {
         }
     }
 
+    public void writeTo(ByteBuffer buffer) throws HeaderException {
+        try {
+            // information element ID
+            buffer.putShort((short) getInformationElementID());
+            // field length
+            buffer.putShort((short) getFieldLength());
+        } catch (Exception e) {
+            throw new HeaderException("Error while writing the bytes: " + e.getMessage());
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
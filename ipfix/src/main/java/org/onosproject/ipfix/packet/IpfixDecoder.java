@@ -0,0 +1,204 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix.packet;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming IPFIX message decoder.
+ * Walks the message by absolute offsets in the buffer and hands headers and
+ * records to the IpfixRecordVisitor without copying them. Templates received
+ * in one message are remembered per observation domain to decode data sets of
+ * the following messages, so one decoder should be used per transport session.
+ * Not thread safe.
+ */
+public class IpfixDecoder {
+
+    private static final int MESSAGE_HEADER_LENGTH = 16;
+    private static final int SET_HEADER_LENGTH = 4;
+    private static final int TEMPLATE_HEADER_LENGTH = 4;
+    private static final int OPTION_TEMPLATE_HEADER_LENGTH = 6;
+    private static final int TEMPLATE_SET_ID = 2;
+    private static final int OPTION_SET_ID = 3;
+    private static final int MIN_DATA_SET_ID = 256;
+    private static final int ENTERPRISE_BIT = 0x8000;
+    private static final int VARIABLE_LENGTH = 65535;
+
+    private final Map<Long, TemplateLayout> templates = new HashMap<>();
+
+    /**
+     * Decodes one IPFIX message starting at the buffer position.
+     * On return the buffer position is set after the message.
+     *
+     * @param buffer buffer holding the message
+     * @param visitor visitor receiving the message content
+     * @throws HeaderException if the message is malformed
+     */
+    public void decode(ByteBuffer buffer, IpfixRecordVisitor visitor) throws HeaderException {
+        int base = buffer.position();
+        if (buffer.remaining() < MESSAGE_HEADER_LENGTH) {
+            throw new HeaderException("Data array too short.");
+        }
+        int length = u16(buffer, base + 2);
+        if (length < MESSAGE_HEADER_LENGTH || length > buffer.remaining()) {
+            throw new HeaderException("Invalid message length: " + length);
+        }
+        long oid = u32(buffer, base + 12);
+        visitor.messageHeader(u16(buffer, base), length, u32(buffer, base + 4), u32(buffer, base + 8), oid);
+
+        int offset = base + MESSAGE_HEADER_LENGTH;
+        int end = base + length;
+        while (end - offset >= SET_HEADER_LENGTH) {
+            int setId = u16(buffer, offset);
+            int setLength = u16(buffer, offset + 2);
+            if (setLength < SET_HEADER_LENGTH || offset + setLength > end) {
+                throw new HeaderException("Invalid set length: " + setLength);
+            }
+            int setEnd = offset + setLength;
+            int pos = offset + SET_HEADER_LENGTH;
+            if (setId == TEMPLATE_SET_ID) {
+                decodeTemplates(buffer, pos, setEnd, oid, TEMPLATE_HEADER_LENGTH, visitor);
+            } else if (setId == OPTION_SET_ID) {
+                decodeTemplates(buffer, pos, setEnd, oid, OPTION_TEMPLATE_HEADER_LENGTH, visitor);
+            } else if (setId >= MIN_DATA_SET_ID) {
+                decodeData(buffer, pos, setEnd, oid, setId, visitor);
+            }
+            offset = setEnd;
+        }
+        buffer.position(end);
+    }
+
+    /**
+     * Forgets all templates learned by the decoder.
+     */
+    public void reset() {
+        templates.clear();
+    }
+
+    private void decodeTemplates(ByteBuffer buffer, int pos, int setEnd, long oid,
+                                 int headerLength, IpfixRecordVisitor visitor) throws HeaderException {
+        while (setEnd - pos >= headerLength) {
+            int templateId = u16(buffer, pos);
+            int fieldCount = u16(buffer, pos + 2);
+            if (templateId < MIN_DATA_SET_ID) {
+                // remaining bytes are set padding
+                return;
+            }
+            pos += headerLength;
+            visitor.templateRecord(oid, templateId, fieldCount);
+            if (fieldCount == 0) {
+                templates.remove(key(oid, templateId));
+                continue;
+            }
+
+            int[] fieldLengths = new int[fieldCount];
+            int recordLength = 0;
+            for (int i = 0; i < fieldCount; i++) {
+                if (setEnd - pos < InformationElement.LENGTH) {
+                    throw new HeaderException("Template " + templateId + " truncated.");
+                }
+                int id = u16(buffer, pos);
+                int fieldLength = u16(buffer, pos + 2);
+                pos += InformationElement.LENGTH;
+                long enterpriseNumber = 0;
+                if ((id & ENTERPRISE_BIT) != 0) {
+                    if (setEnd - pos < 4) {
+                        throw new HeaderException("Template " + templateId + " truncated.");
+                    }
+                    enterpriseNumber = u32(buffer, pos);
+                    pos += 4;
+                }
+                visitor.informationElement(oid, templateId, id & ~ENTERPRISE_BIT, fieldLength, enterpriseNumber);
+                fieldLengths[i] = fieldLength;
+                if (recordLength >= 0) {
+                    recordLength = (fieldLength == VARIABLE_LENGTH) ? -1 : recordLength + fieldLength;
+                }
+            }
+            templates.put(key(oid, templateId), new TemplateLayout(recordLength, fieldLengths));
+        }
+    }
+
+    private void decodeData(ByteBuffer buffer, int pos, int setEnd, long oid, int templateId,
+                            IpfixRecordVisitor visitor) throws HeaderException {
+        TemplateLayout layout = templates.get(key(oid, templateId));
+        if (layout == null) {
+            visitor.unknownSet(oid, templateId, buffer, pos, setEnd - pos);
+            return;
+        }
+        if (layout.recordLength == 0) {
+            return;
+        }
+        while (pos < setEnd) {
+            int recordLength = layout.recordLength >= 0 ?
+                    layout.recordLength : variableRecordLength(buffer, pos, setEnd, layout.fieldLengths);
+            if (recordLength < 0 || setEnd - pos < recordLength) {
+                // remaining bytes are set padding
+                return;
+            }
+            visitor.dataRecord(oid, templateId, buffer, pos, recordLength);
+            pos += recordLength;
+        }
+    }
+
+    private static int variableRecordLength(ByteBuffer buffer, int pos, int setEnd, int[] fieldLengths) {
+        int start = pos;
+        for (int fieldLength : fieldLengths) {
+            if (fieldLength == VARIABLE_LENGTH) {
+                if (pos >= setEnd) {
+                    return -1;
+                }
+                fieldLength = buffer.get(pos) & 0xff;
+                pos++;
+                if (fieldLength == 255) {
+                    if (setEnd - pos < 2) {
+                        return -1;
+                    }
+                    fieldLength = u16(buffer, pos);
+                    pos += 2;
+                }
+            }
+            pos += fieldLength;
+        }
+        return pos - start;
+    }
+
+    private static long key(long oid, int templateId) {
+        return (oid << 16) | templateId;
+    }
+
+    private static int u16(ByteBuffer buffer, int offset) {
+        return buffer.getShort(offset) & 0xffff;
+    }
+
+    private static long u32(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset) & 0xffffffffL;
+    }
+
+    /**
+     * Record layout of a received template.
+     */
+    private static final class TemplateLayout {
+        private final int recordLength;
+        private final int[] fieldLengths;
+
+        private TemplateLayout(int recordLength, int[] fieldLengths) {
+            this.recordLength = recordLength;
+            this.fieldLengths = fieldLengths;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix.packet;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Receives the content of IPFIX messages from the IpfixDecoder.
+ * Records are not copied; data records are handed over as the offset and
+ * length inside the decoded buffer, valid only for the duration of the call.
+ */
+public interface IpfixRecordVisitor {
+
+    /**
+     * Called for the IPFIX Message Header, before any of its records.
+     *
+     * @param versionNumber version number
+     * @param length length of the message in bytes
+     * @param exportTime export time in seconds since epoch
+     * @param sequenceNumber sequence number
+     * @param observationDomainID observation domain ID
+     */
+    default void messageHeader(int versionNumber, int length, long exportTime,
+                               long sequenceNumber, long observationDomainID) {
+    }
+
+    /**
+     * Called for each Template Record and Options Template Record.
+     *
+     * @param observationDomainID observation domain ID
+     * @param templateID template ID
+     * @param fieldCount number of information elements, 0 for template withdrawal
+     */
+    default void templateRecord(long observationDomainID, int templateID, int fieldCount) {
+    }
+
+    /**
+     * Called for each Information Element of the last Template Record.
+     *
+     * @param observationDomainID observation domain ID
+     * @param templateID template ID
+     * @param informationElementID information element ID, without the enterprise bit
+     * @param fieldLength field length, 65535 for variable length fields
+     * @param enterpriseNumber enterprise number, 0 for IANA information elements
+     */
+    default void informationElement(long observationDomainID, int templateID,
+                                    int informationElementID, int fieldLength, long enterpriseNumber) {
+    }
+
+    /**
+     * Called for each Data Record of a known template.
+     *
+     * @param observationDomainID observation domain ID
+     * @param templateID template ID
+     * @param buffer decoded buffer
+     * @param offset absolute offset of the record in the buffer
+     * @param length length of the record in bytes
+     */
+    default void dataRecord(long observationDomainID, int templateID,
+                            ByteBuffer buffer, int offset, int length) {
+    }
+
+    /**
+     * Called for each Data Set whose template has not been received yet.
+     *
+     * @param observationDomainID observation domain ID
+     * @param setID set ID
+     * @param buffer decoded buffer
+     * @param offset absolute offset of the set content in the buffer
+     * @param length length of the set content in bytes
+     */
+    default void unknownSet(long observationDomainID, int setID,
+                            ByteBuffer buffer, int offset, int length) {
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.onosproject.ipfix.packet;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -142,7 +143,9 @@ public class MessageHeader extends AbstractIpfixPacketEntity implements Abstract
             int offset = HEADER_LENGTH;
 
             while ((mh.getLength() - offset) > 0) {
-                byte[] subData = new byte[mh.getLength() - offset];
+                // copy only the bytes of the current set
+                int setLength = ((data[offset + 2] & 0xff) << 8) | (data[offset + 3] & 0xff);
+                byte[] subData = new byte[Math.min(setLength, mh.getLength() - offset)];
                 System.arraycopy(data, offset, subData, 0, subData.length);
                 SetHeader sh = SetHeader.parse(subData);
                 mh.getSetHeaders().add(sh);
@@ -165,7 +168,7 @@ public class MessageHeader extends AbstractIpfixPacketEntity implements Abstract
             // length
             System.arraycopy(Shorts.toByteArray((short) length), 0, data, 2, 2);
             // export time
-            System.arraycopy(Ints.toByteArray((int) exportTime.getTime() / 1000), 0, data, 4, 4);
+            System.arraycopy(Ints.toByteArray((int) (exportTime.getTime() / 1000)), 0, data, 4, 4);
             // sequence number
             System.arraycopy(Ints.toByteArray((int) sequenceNumber), 0, data, 8, 4);
             // observation domain id
@@ -184,6 +187,27 @@ public class MessageHeader extends AbstractIpfixPacketEntity implements Abstract
         }
     }
 
+    public void writeTo(ByteBuffer buffer) throws HeaderException {
+        try {
+            // version number
+            buffer.putShort((short) versionNumber);
+            // length
+            buffer.putShort((short) length);
+            // export time
+            buffer.putInt((int) (exportTime.getTime() / 1000));
+            // sequence number
+            buffer.putInt((int) sequenceNumber);
+            // observation domain id
+            buffer.putInt((int) observationDomainID);
+            // set header
+            for (SetHeader sh : setHeaders) {
+                sh.writeTo(buffer);
+            }
+        } catch (Exception e) {
+            throw new HeaderException("Error while writing the bytes: " + e.getMessage());
+        }
+    }
+
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("[MessageHeader]: ");
@@ -15,6 +15,7 @@
  */
 package org.onosproject.ipfix.packet;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -152,6 +153,34 @@ public class OptionTemplateRecord extends Record {
         }
     }
 
+    public void writeTo(ByteBuffer buffer) throws HeaderException {
+        try {
+            int start = buffer.position();
+            // template ID
+            buffer.putShort((short) getTemplateID());
+            // field count
+            buffer.putShort((short) getFieldCount());
+            // scope field count
+            buffer.putShort((short) getScopeFieldCount());
+            // information elements
+            for (InformationElement ie : scopeInformationElements) {
+                ie.writeTo(buffer);
+            }
+            for (InformationElement ie : informationElements) {
+                ie.writeTo(buffer);
+            }
+            int length = buffer.position() - start;
+            if (length % 4 != 0) {
+                // padding
+                for (int i = 0; i < length % 4; i++) {
+                    buffer.put((byte) 0);
+                }
+            }
+        } catch (Exception e) {
+            throw new HeaderException("Error while writing the bytes: " + e.getMessage());
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -15,6 +15,8 @@
  */
 package org.onosproject.ipfix.packet;
 
+import java.nio.ByteBuffer;
+
 import com.google.common.primitives.Ints;
 import com.google.common.primitives.Longs;
 
@@ -106,6 +108,23 @@ public class SamplingDataRecord extends DataRecord {
         }
     }
 
+    public void writeTo(ByteBuffer buffer) throws HeaderException {
+        try {
+            // observationDomainId
+            buffer.putInt((int) getObservationDomainId());
+            // selectorAlgorithm
+            buffer.putShort((short) getSelectorAlgorithm());
+            // samplingPacketInterval
+            buffer.putInt((int) getSamplingPacketInterval());
+            // samplingPacketSpace
+            buffer.putInt((int) getSamplingPacketSpace());
+            // padding
+            buffer.putShort((short) 0);
+        } catch (Exception e) {
+            throw new HeaderException("Error while writing the bytes: " + e.getMessage());
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -15,6 +15,7 @@
  */
 package org.onosproject.ipfix.packet;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
@@ -198,6 +199,27 @@ public class SetHeader extends AbstractIpfixPacketEntity implements AbstractIpfi
         }
     }
 
+    public void writeTo(ByteBuffer buffer) throws HeaderException {
+        try {
+            // set id
+            buffer.putShort((short) getSetID());
+            // length
+            buffer.putShort((short) getLength());
+            // data record
+            for (DataRecord record : dataRecords) {
+                record.writeTo(buffer);
+            }
+            for (TemplateRecord record : templateRecords) {
+                record.writeTo(buffer);
+            }
+            for (OptionTemplateRecord record : optionTemplateRecords) {
+                record.writeTo(buffer);
+            }
+        } catch (Exception e) {
+            throw new HeaderException("Error while writing the bytes: " + e.getMessage());
+        }
+    }
+
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("[SetHeader]: ");
@@ -15,6 +15,7 @@
  */
 package org.onosproject.ipfix.packet;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -118,6 +119,21 @@ public class TemplateRecord extends Record {
         }
     }
 
+    public void writeTo(ByteBuffer buffer) throws HeaderException {
+        try {
+            // template ID
+            buffer.putShort((short) getTemplateID());
+            // field count
+            buffer.putShort((short) getFieldCount());
+            // information elements
+            for (InformationElement ie : informationElements) {
+                ie.writeTo(buffer);
+            }
+        } catch (Exception e) {
+            throw new HeaderException("Error while writing the bytes: " + e.getMessage());
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix.rest;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.onosproject.ipfix.ExportStatistics;
+import org.onosproject.ipfix.ExportStatisticsCodec;
+import org.onosproject.ipfix.IpfixService;
+import org.onosproject.rest.AbstractWebResource;
+
+/**
+ * OpenFlow to IPFIX export web resource.
+ */
+@Path("")
+public class IpfixWebResource extends AbstractWebResource {
+
+    /**
+     * Gets IPFIX export counters and queue depths.
+     *
+     * @return 200 OK with the export statistics
+     */
+    @GET
+    @Path("stats")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getExportStatistics() {
+        ExportStatistics stats = get(IpfixService.class).getExportStatistics();
+        return ok(new ExportStatisticsCodec().encode(stats, this)).build();
+    }
+}
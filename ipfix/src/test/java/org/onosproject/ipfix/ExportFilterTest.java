@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.Ip4Prefix;
+import org.onlab.packet.VlanId;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.CoreServiceAdapter;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.TrafficSelector;
+
+/**
+ * Tests for the compiled IPFIX export filter.
+ */
+public class ExportFilterTest {
+
+    private static final ApplicationId FWD = new DefaultApplicationId(1, "org.onosproject.fwd");
+    private static final ApplicationId IFWD = new DefaultApplicationId(2, "org.onosproject.ifwd");
+    private static final ApplicationId OTHER = new DefaultApplicationId(3, "org.onosproject.other");
+
+    private final CoreServiceAdapter coreService = new CoreServiceAdapter() {
+        @Override
+        public ApplicationId getAppId(Short id) {
+            switch (id) {
+                case 1:
+                    return FWD;
+                case 2:
+                    return IFWD;
+                case 3:
+                    return OTHER;
+                default:
+                    return null;
+            }
+        }
+    };
+
+    private FlowRule rule(ApplicationId appId, TrafficSelector selector) {
+        return DefaultFlowRule.builder()
+                .forDevice(DeviceId.deviceId("of:0000000000000001"))
+                .withSelector(selector)
+                .withTreatment(DefaultTrafficTreatment.emptyTreatment())
+                .withPriority(10)
+                .fromApp(appId)
+                .makePermanent()
+                .build();
+    }
+
+    /**
+     * Tests selection of the flows by application with per-application template families.
+     */
+    @Test
+    public void applications() {
+        ExportFilter filter = ExportFilter.compile(coreService, "org.onosproject.fwd, org.onosproject.ifwd:351", "");
+        TrafficSelector selector = DefaultTrafficSelector.emptySelector();
+
+        assertSame(TemplateFamily.DEFAULT, filter.match(rule(FWD, selector)));
+        TemplateFamily ifwd = filter.match(rule(IFWD, selector));
+        assertEquals(351, ifwd.mac().getTemplateID());
+        assertEquals(352, ifwd.ipv4().getTemplateID());
+        assertEquals(353, ifwd.ipv6().getTemplateID());
+        assertNull(filter.match(rule(OTHER, selector)));
+    }
+
+    /**
+     * Tests selection of the flows by required and excluded selector criteria.
+     */
+    @Test
+    public void selectorFilter() {
+        ExportFilter filter = ExportFilter.compile(coreService, "org.onosproject.fwd", "IPV4_DST, !VLAN_VID");
+
+        TrafficSelector.Builder builder = DefaultTrafficSelector.builder()
+                .matchEthType(Ethernet.TYPE_IPV4)
+                .matchIPDst(Ip4Prefix.valueOf("10.0.0.1/32"));
+        assertSame(TemplateFamily.DEFAULT, filter.match(rule(FWD, builder.build())));
+        assertNull(filter.match(rule(FWD, builder.matchVlanId(VlanId.vlanId((short) 10)).build())));
+        assertNull(filter.match(rule(FWD, DefaultTrafficSelector.emptySelector())));
+    }
+
+    /**
+     * Tests that invalid configuration is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCriterion() {
+        ExportFilter.compile(coreService, "org.onosproject.fwd", "NO_SUCH_CRITERION");
+    }
+
+    /**
+     * Tests that base Template IDs below the data set IDs are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void reservedTemplateId() {
+        ExportFilter.compile(coreService, "org.onosproject.ifwd:255", "");
+    }
+
+    /**
+     * Tests that template families overlapping the built-in Templates are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void builtInTemplateId() {
+        ExportFilter.compile(coreService, "org.onosproject.ifwd:329", "");
+    }
+
+    /**
+     * Tests that overlapping template families of different applications are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void overlappingTemplateIds() {
+        ExportFilter.compile(coreService, "org.onosproject.ifwd:351,org.onosproject.other:353", "");
+    }
+
+    /**
+     * Tests that duplicate base Template IDs are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateTemplateIds() {
+        ExportFilter.compile(coreService, "org.onosproject.ifwd:351,org.onosproject.other:351", "");
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import static org.junit.Assert.assertEquals;
+import static org.onlab.junit.TestTools.assertAfter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for the bounded IPFIX worker stage.
+ */
+public class ExportStageTest {
+
+    private final List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+
+    private void fill(ExportStage stage, int count) {
+        for (int i = 0; i < count; i++) {
+            int task = i;
+            stage.submit(() -> executed.add(task));
+        }
+    }
+
+    /**
+     * Tests that new events are dropped when the queue is full.
+     */
+    @Test
+    public void dropNewest() {
+        ExportStage stage = new ExportStage(new IpfixManager(), 2, ExportStage.DropPolicy.DROP_NEWEST);
+        fill(stage, 3);
+        assertEquals(2, stage.enqueued());
+        assertEquals(1, stage.dropped());
+        assertEquals(2, stage.queueDepth());
+
+        stage.start();
+        assertAfter(5000, () -> assertEquals(2, executed.size()));
+        stage.stop();
+        assertEquals(0, (int) executed.get(0));
+        assertEquals(1, (int) executed.get(1));
+    }
+
+    /**
+     * Tests that the oldest events are dropped when the queue is full.
+     */
+    @Test
+    public void dropOldest() {
+        ExportStage stage = new ExportStage(new IpfixManager(), 2, ExportStage.DropPolicy.DROP_OLDEST);
+        fill(stage, 3);
+        assertEquals(3, stage.enqueued());
+        assertEquals(1, stage.dropped());
+
+        stage.start();
+        assertAfter(5000, () -> assertEquals(2, executed.size()));
+        stage.stop();
+        assertEquals(1, (int) executed.get(0));
+        assertEquals(2, (int) executed.get(1));
+    }
+
+    /**
+     * Tests that failing events are counted and do not stop the worker.
+     */
+    @Test
+    public void errors() {
+        ExportStage stage = new ExportStage(new IpfixManager(), 10, ExportStage.DropPolicy.DROP_NEWEST);
+        stage.submit(() -> {
+            throw new IllegalStateException("broken record");
+        });
+        fill(stage, 1);
+        stage.start();
+        assertAfter(5000, () -> assertEquals(1, stage.errors()));
+        assertAfter(5000, () -> assertEquals(1, executed.size()));
+        stage.stop();
+    }
+}
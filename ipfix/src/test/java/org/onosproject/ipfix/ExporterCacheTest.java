@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.ChassisId;
+import org.onlab.packet.Ip6Address;
+import org.onlab.packet.IpAddress;
+import org.onosproject.net.AnnotationKeys;
+import org.onosproject.net.DefaultAnnotations;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.device.DeviceServiceAdapter;
+import org.onosproject.net.provider.ProviderId;
+
+/**
+ * Tests for the exporter identity cache.
+ */
+public class ExporterCacheTest {
+
+    private static final ProviderId PID = new ProviderId("of", "foo");
+    private static final DeviceId DID = DeviceId.deviceId("of:0000000000000abc");
+    private static final DeviceId NETCONF_DID = DeviceId.deviceId("netconf:10.0.0.1:830");
+
+    private Device device;
+    private ExporterCache cache;
+
+    private Device device(DefaultAnnotations annotations) {
+        return new DefaultDevice(PID, DID, Device.Type.SWITCH, "m", "h", "s", "n",
+                new ChassisId(), annotations);
+    }
+
+    @Before
+    public void setUp() {
+        IpfixManager manager = new IpfixManager();
+        manager.deviceService = new DeviceServiceAdapter() {
+            @Override
+            public Device getDevice(DeviceId deviceId) {
+                return DID.equals(deviceId) ? device : null;
+            }
+        };
+        cache = new ExporterCache(manager);
+    }
+
+    /**
+     * Tests exporter identity resolved from the management address annotation.
+     */
+    @Test
+    public void managementAddress() {
+        device = device(DefaultAnnotations.builder()
+                .set(AnnotationKeys.MANAGEMENT_ADDRESS, "10.0.0.1")
+                .set(AnnotationKeys.CHANNEL_ID, "10.0.0.2:53842")
+                .build());
+
+        Exporter exporter = cache.get(DID);
+        assertEquals(0xabcL, exporter.dpid());
+        assertEquals(IpAddress.valueOf("10.0.0.1"), exporter.ipv4());
+        assertEquals(Ip6Address.valueOf("::abc"), exporter.ipv6());
+        assertSame(exporter, cache.get(device));
+    }
+
+    /**
+     * Tests exporter identity resolved from the OpenFlow channel identifier
+     * and refreshed by the device events.
+     */
+    @Test
+    public void channelIdAndUpdates() {
+        device = device(DefaultAnnotations.builder()
+                .set(AnnotationKeys.CHANNEL_ID, "10.0.0.2:53842")
+                .build());
+        assertEquals(IpAddress.valueOf("10.0.0.2"), cache.get(DID).ipv4());
+
+        device = device(DefaultAnnotations.builder()
+                .set(AnnotationKeys.CHANNEL_ID, "10.0.0.3:53842")
+                .build());
+        cache.event(new DeviceEvent(DeviceEvent.Type.DEVICE_UPDATED, device));
+        assertEquals(IpAddress.valueOf("10.0.0.3"), cache.get(DID).ipv4());
+
+        cache.event(new DeviceEvent(DeviceEvent.Type.DEVICE_REMOVED, device));
+        device = null;
+        assertNull(cache.get(DID));
+    }
+
+    /**
+     * Tests exporter identity of the device without usable address annotations.
+     */
+    @Test
+    public void unknownAddress() {
+        device = device(DefaultAnnotations.builder()
+                .set(AnnotationKeys.MANAGEMENT_ADDRESS, "switch-1")
+                .build());
+        assertEquals(IpAddress.valueOf(0), cache.get(DID).ipv4());
+    }
+
+    /**
+     * Tests that devices other than OpenFlow switches are not exporters.
+     */
+    @Test
+    public void notOpenFlow() {
+        Device netconf = new DefaultDevice(PID, NETCONF_DID, Device.Type.SWITCH, "m", "h", "s", "n",
+                new ChassisId(), DefaultAnnotations.builder().build());
+        cache.event(new DeviceEvent(DeviceEvent.Type.DEVICE_ADDED, netconf));
+        assertNull(cache.get(NETCONF_DID));
+        assertNull(cache.get(netconf));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.Ip6Address;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.MacAddress;
+import org.onosproject.ipfix.packet.DataRecord;
+import org.onosproject.ipfix.packet.EncodedTemplateRecord;
+
+/**
+ * Tests for the exporter side flow cache.
+ */
+public class FlowCacheTest {
+
+    private static final IpAddress EXPORTER_IPV4 = IpAddress.valueOf("10.0.0.1");
+    private static final Ip6Address EXPORTER_IPV6 = Ip6Address.valueOf("::1");
+    private static final MacAddress SRC_MAC = MacAddress.valueOf("00:00:00:00:00:01");
+    private static final MacAddress DST_MAC = MacAddress.valueOf("00:00:00:00:00:02");
+    private static final int OCTETS_OFFSET = 36;
+    private static final int INGRESS_OFFSET = 52;
+
+    private IpfixManager manager;
+    private List<DataRecord> exported;
+
+    /**
+     * Sender that records exported records instead of sending them.
+     */
+    private class RecordingSender extends IpfixSender {
+        RecordingSender() {
+            super(manager, 1, 1500);
+        }
+
+        @Override
+        public void sendRecords(EncodedTemplateRecord tr, List<DataRecord> recordsList, long oid) {
+            exported.addAll(recordsList);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        manager = new IpfixManager();
+        exported = new ArrayList<>();
+        manager.ipfixSender = new RecordingSender();
+    }
+
+    private FlowKey key(int intfIn) {
+        return new FlowKey(1, DataRecordRfwdMac.TEMPLATE_ID, intfIn, 2, SRC_MAC, DST_MAC,
+                (short) 0x800, (short) 0, null, null, (byte) 0, (byte) 0, (short) 0, (short) 0);
+    }
+
+    private void add(FlowCache cache, int intfIn, long octets) {
+        DataRecordRfwdMac record = new DataRecordRfwdMac(EXPORTER_IPV4, EXPORTER_IPV6,
+                1000L, 2000L, octets, 1L, intfIn, 2, SRC_MAC, DST_MAC, (short) 0x800, (short) 0);
+        cache.add(key(intfIn), DataRecordRfwdMac.TEMPLATE_RECORD, record, 1000L, 2000L, octets, 1L);
+    }
+
+    private long octets(DataRecord record) throws Exception {
+        return ByteBuffer.wrap(record.getBytes()).getLong(OCTETS_OFFSET);
+    }
+
+    private int ingress(DataRecord record) throws Exception {
+        return ByteBuffer.wrap(record.getBytes()).getInt(INGRESS_OFFSET);
+    }
+
+    /**
+     * Tests that flows with the same key are merged into one record.
+     */
+    @Test
+    public void merge() throws Exception {
+        FlowCache cache = new FlowCache(manager, 10, 60, 15);
+        add(cache, 1, 100);
+        add(cache, 1, 50);
+        add(cache, 3, 10);
+        assertEquals(2, cache.size());
+        assertEquals(0, exported.size());
+
+        cache.stop();
+        assertEquals(0, cache.size());
+        assertEquals(2, exported.size());
+        assertEquals(150, octets(exported.get(0)));
+        assertEquals(10, octets(exported.get(1)));
+    }
+
+    /**
+     * Tests that the least recently updated flow is exported when the cache is full.
+     */
+    @Test
+    public void evictLeastRecentlyUpdated() throws Exception {
+        FlowCache cache = new FlowCache(manager, 2, 60, 15);
+        add(cache, 1, 100);
+        add(cache, 2, 100);
+        add(cache, 1, 100);
+        add(cache, 3, 100);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evicted());
+        assertEquals(1, exported.size());
+        assertEquals(2, ingress(exported.get(0)));
+        assertEquals(100, octets(exported.get(0)));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for the table of the long-lived flow counters.
+ */
+public class FlowStatsTableTest {
+
+    private static final int FLOWS = 100000;
+
+    /**
+     * Tests tracking, update and removal of many flows.
+     */
+    @Test
+    public void putFindRemove() {
+        FlowStatsTable table = new FlowStatsTable(FLOWS, 60);
+        assertEquals(60000, table.activeTimeout());
+        for (long id = 1; id <= FLOWS; id++) {
+            assertTrue(table.put(id * 31, id, id * 2, id * 3));
+        }
+        assertEquals(FLOWS, table.size());
+
+        // remove every other flow, the rest must stay reachable
+        for (long id = 1; id <= FLOWS; id += 2) {
+            table.remove(id * 31);
+        }
+        assertEquals(FLOWS / 2, table.size());
+        for (long id = 1; id <= FLOWS; id++) {
+            int index = table.find(id * 31);
+            if (id % 2 == 1) {
+                assertEquals(-1, index);
+            } else {
+                assertEquals(id, table.octetsAt(index));
+                assertEquals(id * 2, table.packetsAt(index));
+                assertEquals(id * 3, table.lastExportAt(index));
+            }
+        }
+
+        assertTrue(table.put(62, 100, 200, 300));
+        assertEquals(100, table.octetsAt(table.find(62)));
+        assertEquals(FLOWS / 2, table.size());
+    }
+
+    /**
+     * Tests that the number of tracked flows is bounded.
+     */
+    @Test
+    public void bounded() {
+        FlowStatsTable table = new FlowStatsTable(2, 60);
+        assertTrue(table.put(1, 0, 0, 0));
+        assertTrue(table.put(2, 0, 0, 0));
+        assertFalse(table.put(3, 0, 0, 0));
+        assertTrue(table.put(2, 1, 1, 1));
+        assertEquals(2, table.size());
+        assertEquals(1, table.rejected());
+        assertEquals(-1, table.find(3));
+    }
+
+    /**
+     * Tests expiry of the flows whose removal was never seen.
+     */
+    @Test
+    public void expire() {
+        FlowStatsTable table = new FlowStatsTable(10, 60);
+        assertTrue(table.put(1, 0, 0, 0));
+        assertTrue(table.put(2, 0, 0, 100000));
+        assertTrue(table.put(3, 0, 0, 190000));
+
+        // flows not exported for three active timeouts are stale
+        assertEquals(1, table.expire(190000));
+        assertEquals(-1, table.find(1));
+        assertEquals(2, table.size());
+
+        // sweep runs at most once per active timeout
+        assertEquals(0, table.expire(249999));
+        assertEquals(1, table.expire(300000));
+        assertEquals(-1, table.find(2));
+        assertEquals(190000, table.lastExportAt(table.find(3)));
+        assertEquals(2, table.expired());
+    }
+
+    /**
+     * Tests that changed limits keep the tracked flows.
+     */
+    @Test
+    public void reconfigure() {
+        FlowStatsTable table = new FlowStatsTable(10, 60);
+        for (long id = 1; id <= 10; id++) {
+            assertTrue(table.put(id, id, id, 0));
+        }
+
+        assertEquals(0, table.reconfigure(20, 30));
+        assertEquals(30000, table.activeTimeout());
+        assertEquals(10, table.size());
+        assertEquals(5, table.octetsAt(table.find(5)));
+        assertTrue(table.put(11, 11, 11, 0));
+
+        // flows over the new maximum stop being tracked
+        assertEquals(6, table.reconfigure(5, 30));
+        assertEquals(5, table.size());
+        assertFalse(table.put(12, 0, 0, 0));
+        int tracked = 0;
+        for (long id = 1; id <= 11; id++) {
+            int index = table.find(id);
+            if (index >= 0) {
+                assertEquals(id, table.octetsAt(index));
+                tracked++;
+            }
+        }
+        assertEquals(5, tracked);
+
+        // disabled active timeout keeps the flows and does not expire them
+        assertEquals(0, table.reconfigure(5, 0));
+        assertEquals(0, table.activeTimeout());
+        assertEquals(0, table.expire(1000000));
+        assertEquals(5, table.size());
+    }
+}
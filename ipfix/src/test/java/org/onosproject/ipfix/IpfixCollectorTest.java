@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import static org.junit.Assert.assertEquals;
+import static org.onlab.junit.TestTools.assertAfter;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.onlab.packet.Ip6Address;
+import org.onlab.packet.IpAddress;
+import org.onosproject.ipfix.packet.DataRecord;
+import org.onosproject.ipfix.packet.IpfixRecordVisitor;
+
+/**
+ * Tests for the streaming IPFIX decoder and the local collector.
+ */
+public class IpfixCollectorTest {
+
+    private static final IpAddress EXPORTER_IPV4 = IpAddress.valueOf("10.0.0.1");
+    private static final Ip6Address EXPORTER_IPV6 = Ip6Address.valueOf("::1");
+    private static final int RECORDS = 100;
+    private static final long OID = 7;
+
+    private IpfixCollector collector;
+    private IpfixSender sender;
+
+    /**
+     * Records the ingress interface of each received port statistics record.
+     */
+    private static class InterfaceVisitor implements IpfixRecordVisitor {
+        private final List<Integer> interfaces = new ArrayList<>();
+
+        @Override
+        public void dataRecord(long observationDomainID, int templateID,
+                               ByteBuffer buffer, int offset, int length) {
+            assertEquals(OID, observationDomainID);
+            assertEquals(DataRecordPortStatsIn.TEMPLATE_ID, templateID);
+            assertEquals(DataRecordPortStatsIn.LENGTH, length);
+            synchronized (interfaces) {
+                interfaces.add(buffer.getInt(offset + 20));
+            }
+        }
+
+        private int size() {
+            synchronized (interfaces) {
+                return interfaces.size();
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        if (sender != null) {
+            sender.stop();
+        }
+        if (collector != null) {
+            collector.stop();
+        }
+    }
+
+    private List<DataRecord> records(int count) {
+        List<DataRecord> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            records.add(new DataRecordPortStatsIn(EXPORTER_IPV4, EXPORTER_IPV6, i, 1000L, 10L, 1000L, 2000L));
+        }
+        return records;
+    }
+
+    /**
+     * Tests that records exported by the sender are received and decoded by the local collector.
+     */
+    @Test
+    public void exportToLocalCollector() throws Exception {
+        InterfaceVisitor visitor = new InterfaceVisitor();
+        collector = new IpfixCollector(visitor);
+        InetSocketAddress address = collector.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+        sender = new IpfixSender(new IpfixManager(), 1024, 1500);
+        sender.setCollector(IpAddress.valueOf(address.getAddress()), address.getPort());
+        sender.setTemplateRefresh(0, 0);
+        sender.start();
+        sender.sendRecords(DataRecordPortStatsIn.TEMPLATE_RECORD, records(RECORDS), OID);
+
+        assertAfter(5000, () -> assertEquals(RECORDS, collector.dataRecords()));
+        assertEquals(RECORDS, visitor.size());
+        assertEquals(1, collector.templateRecords());
+        assertEquals(0, collector.unknownSets());
+        assertEquals(0, collector.decodeErrors());
+        assertEquals(0, collector.sequenceErrors());
+    }
+
+    /**
+     * Tests that data sets are reported as unknown until their template is received,
+     * without the uncounted records causing sequence errors.
+     */
+    @Test
+    public void dataBeforeTemplate() throws Exception {
+        collector = new IpfixCollector();
+        ByteBuffer buffer = ByteBuffer.allocate(1500);
+
+        // data set only
+        buffer.putShort((short) 10).putShort((short) (16 + 4 + DataRecordPortStatsIn.LENGTH));
+        buffer.putInt(0).putInt(0).putInt((int) OID);
+        buffer.putShort((short) DataRecordPortStatsIn.TEMPLATE_ID)
+                .putShort((short) (4 + DataRecordPortStatsIn.LENGTH));
+        records(1).get(0).writeTo(buffer);
+        buffer.flip();
+        collector.decode(buffer);
+        assertEquals(1, collector.unknownSets());
+        assertEquals(0, collector.dataRecords());
+
+        // template set followed by the data set
+        buffer.clear();
+        int templateSetLength = 4 + DataRecordPortStatsIn.TEMPLATE_RECORD.getLength();
+        buffer.putShort((short) 10)
+                .putShort((short) (16 + templateSetLength + 4 + DataRecordPortStatsIn.LENGTH));
+        buffer.putInt(0).putInt(1).putInt((int) OID);
+        buffer.putShort((short) 2).putShort((short) templateSetLength);
+        DataRecordPortStatsIn.TEMPLATE_RECORD.writeTo(buffer);
+        buffer.putShort((short) DataRecordPortStatsIn.TEMPLATE_ID)
+                .putShort((short) (4 + DataRecordPortStatsIn.LENGTH));
+        records(1).get(0).writeTo(buffer);
+        buffer.flip();
+        collector.decode(buffer);
+        assertEquals(1, collector.templateRecords());
+        assertEquals(1, collector.dataRecords());
+        assertEquals(0, collector.decodeErrors());
+        assertEquals(0, collector.sequenceErrors());
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.onlab.packet.Ip6Address;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.MacAddress;
+import org.onosproject.ipfix.packet.DataRecord;
+import org.onosproject.ipfix.packet.HeaderException;
+import org.onosproject.ipfix.packet.MessageHeader;
+import org.onosproject.ipfix.packet.SetHeader;
+import org.onosproject.ipfix.packet.TemplateRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of the IPFIX message encoding, comparing the per-field
+ * byte array path of getBytes() with the ByteBuffer path of writeTo().
+ * Not run by the unit tests; run its main method from the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IpfixEncodingBenchmark {
+
+    private static final IpAddress EXPORTER_IPV4 = IpAddress.valueOf("10.0.0.1");
+    private static final Ip6Address EXPORTER_IPV6 = Ip6Address.valueOf("::1");
+    private static final MacAddress SRC_MAC = MacAddress.valueOf("00:00:00:00:00:01");
+    private static final MacAddress DST_MAC = MacAddress.valueOf("0a:0b:0c:0d:0e:0f");
+
+    @Param({"1", "20"})
+    private int records;
+
+    private MessageHeader message;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        TemplateRecord tr = DataRecordRfwdIpv4.getTemplateRecord();
+        List<DataRecord> data = new ArrayList<>();
+        for (int i = 0; i < records; i++) {
+            data.add(new DataRecordRfwdIpv4(EXPORTER_IPV4, EXPORTER_IPV6,
+                    1000L, 2000L, 1234L + i, 12L, 1, 2, SRC_MAC, DST_MAC, (short) 0x800, (short) 10,
+                    IpAddress.valueOf("192.168.0.1"), IpAddress.valueOf("192.168.0.2"),
+                    (byte) 6, (byte) 0, (short) (1024 + i), (short) 80));
+        }
+
+        SetHeader shTemplate = new SetHeader();
+        shTemplate.setSetID(2);
+        List<TemplateRecord> templates = new ArrayList<>();
+        templates.add(tr);
+        shTemplate.setTemplateRecords(templates);
+
+        SetHeader shData = new SetHeader();
+        shData.setSetID(tr.getTemplateID());
+        shData.setDataRecords(data);
+
+        List<SetHeader> sets = new ArrayList<>();
+        sets.add(shTemplate);
+        sets.add(shData);
+
+        message = new MessageHeader();
+        message.setVersionNumber(10);
+        message.setObservationDomainID(1);
+        message.setSequenceNumber(42);
+        message.setExportTime(new Date(1500000000000L));
+        message.setSetHeaders(sets);
+
+        buffer = ByteBuffer.allocateDirect(65507);
+    }
+
+    /**
+     * Encodes the message into a new byte array.
+     *
+     * @return encoded message
+     * @throws HeaderException if the message can not be encoded
+     */
+    @Benchmark
+    public byte[] getBytes() throws HeaderException {
+        return message.getBytes();
+    }
+
+    /**
+     * Encodes the message into the reused direct buffer.
+     *
+     * @return buffer holding the encoded message
+     * @throws HeaderException if the message can not be encoded
+     */
+    @Benchmark
+    public ByteBuffer writeTo() throws HeaderException {
+        buffer.clear();
+        message.writeTo(buffer);
+        return buffer;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IpfixEncodingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
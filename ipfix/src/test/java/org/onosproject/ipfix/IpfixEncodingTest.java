@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+import org.onlab.packet.Ip6Address;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.MacAddress;
+import org.onosproject.ipfix.packet.DataRecord;
+import org.onosproject.ipfix.packet.MessageHeader;
+import org.onosproject.ipfix.packet.SetHeader;
+import org.onosproject.ipfix.packet.TemplateRecord;
+
+/**
+ * Tests for the ByteBuffer encoding of the IPFIX packet model.
+ */
+public class IpfixEncodingTest {
+
+    private static final IpAddress EXPORTER_IPV4 = IpAddress.valueOf("10.0.0.1");
+    private static final Ip6Address EXPORTER_IPV6 = Ip6Address.valueOf("::1");
+    private static final MacAddress SRC_MAC = MacAddress.valueOf("00:00:00:00:00:01");
+    private static final MacAddress DST_MAC = MacAddress.valueOf("0a:0b:0c:0d:0e:0f");
+
+    private MessageHeader message(TemplateRecord tr, DataRecord... records) {
+        MessageHeader mh = new MessageHeader();
+        mh.setVersionNumber(10);
+        mh.setObservationDomainID(1);
+        mh.setSequenceNumber(42);
+        mh.setExportTime(new Date(1500000000000L));
+
+        SetHeader shTemplate = new SetHeader();
+        shTemplate.setSetID(2);
+        List<TemplateRecord> templates = new ArrayList<>();
+        templates.add(tr);
+        shTemplate.setTemplateRecords(templates);
+
+        SetHeader shData = new SetHeader();
+        shData.setSetID(tr.getTemplateID());
+        List<DataRecord> data = new ArrayList<>();
+        for (DataRecord record : records) {
+            data.add(record);
+        }
+        shData.setDataRecords(data);
+
+        List<SetHeader> sets = new ArrayList<>();
+        sets.add(shTemplate);
+        sets.add(shData);
+        mh.setSetHeaders(sets);
+        return mh;
+    }
+
+    private byte[] write(MessageHeader mh) throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1500);
+        mh.writeTo(buffer);
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Tests that the buffer encoding of reactive forwarding records matches getBytes().
+     */
+    @Test
+    public void reactiveForwardingRecords() throws Exception {
+        DataRecordRfwdIpv4 ipv4 = new DataRecordRfwdIpv4(EXPORTER_IPV4, EXPORTER_IPV6,
+                1000L, 2000L, 1234L, 12L, 1, 2, SRC_MAC, DST_MAC, (short) 0x800, (short) 10,
+                IpAddress.valueOf("192.168.0.1"), IpAddress.valueOf("192.168.0.2"),
+                (byte) 6, (byte) 0, (short) 1024, (short) 80);
+        MessageHeader mh = message(DataRecordRfwdIpv4.getTemplateRecord(), ipv4, ipv4);
+
+        byte[] written = write(mh);
+        assertEquals(mh.getLength(), written.length);
+        assertArrayEquals(mh.getBytes(), written);
+
+        DataRecordRfwdMac mac = new DataRecordRfwdMac(EXPORTER_IPV4, EXPORTER_IPV6,
+                1000L, 2000L, 1234L, 12L, 1, 2, SRC_MAC, DST_MAC, (short) 0x800, (short) 0);
+        mh = message(DataRecordRfwdMac.getTemplateRecord(), mac);
+        assertArrayEquals(mh.getBytes(), write(mh));
+    }
+
+    /**
+     * Tests that the buffer encoding of port statistics records matches getBytes().
+     */
+    @Test
+    public void portStatsRecords() throws Exception {
+        DataRecordPortStatsIn in = new DataRecordPortStatsIn(EXPORTER_IPV4, EXPORTER_IPV6,
+                3, 5000L, 50L, 1000L, 2000L);
+        MessageHeader mh = message(DataRecordPortStatsIn.portStatsInTemplateRecord(), in);
+        assertArrayEquals(mh.getBytes(), write(mh));
+
+        DataRecordPortStatsOut out = new DataRecordPortStatsOut(EXPORTER_IPV4, EXPORTER_IPV6,
+                3, 5000L, 50L, 1000L, 2000L);
+        mh = message(DataRecordPortStatsOut.portStatsOutTemplateRecord(), out);
+        assertArrayEquals(mh.getBytes(), write(mh));
+    }
+
+    /**
+     * Tests that the prebuilt Templates match the Template Records they were encoded from.
+     */
+    @Test
+    public void encodedTemplates() throws Exception {
+        assertArrayEquals(DataRecordRfwdMac.getTemplateRecord().getBytes(),
+                DataRecordRfwdMac.TEMPLATE_RECORD.getBytes());
+        assertArrayEquals(DataRecordRfwdIpv4.getTemplateRecord().getBytes(),
+                DataRecordRfwdIpv4.TEMPLATE_RECORD.getBytes());
+        assertArrayEquals(DataRecordRfwdIpv6.getTemplateRecord().getBytes(),
+                DataRecordRfwdIpv6.TEMPLATE_RECORD.getBytes());
+        assertArrayEquals(DataRecordPortStatsIn.portStatsInTemplateRecord().getBytes(),
+                DataRecordPortStatsIn.TEMPLATE_RECORD.getBytes());
+        assertArrayEquals(DataRecordPortStatsOut.portStatsOutTemplateRecord().getBytes(),
+                DataRecordPortStatsOut.TEMPLATE_RECORD.getBytes());
+        assertEquals(DataRecordRfwdIpv4.TEMPLATE_ID, DataRecordRfwdIpv4.TEMPLATE_RECORD.getTemplateID());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.ipfix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for the per-port statistics delta tracking.
+ */
+public class PortCountersTest {
+
+    private static final long LOCAL = 0xfffffffeL;
+
+    /**
+     * Tests deltas of directly indexed and other ports.
+     */
+    @Test
+    public void deltas() {
+        PortCounters counters = new PortCounters();
+        for (long port = 1; port <= 300; port++) {
+            assertFalse(counters.update(port, port, 1, 0, 0, 1000));
+        }
+        assertFalse(counters.update(LOCAL, 100, 1, 200, 2, 1000));
+        assertEquals(301, counters.size());
+
+        assertTrue(counters.update(200, 300, 4, 0, 0, 2000));
+        assertEquals(100, counters.rxBytesDelta());
+        assertEquals(3, counters.rxPacketsDelta());
+        assertEquals(0, counters.txBytesDelta());
+        assertEquals(1000, counters.previousTime());
+
+        assertTrue(counters.update(LOCAL, 150, 2, 200, 2, 2000));
+        assertEquals(50, counters.rxBytesDelta());
+        assertEquals(0, counters.txPacketsDelta());
+        assertEquals(301, counters.size());
+    }
+
+    /**
+     * Tests that reset counters are reported as they are.
+     */
+    @Test
+    public void reset() {
+        PortCounters counters = new PortCounters();
+        counters.update(1, 1000, 10, 1000, 10, 1000);
+        assertTrue(counters.update(1, 100, 1, 1100, 11, 2000));
+        assertEquals(100, counters.rxBytesDelta());
+        assertEquals(1, counters.rxPacketsDelta());
+        assertEquals(100, counters.txBytesDelta());
+        assertEquals(1, counters.txPacketsDelta());
+    }
+}
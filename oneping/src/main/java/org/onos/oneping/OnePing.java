@@ -15,12 +15,15 @@
  */
 package org.onos.oneping;
 
-import com.google.common.collect.HashMultimap;
+import com.codahale.metrics.Gauge;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.packet.Ethernet;
 import org.onlab.packet.IPv4;
 import org.onlab.packet.MacAddress;
@@ -47,10 +50,7 @@ import org.onosproject.net.packet.PacketService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Objects;
 import java.util.Optional;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_REMOVED;
 import static org.onosproject.net.flow.criteria.Criterion.Type.ETH_SRC;
@@ -76,6 +76,12 @@ public class OnePing {
     private static final int PRIORITY = 128;
     private static final int DROP_PRIORITY = 129;
     private static final int TIMEOUT_SEC = 60; // seconds
+    private static final long TICK_MILLIS = 1000;
+    private static final int MAX_TRACKED_PINGS = 100000;
+
+    private static final String METRIC_COMPONENT = "OnePing";
+    private static final String METRIC_FEATURE = "PingTracker";
+    private static final String[] METRICS = {"occupancy", "tracked", "expired", "rejected"};
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected CoreService coreService;
@@ -89,6 +95,9 @@ public class OnePing {
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected PacketService packetService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected MetricsService metricsService;
+
     private ApplicationId appId;
     private final PacketProcessor packetProcessor = new PingPacketProcessor();
     private final FlowRuleListener flowListener = new InternalFlowListener();
@@ -99,13 +108,17 @@ public class OnePing {
             .build();
 
     // Means to track detected pings from each device on a temporary basis
-    private final HashMultimap<DeviceId, PingRecord> pings = HashMultimap.create();
-    private final Timer timer = new Timer("oneping-sweeper");
+    private final PingTracker pings = new PingTracker((int) (TIMEOUT_SEC * 1000 / TICK_MILLIS),
+                                                      TICK_MILLIS, MAX_TRACKED_PINGS);
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
 
     @Activate
     public void activate() {
         appId = coreService.registerApplication("org.onosproject.oneping",
                                                 () -> log.info("Periscope down."));
+        pings.start();
+        registerMetrics();
         packetService.addProcessor(packetProcessor, PRIORITY);
         flowRuleService.addListener(flowListener);
         packetService.requestPackets(intercept, PacketPriority.CONTROL, appId,
@@ -118,6 +131,8 @@ public class OnePing {
         packetService.removeProcessor(packetProcessor);
         flowRuleService.removeFlowRulesById(appId);
         flowRuleService.removeListener(flowListener);
+        removeMetrics();
+        pings.stop();
         log.info("Stopped");
     }
 
@@ -126,8 +141,7 @@ public class OnePing {
         DeviceId deviceId = context.inPacket().receivedFrom().deviceId();
         MacAddress src = eth.getSourceMAC();
         MacAddress dst = eth.getDestinationMAC();
-        PingRecord ping = new PingRecord(src, dst);
-        boolean pinged = pings.get(deviceId).contains(ping);
+        boolean pinged = pings.track(deviceId, src, dst);
 
         if (pinged) {
             // Two pings detected; ban further pings and block packet-out
@@ -137,8 +151,26 @@ public class OnePing {
         } else {
             // One ping detected; track it for the next minute
             log.info(MSG_PINGED_ONCE, src, dst, deviceId);
-            pings.put(deviceId, ping);
-            timer.schedule(new PingPruner(deviceId, ping), TIMEOUT_SEC * 1000);
+        }
+    }
+
+    // Publishes occupancy and expiry metrics of the ping tracker.
+    private void registerMetrics() {
+        metricsComponent = metricsService.registerComponent(METRIC_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(METRIC_FEATURE);
+        metricsService.registerMetric(metricsComponent, metricsFeature, "occupancy",
+                                      (Gauge<Integer>) pings::occupancy);
+        metricsService.registerMetric(metricsComponent, metricsFeature, "tracked",
+                                      (Gauge<Long>) pings::trackedCount);
+        metricsService.registerMetric(metricsComponent, metricsFeature, "expired",
+                                      (Gauge<Long>) pings::expiredCount);
+        metricsService.registerMetric(metricsComponent, metricsFeature, "rejected",
+                                      (Gauge<Long>) pings::rejectedCount);
+    }
+
+    private void removeMetrics() {
+        for (String name : METRICS) {
+            metricsService.removeMetric(metricsComponent, metricsFeature, name);
         }
     }
 
@@ -178,50 +210,6 @@ public class OnePing {
         }
     }
 
-    // Record of a ping between two end-station MAC addresses
-    private class PingRecord {
-        private final MacAddress src;
-        private final MacAddress dst;
-
-        PingRecord(MacAddress src, MacAddress dst) {
-            this.src = src;
-            this.dst = dst;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(src, dst);
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) {
-                return true;
-            }
-            if (obj == null || getClass() != obj.getClass()) {
-                return false;
-            }
-            final PingRecord other = (PingRecord) obj;
-            return Objects.equals(this.src, other.src) && Objects.equals(this.dst, other.dst);
-        }
-    }
-
-    // Prunes the given ping record from the specified device.
-    private class PingPruner extends TimerTask {
-        private final DeviceId deviceId;
-        private final PingRecord ping;
-
-        public PingPruner(DeviceId deviceId, PingRecord ping) {
-            this.deviceId = deviceId;
-            this.ping = ping;
-        }
-
-        @Override
-        public void run() {
-            pings.remove(deviceId, ping);
-        }
-    }
-
     // Listens for our removed flows.
     private class InternalFlowListener implements FlowRuleListener {
         @Override
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onos.oneping;
+
+import org.onlab.packet.MacAddress;
+import org.onosproject.net.DeviceId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.onlab.util.Tools.groupedThreads;
+
+/**
+ * Tracks observed pings for a limited time using a hashed timing wheel.
+ * A ping is placed in the wheel slot of the current tick and expires when
+ * the wheel comes around to that slot again, so tracking and expiring a
+ * ping take constant time and a single sweeper thread replaces per ping
+ * timers. The number of tracked pings is bounded; pings observed while the
+ * tracker is full are not tracked.
+ */
+public class PingTracker {
+
+    private final int ticksPerWheel;
+    private final long tickMillis;
+    private final int maxEntries;
+
+    // Tracked pings and the tick at which they were tracked
+    private final ConcurrentMap<PingKey, Long> tracked = new ConcurrentHashMap<>();
+    private final List<Queue<PingKey>> wheel;
+    private final AtomicInteger occupancy = new AtomicInteger();
+    private final LongAdder trackedCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private volatile long tick;
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * Creates a ping tracker.
+     *
+     * @param ticksPerWheel number of wheel slots, i.e. ticks a ping is tracked for
+     * @param tickMillis duration of a tick in milliseconds
+     * @param maxEntries maximum number of tracked pings
+     */
+    public PingTracker(int ticksPerWheel, long tickMillis, int maxEntries) {
+        this.ticksPerWheel = ticksPerWheel;
+        this.tickMillis = tickMillis;
+        this.maxEntries = maxEntries;
+        this.wheel = new ArrayList<>(ticksPerWheel);
+        for (int i = 0; i < ticksPerWheel; i++) {
+            wheel.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * Starts turning the wheel.
+     */
+    public void start() {
+        sweeper = newSingleThreadScheduledExecutor(groupedThreads("onos/oneping", "sweeper"));
+        sweeper.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops turning the wheel and forgets all tracked pings.
+     */
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+        tracked.clear();
+        wheel.forEach(Queue::clear);
+        occupancy.set(0);
+    }
+
+    /**
+     * Tracks a ping from the source to the destination seen by the device,
+     * unless the same ping is already tracked.
+     *
+     * @param deviceId device that received the ping
+     * @param src source MAC address
+     * @param dst destination MAC address
+     * @return true if the same ping is already tracked
+     */
+    public boolean track(DeviceId deviceId, MacAddress src, MacAddress dst) {
+        PingKey key = new PingKey(deviceId, src.toLong(), dst.toLong());
+        if (tracked.containsKey(key)) {
+            return true;
+        }
+        if (occupancy.incrementAndGet() > maxEntries) {
+            occupancy.decrementAndGet();
+            rejectedCount.increment();
+            return false;
+        }
+        long now = tick;
+        if (tracked.putIfAbsent(key, now) != null) {
+            occupancy.decrementAndGet();
+            return true;
+        }
+        wheel.get(slot(now)).add(key);
+        trackedCount.increment();
+        return false;
+    }
+
+    /**
+     * Returns number of currently tracked pings.
+     *
+     * @return number of tracked pings
+     */
+    public int occupancy() {
+        return occupancy.get();
+    }
+
+    /**
+     * Returns number of pings tracked since the tracker was created.
+     *
+     * @return number of tracked pings
+     */
+    public long trackedCount() {
+        return trackedCount.sum();
+    }
+
+    /**
+     * Returns number of pings expired since the tracker was created.
+     *
+     * @return number of expired pings
+     */
+    public long expiredCount() {
+        return expiredCount.sum();
+    }
+
+    /**
+     * Returns number of pings not tracked because the tracker was full.
+     *
+     * @return number of rejected pings
+     */
+    public long rejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    // Expires the pings of the slot about to be reused and moves to the next tick.
+    // All of them were tracked at least a whole wheel ago: a tracker that read
+    // an older tick adds to a slot already swept, so its ping expires late, never early.
+    // Package-private so that tests turn the wheel without the sweeper.
+    void advance() {
+        long next = tick + 1;
+        Queue<PingKey> slot = wheel.get(slot(next));
+        PingKey key;
+        while ((key = slot.poll()) != null) {
+            if (tracked.remove(key) != null) {
+                occupancy.decrementAndGet();
+                expiredCount.increment();
+            }
+        }
+        tick = next;
+    }
+
+    private int slot(long t) {
+        return (int) (t % ticksPerWheel);
+    }
+
+    // Ping between two end-station MAC addresses, packed into longs, seen by a device
+    private static final class PingKey {
+        private final DeviceId deviceId;
+        private final long src;
+        private final long dst;
+
+        private PingKey(DeviceId deviceId, long src, long dst) {
+            this.deviceId = deviceId;
+            this.src = src;
+            this.dst = dst;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(deviceId, src, dst);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final PingKey other = (PingKey) obj;
+            return src == other.src && dst == other.dst && Objects.equals(deviceId, other.deviceId);
+        }
+    }
+}
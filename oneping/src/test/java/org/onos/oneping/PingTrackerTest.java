@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onos.oneping;
+
+import org.junit.Test;
+import org.onlab.packet.MacAddress;
+import org.onosproject.net.DeviceId;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the timing wheel of the tracked pings.
+ */
+public class PingTrackerTest {
+
+    private static final int TICKS = 3;
+    private static final DeviceId DEVICE = DeviceId.deviceId("of:0000000000000001");
+    private static final MacAddress MAC1 = MacAddress.valueOf("00:00:00:00:00:01");
+    private static final MacAddress MAC2 = MacAddress.valueOf("00:00:00:00:00:02");
+    private static final MacAddress MAC3 = MacAddress.valueOf("00:00:00:00:00:03");
+
+    private void advance(PingTracker tracker, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            tracker.advance();
+        }
+    }
+
+    /**
+     * Tests that a ping is reported as seen until it expires.
+     */
+    @Test
+    public void track() {
+        PingTracker tracker = new PingTracker(TICKS, 1000, 10);
+        assertFalse(tracker.track(DEVICE, MAC1, MAC2));
+        assertTrue(tracker.track(DEVICE, MAC1, MAC2));
+        // other direction and other device are other pings
+        assertFalse(tracker.track(DEVICE, MAC2, MAC1));
+        assertFalse(tracker.track(DeviceId.deviceId("of:0000000000000002"), MAC1, MAC2));
+        assertEquals(3, tracker.occupancy());
+        assertEquals(3, tracker.trackedCount());
+    }
+
+    /**
+     * Tests that pings expire when the wheel comes around to their slot.
+     */
+    @Test
+    public void expire() {
+        PingTracker tracker = new PingTracker(TICKS, 1000, 10);
+        assertFalse(tracker.track(DEVICE, MAC1, MAC2));
+        advance(tracker, 1);
+        assertFalse(tracker.track(DEVICE, MAC1, MAC3));
+
+        advance(tracker, TICKS - 2);
+        assertTrue(tracker.track(DEVICE, MAC1, MAC2));
+        assertEquals(2, tracker.occupancy());
+
+        // first ping expires a whole wheel after it was tracked, the second one a tick later
+        advance(tracker, 1);
+        assertEquals(1, tracker.occupancy());
+        assertEquals(1, tracker.expiredCount());
+        assertTrue(tracker.track(DEVICE, MAC1, MAC3));
+
+        advance(tracker, 1);
+        assertEquals(0, tracker.occupancy());
+        assertEquals(2, tracker.expiredCount());
+
+        // expired ping is tracked again
+        assertFalse(tracker.track(DEVICE, MAC1, MAC2));
+        assertTrue(tracker.track(DEVICE, MAC1, MAC2));
+        assertEquals(3, tracker.trackedCount());
+    }
+
+    /**
+     * Tests that pings are not tracked while the tracker is full.
+     */
+    @Test
+    public void limit() {
+        PingTracker tracker = new PingTracker(TICKS, 1000, 2);
+        assertFalse(tracker.track(DEVICE, MAC1, MAC2));
+        assertFalse(tracker.track(DEVICE, MAC1, MAC3));
+        assertFalse(tracker.track(DEVICE, MAC2, MAC3));
+        assertEquals(2, tracker.occupancy());
+        assertEquals(1, tracker.rejectedCount());
+
+        // rejected ping is not remembered, tracked ones still are
+        assertFalse(tracker.track(DEVICE, MAC2, MAC3));
+        assertEquals(2, tracker.rejectedCount());
+        assertTrue(tracker.track(DEVICE, MAC1, MAC2));
+
+        advance(tracker, TICKS);
+        assertEquals(0, tracker.occupancy());
+        assertFalse(tracker.track(DEVICE, MAC2, MAC3));
+        assertEquals(1, tracker.occupancy());
+        assertEquals(2, tracker.rejectedCount());
+    }
+
+    /**
+     * Tests that stopping forgets the tracked pings.
+     */
+    @Test
+    public void stop() {
+        PingTracker tracker = new PingTracker(TICKS, 1000, 10);
+        tracker.track(DEVICE, MAC1, MAC2);
+        tracker.stop();
+        assertEquals(0, tracker.occupancy());
+        assertFalse(tracker.track(DEVICE, MAC1, MAC2));
+    }
+}
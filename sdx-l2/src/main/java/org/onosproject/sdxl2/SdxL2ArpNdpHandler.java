@@ -17,6 +17,7 @@
 package org.onosproject.sdxl2;
 
 
+import com.google.common.collect.ImmutableList;
 import org.onlab.packet.ARP;
 import org.onlab.packet.Ethernet;
 import org.onlab.packet.ICMP6;
@@ -29,17 +30,19 @@ import org.onlab.packet.VlanId;
 import org.onlab.packet.ndp.NeighborSolicitation;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.net.ConnectPoint;
-import org.onosproject.net.flow.DefaultTrafficSelector;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
-import org.onosproject.net.flow.TrafficSelector;
 import org.onosproject.net.flow.TrafficTreatment;
-import org.onosproject.net.flow.criteria.Criterion;
 import org.onosproject.net.flow.criteria.Criterion.Type;
+import org.onosproject.net.flow.criteria.EthCriterion;
+import org.onosproject.net.flow.criteria.VlanIdCriterion;
 import org.onosproject.net.flow.instructions.Instruction;
 import org.onosproject.net.flow.instructions.L2ModificationInstruction;
 import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentEvent;
+import org.onosproject.net.intent.IntentListener;
 import org.onosproject.net.intent.IntentService;
 import org.onosproject.net.intent.IntentState;
+import org.onosproject.net.intent.Key;
 import org.onosproject.net.intent.PointToPointIntent;
 import org.onosproject.net.packet.DefaultOutboundPacket;
 import org.onosproject.net.packet.InboundPacket;
@@ -48,7 +51,11 @@ import org.onosproject.net.packet.PacketService;
 
 import java.nio.ByteBuffer;
 import java.util.Iterator;
-import java.util.Set;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.onosproject.net.flow.instructions.L2ModificationInstruction.ModVlanIdInstruction;
@@ -70,6 +77,15 @@ public class SdxL2ArpNdpHandler {
 
     private static String vcType;
 
+    private final IntentListener intentListener = new InternalIntentListener();
+
+    /**
+     * Relays of the installed SDX-L2 intents by ingress point, source MAC
+     * and VLAN, where a null MAC or VLAN stands for any value.
+     */
+    private final ConcurrentMap<RelayKey, ConcurrentMap<Key, Relay>> relays = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key, Relay> relaysByIntent = new ConcurrentHashMap<>();
+
     /**
      * Creates an ARP/NDP packet handler.
      *
@@ -82,6 +98,23 @@ public class SdxL2ArpNdpHandler {
         this.intentService = intentService;
         this.packetService = packetService;
         this.applicationId = applicationId;
+
+        this.intentService.addListener(intentListener);
+        for (Intent intent : intentService.getIntents()) {
+            if (intent.appId().equals(applicationId) &&
+                    intentService.getIntentState(intent.key()) == IntentState.INSTALLED) {
+                addRelay(intent);
+            }
+        }
+    }
+
+    /**
+     * Remove listeners.
+     */
+    public void cleanup() {
+        this.intentService.removeListener(intentListener);
+        relays.clear();
+        relaysByIntent.clear();
     }
 
     /**
@@ -109,9 +142,9 @@ public class SdxL2ArpNdpHandler {
 
         switch (msgContext.type()) {
             case REPLY:
-                return relay(msgContext);
+                return relay(msgContext, pkt.unparsed());
             case REQUEST:
-                return relay(msgContext);
+                return relay(msgContext, pkt.unparsed());
             default:
         }
 
@@ -123,72 +156,72 @@ public class SdxL2ArpNdpHandler {
      * applying the egress actions.
      *
      * @param ctx containing the ARP/NDP packet.
+     * @param unparsed the received frame.
      * @return true if the packet has been handled otherwise false.
      */
-    private boolean relay(MessageContext ctx) {
-
-        Iterator<Intent> intents = intentService.getIntents().iterator();
-        boolean resolved = false;
-        Intent intent;
-        while (intents.hasNext()) {
-
-            intent = intents.next();
-            if (intent.appId().equals(applicationId) &&
-                    intentService.getIntentState(intent.key()) == IntentState.INSTALLED) {
-
-                PointToPointIntent ppIntent = (PointToPointIntent) intent;
-                TrafficSelector selector = ctx.selector();
-
-                if (ctx.inPort().equals(ppIntent.ingressPoint()) &&
-                        partialequals(selector, ppIntent.selector())) {
-
-                    Ethernet packet = ctx.packet();
-
-                    checkNotNull(packet, MSG_NULL);
-
-                    applytreatment(packet, ppIntent.treatment());
-
-                    TrafficTreatment.Builder builder;
-                    builder = DefaultTrafficTreatment.builder();
-                    builder.setOutput(ppIntent.egressPoint().port());
-                    TrafficTreatment treatment = builder.build();
+    private boolean relay(MessageContext ctx, ByteBuffer unparsed) {
+
+        // ETH_SRC is matched only by MAC based tunnels
+        MacAddress srcMac = vcType.equals(VirtualCircuitMechanism.MAC) ? ctx.srcMac() : null;
+        VlanId vlan = ctx.vlan().toShort() != VlanId.UNTAGGED ? ctx.vlan() : null;
+        Map<Key, Relay> candidates = relays.get(new RelayKey(ctx.inPort(), srcMac, vlan));
+        Iterator<Relay> it = candidates == null ? null : candidates.values().iterator();
+        if (it == null || !it.hasNext()) {
+            return false;
+        }
+        Relay relay = it.next();
 
+        ByteBuffer buf = unparsed;
+        if (relay.rewritesVlan || buf == null) {
+            Ethernet packet = ctx.packet();
 
-                    ByteBuffer buf = ByteBuffer.wrap(packet.serialize());
-                    packetService.emit(new DefaultOutboundPacket(ppIntent.egressPoint().deviceId(),
-                            treatment, buf));
-                    resolved = true;
-                    break;
+            checkNotNull(packet, MSG_NULL);
 
-                }
-            }
+            applytreatment(packet, relay.intentTreatment);
+            buf = ByteBuffer.wrap(packet.serialize());
         }
-
-        return resolved;
+        packetService.emit(new DefaultOutboundPacket(relay.egress.deviceId(), relay.treatment, buf));
+        return true;
     }
 
     /**
-     * Verifies if the TrafficSelector of the packet is equal
-     * to the one derived from a SDX-L2 Intent.
+     * Adds the relay of an installed SDX-L2 intent to the relay table.
      *
-     * @param generated the traffic selector of the packet.
-     * @param fromIntent the traffic selector of the intent.
-     * @return true if all the criteria match.
+     * @param intent the installed intent.
      */
-    private boolean partialequals(TrafficSelector generated, TrafficSelector fromIntent) {
-
-        Set<Criterion> criteria = generated.criteria();
-        for (Criterion criterion : criteria) {
-            if (!vcType.equals(VirtualCircuitMechanism.MAC) && criterion.type().equals(Type.ETH_SRC)) {
-                continue;
-            }
+    private void addRelay(Intent intent) {
+        if (!(intent instanceof PointToPointIntent)) {
+            return;
+        }
+        Relay relay = new Relay((PointToPointIntent) intent);
+        Relay previous = relaysByIntent.put(intent.key(), relay);
+        if (previous != null) {
+            removeRelay(intent.key(), previous);
+        }
+        for (RelayKey key : relay.keys) {
+            relays.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(intent.key(), relay);
+        }
+    }
 
-            if (!fromIntent.criteria().contains(criterion)) {
-                return false;
-            }
+    /**
+     * Removes the relay of an SDX-L2 intent from the relay table.
+     *
+     * @param intentKey the key of the intent.
+     */
+    private void removeRelay(Key intentKey) {
+        Relay relay = relaysByIntent.remove(intentKey);
+        if (relay != null) {
+            removeRelay(intentKey, relay);
         }
+    }
 
-        return true;
+    private void removeRelay(Key intentKey, Relay relay) {
+        for (RelayKey key : relay.keys) {
+            relays.computeIfPresent(key, (k, byIntent) -> {
+                byIntent.remove(intentKey, relay);
+                return byIntent.isEmpty() ? null : byIntent;
+            });
+        }
     }
 
     /**
@@ -303,6 +336,98 @@ public class SdxL2ArpNdpHandler {
         return new MessageContext(eth, inPort, Protocol.NDP, type, target, sender);
     }
 
+    /**
+     * Key of the relay table: ingress point, source MAC and VLAN of the
+     * ARP/NDP packets, where a null MAC or VLAN stands for any value.
+     */
+    private static final class RelayKey {
+        private final ConnectPoint inPort;
+        private final MacAddress srcMac;
+        private final VlanId vlan;
+
+        private RelayKey(ConnectPoint inPort, MacAddress srcMac, VlanId vlan) {
+            this.inPort = inPort;
+            this.srcMac = srcMac;
+            this.vlan = vlan;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(inPort, srcMac, vlan);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof RelayKey) {
+                final RelayKey other = (RelayKey) obj;
+                return Objects.equals(this.inPort, other.inPort) &&
+                        Objects.equals(this.srcMac, other.srcMac) &&
+                        Objects.equals(this.vlan, other.vlan);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Egress point and precomputed treatments of an installed SDX-L2 intent.
+     */
+    private static final class Relay {
+        private final ConnectPoint egress;
+        private final TrafficTreatment treatment;
+        private final TrafficTreatment intentTreatment;
+        private final boolean rewritesVlan;
+        private final List<RelayKey> keys;
+
+        private Relay(PointToPointIntent intent) {
+            this.egress = intent.egressPoint();
+            this.treatment = DefaultTrafficTreatment.builder().setOutput(egress.port()).build();
+            this.intentTreatment = intent.treatment();
+            this.rewritesVlan = intentTreatment.allInstructions().stream()
+                    .anyMatch(instruction -> instruction.type() == Instruction.Type.L2MODIFICATION);
+
+            // A packet matches when each of its criteria is also in the intent selector,
+            // so the intent is reachable with and without its source MAC and VLAN
+            EthCriterion ethSrc = (EthCriterion) intent.selector().getCriterion(Type.ETH_SRC);
+            VlanIdCriterion vlanId = (VlanIdCriterion) intent.selector().getCriterion(Type.VLAN_VID);
+            ConnectPoint ingress = intent.ingressPoint();
+            ImmutableList.Builder<RelayKey> builder = ImmutableList.builder();
+            builder.add(new RelayKey(ingress, null, null));
+            if (ethSrc != null) {
+                builder.add(new RelayKey(ingress, ethSrc.mac(), null));
+            }
+            if (vlanId != null) {
+                builder.add(new RelayKey(ingress, null, vlanId.vlanId()));
+            }
+            if (ethSrc != null && vlanId != null) {
+                builder.add(new RelayKey(ingress, ethSrc.mac(), vlanId.vlanId()));
+            }
+            this.keys = builder.build();
+        }
+    }
+
+    /**
+     * Keeps the relay table in sync with the installed SDX-L2 intents.
+     */
+    private class InternalIntentListener implements IntentListener {
+
+        @Override
+        public boolean isRelevant(IntentEvent event) {
+            return applicationId.equals(event.subject().appId());
+        }
+
+        @Override
+        public void event(IntentEvent event) {
+            if (event.type() == IntentEvent.Type.INSTALLED) {
+                addRelay(event.subject());
+            } else {
+                removeRelay(event.subject().key());
+            }
+        }
+    }
+
     /**
      * Provides supported protocols.
      */
@@ -373,39 +498,6 @@ public class SdxL2ArpNdpHandler {
         public IpAddress sender() {
             return sender;
         }
-
-        /**
-         * Builds TrafficSelector using data
-         * in MessageContext.
-         *
-         * @return the TrafficSelector object
-         */
-        public TrafficSelector selector() {
-            switch (vcType) {
-                case VirtualCircuitMechanism.MPLS:
-                case VirtualCircuitMechanism.VLAN:
-                default:
-            }
-            return buildMacSelector(this.srcMac(), this.vlan());
-        }
-
-        /**
-         * Builds TrafficSelector for MAC
-         * based tunnels.
-         *
-         * @param srcMac the sender's MAC address.
-         * @param ingressTag the VLAN tag at ingress.
-         * @return the TrafficSelector object
-         */
-        private TrafficSelector buildMacSelector(MacAddress srcMac, VlanId ingressTag) {
-
-            TrafficSelector.Builder selectorBuilder = DefaultTrafficSelector.builder();
-            selectorBuilder.matchEthSrc(srcMac);
-            if (ingressTag.toShort() != VlanId.UNTAGGED) {
-                selectorBuilder.matchVlanId(ingressTag);
-            }
-            return selectorBuilder.build();
-        }
     }
 
     /**
@@ -26,27 +26,41 @@ import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
 import org.onlab.packet.VlanId;
 import org.onlab.util.KryoNamespace;
+import org.onosproject.net.ConnectPoint;
 import org.onosproject.store.primitives.DefaultDistributedSet;
 import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.CommitStatus;
 import org.onosproject.store.service.ConsistentMap;
 import org.onosproject.store.service.DistributedPrimitive;
+import org.onosproject.store.service.MapEvent;
+import org.onosproject.store.service.MapEventListener;
 import org.onosproject.store.service.Serializer;
 import org.onosproject.store.service.StorageService;
+import org.onosproject.store.service.TransactionContext;
+import org.onosproject.store.service.TransactionalMap;
+import org.onosproject.store.service.Versioned;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 
 /**
  * SDX-L2 Store implementation backed by different distributed primitives.
+ * Lookups are served by local secondary indexes, which are updated by the
+ * writes of this node and by the events of the distributed maps, so that
+ * they follow the changes made by the other nodes of the cluster.
  */
 @Component(immediate = true)
 @Service
@@ -64,6 +78,24 @@ public class SdxL2DistributedStore implements SdxL2Store {
 
     private Map<String, String> sdxL2VCs;
     private ConsistentMap<String, String> sdxL2vcs;
+    private Serializer serializer;
+    // Transactions writing the batches of VCs to sdxL2VCs
+    private Supplier<TransactionContext> transactionContexts;
+
+    private final MapEventListener<SdxL2ConnectionPoint, String> cpListener = new InternalCPListener();
+    private final MapEventListener<String, String> vcListener = new InternalVCListener();
+
+    /**
+     * Secondary indexes over sdxL2CPs and sdxL2VCs.
+     */
+    private final ConcurrentMap<String, SdxL2ConnectionPoint> cpsByName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<SdxL2ConnectionPoint>> cpsBySdxL2 = new ConcurrentHashMap<>();
+    // VLAN ids of a connect point in use by the sdxl2cps, VlanId.NONE for untagged sdxl2cps
+    private final ConcurrentMap<ConnectPoint, ConcurrentMap<VlanId, SdxL2ConnectionPoint>> cpsByConnectPoint =
+            new ConcurrentHashMap<>();
+    // Encoded VCs by the string representation of their sdxl2cps
+    private final ConcurrentMap<String, Set<String>> vcsByCP = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> vcsBySdxL2 = new ConcurrentHashMap<>();
 
     /**
      * Error definitions for SDX-L2 instances,CPs and VCs.
@@ -92,6 +124,10 @@ public class SdxL2DistributedStore implements SdxL2Store {
             "there is a problem with key %s (wrong format)";
     private static final String ERROR_VC_ADD_OVERLAP = "It is not possible to add vc " +
             "because there is an overlap with %s";
+    private static final String ERROR_VC_ADD_BATCH_OVERLAP = "It is not possible to add vc " +
+            "because there is an overlap with %s in the same request";
+    private static final String ERROR_VC_ADD_TRANSACTION = "It is not possible to add the vcs " +
+            "because the transaction failed (%s)";
     private static final String ERROR_VC_REMOVE_MISSING = "It is not possible to remove the " +
             "vc because it does not exist";
     private static final String ERROR_VC_MISSING = "Virtual Circuit between %s and %s " +
@@ -108,36 +144,46 @@ public class SdxL2DistributedStore implements SdxL2Store {
                 .nextId(KryoNamespaces.BEGIN_USER_CUSTOM_ID)
                 .register(new SdxL2ConnectionPointSerializer(), new Class[]{SdxL2ConnectionPoint.class})
                 .build();
+        serializer = Serializer.using(custom);
 
         sdxL2s = new DefaultDistributedSet<>(this.storageService
                                                      .<String>setBuilder()
-                                                     .withSerializer(Serializer.using(custom))
+                                                     .withSerializer(serializer)
                                                      .withName("sdxl2s")
                                                      .build(), DistributedPrimitive.DEFAULT_OPERTATION_TIMEOUT_MILLIS);
 
         sdxL2cps = this.storageService
                 .<SdxL2ConnectionPoint, String>consistentMapBuilder()
-                .withSerializer(Serializer.using(custom))
+                .withSerializer(serializer)
                 .withName("sdxl2cps")
                 .build();
         sdxL2CPs = sdxL2cps.asJavaMap();
 
         sdxL2vcs = this.storageService.<String, String>consistentMapBuilder()
-                .withSerializer(Serializer.using(custom))
+                .withSerializer(serializer)
                 .withName("vcs")
                 .build();
         sdxL2VCs = sdxL2vcs.asJavaMap();
+        transactionContexts = () -> storageService.transactionContextBuilder().build();
+
+        sdxL2cps.addListener(cpListener);
+        sdxL2vcs.addListener(vcListener);
+        sdxL2CPs.forEach(this::indexCP);
+        sdxL2VCs.forEach(this::indexVC);
 
         log.info("Started");
     }
 
     /**
      * Helper class called to initialise tests.
+     *
+     * @param transactionContexts builds transaction context writing to the given VC map
      */
-    public void initForTest() {
+    public void initForTest(Function<Map<String, String>, TransactionContext> transactionContexts) {
         this.sdxL2s = Sets.newHashSet();
         this.sdxL2CPs = new ConcurrentHashMap<>();
         this.sdxL2VCs = new ConcurrentHashMap<>();
+        this.transactionContexts = () -> transactionContexts.apply(sdxL2VCs);
     }
 
     /**
@@ -145,6 +191,8 @@ public class SdxL2DistributedStore implements SdxL2Store {
      */
     @Deactivate
     public void deactivate() {
+        sdxL2cps.removeListener(cpListener);
+        sdxL2vcs.removeListener(vcListener);
         log.info("Stopped");
     }
 
@@ -164,12 +212,11 @@ public class SdxL2DistributedStore implements SdxL2Store {
         }
 
         // Removes CPs
-        Set<Map.Entry<SdxL2ConnectionPoint, String>> cpsToRemove = sdxL2CPs.entrySet().parallelStream().filter(
-                key_value -> {
-                    String sdxl2Temp = key_value.getValue();
-                    return sdxl2Temp.equals(sdxl2);
-                }).collect(Collectors.toSet());
-        cpsToRemove.forEach(key_value -> sdxL2CPs.remove(key_value.getKey()));
+        for (SdxL2ConnectionPoint cp : ImmutableSet.copyOf(cpsBySdxL2.getOrDefault(sdxl2, ImmutableSet.of()))) {
+            if (sdxL2CPs.remove(cp, sdxl2)) {
+                unindexCP(cp, sdxl2);
+            }
+        }
     }
 
     @Override
@@ -185,95 +232,58 @@ public class SdxL2DistributedStore implements SdxL2Store {
             throw new SdxL2Exception(errorMissingSdxL2);
         }
 
-        Set<SdxL2ConnectionPoint> sdxl2cpsTemp = ImmutableSet.copyOf(sdxL2CPs.keySet());
-        Set<SdxL2ConnectionPoint> sdxl2cpsTempByName = sdxl2cpsTemp.parallelStream().filter(
-                sdxl2cpTemp -> sdxl2cpTemp.name().equals(connectionPoint.name()
-                )
-        ).collect(Collectors.toSet());
-
-        if (!sdxl2cpsTempByName.isEmpty()) {
+        if (cpsByName.containsKey(connectionPoint.name())) {
             throw new SdxL2Exception(String.format(ERROR_SDX_ADD_CP_NAME, connectionPoint.name()));
         }
 
-        Set<SdxL2ConnectionPoint> sdxl2cpsByCP = sdxl2cpsTemp.parallelStream().filter(
-                sdxl2cpTemp -> sdxl2cpTemp.connectPoint().equals(connectionPoint.connectPoint()
-                )
-        ).collect(Collectors.toSet());
+        Map<VlanId, SdxL2ConnectionPoint> sdxl2cpsByCP = cpsByConnectPoint.getOrDefault(
+                connectionPoint.connectPoint(), new ConcurrentHashMap<>());
 
-        String tempName;
         List<VlanId> vlans = connectionPoint.vlanIds();
         for (VlanId vlanId : vlans) {
-            Set<SdxL2ConnectionPoint> sdxl2cpsByVlan = sdxl2cpsByCP.parallelStream().filter(
-                    sdxl2cp_by_vlan -> (
-                            sdxl2cp_by_vlan.vlanIds().contains(vlanId) || sdxl2cp_by_vlan.vlanIds().size() == 0
-                    )).collect(Collectors.toSet());
-
-            tempName = sdxl2cpsByVlan.iterator().hasNext() ? sdxl2cpsByVlan.iterator().next().name() : null;
-
-            if (!sdxl2cpsByVlan.isEmpty()) {
-                throw new SdxL2Exception(String.format(ERROR_SDX_ADD_CP_VLANS, connectionPoint.name(), tempName));
+            SdxL2ConnectionPoint conflicting = sdxl2cpsByCP.getOrDefault(vlanId, sdxl2cpsByCP.get(VlanId.NONE));
+            if (conflicting != null) {
+                throw new SdxL2Exception(String.format(ERROR_SDX_ADD_CP_VLANS, connectionPoint.name(),
+                                                       conflicting.name()));
             }
-
         }
 
-        tempName = sdxl2cpsByCP.iterator().hasNext() ? sdxl2cpsByCP.iterator().next().name() : null;
         if (!sdxl2cpsByCP.isEmpty() && vlans.size() == 0) {
+            String tempName = sdxl2cpsByCP.values().iterator().next().name();
             throw new SdxL2Exception(String.format(ERROR_SDX_ADD_CP_EXISTING, connectionPoint.name(), tempName));
         }
 
         sdxL2CPs.put(connectionPoint, sdxl2);
+        indexCP(connectionPoint, sdxl2);
     }
 
     @Override
     public Set<String> getSdxL2ConnectionPoints(Optional<String> sdxl2) throws SdxL2Exception {
         if (sdxl2.isPresent()) {
-            Set<Map.Entry<SdxL2ConnectionPoint, String>> toGet = sdxL2CPs.entrySet().parallelStream().filter(
-                    key_value -> {
-                        String sdxl2Temp = key_value.getValue();
-                        return sdxl2Temp.equals(sdxl2.get());
-                    }).collect(Collectors.toSet());
-
-            Iterator<String> itsdxL2s = sdxL2s.iterator();
-            boolean found = false;
-            while (itsdxL2s.hasNext()) {
-                if (sdxl2.get().equals(itsdxL2s.next())) {
-                    found = true;
-                }
-            }
-
-            if (!found) {
+            if (!sdxL2s.contains(sdxl2.get())) {
                 throw new SdxL2Exception(String.format(ERROR_SDX_GET_CPS_MISSING, sdxl2.get()));
             }
 
-            Set<String> cpsTemp = Sets.newHashSet();
-            for (Map.Entry<SdxL2ConnectionPoint, String> cp : toGet) {
-                cpsTemp.add(cp.getKey().name());
-            }
-
-            return cpsTemp;
+            return cpsBySdxL2.getOrDefault(sdxl2.get(), ImmutableSet.of()).stream()
+                    .map(SdxL2ConnectionPoint::name).collect(Collectors.toSet());
         }
-        return ImmutableSet.copyOf(sdxL2CPs.keySet()).parallelStream().map(
-                SdxL2ConnectionPoint::name).collect(Collectors.toSet());
+        return Sets.newHashSet(cpsByName.keySet());
     }
 
     @Override
     public void removeSdxL2ConnectionPoint(String sdxl2cp) throws SdxL2Exception {
-        Set<SdxL2ConnectionPoint> sdxl2cpsTemp = ImmutableSet.copyOf(sdxL2CPs.keySet());
-        Set<SdxL2ConnectionPoint> sdxl2cpsTempByName = sdxl2cpsTemp.parallelStream().filter(
-                sdxl2cpTemp -> sdxl2cpTemp.name().equals(sdxl2cp)
-        ).collect(Collectors.toSet());
-
-        if (sdxl2cpsTempByName.size() == 0) {
+        SdxL2ConnectionPoint sdxl2cpTemp = cpsByName.get(sdxl2cp);
+        if (sdxl2cpTemp == null) {
             throw new SdxL2Exception(String.format(ERROR_SDX_REMOVE_CP_MISSING, sdxl2cp));
         }
 
-        sdxl2cpsTempByName.forEach(sdxl2cpTemp -> sdxL2CPs.remove(sdxl2cpTemp));
+        String sdxl2 = sdxL2CPs.remove(sdxl2cpTemp);
+        unindexCP(sdxl2cpTemp, sdxl2);
     }
 
     @Override
     public SdxL2ConnectionPoint getSdxL2ConnectionPoint(String sdxl2cp) throws SdxL2Exception {
-        SdxL2ConnectionPoint sdxl2cpTemp = ImmutableSet.copyOf(sdxL2CPs.keySet()).parallelStream()
-                .filter(sdxl2cp_temp -> sdxl2cp_temp.name().equals(sdxl2cp)).findFirst().orElse(null);
+        SdxL2ConnectionPoint sdxl2cpTemp = cpsByName.get(sdxl2cp);
 
         if (sdxl2cpTemp == null) {
             throw new SdxL2Exception(String.format(ERROR_SDX_GET_CP_MISSING, sdxl2cp));
@@ -285,99 +295,256 @@ public class SdxL2DistributedStore implements SdxL2Store {
     @Override
     public void addVC(String sdxl2, SdxL2ConnectionPoint sdxl2cplhs, SdxL2ConnectionPoint sdxl2cprhs)
             throws SdxL2Exception {
-        Set<String> vcs = ImmutableSet.copyOf(
-                sdxL2VCs.keySet().parallelStream().filter((vctemp -> vctemp.contains(sdxl2cplhs.toString())
-                        || vctemp.contains(sdxl2cprhs.toString()))).collect(Collectors.toSet()));
-        for (String vctemp : vcs) {
-            String[] splitted = vctemp.split("~");
-
-            if (splitted.length != 2) {
-                throw new SdxL2Exception(String.format(ERROR_VC_KEY, "add", vctemp));
-            }
+        String overlapping = overlappingVC(sdxl2cplhs, sdxl2cprhs);
+        if (overlapping != null) {
+            throw new SdxL2Exception(String.format(ERROR_VC_ADD_OVERLAP, overlapping));
+        }
 
-            if (!(!sdxl2cplhs.toString().equals(splitted[0]) &&
-                    !sdxl2cplhs.toString().equals(splitted[1]) &&
-                    !sdxl2cprhs.toString().equals(splitted[0]) &&
-                    !sdxl2cprhs.toString().equals(splitted[1]))) {
-                throw new SdxL2Exception(String.format(ERROR_VC_ADD_OVERLAP, vctemp));
+        String cps = encodeVC(sdxl2cplhs, sdxl2cprhs);
+        String name = nameVC(sdxl2, sdxl2cplhs, sdxl2cprhs);
+        sdxL2VCs.put(cps, name);
+        indexVC(cps, name);
+    }
+
+    @Override
+    public Map<VirtualCircuit, String> addVCs(String sdxl2, List<VirtualCircuit> vcs) throws SdxL2Exception {
+        Map<VirtualCircuit, String> rejected = new LinkedHashMap<>();
+        Map<String, String> accepted = new LinkedHashMap<>();
+        Map<String, VirtualCircuit> batchCPs = new HashMap<>();
+        for (VirtualCircuit vc : vcs) {
+            String overlapping = overlappingVC(vc.lhs(), vc.rhs());
+            if (overlapping != null) {
+                rejected.put(vc, String.format(ERROR_VC_ADD_OVERLAP, overlapping));
+                continue;
             }
+            VirtualCircuit previous = batchCPs.getOrDefault(vc.lhs().toString(), batchCPs.get(vc.rhs().toString()));
+            if (previous != null) {
+                rejected.put(vc, String.format(ERROR_VC_ADD_BATCH_OVERLAP,
+                                               nameVC(sdxl2, previous.lhs(), previous.rhs())));
+                continue;
+            }
+            batchCPs.put(vc.lhs().toString(), vc);
+            batchCPs.put(vc.rhs().toString(), vc);
+            accepted.put(encodeVC(vc.lhs(), vc.rhs()), nameVC(sdxl2, vc.lhs(), vc.rhs()));
+        }
+        if (accepted.isEmpty()) {
+            return rejected;
         }
 
-        String cps = sdxl2cplhs.toString().compareTo(sdxl2cprhs.toString()) < 0 ?
-                format(SdxL2VCManager.SDXL2_CPS_FORMAT, sdxl2cplhs, sdxl2cprhs) :
-                format(SdxL2VCManager.SDXL2_CPS_FORMAT, sdxl2cprhs, sdxl2cplhs);
-        String name = sdxl2cplhs.name().compareTo(sdxl2cprhs.name()) < 0 ?
-                format(SdxL2VCManager.NAME_FORMAT, sdxl2, sdxl2cplhs.name(), sdxl2cprhs.name()) :
-                format(SdxL2VCManager.NAME_FORMAT, sdxl2, sdxl2cprhs.name(), sdxl2cplhs.name());
-        sdxL2VCs.put(cps, name);
+        TransactionContext context = transactionContexts.get();
+        context.begin();
+        TransactionalMap<String, String> txVCs = context.getTransactionalMap("vcs", serializer);
+        for (Map.Entry<String, String> vc : accepted.entrySet()) {
+            // Fails on a VC added concurrently by another node
+            String existing = txVCs.putIfAbsent(vc.getKey(), vc.getValue());
+            if (existing != null) {
+                context.abort();
+                throw new SdxL2Exception(String.format(ERROR_VC_ADD_TRANSACTION,
+                                                       String.format(ERROR_VC_ADD_OVERLAP, existing)));
+            }
+        }
+        CommitStatus status = context.commit().join();
+        if (status != CommitStatus.SUCCESS) {
+            throw new SdxL2Exception(String.format(ERROR_VC_ADD_TRANSACTION, status));
+        }
+        accepted.forEach(this::indexVC);
+        return rejected;
     }
 
     @Override
     public void removeVC(SdxL2ConnectionPoint sdxl2cplhs, SdxL2ConnectionPoint sdxl2cprhs)
             throws SdxL2Exception {
-        String cps = sdxl2cplhs.toString().compareTo(sdxl2cprhs.toString()) < 0 ?
-                format(SdxL2VCManager.SDXL2_CPS_FORMAT, sdxl2cplhs, sdxl2cprhs) :
-                format(SdxL2VCManager.SDXL2_CPS_FORMAT, sdxl2cprhs, sdxl2cplhs);
+        String cps = encodeVC(sdxl2cplhs, sdxl2cprhs);
         String name = sdxL2VCs.remove(cps);
         if (name == null) {
             throw new SdxL2Exception(ERROR_VC_REMOVE_MISSING);
         }
+        unindexVC(cps, name);
     }
 
     @Override
     public void removeVC(SdxL2ConnectionPoint cp) throws SdxL2Exception {
-        Set<String> vcs = ImmutableSet.copyOf(sdxL2VCs.keySet()
-                                                      .parallelStream()
-                                                      .filter((vctemp -> vctemp.contains(cp.toString())))
-                                                      .collect(Collectors.toSet()));
-        for (String vctemp : vcs) {
-            String[] splitted = vctemp.split("~");
-            if (splitted.length != 2) {
-                throw new SdxL2Exception(String.format(ERROR_VC_KEY, "delete", vctemp));
-            }
-            if (cp.toString().equals(splitted[0]) || cp.toString().equals(splitted[1])) {
-                sdxL2VCs.remove(vctemp);
+        for (String vctemp : ImmutableSet.copyOf(vcsByCP.getOrDefault(cp.toString(), ImmutableSet.of()))) {
+            String name = sdxL2VCs.remove(vctemp);
+            if (name != null) {
+                unindexVC(vctemp, name);
             }
         }
     }
 
     @Override
     public void removeVCs(String sdxl2) {
-        Set<Map.Entry<String, String>> vcsToRemove = sdxL2VCs.entrySet().parallelStream().filter(key_value -> {
-            String[] fields = key_value.getValue().split(":");
-            return fields.length == 2 && fields[0].equals(sdxl2);
-        }).collect(Collectors.toSet());
-
-        vcsToRemove.forEach(key_value -> sdxL2VCs.remove(key_value.getKey()));
+        for (String vctemp : ImmutableSet.copyOf(vcsBySdxL2.getOrDefault(sdxl2, ImmutableSet.of()))) {
+            String name = sdxL2VCs.remove(vctemp);
+            if (name != null) {
+                unindexVC(vctemp, name);
+            }
+        }
     }
 
     @Override
     public String getVC(SdxL2ConnectionPoint sdxl2cplhs, SdxL2ConnectionPoint sdxl2cprhs)
             throws SdxL2Exception {
-        String cps = sdxl2cplhs.toString().compareTo(sdxl2cprhs.toString()) < 0 ?
-                format(SdxL2VCManager.SDXL2_CPS_FORMAT, sdxl2cplhs, sdxl2cprhs) :
-                format(SdxL2VCManager.SDXL2_CPS_FORMAT, sdxl2cprhs, sdxl2cplhs);
+        String cps = encodeVC(sdxl2cplhs, sdxl2cprhs);
 
-        String encodedvc = ImmutableSet.copyOf(sdxL2VCs.keySet()).parallelStream().filter(
-                encoded_cps -> encoded_cps.equals(cps)).findFirst().orElse(null);
-
-        if (encodedvc == null) {
+        if (!vcsByCP.getOrDefault(sdxl2cplhs.toString(), ImmutableSet.of()).contains(cps)) {
             throw new SdxL2Exception(String.format(ERROR_VC_MISSING,
                                                    sdxl2cplhs.name(), sdxl2cprhs.name()));
         }
-        return encodedvc;
+        return cps;
     }
 
     @Override
     public Set<String> getVCs(Optional<String> sdxl2) {
         if (sdxl2.isPresent()) {
-            return ImmutableSet.copyOf(sdxL2VCs.values())
-                    .parallelStream()
-                    .filter(vc -> {
-                        String[] parts = vc.split(":");
-                        return parts.length == 2 && parts[0].equals(sdxl2.get());
-                    }).collect(Collectors.toSet());
+            return vcsBySdxL2.getOrDefault(sdxl2.get(), ImmutableSet.of()).stream()
+                    .map(sdxL2VCs::get)
+                    .filter(vc -> vc != null)
+                    .collect(Collectors.toSet());
         }
         return ImmutableSet.copyOf(sdxL2VCs.values());
     }
+
+    // Returns a VC using one of the sdxl2cps, null if there is none.
+    private String overlappingVC(SdxL2ConnectionPoint sdxl2cplhs, SdxL2ConnectionPoint sdxl2cprhs) {
+        Set<String> vcs = Sets.union(vcsByCP.getOrDefault(sdxl2cplhs.toString(), ImmutableSet.of()),
+                                     vcsByCP.getOrDefault(sdxl2cprhs.toString(), ImmutableSet.of()));
+        return vcs.stream().findFirst().orElse(null);
+    }
+
+    // Returns the VC encoded as lhs~rhs, ordering the sdxl2cps by their string representation.
+    static String encodeVC(SdxL2ConnectionPoint sdxl2cplhs, SdxL2ConnectionPoint sdxl2cprhs) {
+        return sdxl2cplhs.toString().compareTo(sdxl2cprhs.toString()) < 0 ?
+                format(SdxL2VCManager.SDXL2_CPS_FORMAT, sdxl2cplhs, sdxl2cprhs) :
+                format(SdxL2VCManager.SDXL2_CPS_FORMAT, sdxl2cprhs, sdxl2cplhs);
+    }
+
+    // Returns the VC name in the sdxl2:lhs-rhs format, ordering the sdxl2cps by name.
+    private static String nameVC(String sdxl2, SdxL2ConnectionPoint sdxl2cplhs, SdxL2ConnectionPoint sdxl2cprhs) {
+        return sdxl2cplhs.name().compareTo(sdxl2cprhs.name()) < 0 ?
+                format(SdxL2VCManager.NAME_FORMAT, sdxl2, sdxl2cplhs.name(), sdxl2cprhs.name()) :
+                format(SdxL2VCManager.NAME_FORMAT, sdxl2, sdxl2cprhs.name(), sdxl2cplhs.name());
+    }
+
+    // Adds the sdxl2cp owned by the sdxl2 to the indexes.
+    private void indexCP(SdxL2ConnectionPoint cp, String sdxl2) {
+        cpsByName.put(cp.name(), cp);
+        cpsBySdxL2.computeIfAbsent(sdxl2, k -> ConcurrentHashMap.newKeySet()).add(cp);
+        ConcurrentMap<VlanId, SdxL2ConnectionPoint> vlans =
+                cpsByConnectPoint.computeIfAbsent(cp.connectPoint(), k -> new ConcurrentHashMap<>());
+        if (cp.vlanIds().isEmpty()) {
+            vlans.put(VlanId.NONE, cp);
+        } else {
+            cp.vlanIds().forEach(vlanId -> vlans.put(vlanId, cp));
+        }
+    }
+
+    // Removes the sdxl2cp owned by the sdxl2 from the indexes.
+    private void unindexCP(SdxL2ConnectionPoint cp, String sdxl2) {
+        cpsByName.remove(cp.name(), cp);
+        if (sdxl2 != null) {
+            removeFromIndex(cpsBySdxL2, sdxl2, cp);
+        }
+        cpsByConnectPoint.computeIfPresent(cp.connectPoint(), (connectPoint, vlans) -> {
+            if (cp.vlanIds().isEmpty()) {
+                vlans.remove(VlanId.NONE, cp);
+            } else {
+                cp.vlanIds().forEach(vlanId -> vlans.remove(vlanId, cp));
+            }
+            return vlans.isEmpty() ? null : vlans;
+        });
+    }
+
+    // Adds the encoded VC with the given name to the indexes.
+    private void indexVC(String vc, String name) {
+        String[] cps = vc.split("~");
+        if (cps.length != 2) {
+            log.warn(String.format(ERROR_VC_KEY, "index", vc));
+            return;
+        }
+        for (String cp : cps) {
+            vcsByCP.computeIfAbsent(cp, k -> ConcurrentHashMap.newKeySet()).add(vc);
+        }
+        String sdxl2 = sdxL2Of(name);
+        if (sdxl2 != null) {
+            vcsBySdxL2.computeIfAbsent(sdxl2, k -> ConcurrentHashMap.newKeySet()).add(vc);
+        }
+    }
+
+    // Removes the encoded VC with the given name from the indexes.
+    private void unindexVC(String vc, String name) {
+        for (String cp : vc.split("~")) {
+            removeFromIndex(vcsByCP, cp, vc);
+        }
+        String sdxl2 = sdxL2Of(name);
+        if (sdxl2 != null) {
+            removeFromIndex(vcsBySdxL2, sdxl2, vc);
+        }
+    }
+
+    private static <K, V> void removeFromIndex(ConcurrentMap<K, Set<V>> index, K key, V value) {
+        index.computeIfPresent(key, (k, values) -> {
+            values.remove(value);
+            return values.isEmpty() ? null : values;
+        });
+    }
+
+    // Returns the sdxl2 of a VC name in the sdxl2:lhs-rhs format.
+    private static String sdxL2Of(String name) {
+        String[] fields = name.split(":");
+        return fields.length == 2 ? fields[0] : null;
+    }
+
+    private static <V> V value(Versioned<V> versioned) {
+        return versioned == null ? null : versioned.value();
+    }
+
+    /**
+     * Applies changes of the sdxl2cps map, made by any node, to the indexes.
+     */
+    private class InternalCPListener implements MapEventListener<SdxL2ConnectionPoint, String> {
+        @Override
+        public void event(MapEvent<SdxL2ConnectionPoint, String> event) {
+            apply(event, SdxL2DistributedStore.this::indexCP, SdxL2DistributedStore.this::unindexCP);
+        }
+    }
+
+    /**
+     * Applies changes of the vcs map, made by any node, to the indexes.
+     */
+    private class InternalVCListener implements MapEventListener<String, String> {
+        @Override
+        public void event(MapEvent<String, String> event) {
+            apply(event, SdxL2DistributedStore.this::indexVC, SdxL2DistributedStore.this::unindexVC);
+        }
+    }
+
+    private static <K> void apply(MapEvent<K, String> event, IndexUpdate<K> index, IndexUpdate<K> unindex) {
+        String oldValue = value(event.oldValue());
+        String newValue = value(event.newValue());
+        switch (event.type()) {
+            case INSERT:
+                index.update(event.key(), newValue);
+                break;
+            case UPDATE:
+                unindex.update(event.key(), oldValue);
+                index.update(event.key(), newValue);
+                break;
+            case REMOVE:
+                unindex.update(event.key(), oldValue);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Update of the indexes for an entry of a distributed map.
+     *
+     * @param <K> key type of the map
+     */
+    @FunctionalInterface
+    private interface IndexUpdate<K> {
+        void update(K key, String value);
+    }
 }
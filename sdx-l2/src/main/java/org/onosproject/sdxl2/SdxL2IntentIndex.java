@@ -0,0 +1,212 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.sdxl2;
+
+import com.google.common.collect.ImmutableSet;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentEvent;
+import org.onosproject.net.intent.IntentListener;
+import org.onosproject.net.intent.IntentService;
+import org.onosproject.net.intent.Key;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.lang.String.format;
+
+/**
+ * Index of the intents of the SDX-L2 application by SDX-L2, by SDX-L2
+ * Connection Point and by Virtual Circuit.
+ * The index is built from the intent keys, which have the
+ * "sdxl2:ingress-egress,index" format, and it is kept up to date by the
+ * intent events, so that the intents of a VC can be found without scanning
+ * all the intents of the cluster.
+ */
+public class SdxL2IntentIndex {
+
+    private static Logger log = LoggerFactory.getLogger(SdxL2IntentIndex.class);
+
+    private static final String VC_FORMAT = "%s-%s";
+
+    private final ApplicationId appId;
+    private final IntentService intentService;
+    private final IntentListener intentListener = new InternalIntentListener();
+
+    private final ConcurrentMap<String, Set<Key>> keysBySdxL2 = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<Key>> keysByCP = new ConcurrentHashMap<>();
+    // Intent keys by ingress and egress SDX-L2 CP names, in the "ingress-egress" format
+    private final ConcurrentMap<String, Set<Key>> keysByVC = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an SdxL2IntentIndex holding the intents of the application
+     * that are already in the intent store.
+     *
+     * @param sdxl2id application id
+     * @param intentService reference to the Intent service
+     */
+    public SdxL2IntentIndex(ApplicationId sdxl2id, IntentService intentService) {
+        this.appId = sdxl2id;
+        this.intentService = intentService;
+        this.intentService.addListener(intentListener);
+        for (Intent intent : intentService.getIntents()) {
+            if (appId.equals(intent.appId())) {
+                add(intent.key());
+            }
+        }
+    }
+
+    /**
+     * Remove listeners.
+     */
+    public void cleanup() {
+        this.intentService.removeListener(intentListener);
+    }
+
+    /**
+     * Adds an intent key of the application to the index.
+     *
+     * @param key intent key
+     */
+    public void add(Key key) {
+        IntentKey parsed = IntentKey.parse(key);
+        if (parsed == null) {
+            log.debug("Intent key {} is not in the SDX-L2 format", key);
+            return;
+        }
+        add(keysBySdxL2, parsed.sdxl2, key);
+        add(keysByCP, parsed.ingress, key);
+        add(keysByCP, parsed.egress, key);
+        add(keysByVC, format(VC_FORMAT, parsed.ingress, parsed.egress), key);
+    }
+
+    /**
+     * Removes an intent key from the index.
+     *
+     * @param key intent key
+     */
+    public void remove(Key key) {
+        IntentKey parsed = IntentKey.parse(key);
+        if (parsed == null) {
+            return;
+        }
+        remove(keysBySdxL2, parsed.sdxl2, key);
+        remove(keysByCP, parsed.ingress, key);
+        remove(keysByCP, parsed.egress, key);
+        remove(keysByVC, format(VC_FORMAT, parsed.ingress, parsed.egress), key);
+    }
+
+    /**
+     * Returns the intent keys of a SDX-L2.
+     *
+     * @param sdxl2 name of SDX-L2
+     * @return set of intent keys
+     */
+    public Set<Key> keys(String sdxl2) {
+        return ImmutableSet.copyOf(keysBySdxL2.getOrDefault(sdxl2, ImmutableSet.of()));
+    }
+
+    /**
+     * Returns the intent keys of the VCs where a SDX-L2 CP acts as endpoint.
+     *
+     * @param cp SDX-L2 Connection Point
+     * @return set of intent keys
+     */
+    public Set<Key> keys(SdxL2ConnectionPoint cp) {
+        return ImmutableSet.copyOf(keysByCP.getOrDefault(cp.name(), ImmutableSet.of()));
+    }
+
+    /**
+     * Returns the intent keys of a VC in the direction from ingress to egress.
+     *
+     * @param ingress ingress SDX-L2 Connection Point
+     * @param egress egress SDX-L2 Connection Point
+     * @return set of intent keys
+     */
+    public Set<Key> keys(SdxL2ConnectionPoint ingress, SdxL2ConnectionPoint egress) {
+        return ImmutableSet.copyOf(keysByVC.getOrDefault(format(VC_FORMAT, ingress.name(), egress.name()),
+                                                         ImmutableSet.of()));
+    }
+
+    private static void add(ConcurrentMap<String, Set<Key>> index, String name, Key key) {
+        index.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    private static void remove(ConcurrentMap<String, Set<Key>> index, String name, Key key) {
+        index.computeIfPresent(name, (k, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * Fields of an intent key in the "sdxl2:ingress-egress,index" format.
+     */
+    private static final class IntentKey {
+        private final String sdxl2;
+        private final String ingress;
+        private final String egress;
+
+        private IntentKey(String sdxl2, String ingress, String egress) {
+            this.sdxl2 = sdxl2;
+            this.ingress = ingress;
+            this.egress = egress;
+        }
+
+        private static IntentKey parse(Key key) {
+            String value = key.toString();
+            int colon = value.indexOf(':');
+            int comma = value.lastIndexOf(',');
+            if (colon <= 0 || comma <= colon) {
+                return null;
+            }
+            String[] cps = value.substring(colon + 1, comma).split("-");
+            if (cps.length != 2) {
+                return null;
+            }
+            return new IntentKey(value.substring(0, colon), cps[0], cps[1]);
+        }
+    }
+
+    /**
+     * Keeps the index up to date with the intents submitted and purged by any node.
+     */
+    private class InternalIntentListener implements IntentListener {
+
+        @Override
+        public boolean isRelevant(IntentEvent event) {
+            return appId.equals(event.subject().appId());
+        }
+
+        @Override
+        public void event(IntentEvent event) {
+            switch (event.type()) {
+                case INSTALL_REQ:
+                case INSTALLED:
+                    add(event.subject().key());
+                    break;
+                case PURGED:
+                    remove(event.subject().key());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
@@ -54,11 +54,13 @@ public class SdxL2MacVCManager extends SdxL2VCManager {
      * @param sdxl2id application ID
      * @param store reference to the SDX-L2 store
      * @param intentService reference to the Intent service
+     * @param intentIndex reference to the index of the SDX-L2 intents
      */
     public SdxL2MacVCManager(ApplicationId sdxl2id,
                              SdxL2Store store,
-                             IntentService intentService) {
-        super(sdxl2id, store, intentService);
+                             IntentService intentService,
+                             SdxL2IntentIndex intentIndex) {
+        super(sdxl2id, store, intentService, intentIndex);
         log.info("Started");
     }
 
@@ -171,13 +173,18 @@ public class SdxL2MacVCManager extends SdxL2VCManager {
 
     @Override
     public void addVC(String sdxl2, SdxL2ConnectionPoint sdxl2cplhs, SdxL2ConnectionPoint sdxl2cprhs) {
+        checkVC(sdxl2cplhs, sdxl2cprhs);
+        super.addVC(sdxl2, sdxl2cplhs, sdxl2cprhs);
+    }
+
+    @Override
+    protected void checkVC(SdxL2ConnectionPoint sdxl2cplhs, SdxL2ConnectionPoint sdxl2cprhs) {
         String action = "created";
         checkState(!(isNullMac(sdxl2cplhs.macAddress()) && isNullMac(sdxl2cprhs.macAddress())),
                    errorMacNull, action, sdxl2cplhs.name() + " and " + sdxl2cprhs.name());
         checkState(!isNullMac(sdxl2cprhs.macAddress()), errorMacNull, action, sdxl2cplhs.name());
         checkState(!isNullMac(sdxl2cprhs.macAddress()), errorMacNull, action, sdxl2cprhs.name());
         checkState(!sdxl2cplhs.macAddress().equals(sdxl2cprhs.macAddress()), errorMacEqual, action);
-        super.addVC(sdxl2, sdxl2cplhs, sdxl2cprhs);
     }
 
     @Override
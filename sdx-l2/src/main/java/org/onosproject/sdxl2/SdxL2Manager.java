@@ -16,6 +16,7 @@
 
 package org.onosproject.sdxl2;
 
+import com.google.common.collect.Sets;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
@@ -44,8 +45,14 @@ import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Dictionary;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -74,6 +81,8 @@ public class SdxL2Manager implements SdxL2Service {
             "Cannot create VC when CPs have different number of VLANs";
     private static final String ERROR_ADD_VC_VLANS_CLI =
             "\u001B[0;31mError executing command: " + ERROR_ADD_VC_VLANS + "\u001B[0;49m";
+    private static final String ERROR_ADD_VC_FORMAT = "Bad name format $lhs-$rhs";
+    private static final String ERROR_ADD_VC_DUPLICATE = "VC between %s and %s already in the request";
     private static final String VC_0 = VirtualCircuitMechanism.MAC;
     @Property(name = "VirtualCircuitType", value = VC_0, label = "Tunnel mechanism for Virtual Circuits")
     private String vcType = VC_0;
@@ -96,6 +105,7 @@ public class SdxL2Manager implements SdxL2Service {
     private SdxL2Processor processor = new SdxL2Processor();
     protected ApplicationId appId;
     private SdxL2MonitoringService monitoringManager;
+    private SdxL2IntentIndex intentIndex;
     private SdxL2ArpNdpHandler arpndpHandler;
     SdxL2VCService vcManager;
 
@@ -108,6 +118,7 @@ public class SdxL2Manager implements SdxL2Service {
     protected void activate(ComponentContext context) {
         appId = coreService.registerApplication(SDXL2_APP);
         monitoringManager = new SdxL2MonitoringManager(appId, intentService, edgePortService);
+        intentIndex = new SdxL2IntentIndex(appId, intentService);
         SdxL2ArpNdpHandler.setVcType(VC_0);
         vcManager = buildVCManager();
         cfgService.registerProperties(getClass());
@@ -203,16 +214,16 @@ public class SdxL2Manager implements SdxL2Service {
         SdxL2VCService manager;
         switch (vcType) {
             case VirtualCircuitMechanism.MPLS:
-                manager = new SdxL2MplsVCManager(appId, sdxL2Store, intentService);
+                manager = new SdxL2MplsVCManager(appId, sdxL2Store, intentService, intentIndex);
                 break;
             case VirtualCircuitMechanism.VLAN:
-                manager = new SdxL2VlanVCManager(appId, sdxL2Store, intentService);
+                manager = new SdxL2VlanVCManager(appId, sdxL2Store, intentService, intentIndex);
                 break;
             default:
                 log.info(String.format("Chosen tunnel mechanism does not exist. " +
                                                "Switching to %s", VirtualCircuitMechanism.MAC));
             case VirtualCircuitMechanism.MAC:
-                manager = new SdxL2MacVCManager(appId, sdxL2Store, intentService);
+                manager = new SdxL2MacVCManager(appId, sdxL2Store, intentService, intentIndex);
                 break;
         }
         return manager;
@@ -307,6 +318,60 @@ public class SdxL2Manager implements SdxL2Service {
         this.vcManager.addVC(sdxl2, lhs, rhs);
     }
 
+    @Override
+    public List<VirtualCircuitResult> addVCs(String sdxl2, List<String> vcs) {
+        checkNotNull(sdxl2, "SdxL2 name cannot be null");
+        checkNotNull(vcs, "VC names cannot be null");
+
+        // Single snapshot of the CPs, used to validate the whole batch
+        Set<String> cps = this.getSdxL2ConnectionPoints(Optional.of(sdxl2));
+        VirtualCircuitResult[] results = new VirtualCircuitResult[vcs.size()];
+        List<VirtualCircuit> valid = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        Set<VirtualCircuit> requested = new HashSet<>();
+
+        for (int i = 0; i < vcs.size(); i++) {
+            String vc = vcs.get(i);
+            String[] names = vc == null ? new String[0] : vc.split("-");
+            if (names.length != 2) {
+                results[i] = VirtualCircuitResult.failed(String.valueOf(vc), ERROR_ADD_VC_FORMAT);
+                continue;
+            }
+            if (names[0].equals(names[1]) || !cps.contains(names[0]) || !cps.contains(names[1])) {
+                results[i] = VirtualCircuitResult.failed(vc, String.format(ERROR_ADD_VC_CPS,
+                                                                           names[0], names[1], sdxl2));
+                continue;
+            }
+            SdxL2ConnectionPoint lhs = this.getSdxL2ConnectionPoint(names[0]);
+            SdxL2ConnectionPoint rhs = this.getSdxL2ConnectionPoint(names[1]);
+            if (lhs == null || rhs == null) {
+                results[i] = VirtualCircuitResult.failed(vc, String.format(ERROR_ADD_VC_CPS,
+                                                                           names[0], names[1], sdxl2));
+                continue;
+            }
+            if ((lhs.vlanIds().size() != rhs.vlanIds().size()) &&
+                    (lhs.vlanIds().size() > 1 || rhs.vlanIds().size() > 1)) {
+                results[i] = VirtualCircuitResult.failed(vc, ERROR_ADD_VC_VLANS);
+                continue;
+            }
+            VirtualCircuit circuit = new VirtualCircuit(lhs, rhs);
+            if (!requested.add(circuit)) {
+                results[i] = VirtualCircuitResult.failed(vc, String.format(ERROR_ADD_VC_DUPLICATE, names[0], names[1]));
+                continue;
+            }
+            valid.add(circuit);
+            positions.add(i);
+        }
+
+        if (!valid.isEmpty()) {
+            List<VirtualCircuitResult> created = this.vcManager.addVCs(sdxl2, valid);
+            for (int i = 0; i < positions.size(); i++) {
+                results[positions.get(i)] = created.get(i);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
     @Override
     public void removeVC(String vc) {
         checkNotNull(vc, "VC name cannot be null");
@@ -384,6 +449,20 @@ public class SdxL2Manager implements SdxL2Service {
         return this.monitoringManager.getEdgePortState(edgeport);
     }
 
+    @Override
+    public Map<String, SdxL2State> getVirtualCircuitStates(Optional<String> sdxl2) {
+        Map<String, SdxL2State> states = new HashMap<>();
+        for (String sdxl2vc : this.getVirtualCircuits(sdxl2)) {
+            VirtualCircuit vc = this.getVirtualCircuit(sdxl2vc);
+            if (vc != null) {
+                Set<Key> keys = Sets.union(intentIndex.keys(vc.lhs(), vc.rhs()),
+                                           intentIndex.keys(vc.rhs(), vc.lhs()));
+                states.put(sdxl2vc, this.monitoringManager.getVirtualCircuitState(vc, keys));
+            }
+        }
+        return states;
+    }
+
     /**
      * Cleans the state of the Application.
      */
@@ -398,6 +477,7 @@ public class SdxL2Manager implements SdxL2Service {
      */
     public void cleanup() {
         this.monitoringManager.cleanup();
+        this.intentIndex.cleanup();
         this.cfgService.unregisterProperties(getClass(), false);
     }
 
@@ -439,6 +519,7 @@ public class SdxL2Manager implements SdxL2Service {
      * un-registers the SDX-L2 PacketProcessor.
      */
     private void unhandleArpNdp() {
+        arpndpHandler.cleanup();
         arpndpHandler = null;
         packetService.removeProcessor(processor);
         processor = null;
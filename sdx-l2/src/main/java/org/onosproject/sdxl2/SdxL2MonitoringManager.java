@@ -31,12 +31,15 @@ import org.onosproject.net.intent.Key;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Iterator;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * Implementation of the SdxL2MonitoringService.
+ * States are kept in a local cache which is seeded once from the Intent and
+ * EdgePort services and then updated only by their events, so that queries
+ * are served without locks and without calls to the services.
  */
 public class SdxL2MonitoringManager implements SdxL2MonitoringService {
 
@@ -46,29 +49,14 @@ public class SdxL2MonitoringManager implements SdxL2MonitoringService {
     private final EdgePortService edgePortService;
 
     /**
-     * It is a local cache for the Intents' events.
+     * It is a local cache for the states of the Intents.
      */
-    private ConcurrentMap<Key, IntentEvent> intentsState;
+    private final ConcurrentMap<Key, TimedState> intentsState = new ConcurrentHashMap<>();
 
     /**
-     * Last time intentsState has been updated.
+     * It is a local cache for the states of the edge ports.
      */
-    private long lastIntentUpdate;
-
-    /**
-     * It is a local cache for the edge ports related events.
-     */
-    private ConcurrentMap<ConnectPoint, EdgePortEvent> edgeportsState;
-
-    /**
-     * Last time edgeportsState has been updated.
-     */
-    private long lastEdgePortUpdate;
-
-    /**
-     * A kind of timeout which causes a manual update.
-     */
-    private static int deltaUpdate = 60000;
+    private final ConcurrentMap<ConnectPoint, TimedState> edgeportsState = new ConcurrentHashMap<>();
 
     private InternalIntentListener intentListener;
     private InternalEdgePortListener edgePortListener;
@@ -90,11 +78,19 @@ public class SdxL2MonitoringManager implements SdxL2MonitoringService {
         this.intentService.addListener(this.intentListener);
         this.edgePortService.addListener(this.edgePortListener);
 
-        this.intentsState = new ConcurrentHashMap<>();
-        this.edgeportsState = new ConcurrentHashMap<>();
-
-        this.lastEdgePortUpdate = 0;
-        this.lastIntentUpdate = 0;
+        // Seeds the caches after the listeners are in place, without overriding newer events
+        long ts = System.currentTimeMillis();
+        for (Intent intent : this.intentService.getIntents()) {
+            if (intent.appId().equals(appId)) {
+                IntentState intentState = this.intentService.getIntentState(intent.key());
+                if (intentState != null) {
+                    intentsState.putIfAbsent(intent.key(), new TimedState(getSdxL2State(intentState), ts));
+                }
+            }
+        }
+        for (ConnectPoint edgeport : this.edgePortService.getEdgePoints()) {
+            edgeportsState.putIfAbsent(edgeport, new TimedState(SdxL2State.ONLINE, ts));
+        }
 
         log.info("Started");
     }
@@ -115,18 +111,37 @@ public class SdxL2MonitoringManager implements SdxL2MonitoringService {
      */
     @Override
     public SdxL2State getIntentState(Key intentKey) {
-        synchronized (intentsState) {
-            IntentEvent event = this.intentsState.get(intentKey);
-            long ts = System.currentTimeMillis();
-            if (event == null || (ts > lastIntentUpdate && ts - lastIntentUpdate > deltaUpdate)) {
-                Intent intent = this.intentService.getIntent(intentKey);
-                IntentState intentState = this.intentService.getIntentState(intentKey);
-                event = IntentEvent.getEvent(intentState, intent).get();
-                intentsState.put(intentKey, event);
-                this.lastIntentUpdate = ts;
+        TimedState state = this.intentsState.get(intentKey);
+        return state == null ? SdxL2State.CHECK : state.state;
+    }
+
+    /**
+     * Returns the state of a Virtual Circuit from the states of its
+     * Intents and of its edge ports.
+     *
+     * @param vc the Virtual Circuit
+     * @param intentKeys keys of the intents of the VC
+     * @return the state of the VC
+     */
+    @Override
+    public SdxL2State getVirtualCircuitState(VirtualCircuit vc, Set<Key> intentKeys) {
+        int numIntentsOnline = 0;
+        int numIntentsOffline = 0;
+        for (Key key : intentKeys) {
+            if (getIntentState(key) == SdxL2State.ONLINE) {
+                numIntentsOnline += 1;
+            } else {
+                numIntentsOffline += 1;
             }
-            return this.getSdxL2State(event.type());
         }
+        if (numIntentsOnline == 0) {
+            return SdxL2State.OFFLINE;
+        }
+        if (getEdgePortState(vc.lhs().connectPoint()) == SdxL2State.OFFLINE ||
+                getEdgePortState(vc.rhs().connectPoint()) == SdxL2State.OFFLINE) {
+            return SdxL2State.OFFLINE;
+        }
+        return numIntentsOffline == 0 ? SdxL2State.ONLINE : SdxL2State.CHECK;
     }
 
     /**
@@ -135,10 +150,12 @@ public class SdxL2MonitoringManager implements SdxL2MonitoringService {
      * @param event the event just happened
      */
     private void processIntentEvent(IntentEvent event) {
-        synchronized (intentsState) {
-            intentsState.put(event.subject().key(), event);
-            this.lastIntentUpdate = System.currentTimeMillis();
+        Key key = event.subject().key();
+        if (event.type() == IntentEvent.Type.PURGED) {
+            intentsState.computeIfPresent(key, (k, current) -> current.time > event.time() ? current : null);
+            return;
         }
+        update(intentsState, key, new TimedState(getSdxL2State(event.type()), event.time()));
     }
 
     /**
@@ -167,6 +184,23 @@ public class SdxL2MonitoringManager implements SdxL2MonitoringService {
         return state;
     }
 
+    /**
+     * Translates the IntentState in SdxL2State.
+     *
+     * @param intentState the state of the intent
+     * @return the SdxL2State
+     */
+    private SdxL2State getSdxL2State(IntentState intentState) {
+        switch (intentState) {
+            case INSTALLED:
+                return SdxL2State.ONLINE;
+            case FAILED:
+                return SdxL2State.OFFLINE;
+            default:
+                return SdxL2State.CHECK;
+        }
+    }
+
     /**
      * Implementation of listener to account for changes on intents.
      */
@@ -200,24 +234,8 @@ public class SdxL2MonitoringManager implements SdxL2MonitoringService {
      */
     @Override
     public SdxL2State getEdgePortState(ConnectPoint edgeport) {
-        synchronized (edgeportsState) {
-            EdgePortEvent event = this.edgeportsState.get(edgeport);
-            long ts = System.currentTimeMillis();
-            if (event == null ||
-                    (ts > lastEdgePortUpdate && ts - lastEdgePortUpdate > deltaUpdate)) {
-                event = new EdgePortEvent(EdgePortEvent.Type.EDGE_PORT_REMOVED, edgeport);
-                Iterator<ConnectPoint> cps = this.edgePortService.getEdgePoints(edgeport.deviceId()).iterator();
-                while (cps.hasNext()) {
-                    if (edgeport.equals(cps.next())) {
-                        event = new EdgePortEvent(EdgePortEvent.Type.EDGE_PORT_ADDED, edgeport);
-                        break;
-                    }
-                }
-                edgeportsState.put(edgeport, event);
-                this.lastEdgePortUpdate = ts;
-            }
-            return this.getSdxL2State(event.type());
-        }
+        TimedState state = this.edgeportsState.get(edgeport);
+        return state == null ? SdxL2State.OFFLINE : state.state;
     }
 
     /**
@@ -226,10 +244,7 @@ public class SdxL2MonitoringManager implements SdxL2MonitoringService {
      * @param event the event just happened
      */
     private void processEdgePortEvent(EdgePortEvent event) {
-        synchronized (edgeportsState) {
-            edgeportsState.put(event.subject(), event);
-            this.lastEdgePortUpdate = System.currentTimeMillis();
-        }
+        update(edgeportsState, event.subject(), new TimedState(getSdxL2State(event.type()), event.time()));
     }
 
     /**
@@ -242,6 +257,18 @@ public class SdxL2MonitoringManager implements SdxL2MonitoringService {
         return type == EdgePortEvent.Type.EDGE_PORT_ADDED ? SdxL2State.ONLINE : SdxL2State.OFFLINE;
     }
 
+    /**
+     * Stores the state of a resource, unless a more recent one is already cached.
+     *
+     * @param cache the cache of the states
+     * @param key the resource
+     * @param state the new state of the resource
+     * @param <K> type of the resource
+     */
+    private static <K> void update(ConcurrentMap<K, TimedState> cache, K key, TimedState state) {
+        cache.merge(key, state, (current, next) -> current.time > next.time ? current : next);
+    }
+
     /**
      * Implementation of listener to account for changes on edge ports.
      */
@@ -262,4 +289,17 @@ public class SdxL2MonitoringManager implements SdxL2MonitoringService {
 
     }
 
+    /**
+     * State of a resource with the time it has been observed.
+     */
+    private static final class TimedState {
+        private final SdxL2State state;
+        private final long time;
+
+        private TimedState(SdxL2State state, long time) {
+            this.state = state;
+            this.time = time;
+        }
+    }
+
 }
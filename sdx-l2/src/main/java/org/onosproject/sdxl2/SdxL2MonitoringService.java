@@ -19,6 +19,8 @@ package org.onosproject.sdxl2;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.intent.Key;
 
+import java.util.Set;
+
 /**
  * Service that provides the current state of
  * the SDX-L2 related intents and of the
@@ -42,6 +44,16 @@ public interface SdxL2MonitoringService {
      */
     SdxL2State getEdgePortState(ConnectPoint edgeport);
 
+    /**
+     * Returns the state of a Virtual Circuit from the states of its
+     * Intents and of its edge ports.
+     *
+     * @param vc the Virtual Circuit
+     * @param intentKeys keys of the intents of the VC
+     * @return the state of the VC
+     */
+    SdxL2State getVirtualCircuitState(VirtualCircuit vc, Set<Key> intentKeys);
+
     /**
      * Remove listeners.
      */
@@ -19,6 +19,8 @@ package org.onosproject.sdxl2;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.intent.Key;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -83,6 +85,18 @@ public interface SdxL2Service {
      */
     void addVC(String sdxl2, String sdxl2cplhs, String sdxl2cprhs);
 
+    /**
+     * Creates a batch of L2 Virtual Circuits in a SDX-L2.
+     * The whole batch is validated against the same view of the SDX-L2 CPs,
+     * so that a VC failing the validation does not prevent the others
+     * from being created.
+     *
+     * @param sdxl2 name of SDX-L2
+     * @param vcs names of the VCs to create, in the lhs-rhs format
+     * @return the result of each VC, in the order of the request
+     */
+    List<VirtualCircuitResult> addVCs(String sdxl2, List<String> vcs);
+
     /**
      * Deletes a Virtual Circuit between Connection Points in a SDX-L2.
      *
@@ -130,6 +144,14 @@ public interface SdxL2Service {
      */
     SdxL2State getEdgePortState(ConnectPoint edgeport);
 
+    /**
+     * Returns the state of a) all Virtual Circuits, or b) Virtual Circuits in a given SDX-L2.
+     *
+     * @param sdxl2 name of SDX-L2
+     * @return the state of each VC by name
+     */
+    Map<String, SdxL2State> getVirtualCircuitStates(Optional<String> sdxl2);
+
     /**
      * Cleans the state of the Application.
      */
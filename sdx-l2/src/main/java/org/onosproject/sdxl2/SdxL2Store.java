@@ -16,6 +16,8 @@
 
 package org.onosproject.sdxl2;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -94,6 +96,17 @@ public interface SdxL2Store {
     void addVC(String sdxl2, SdxL2ConnectionPoint sdxl2cplhs, SdxL2ConnectionPoint sdxl2cprhs)
             throws SdxL2Exception;
 
+    /**
+     * Creates a batch of Virtual Circuits in a SDX-L2, writing them in a single transaction.
+     * VCs overlapping with an existing VC or with a previous VC of the batch are rejected.
+     *
+     * @param sdxl2 name of SDX-L2
+     * @param vcs Virtual Circuits to create
+     * @return the rejected Virtual Circuits with the reason of the rejection
+     * @throws SdxL2Exception if the transaction fails, in which case no VC is created
+     */
+    Map<VirtualCircuit, String> addVCs(String sdxl2, List<VirtualCircuit> vcs) throws SdxL2Exception;
+
     /**
      * Deletes a Virtual Circuit between Connection Points in a SDX-L2.
      *
@@ -16,7 +16,6 @@
 
 package org.onosproject.sdxl2;
 
-import com.google.common.collect.Iterables;
 import org.apache.commons.lang.NotImplementedException;
 import org.onlab.packet.VlanId;
 import org.onosproject.core.ApplicationId;
@@ -33,9 +32,12 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 
@@ -55,7 +57,7 @@ public class SdxL2VCManager implements SdxL2VCService {
     protected ApplicationId appId;
     protected SdxL2Store sdxL2Store;
     protected IntentService intentService;
-    private SdxL2ConnectionPointMatcher matcher;
+    protected SdxL2IntentIndex intentIndex;
 
     private static final String ERROR_INTENTS_FORWARD = "Unable to create forward Intents";
     private static final String ERROR_INTENTS_REVERSE = "Unable to create reverse Intents";
@@ -68,15 +70,17 @@ public class SdxL2VCManager implements SdxL2VCService {
      * @param sdxl2id application ID
      * @param store reference to the SDX-L2 store
      * @param intentService reference to the Intent service
+     * @param intentIndex reference to the index of the SDX-L2 intents
      */
     public SdxL2VCManager(ApplicationId sdxl2id,
                           SdxL2Store store,
-                          IntentService intentService) {
+                          IntentService intentService,
+                          SdxL2IntentIndex intentIndex) {
 
         this.appId = sdxl2id;
         this.sdxL2Store = store;
         this.intentService = intentService;
-        this.matcher = new SdxL2ConnectionPointMatcher(sdxl2id);
+        this.intentIndex = intentIndex;
     }
 
     @Override
@@ -101,20 +105,81 @@ public class SdxL2VCManager implements SdxL2VCService {
             List<Intent> intents = new ArrayList<>();
             intents.addAll(intentsFW);
             intents.addAll(intentsRV);
-            intents.forEach(intent -> intentService.submit(intent));
+            intents.forEach(intent -> {
+                intentIndex.add(intent.key());
+                intentService.submit(intent);
+            });
         } catch (SdxL2Exception e) {
             log.error(e.getMessage());
         }
     }
 
+    @Override
+    public List<VirtualCircuitResult> addVCs(String sdxl2, List<VirtualCircuit> vcs) {
+        Map<VirtualCircuit, String> errors = new LinkedHashMap<>();
+        Map<VirtualCircuit, List<Intent>> intents = new LinkedHashMap<>();
+        for (VirtualCircuit vc : vcs) {
+            try {
+                checkVC(vc.lhs(), vc.rhs());
+            } catch (IllegalStateException e) {
+                errors.put(vc, e.getMessage());
+                continue;
+            }
+            Collection<Intent> intentsFW = buildIntents(sdxl2, vc.lhs(), vc.rhs());
+            Collection<Intent> intentsRV = buildIntents(sdxl2, vc.rhs(), vc.lhs());
+            if (intentsFW == null) {
+                errors.put(vc, ERROR_INTENTS_FORWARD);
+                continue;
+            }
+            if (intentsRV == null) {
+                errors.put(vc, ERROR_INTENTS_REVERSE);
+                continue;
+            }
+            List<Intent> vcIntents = new ArrayList<>(intentsFW);
+            vcIntents.addAll(intentsRV);
+            intents.put(vc, vcIntents);
+        }
+
+        if (!intents.isEmpty()) {
+            try {
+                errors.putAll(this.sdxL2Store.addVCs(sdxl2, new ArrayList<>(intents.keySet())));
+            } catch (SdxL2Exception e) {
+                log.error(e.getMessage());
+                intents.keySet().forEach(vc -> errors.put(vc, e.getMessage()));
+            }
+            intents.forEach((vc, vcIntents) -> {
+                if (!errors.containsKey(vc)) {
+                    vcIntents.forEach(intent -> {
+                        intentIndex.add(intent.key());
+                        intentService.submit(intent);
+                    });
+                }
+            });
+        }
+
+        return vcs.stream()
+                .map(vc -> errors.containsKey(vc) ?
+                        VirtualCircuitResult.failed(vc.name(), errors.get(vc)) :
+                        VirtualCircuitResult.created(vc.name()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Checks whether a Virtual Circuit can be created between two SDX-L2 Connection Points.
+     *
+     * @param sdxl2cplhs left hand side of the VC
+     * @param sdxl2cprhs right hand side of the VC
+     * @throws IllegalStateException if the VC cannot be created
+     */
+    protected void checkVC(SdxL2ConnectionPoint sdxl2cplhs, SdxL2ConnectionPoint sdxl2cprhs) {
+    }
+
     @Override
     public void removeVC(SdxL2ConnectionPoint sdxl2cplhs, SdxL2ConnectionPoint sdxl2cprhs) {
         try {
             this.sdxL2Store.removeVC(sdxl2cplhs, sdxl2cprhs);
-            Iterables.filter(intentService.getIntents(), intent ->
-                    (matcher.matches(sdxl2cplhs, sdxl2cprhs, intent) ||
-                            (matcher.matches(sdxl2cprhs, sdxl2cplhs, intent))))
-                    .forEach(intentService::withdraw);
+            withdraw(intentIndex.keys(sdxl2cplhs, sdxl2cprhs));
+            withdraw(intentIndex.keys(sdxl2cprhs, sdxl2cplhs));
         } catch (SdxL2Exception e) {
             log.error(e.getMessage());
         }
@@ -124,8 +189,7 @@ public class SdxL2VCManager implements SdxL2VCService {
     public void removeVC(SdxL2ConnectionPoint cp) {
         try {
             this.sdxL2Store.removeVC(cp);
-            Iterables.filter(intentService.getIntents(), intent -> (matcher.matches(cp, intent)))
-                    .forEach(intentService::withdraw);
+            withdraw(intentIndex.keys(cp));
         } catch (SdxL2Exception e) {
             log.error(e.getMessage());
         }
@@ -147,9 +211,22 @@ public class SdxL2VCManager implements SdxL2VCService {
     @Override
     public void removeVCs(String sdxl2) {
         this.sdxL2Store.removeVCs(sdxl2);
-        Iterables.filter(intentService.getIntents(), intent -> (matcher.matches(sdxl2, intent)))
-                .forEach(intentService::withdraw);
+        withdraw(intentIndex.keys(sdxl2));
+    }
 
+    /**
+     * Withdraws the intents with the given keys and drops them from the index.
+     *
+     * @param keys keys of the intents to withdraw
+     */
+    private void withdraw(Set<Key> keys) {
+        for (Key key : keys) {
+            intentIndex.remove(key);
+            Intent intent = intentService.getIntent(key);
+            if (intent != null) {
+                intentService.withdraw(intent);
+            }
+        }
     }
 
     @Override
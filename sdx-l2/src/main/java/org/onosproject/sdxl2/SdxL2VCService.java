@@ -16,6 +16,7 @@
 
 package org.onosproject.sdxl2;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -34,6 +35,17 @@ public interface SdxL2VCService {
      */
     void addVC(String sdxl2, SdxL2ConnectionPoint sdxl2cplhs, SdxL2ConnectionPoint sdxl2cprhs);
 
+    /**
+     * Creates a batch of L2 Virtual Circuits in a SDX-L2.
+     * The VCs are written to the store in a single transaction and
+     * the resulting Intents are submitted together.
+     *
+     * @param sdxl2 name of SDX-L2
+     * @param vcs Virtual Circuits to create
+     * @return the result of each VC, in the order of the request
+     */
+    List<VirtualCircuitResult> addVCs(String sdxl2, List<VirtualCircuit> vcs);
+
     /**
      * Deletes a Virtual Circuit from a SDX-L2.
      *
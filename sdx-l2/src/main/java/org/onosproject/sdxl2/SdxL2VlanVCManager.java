@@ -52,11 +52,13 @@ public class SdxL2VlanVCManager extends SdxL2VCManager {
      * @param sdxl2id application ID
      * @param store reference to the SDX-L2 store
      * @param intentService reference to the Intent service
+     * @param intentIndex reference to the index of the SDX-L2 intents
      */
     public SdxL2VlanVCManager(ApplicationId sdxl2id,
                               SdxL2Store store,
-                              IntentService intentService) {
-        super(sdxl2id, store, intentService);
+                              IntentService intentService,
+                              SdxL2IntentIndex intentIndex) {
+        super(sdxl2id, store, intentService, intentIndex);
         log.info("Started");
     }
 
@@ -42,6 +42,15 @@ public class VirtualCircuit {
         this.sdxl2cprhs = sdxl2cprhs;
     }
 
+    /**
+     * Returns the name of the Virtual Circuit.
+     *
+     * @return name in the lhs-rhs format
+     */
+    public String name() {
+        return name;
+    }
+
     /**
      * Returns the left hand side of the Virtual Circuit.
      *
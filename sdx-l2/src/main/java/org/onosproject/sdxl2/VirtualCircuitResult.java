@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.sdxl2;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.Objects;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Outcome of the creation of a Virtual Circuit requested in a batch.
+ */
+public final class VirtualCircuitResult {
+
+    private final String name;
+    private final String error;
+
+    private VirtualCircuitResult(String name, String error) {
+        this.name = checkNotNull(name, "VC name cannot be null");
+        this.error = error;
+    }
+
+    /**
+     * Returns the result of a Virtual Circuit which has been created.
+     *
+     * @param name name of the VC, in the lhs-rhs format
+     * @return result of the VC
+     */
+    public static VirtualCircuitResult created(String name) {
+        return new VirtualCircuitResult(name, null);
+    }
+
+    /**
+     * Returns the result of a Virtual Circuit which has not been created.
+     *
+     * @param name name of the VC, in the lhs-rhs format
+     * @param error reason why the VC has not been created
+     * @return result of the VC
+     */
+    public static VirtualCircuitResult failed(String name, String error) {
+        return new VirtualCircuitResult(name, checkNotNull(error, "Error cannot be null"));
+    }
+
+    /**
+     * Returns the name of the Virtual Circuit.
+     *
+     * @return name of the VC, in the lhs-rhs format
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns whether the Virtual Circuit has been created or not.
+     *
+     * @return true if the VC has been created
+     */
+    public boolean isCreated() {
+        return error == null;
+    }
+
+    /**
+     * Returns the reason why the Virtual Circuit has not been created.
+     *
+     * @return error message, null if the VC has been created
+     */
+    public String error() {
+        return error;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, error);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof VirtualCircuitResult) {
+            final VirtualCircuitResult other = (VirtualCircuitResult) obj;
+            return Objects.equals(this.name, other.name) &&
+                    Objects.equals(this.error, other.error);
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("name", name)
+                .add("error", error)
+                .toString();
+    }
+}
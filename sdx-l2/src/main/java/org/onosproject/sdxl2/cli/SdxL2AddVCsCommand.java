@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.sdxl2.cli;
+
+import org.apache.karaf.shell.commands.Argument;
+import org.apache.karaf.shell.commands.Command;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.sdxl2.SdxL2Service;
+import org.onosproject.sdxl2.VirtualCircuitResult;
+
+import java.util.List;
+
+/**
+ * CLI to create a batch of VCs in the same SDX-L2.
+ */
+@Command(scope = "sdxl2", name = "sdxl2vcs-add",
+        description = "Creates a batch of VCs between Connection Points in the same SDX-L2")
+public class SdxL2AddVCsCommand extends AbstractShellCommand {
+
+    @Argument(name = "sdxl2name", description = "Name of SDX-L2",
+            required = true)
+    private String sdxL2name = null;
+
+    @Argument(index = 1, name = "vcs", description = "Virtual Circuits in the lhs-rhs format",
+            required = true, multiValued = true)
+    private List<String> vcs = null;
+
+    private static final String FORMAT_SDXL2VC_CREATED =
+            "\u001B[1;32m%s\u001B[0m\t\t\u001B[1;37m%s\u001B[0m";
+    private static final String FORMAT_SDXL2VC_FAILED =
+            "\u001B[1;31m%s\u001B[0m\t\t\u001B[1;37m%s\u001B[0m\t%s";
+
+    @Override
+    protected void execute() {
+        SdxL2Service sdxl2Service = get(SdxL2Service.class);
+        List<VirtualCircuitResult> results = sdxl2Service.addVCs(sdxL2name, vcs);
+        for (VirtualCircuitResult result : results) {
+            if (result.isCreated()) {
+                print(FORMAT_SDXL2VC_CREATED, "CREATED", result.name());
+            } else {
+                print(FORMAT_SDXL2VC_FAILED, "FAILED", result.name(), result.error());
+            }
+        }
+    }
+}
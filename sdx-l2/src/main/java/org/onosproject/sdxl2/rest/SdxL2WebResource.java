@@ -0,0 +1,125 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.sdxl2.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.onosproject.rest.AbstractWebResource;
+import org.onosproject.sdxl2.SdxL2Service;
+import org.onosproject.sdxl2.SdxL2State;
+import org.onosproject.sdxl2.VirtualCircuitResult;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Manage SDX-L2 Virtual Circuits.
+ */
+@Path("")
+public class SdxL2WebResource extends AbstractWebResource {
+
+    private static final String VCS = "vcs";
+    private static final String NAME = "name";
+    private static final String CREATED = "created";
+    private static final String ERROR = "error";
+    private static final String STATE = "state";
+
+    /**
+     * Gets the state of all Virtual Circuits.
+     *
+     * @return 200 OK with the state of each VC
+     */
+    @GET
+    @Path("vcs")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getVCStates() {
+        return ok(encodeStates(get(SdxL2Service.class).getVirtualCircuitStates(Optional.empty()))).build();
+    }
+
+    /**
+     * Gets the state of the Virtual Circuits in a SDX-L2.
+     *
+     * @param sdxl2 name of SDX-L2
+     * @return 200 OK with the state of each VC
+     */
+    @GET
+    @Path("{sdxl2}/vcs")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getVCStates(@PathParam("sdxl2") String sdxl2) {
+        return ok(encodeStates(get(SdxL2Service.class).getVirtualCircuitStates(Optional.of(sdxl2)))).build();
+    }
+
+    /**
+     * Creates a batch of Virtual Circuits in a SDX-L2.
+     * The request lists the VCs in the lhs-rhs format, e.g.
+     * {"vcs": ["cp1-cp2", "cp3-cp4"]}, and the response reports
+     * for each VC whether it has been created or why it has not.
+     *
+     * @param sdxl2 name of SDX-L2
+     * @param stream JSON stream with the VCs to create
+     * @return 200 OK with the result of each VC, 400 if the request is malformed
+     */
+    @POST
+    @Path("{sdxl2}/vcs")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response addVCs(@PathParam("sdxl2") String sdxl2, InputStream stream) {
+        List<String> vcs = new ArrayList<>();
+        try {
+            JsonNode names = mapper().readTree(stream).get(VCS);
+            if (names == null || !names.isArray()) {
+                return Response.status(Response.Status.BAD_REQUEST).build();
+            }
+            names.forEach(name -> vcs.add(name.asText()));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+
+        ObjectNode root = mapper().createObjectNode();
+        ArrayNode results = root.putArray(VCS);
+        for (VirtualCircuitResult result : get(SdxL2Service.class).addVCs(sdxl2, vcs)) {
+            ObjectNode node = results.addObject()
+                    .put(NAME, result.name())
+                    .put(CREATED, result.isCreated());
+            if (!result.isCreated()) {
+                node.put(ERROR, result.error());
+            }
+        }
+        return ok(root).build();
+    }
+
+    private ObjectNode encodeStates(Map<String, SdxL2State> states) {
+        ObjectNode root = mapper().createObjectNode();
+        ArrayNode vcs = root.putArray(VCS);
+        states.forEach((name, state) -> vcs.addObject()
+                .put(NAME, name)
+                .put(STATE, state.toString()));
+        return root;
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.sdxl2;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.store.service.CommitStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the indexes of SdxL2DistributedStore.
+ */
+public class SdxL2DistributedStoreTest {
+
+    private static final String SDXL2 = "test";
+    private static final String SDXL2_2 = "test2";
+    private static final String CP1 = "of:00000000000001/1";
+    private static final String CP2 = "of:00000000000002/1";
+    private static final String CEMAC1 = "52:40:00:12:44:01";
+
+    private SdxL2DistributedStore store;
+    private SdxL2ConnectionPoint one;
+    private SdxL2ConnectionPoint two;
+    private SdxL2ConnectionPoint three;
+    private SdxL2ConnectionPoint four;
+
+    private Map<String, String> vcs;
+    private final List<TransactionContextTest> transactions = new ArrayList<>();
+    private CommitStatus commitStatus = CommitStatus.SUCCESS;
+
+    @Before
+    public void setUp() throws SdxL2Exception {
+        store = new SdxL2DistributedStore();
+        store.initForTest(map -> {
+            vcs = map;
+            TransactionContextTest transaction = new TransactionContextTest(map, commitStatus);
+            transactions.add(transaction);
+            return transaction;
+        });
+        store.putSdxL2(SDXL2);
+        store.putSdxL2(SDXL2_2);
+        one = SdxL2ConnectionPoint.sdxl2ConnectionPoint("ROM1", CP1, "1,2,3", CEMAC1);
+        two = SdxL2ConnectionPoint.sdxl2ConnectionPoint("ROM2", CP2, "1,2,3", CEMAC1);
+        three = SdxL2ConnectionPoint.sdxl2ConnectionPoint("MI1", CP1, "4", CEMAC1);
+        four = SdxL2ConnectionPoint.sdxl2ConnectionPoint("MI2", CP2, "4", CEMAC1);
+    }
+
+    private void assertAddVCsFails(List<VirtualCircuit> batch) {
+        try {
+            store.addVCs(SDXL2, batch);
+            fail("Expected SdxL2Exception adding the vcs");
+        } catch (SdxL2Exception e) {
+            // expected
+        }
+    }
+
+    private void assertAddFails(String sdxl2, SdxL2ConnectionPoint cp) {
+        try {
+            store.addSdxL2ConnectionPoint(sdxl2, cp);
+            fail("Expected SdxL2Exception adding " + cp.name());
+        } catch (SdxL2Exception e) {
+            // expected
+        }
+    }
+
+    /**
+     * Checks that sdxl2cps are found by name and by sdxl2 and are forgotten once removed.
+     */
+    @Test
+    public void testConnectionPointIndexes() throws SdxL2Exception {
+        store.addSdxL2ConnectionPoint(SDXL2, one);
+        store.addSdxL2ConnectionPoint(SDXL2, two);
+        store.addSdxL2ConnectionPoint(SDXL2_2, three);
+
+        assertEquals(one, store.getSdxL2ConnectionPoint("ROM1"));
+        assertEquals(Sets.newHashSet("ROM1", "ROM2"), store.getSdxL2ConnectionPoints(Optional.of(SDXL2)));
+        assertEquals(Sets.newHashSet("MI1"), store.getSdxL2ConnectionPoints(Optional.of(SDXL2_2)));
+        assertEquals(Sets.newHashSet("ROM1", "ROM2", "MI1"), store.getSdxL2ConnectionPoints(Optional.empty()));
+
+        store.removeSdxL2ConnectionPoint("ROM1");
+        assertEquals(Sets.newHashSet("ROM2"), store.getSdxL2ConnectionPoints(Optional.of(SDXL2)));
+        try {
+            store.getSdxL2ConnectionPoint("ROM1");
+            fail("Expected SdxL2Exception getting a removed sdxl2cp");
+        } catch (SdxL2Exception e) {
+            // expected
+        }
+
+        store.removeSdxL2(SDXL2_2);
+        assertEquals(Sets.newHashSet("ROM2"), store.getSdxL2ConnectionPoints(Optional.empty()));
+    }
+
+    /**
+     * Checks conflicts on names and on connect point and vlans, also after removal.
+     */
+    @Test
+    public void testConnectionPointConflicts() throws SdxL2Exception {
+        store.addSdxL2ConnectionPoint(SDXL2, one);
+        store.addSdxL2ConnectionPoint(SDXL2, three);
+
+        assertAddFails(SDXL2, SdxL2ConnectionPoint.sdxl2ConnectionPoint("ROM1", CP2, "5", CEMAC1));
+        assertAddFails(SDXL2, SdxL2ConnectionPoint.sdxl2ConnectionPoint("ROM3", CP1, "3", CEMAC1));
+        assertAddFails(SDXL2, SdxL2ConnectionPoint.sdxl2ConnectionPoint("ROM3", CP1, "-1", CEMAC1));
+
+        store.removeSdxL2ConnectionPoint("ROM1");
+        store.addSdxL2ConnectionPoint(SDXL2, SdxL2ConnectionPoint.sdxl2ConnectionPoint("ROM3", CP1, "3", CEMAC1));
+
+        SdxL2ConnectionPoint untagged = SdxL2ConnectionPoint.sdxl2ConnectionPoint("ROM4", CP2, "-1", CEMAC1);
+        store.addSdxL2ConnectionPoint(SDXL2, untagged);
+        assertAddFails(SDXL2, SdxL2ConnectionPoint.sdxl2ConnectionPoint("ROM5", CP2, "7", CEMAC1));
+    }
+
+    /**
+     * Checks that VCs are found by sdxl2cp and by sdxl2 and are forgotten once removed.
+     */
+    @Test
+    public void testVirtualCircuitIndexes() throws SdxL2Exception {
+        store.addSdxL2ConnectionPoint(SDXL2, one);
+        store.addSdxL2ConnectionPoint(SDXL2, two);
+        store.addSdxL2ConnectionPoint(SDXL2, three);
+
+        store.addVC(SDXL2, one, two);
+        assertEquals(Sets.newHashSet("test:ROM1-ROM2"), store.getVCs(Optional.of(SDXL2)));
+        assertTrue(store.getVCs(Optional.of(SDXL2_2)).isEmpty());
+        store.getVC(two, one);
+
+        try {
+            store.addVC(SDXL2, three, two);
+            fail("Expected SdxL2Exception adding an overlapping vc");
+        } catch (SdxL2Exception e) {
+            // expected
+        }
+
+        store.removeVC(one);
+        assertTrue(store.getVCs(Optional.empty()).isEmpty());
+        store.addVC(SDXL2, three, two);
+        assertEquals(Sets.newHashSet("test:MI1-ROM2"), store.getVCs(Optional.of(SDXL2)));
+
+        store.removeVCs(SDXL2);
+        assertTrue(store.getVCs(Optional.empty()).isEmpty());
+        store.addVC(SDXL2, one, two);
+    }
+
+    /**
+     * Checks that a batch of VCs is written in one committed transaction.
+     */
+    @Test
+    public void testAddVCsTransaction() throws SdxL2Exception {
+        store.addSdxL2ConnectionPoint(SDXL2, one);
+        store.addSdxL2ConnectionPoint(SDXL2, two);
+        store.addSdxL2ConnectionPoint(SDXL2, three);
+        store.addSdxL2ConnectionPoint(SDXL2, four);
+
+        Map<VirtualCircuit, String> rejected = store.addVCs(SDXL2, ImmutableList.of(
+                new VirtualCircuit(one, two), new VirtualCircuit(two, three), new VirtualCircuit(three, four)));
+        assertEquals(Sets.newHashSet(new VirtualCircuit(two, three)), rejected.keySet());
+        assertEquals(1, transactions.size());
+        assertFalse(transactions.get(0).isOpen());
+        assertFalse(transactions.get(0).isAborted());
+        assertEquals(2, vcs.size());
+        assertEquals("test:ROM1-ROM2", vcs.get(SdxL2DistributedStore.encodeVC(two, one)));
+        assertEquals(Sets.newHashSet("test:ROM1-ROM2", "test:MI1-MI2"), store.getVCs(Optional.of(SDXL2)));
+
+        // Nothing left to write, no transaction
+        store.addVCs(SDXL2, ImmutableList.of(new VirtualCircuit(one, three)));
+        assertEquals(1, transactions.size());
+    }
+
+    /**
+     * Checks that a VC added concurrently by another node aborts the whole batch.
+     */
+    @Test
+    public void testAddVCsConflict() throws SdxL2Exception {
+        store.addSdxL2ConnectionPoint(SDXL2, one);
+        store.addSdxL2ConnectionPoint(SDXL2, two);
+        store.addSdxL2ConnectionPoint(SDXL2, three);
+        store.addSdxL2ConnectionPoint(SDXL2, four);
+        store.addVCs(SDXL2, ImmutableList.of(new VirtualCircuit(one, two)));
+        store.removeVC(one);
+
+        // Written by another node, not indexed yet by this one
+        vcs.put(SdxL2DistributedStore.encodeVC(three, four), "test:MI1-MI2");
+        assertAddVCsFails(ImmutableList.of(new VirtualCircuit(one, two), new VirtualCircuit(three, four)));
+        assertTrue(transactions.get(transactions.size() - 1).isAborted());
+        assertEquals(1, vcs.size());
+        assertTrue(store.getVCs(Optional.of(SDXL2)).isEmpty());
+    }
+
+    /**
+     * Checks that nothing is written nor indexed when the commit fails.
+     */
+    @Test
+    public void testAddVCsCommitFailure() throws SdxL2Exception {
+        store.addSdxL2ConnectionPoint(SDXL2, one);
+        store.addSdxL2ConnectionPoint(SDXL2, two);
+        commitStatus = CommitStatus.FAILURE;
+
+        assertAddVCsFails(ImmutableList.of(new VirtualCircuit(one, two)));
+        assertTrue(vcs.isEmpty());
+        assertTrue(store.getVCs(Optional.empty()).isEmpty());
+
+        commitStatus = CommitStatus.SUCCESS;
+        store.addVCs(SDXL2, ImmutableList.of(new VirtualCircuit(one, two)));
+        assertEquals(Sets.newHashSet("test:ROM1-ROM2"), store.getVCs(Optional.of(SDXL2)));
+    }
+}
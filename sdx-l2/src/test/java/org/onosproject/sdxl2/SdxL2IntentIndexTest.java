@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.sdxl2;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.TestApplicationId;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.net.intent.Key;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests SdxL2IntentIndex functionality.
+ */
+public class SdxL2IntentIndexTest {
+
+    private static final String CP1 = "of:00000000000001/1";
+    private static final String CP2 = "of:00000000000002/1";
+    private static final String CP3 = "of:00000000000003/1";
+    private static final String VLANS = "2,3";
+
+    private final ApplicationId appId = new TestApplicationId("sdxl2-test");
+    private SdxL2IntentIndex index;
+    private SdxL2ConnectionPoint one;
+    private SdxL2ConnectionPoint two;
+    private SdxL2ConnectionPoint three;
+
+    @Before
+    public void setUp() {
+        index = new SdxL2IntentIndex(appId, new IntentServiceTest());
+        one = SdxL2ConnectionPoint.sdxl2ConnectionPoint("TEST1", CP1, VLANS);
+        two = SdxL2ConnectionPoint.sdxl2ConnectionPoint("TEST2", CP2, VLANS);
+        three = SdxL2ConnectionPoint.sdxl2ConnectionPoint("TEST3", CP3, VLANS);
+    }
+
+    private Key key(String value) {
+        return Key.of(value, appId);
+    }
+
+    /**
+     * Checks that intent keys are found by SDX-L2, by CP and by VC direction.
+     */
+    @Test
+    public void testLookups() {
+        index.add(key("test:TEST1-TEST2,1"));
+        index.add(key("test:TEST1-TEST2,2"));
+        index.add(key("test:TEST2-TEST1,1"));
+        index.add(key("test2:TEST3-TEST2,1"));
+
+        assertEquals(ImmutableSet.of(key("test:TEST1-TEST2,1"), key("test:TEST1-TEST2,2")),
+                     index.keys(one, two));
+        assertEquals(ImmutableSet.of(key("test:TEST2-TEST1,1")), index.keys(two, one));
+        assertEquals(3, index.keys("test").size());
+        assertEquals(ImmutableSet.of(key("test2:TEST3-TEST2,1")), index.keys(three));
+        assertEquals(4, index.keys(two).size());
+    }
+
+    /**
+     * Checks that removed and malformed keys are not indexed.
+     */
+    @Test
+    public void testRemove() {
+        index.add(key("test:TEST1-TEST2,1"));
+        index.add(key("malformed"));
+        index.add(key("test:TEST1,1"));
+        index.remove(key("test:TEST1-TEST2,1"));
+
+        assertTrue(index.keys("test").isEmpty());
+        assertTrue(index.keys(one).isEmpty());
+        assertTrue(index.keys(one, two).isEmpty());
+    }
+}
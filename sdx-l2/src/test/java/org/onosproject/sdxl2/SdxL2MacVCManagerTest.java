@@ -89,8 +89,9 @@ public class SdxL2MacVCManagerTest extends AbstractIntentTest {
     public void setUp() {
         super.setUp();
         SdxL2DistributedStore store = new SdxL2DistributedStore();
-        store.initForTest();
-        manager = new SdxL2MacVCManager(APPID, store, new IntentServiceTest());
+        store.initForTest(TransactionContextTest::new);
+        IntentServiceTest intentService = new IntentServiceTest();
+        manager = new SdxL2MacVCManager(APPID, store, intentService, new SdxL2IntentIndex(APPID, intentService));
         intentList = setIntents();
     }
 
@@ -16,6 +16,8 @@
 
 package org.onosproject.sdxl2;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import org.junit.After;
 import org.junit.Before;
@@ -27,6 +29,7 @@ import org.onosproject.net.intent.MockIdGenerator;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -103,10 +106,11 @@ public class SdxL2ManagerTest {
         manager = new SdxL2Manager();
         manager.appId = new TestApplicationId("sdxl2-test");
         SdxL2DistributedStore store = new SdxL2DistributedStore();
-        store.initForTest();
+        store.initForTest(TransactionContextTest::new);
         manager.sdxL2Store = store;
-        manager.vcManager = new SdxL2MacVCManager(
-                manager.appId, manager.sdxL2Store, new IntentServiceTest());
+        IntentServiceTest intentService = new IntentServiceTest();
+        manager.vcManager = new SdxL2MacVCManager(manager.appId, manager.sdxL2Store, intentService,
+                                                  new SdxL2IntentIndex(manager.appId, intentService));
     }
 
     @After
@@ -434,6 +438,69 @@ public class SdxL2ManagerTest {
         manager.addVC(SDXL2, four.name(), five.name());
     }
 
+    /**
+     * Checks that manager creates a batch of VCs, reporting the result of each one.
+     */
+    @Test
+    public void testAddVCs() {
+        IntentServiceTest intentService = new IntentServiceTest();
+        manager.vcManager = new SdxL2MacVCManager(manager.appId, manager.sdxL2Store, intentService,
+                                                  new SdxL2IntentIndex(manager.appId, intentService));
+        manager.createSdxL2(SDXL2);
+
+        SdxL2ConnectionPoint one = SdxL2ConnectionPoint.sdxl2ConnectionPoint("ROM1", CP1, VLANS1, CEMAC1);
+        SdxL2ConnectionPoint two = SdxL2ConnectionPoint.sdxl2ConnectionPoint("ROM2", CP2, VLANS2, CEMAC2);
+        SdxL2ConnectionPoint four = SdxL2ConnectionPoint.sdxl2ConnectionPoint("MI3", CP3, VLANS3, CEMAC4);
+        SdxL2ConnectionPoint six = SdxL2ConnectionPoint.sdxl2ConnectionPoint("FI2", CP5, VLANS2, CEMAC6);
+        SdxL2ConnectionPoint seven = SdxL2ConnectionPoint.sdxl2ConnectionPoint("FI23", CP6, VLANS6, CEMAC7);
+        SdxL2ConnectionPoint eight = SdxL2ConnectionPoint.sdxl2ConnectionPoint("FI24", CP7, VLANS5, CEMAC8);
+        SdxL2ConnectionPoint nine = SdxL2ConnectionPoint.sdxl2ConnectionPoint("FI25", CP8, VLANS5, CEMAC8);
+
+        manager.addSdxL2ConnectionPoint(SDXL2, one);
+        manager.addSdxL2ConnectionPoint(SDXL2, two);
+        manager.addSdxL2ConnectionPoint(SDXL2, four);
+        manager.addSdxL2ConnectionPoint(SDXL2, six);
+        manager.addSdxL2ConnectionPoint(SDXL2, seven);
+        manager.addSdxL2ConnectionPoint(SDXL2, eight);
+        manager.addSdxL2ConnectionPoint(SDXL2, nine);
+
+        manager.addVC(SDXL2, two.name(), six.name());
+        assertEquals(2, intentService.getIntentCount());
+
+        List<String> vcs = ImmutableList.of("ROM2-FI2", "ROM1-FI23", "ROM1-MI3", "FI23-ROM1",
+                                            "FI24-FI25", "ROM1x-FI2", "ROM2", "MI3-FI24", "MI3-FI25");
+        List<VirtualCircuitResult> results = manager.addVCs(SDXL2, vcs);
+
+        assertEquals(vcs.size(), results.size());
+        for (int i = 0; i < vcs.size(); i++) {
+            assertEquals(vcs.get(i), results.get(i).name());
+        }
+        // Overlaps with an existing VC
+        assertFalse(results.get(0).isCreated());
+        assertTrue(results.get(1).isCreated());
+        assertNull(results.get(1).error());
+        // Different number of VLANs
+        assertFalse(results.get(2).isCreated());
+        // Duplicate in the request
+        assertFalse(results.get(3).isCreated());
+        // Same MAC address
+        assertFalse(results.get(4).isCreated());
+        // Missing CP
+        assertFalse(results.get(5).isCreated());
+        // Bad name format
+        assertFalse(results.get(6).isCreated());
+        assertTrue(results.get(7).isCreated());
+        // Overlaps with a previous VC of the request
+        assertFalse(results.get(8).isCreated());
+        results.stream()
+                .filter(result -> !result.isCreated())
+                .forEach(result -> assertNotNull(result.error()));
+
+        assertEquals(ImmutableSet.of("test:FI2-ROM2", "test:FI23-ROM1", "test:FI24-MI3"),
+                     manager.getVirtualCircuits(Optional.of(SDXL2)));
+        assertEquals(2 + 8 + 6, intentService.getIntentCount());
+    }
+
     /**
      * Checks that manager is able to remove Virtual Circuits properly.
      */
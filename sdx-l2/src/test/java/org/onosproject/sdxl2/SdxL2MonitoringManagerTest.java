@@ -0,0 +1,168 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.sdxl2;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.TestApplicationId;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.edge.EdgePortEvent;
+import org.onosproject.net.edge.EdgePortListener;
+import org.onosproject.net.edge.EdgePortServiceAdapter;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentEvent;
+import org.onosproject.net.intent.IntentListener;
+import org.onosproject.net.intent.IntentState;
+import org.onosproject.net.intent.Key;
+import org.onosproject.net.intent.MockIdGenerator;
+import org.onosproject.net.intent.PointToPointIntent;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests SdxL2MonitoringManager functionality.
+ */
+public class SdxL2MonitoringManagerTest {
+
+    private static final String CP1 = "of:00000000000001/1";
+    private static final String CP2 = "of:00000000000002/1";
+    private static final String VLANS = "2";
+
+    private final ApplicationId appId = new TestApplicationId("sdxl2-test");
+    private final ConnectPoint cp1 = ConnectPoint.deviceConnectPoint(CP1);
+    private final ConnectPoint cp2 = ConnectPoint.deviceConnectPoint(CP2);
+    private TestIntentService intentService;
+    private TestEdgePortService edgePortService;
+    private SdxL2MonitoringManager manager;
+    private Intent installed;
+    private Intent submitted;
+
+    /**
+     * Intent service keeping track of the listener and of the state of the intents.
+     */
+    private class TestIntentService extends IntentServiceTest {
+        private IntentListener listener;
+
+        @Override
+        public void addListener(IntentListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public IntentState getIntentState(Key intentKey) {
+            return intentKey.equals(installed.key()) ? IntentState.INSTALLED : IntentState.INSTALL_REQ;
+        }
+    }
+
+    /**
+     * EdgePort service with a single edge port.
+     */
+    private class TestEdgePortService extends EdgePortServiceAdapter {
+        private EdgePortListener listener;
+
+        @Override
+        public void addListener(EdgePortListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public Iterable<ConnectPoint> getEdgePoints() {
+            return ImmutableSet.of(cp1);
+        }
+    }
+
+    @Before
+    public void setUp() {
+        MockIdGenerator.cleanBind();
+        installed = intent("test:TEST1-TEST2,1", cp1, cp2);
+        submitted = intent("test:TEST2-TEST1,1", cp2, cp1);
+        intentService = new TestIntentService();
+        intentService.submit(installed);
+        intentService.submit(submitted);
+        edgePortService = new TestEdgePortService();
+        manager = new SdxL2MonitoringManager(appId, intentService, edgePortService);
+    }
+
+    @After
+    public void tearDown() {
+        MockIdGenerator.unbind();
+    }
+
+    private Intent intent(String key, ConnectPoint ingress, ConnectPoint egress) {
+        return PointToPointIntent.builder()
+                .appId(appId)
+                .key(Key.of(key, appId))
+                .selector(DefaultTrafficSelector.emptySelector())
+                .treatment(DefaultTrafficTreatment.emptyTreatment())
+                .ingressPoint(ingress)
+                .egressPoint(egress)
+                .build();
+    }
+
+    /**
+     * Checks that the states are seeded from the services.
+     */
+    @Test
+    public void testSeed() {
+        assertEquals(SdxL2State.ONLINE, manager.getIntentState(installed.key()));
+        assertEquals(SdxL2State.CHECK, manager.getIntentState(submitted.key()));
+        assertEquals(SdxL2State.ONLINE, manager.getEdgePortState(cp1));
+        assertEquals(SdxL2State.OFFLINE, manager.getEdgePortState(cp2));
+    }
+
+    /**
+     * Checks that the states follow the events, ignoring the stale ones.
+     */
+    @Test
+    public void testEvents() {
+        long now = System.currentTimeMillis();
+        intentService.listener.event(new IntentEvent(IntentEvent.Type.INSTALLED, submitted, now + 10));
+        assertEquals(SdxL2State.ONLINE, manager.getIntentState(submitted.key()));
+        intentService.listener.event(new IntentEvent(IntentEvent.Type.FAILED, submitted, now + 5));
+        assertEquals(SdxL2State.ONLINE, manager.getIntentState(submitted.key()));
+        intentService.listener.event(new IntentEvent(IntentEvent.Type.PURGED, submitted, now + 20));
+        assertEquals(SdxL2State.CHECK, manager.getIntentState(submitted.key()));
+
+        edgePortService.listener.event(new EdgePortEvent(EdgePortEvent.Type.EDGE_PORT_ADDED, cp2, now + 10));
+        assertEquals(SdxL2State.ONLINE, manager.getEdgePortState(cp2));
+        edgePortService.listener.event(new EdgePortEvent(EdgePortEvent.Type.EDGE_PORT_REMOVED, cp1, now + 10));
+        assertEquals(SdxL2State.OFFLINE, manager.getEdgePortState(cp1));
+    }
+
+    /**
+     * Checks that the state of a VC is computed from its intents and edge ports.
+     */
+    @Test
+    public void testVirtualCircuitState() {
+        VirtualCircuit vc = new VirtualCircuit(
+                SdxL2ConnectionPoint.sdxl2ConnectionPoint("TEST1", CP1, VLANS),
+                SdxL2ConnectionPoint.sdxl2ConnectionPoint("TEST2", CP2, VLANS));
+        long now = System.currentTimeMillis();
+
+        assertEquals(SdxL2State.OFFLINE, manager.getVirtualCircuitState(vc, ImmutableSet.of(submitted.key())));
+        edgePortService.listener.event(new EdgePortEvent(EdgePortEvent.Type.EDGE_PORT_ADDED, cp2, now + 10));
+        assertEquals(SdxL2State.CHECK,
+                     manager.getVirtualCircuitState(vc, ImmutableSet.of(installed.key(), submitted.key())));
+        intentService.listener.event(new IntentEvent(IntentEvent.Type.INSTALLED, submitted, now + 10));
+        assertEquals(SdxL2State.ONLINE,
+                     manager.getVirtualCircuitState(vc, ImmutableSet.of(installed.key(), submitted.key())));
+    }
+}
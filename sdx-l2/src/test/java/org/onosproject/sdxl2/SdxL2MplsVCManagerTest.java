@@ -78,8 +78,9 @@ public class SdxL2MplsVCManagerTest extends AbstractIntentTest {
     public void setUp() {
         super.setUp();
         SdxL2DistributedStore store = new SdxL2DistributedStore();
-        store.initForTest();
-        manager = new SdxL2MplsVCManager(APPID, store, new IntentServiceTest());
+        store.initForTest(TransactionContextTest::new);
+        IntentServiceTest intentService = new IntentServiceTest();
+        manager = new SdxL2MplsVCManager(APPID, store, intentService, new SdxL2IntentIndex(APPID, intentService));
         intentList = setIntents();
     }
 
@@ -94,9 +94,10 @@ public class SdxL2VCManagerTest {
     public void setUp() {
 
         SdxL2DistributedStore store = new SdxL2DistributedStore();
-        store.initForTest();
+        store.initForTest(TransactionContextTest::new);
+        IntentServiceTest intentService = new IntentServiceTest();
         manager = new SdxL2MacVCManager(
-                APPID, store, new IntentServiceTest());
+                APPID, store, intentService, new SdxL2IntentIndex(APPID, intentService));
         MockIdGenerator.cleanBind();
     }
 
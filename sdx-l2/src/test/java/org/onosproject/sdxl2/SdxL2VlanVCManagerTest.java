@@ -81,9 +81,10 @@ public class SdxL2VlanVCManagerTest extends AbstractIntentTest {
     public void setUp() {
         super.setUp();
         SdxL2DistributedStore store = new SdxL2DistributedStore();
-        store.initForTest();
+        store.initForTest(TransactionContextTest::new);
+        IntentServiceTest intentService = new IntentServiceTest();
         manager = new SdxL2VlanVCManager(
-                APPID, store, new IntentServiceTest());
+                APPID, store, intentService, new SdxL2IntentIndex(APPID, intentService));
         intentList = setIntents();
     }
 
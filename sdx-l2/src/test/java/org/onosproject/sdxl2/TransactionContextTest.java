@@ -0,0 +1,178 @@
+/*
+ * Copyright 2016-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.sdxl2;
+
+import com.google.common.collect.Maps;
+import org.onosproject.store.service.CommitStatus;
+import org.onosproject.store.service.Serializer;
+import org.onosproject.store.service.TransactionContext;
+import org.onosproject.store.service.TransactionId;
+import org.onosproject.store.service.TransactionalMap;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Represents a fake TransactionContext class that buffers the writes to
+ * a local map and applies them on commit, without a distributed store.
+ */
+public class TransactionContextTest implements TransactionContext {
+
+    private final Map<String, String> map;
+    private final CommitStatus commitStatus;
+    private final Map<String, String> updates = Maps.newLinkedHashMap();
+    private boolean open;
+    private boolean aborted;
+
+    /**
+     * Defines a transaction over the map that commits successfully.
+     *
+     * @param map map written by the transaction
+     */
+    TransactionContextTest(Map<String, String> map) {
+        this(map, CommitStatus.SUCCESS);
+    }
+
+    /**
+     * Defines a transaction over the map with the given commit outcome.
+     *
+     * @param map map written by the transaction
+     * @param commitStatus status returned by the commit, the map is written only on success
+     */
+    TransactionContextTest(Map<String, String> map, CommitStatus commitStatus) {
+        this.map = map;
+        this.commitStatus = commitStatus;
+    }
+
+    /**
+     * Returns whether the transaction was aborted.
+     *
+     * @return true if aborted
+     */
+    boolean isAborted() {
+        return aborted;
+    }
+
+    @Override
+    public String name() {
+        return "test";
+    }
+
+    @Override
+    public TransactionId transactionId() {
+        return TransactionId.from("test");
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void begin() {
+        checkState(!open, "Transaction already open");
+        open = true;
+    }
+
+    @Override
+    public CompletableFuture<CommitStatus> commit() {
+        checkState(open, "Transaction not open");
+        open = false;
+        if (commitStatus == CommitStatus.SUCCESS) {
+            map.putAll(updates);
+        }
+        return CompletableFuture.completedFuture(commitStatus);
+    }
+
+    @Override
+    public void abort() {
+        open = false;
+        aborted = true;
+        updates.clear();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> TransactionalMap<K, V> getTransactionalMap(String mapName, Serializer serializer) {
+        return (TransactionalMap<K, V>) new TransactionalMapTest(mapName);
+    }
+
+    /**
+     * Transactional view of the map: reads see the buffered writes.
+     */
+    private final class TransactionalMapTest implements TransactionalMap<String, String> {
+
+        private final String name;
+
+        private TransactionalMapTest(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public String get(String key) {
+            return updates.containsKey(key) ? updates.get(key) : map.get(key);
+        }
+
+        @Override
+        public boolean containsKey(String key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public String put(String key, String value) {
+            checkState(open, "Transaction not open");
+            String previous = get(key);
+            updates.put(key, value);
+            return previous;
+        }
+
+        @Override
+        public String remove(String key) {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        @Override
+        public String putIfAbsent(String key, String value) {
+            String previous = get(key);
+            if (previous == null) {
+                put(key, value);
+            }
+            return previous;
+        }
+
+        @Override
+        public boolean remove(String key, String value) {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        @Override
+        public boolean replace(String key, String oldValue, String newValue) {
+            if (!Objects.equals(get(key), oldValue)) {
+                return false;
+            }
+            put(key, newValue);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.sdxl3;
+
+import org.onosproject.intentsync.IntentSynchronizationService;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.Key;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the route intents submitted and withdrawn within a time window
+ * and passes them to the intent synchronizer together, keeping only the
+ * latest operation for each intent key.
+ */
+class RouteIntentBatcher {
+
+    private final IntentSynchronizationService intentSynchronizer;
+    private final ScheduledExecutorService executor;
+    private final long windowMillis;
+    private final int maxOperations;
+
+    // Guarded by this
+    private Map<Key, Operation> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    // Serializes the flushes, so that batches are delivered in order
+    private final Object flushLock = new Object();
+
+    /**
+     * Creates a route intent batcher.
+     *
+     * @param intentSynchronizer intent synchronizer receiving the batches
+     * @param executor executor used to flush the batches at the end of the window
+     * @param windowMillis length of the batching window in milliseconds
+     * @param maxOperations number of pending operations that triggers an early flush
+     */
+    RouteIntentBatcher(IntentSynchronizationService intentSynchronizer,
+                       ScheduledExecutorService executor,
+                       long windowMillis, int maxOperations) {
+        this.intentSynchronizer = intentSynchronizer;
+        this.executor = executor;
+        this.windowMillis = windowMillis;
+        this.maxOperations = maxOperations;
+    }
+
+    /**
+     * Queues the submission of an intent.
+     *
+     * @param intent intent to submit
+     */
+    void submit(Intent intent) {
+        add(new Operation(intent, false));
+    }
+
+    /**
+     * Queues the withdrawal of an intent.
+     *
+     * @param intent intent to withdraw
+     */
+    void withdraw(Intent intent) {
+        add(new Operation(intent, true));
+    }
+
+    private void add(Operation operation) {
+        boolean full;
+        synchronized (this) {
+            pending.put(operation.intent.key(), operation);
+            full = pending.size() >= maxOperations;
+            if (!full && scheduledFlush == null) {
+                scheduledFlush = executor.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    /**
+     * Passes the pending operations to the intent synchronizer.
+     */
+    void flush() {
+        synchronized (flushLock) {
+            Map<Key, Operation> batch;
+            synchronized (this) {
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                if (scheduledFlush != null) {
+                    scheduledFlush.cancel(false);
+                    scheduledFlush = null;
+                }
+            }
+            for (Operation operation : batch.values()) {
+                if (operation.withdraw) {
+                    intentSynchronizer.withdraw(operation.intent);
+                } else {
+                    intentSynchronizer.submit(operation.intent);
+                }
+            }
+        }
+    }
+
+    /**
+     * Pending submission or withdrawal of an intent.
+     */
+    private static final class Operation {
+        private final Intent intent;
+        private final boolean withdraw;
+
+        private Operation(Intent intent, boolean withdraw) {
+            this.intent = intent;
+            this.withdraw = withdraw;
+        }
+    }
+}
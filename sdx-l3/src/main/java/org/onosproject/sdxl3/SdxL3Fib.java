@@ -17,7 +17,7 @@
 package org.onosproject.sdxl3;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Sets;
+import com.google.common.collect.ImmutableSet;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
@@ -51,13 +51,27 @@ import org.onosproject.intentsync.IntentSynchronizationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.onlab.util.Tools.groupedThreads;
 
 /**
  * FIB component of SDX-L3.
+ * Route events are processed in parallel by a fixed set of stripes, each
+ * route being always handled by the stripe of its prefix so that the events
+ * of a prefix are applied in order. Each stripe keeps the routes of its
+ * prefixes, so that a change of the interfaces is handled by every stripe
+ * for its own routes only. The resulting intents are passed to the intent
+ * synchronizer in batches.
  */
 @Component(immediate = true, enabled = false)
 public class SdxL3Fib {
@@ -86,15 +100,38 @@ public class SdxL3Fib {
     protected static final ImmutableList<Constraint> CONSTRAINTS
             = ImmutableList.of(new PartialFailureConstraint());
 
+    private static final int NUM_STRIPES = 8;
+    private static final long BATCH_WINDOW_MS = 50;
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final Map<IpPrefix, MultiPointToSinglePointIntent> routeIntents
             = new ConcurrentHashMap<>();
 
+    // Ingress points shared by the routes with the same egress interface,
+    // replaced as a whole when the interfaces change
+    private volatile Map<Interface, IngressPoints> ingressByEgress
+            = new ConcurrentHashMap<>();
+
+    private Stripe[] stripes;
+    private ScheduledExecutorService batchExecutor;
+    private RouteIntentBatcher batcher;
+
     private ApplicationId appId;
 
     @Activate
     public void activate() {
         appId = coreService.getAppId(SdxL3.SDX_L3_APP);
 
+        stripes = new Stripe[NUM_STRIPES];
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            stripes[i] = new Stripe(Executors.newSingleThreadExecutor(
+                    groupedThreads("onos/sdxl3", "fib-" + i, log)));
+        }
+        batchExecutor = Executors.newSingleThreadScheduledExecutor(
+                groupedThreads("onos/sdxl3", "fib-batcher", log));
+        batcher = new RouteIntentBatcher(intentSynchronizer, batchExecutor,
+                                         BATCH_WINDOW_MS, MAX_BATCH_SIZE);
+
         interfaceService.addListener(interfaceListener);
 
         routeService.addListener(routeListener);
@@ -104,35 +141,91 @@ public class SdxL3Fib {
     public void deactivate() {
         interfaceService.removeListener(interfaceListener);
         routeService.removeListener(routeListener);
-    }
 
-    private void update(ResolvedRoute route) {
-        synchronized (this) {
-            IpPrefix prefix = route.prefix();
-            MultiPointToSinglePointIntent intent =
-                    generateRouteIntent(prefix, route.nextHop(), route.nextHopMac());
+        flush();
+        for (Stripe stripe : stripes) {
+            stripe.executor.shutdownNow();
+        }
+        batchExecutor.shutdownNow();
+    }
 
-            if (intent == null) {
-                log.debug("SDX-L3 no interface found for route {}", route);
+    /**
+     * Waits for the queued events to be processed and passes the pending
+     * intents to the intent synchronizer.
+     */
+    void flush() {
+        for (Stripe stripe : stripes) {
+            try {
+                stripe.executor.submit(() -> { }).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 return;
+            } catch (ExecutionException e) {
+                log.warn("SDX-L3 unable to process the queued route events", e);
+            }
+        }
+        batcher.flush();
+    }
+
+    // Returns the stripe processing the events of the prefix.
+    private Stripe stripe(IpPrefix prefix) {
+        return stripes[Math.floorMod(prefix.hashCode(), stripes.length)];
+    }
+
+    private void update(ResolvedRoute route) {
+        IpPrefix prefix = route.prefix();
+        stripe(prefix).routes.put(prefix, route);
+        MultiPointToSinglePointIntent intent =
+                generateRouteIntent(prefix, route.nextHop(), route.nextHopMac());
+
+        if (intent == null) {
+            log.debug("SDX-L3 no interface found for route {}", route);
+            MultiPointToSinglePointIntent previous = routeIntents.remove(prefix);
+            if (previous != null) {
+                batcher.withdraw(previous);
             }
+            return;
+        }
 
-            routeIntents.put(prefix, intent);
-            intentSynchronizer.submit(intent);
+        MultiPointToSinglePointIntent previous = routeIntents.get(prefix);
+        if (previous != null && sameIntent(previous, intent)) {
+            return;
         }
+        routeIntents.put(prefix, intent);
+        batcher.submit(intent);
     }
 
     private void withdraw(ResolvedRoute route) {
-        synchronized (this) {
-            IpPrefix prefix = route.prefix();
-            MultiPointToSinglePointIntent intent = routeIntents.remove(prefix);
-            if (intent == null) {
-                log.trace("SDX-L3 no intent in routeIntents to delete " +
-                                  "for prefix: {}", prefix);
-                return;
-            }
-            intentSynchronizer.withdraw(intent);
+        IpPrefix prefix = route.prefix();
+        stripe(prefix).routes.remove(prefix);
+        MultiPointToSinglePointIntent intent = routeIntents.remove(prefix);
+        if (intent == null) {
+            log.trace("SDX-L3 no intent in routeIntents to delete " +
+                              "for prefix: {}", prefix);
+            return;
         }
+        batcher.withdraw(intent);
+    }
+
+    /**
+     * Recompiles the intent of the route of a prefix, if it still exists.
+     *
+     * @param prefix IP prefix of the route
+     * @param removedPort connect point of a removed interface, null if none
+     */
+    private void refresh(IpPrefix prefix, ConnectPoint removedPort) {
+        ResolvedRoute route = stripe(prefix).routes.get(prefix);
+        if (route == null) {
+            return;
+        }
+        MultiPointToSinglePointIntent intent = routeIntents.get(prefix);
+        if (intent != null && intent.egressPoint().equals(removedPort)) {
+            // This intent just lost its head. Remove it and let
+            // higher layer routing reroute.
+            batcher.withdraw(routeIntents.remove(prefix));
+            return;
+        }
+        update(route);
     }
 
     /**
@@ -163,33 +256,18 @@ public class SdxL3Fib {
         }
         ConnectPoint egressPort = egressInterface.connectPoint();
 
-        Set<Interface> ingressInterfaces = new HashSet<>();
-        Set<ConnectPoint> ingressPorts = new HashSet<>();
         log.debug("Generating intent for prefix {}, next hop mac {}",
                   prefix, nextHopMacAddress);
 
         TrafficSelector.Builder selector = DefaultTrafficSelector.builder();
 
-        // Get ingress interfaces and ports
-        // TODO this should be only peering interfaces
-        interfaceService.getInterfaces().stream()
-                .filter(intf -> !intf.equals(egressInterface))
-                .forEach(intf -> {
-                    ingressInterfaces.add(intf);
-                    ConnectPoint ingressPort = intf.connectPoint();
-                    ingressPorts.add(ingressPort);
-                });
-
-        // By default the ingress traffic is not tagged
-        VlanId ingressVlanId = VlanId.NONE;
+        // Get ingress ports, shared with the other routes of the egress interface
+        IngressPoints ingress = ingressByEgress.computeIfAbsent(egressInterface, this::ingressPoints);
 
         // Match VLAN Id ANY if the source VLAN Id is not null
         // TODO need to be able to set a different VLAN Id per ingress interface
-        for (Interface intf : ingressInterfaces) {
-            if (!intf.vlan().equals(VlanId.NONE)) {
-                selector.matchVlanId(VlanId.ANY);
-                ingressVlanId = intf.vlan();
-            }
+        if (!ingress.vlanId.equals(VlanId.NONE)) {
+            selector.matchVlanId(VlanId.ANY);
         }
 
         // Match the destination IP prefix at the first hop
@@ -215,7 +293,7 @@ public class SdxL3Fib {
 
         // Set egress VLAN Id
         // TODO need to make the comparison with different ingress VLAN Ids
-        if (!ingressVlanId.equals(egressInterface.vlan())) {
+        if (!ingress.vlanId.equals(egressInterface.vlan())) {
             if (egressInterface.vlan().equals(VlanId.NONE)) {
                 treatment.popVlan();
             } else {
@@ -235,68 +313,101 @@ public class SdxL3Fib {
                 .key(key)
                 .selector(selector.build())
                 .treatment(treatment.build())
-                .ingressPoints(ingressPorts)
+                .ingressPoints(ingress.ports)
                 .egressPoint(egressPort)
                 .priority(priority)
                 .constraints(CONSTRAINTS)
                 .build();
     }
 
-    private void updateInterface(Interface intf) {
-        synchronized (this) {
-            for (Map.Entry<IpPrefix, MultiPointToSinglePointIntent> entry : routeIntents.entrySet()) {
-                MultiPointToSinglePointIntent intent = entry.getValue();
-                Set<ConnectPoint> ingress = Sets.newHashSet(intent.ingressPoints());
-                ingress.add(intf.connectPoint());
+    /**
+     * Computes the ingress ports of the routes leaving from an egress interface.
+     *
+     * @param egressInterface the egress interface
+     * @return the ingress ports and their VLAN Id
+     */
+    private IngressPoints ingressPoints(Interface egressInterface) {
+        ImmutableSet.Builder<ConnectPoint> ingressPorts = ImmutableSet.builder();
 
-                MultiPointToSinglePointIntent newIntent =
-                        MultiPointToSinglePointIntent.builder(intent)
-                                .ingressPoints(ingress)
-                                .build();
+        // By default the ingress traffic is not tagged
+        VlanId ingressVlanId = VlanId.NONE;
 
-                routeIntents.put(entry.getKey(), newIntent);
-                intentSynchronizer.submit(newIntent);
+        // Get ingress interfaces and ports
+        // TODO this should be only peering interfaces
+        for (Interface intf : interfaceService.getInterfaces()) {
+            if (intf.equals(egressInterface)) {
+                continue;
+            }
+            ingressPorts.add(intf.connectPoint());
+            if (!intf.vlan().equals(VlanId.NONE)) {
+                ingressVlanId = intf.vlan();
             }
         }
+        return new IngressPoints(ingressPorts.build(), ingressVlanId);
     }
 
-    private void removeInterface(Interface intf) {
-        synchronized (this) {
-            for (Map.Entry<IpPrefix, MultiPointToSinglePointIntent> entry : routeIntents.entrySet()) {
-                MultiPointToSinglePointIntent intent = entry.getValue();
-                if (intent.egressPoint().equals(intf.connectPoint())) {
-                    // This intent just lost its head. Remove it and let
-                    // higher layer routing reroute.
-                    intentSynchronizer.withdraw(routeIntents.remove(entry.getKey()));
-                } else {
-                    if (intent.ingressPoints().contains(intf.connectPoint())) {
-
-                        Set<ConnectPoint> ingress = Sets.newHashSet(intent.ingressPoints());
-                        ingress.remove(intf.connectPoint());
-
-                        MultiPointToSinglePointIntent newIntent =
-                                MultiPointToSinglePointIntent.builder(intent)
-                                        .ingressPoints(ingress)
-                                        .build();
-
-                        routeIntents.put(entry.getKey(), newIntent);
-                        intentSynchronizer.submit(newIntent);
-                    }
-                }
-            }
+    // Returns whether the intents would install the same forwarding.
+    private static boolean sameIntent(MultiPointToSinglePointIntent one,
+                                      MultiPointToSinglePointIntent two) {
+        return Objects.equals(one.selector(), two.selector()) &&
+                Objects.equals(one.treatment(), two.treatment()) &&
+                Objects.equals(one.ingressPoints(), two.ingressPoints()) &&
+                Objects.equals(one.egressPoint(), two.egressPoint()) &&
+                one.priority() == two.priority();
+    }
+
+    /**
+     * Recompiles the intents of all the routes after a change of the
+     * interfaces, submitting only the intents which have changed.
+     *
+     * @param removedPort connect point of a removed interface, null if none
+     */
+    private void refreshRoutes(ConnectPoint removedPort) {
+        ingressByEgress = new ConcurrentHashMap<>();
+        for (Stripe stripe : stripes) {
+            stripe.executor.execute(() -> new ArrayList<>(stripe.routes.keySet())
+                    .forEach(prefix -> refresh(prefix, removedPort)));
+        }
+    }
+
+    /**
+     * Single-threaded executor of the route events of a subset of the
+     * prefixes, with the routes of these prefixes.
+     */
+    private static final class Stripe {
+        private final ExecutorService executor;
+        // accessed only from the executor thread
+        private final Map<IpPrefix, ResolvedRoute> routes = new HashMap<>();
+
+        private Stripe(ExecutorService executor) {
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * Ingress ports of the routes with the same egress interface.
+     */
+    private static final class IngressPoints {
+        private final Set<ConnectPoint> ports;
+        private final VlanId vlanId;
+
+        private IngressPoints(Set<ConnectPoint> ports, VlanId vlanId) {
+            this.ports = ports;
+            this.vlanId = vlanId;
         }
     }
 
     private class InternalRouteListener implements RouteListener {
         @Override
         public void event(RouteEvent event) {
+            ResolvedRoute route = event.subject();
             switch (event.type()) {
                 case ROUTE_ADDED:
                 case ROUTE_UPDATED:
-                    update(event.subject());
+                    stripe(route.prefix()).executor.execute(() -> update(route));
                     break;
                 case ROUTE_REMOVED:
-                    withdraw(event.subject());
+                    stripe(route.prefix()).executor.execute(() -> withdraw(route));
                     break;
                 default:
                     break;
@@ -310,12 +421,11 @@ public class SdxL3Fib {
         public void event(InterfaceEvent event) {
             switch (event.type()) {
                 case INTERFACE_ADDED:
-                    updateInterface(event.subject());
-                    break;
                 case INTERFACE_UPDATED:
+                    refreshRoutes(null);
                     break;
                 case INTERFACE_REMOVED:
-                    removeInterface(event.subject());
+                    refreshRoutes(event.subject().connectPoint());
                     break;
                 default:
                     break;
@@ -17,6 +17,7 @@
 package org.onosproject.sdxl3;
 
 import com.google.common.collect.Sets;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.packet.Ethernet;
@@ -30,6 +31,7 @@ import org.onosproject.TestApplicationId;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.core.CoreServiceAdapter;
 import org.onosproject.net.intf.Interface;
+import org.onosproject.net.intf.InterfaceEvent;
 import org.onosproject.net.intf.InterfaceListener;
 import org.onosproject.net.intf.InterfaceService;
 import org.onosproject.net.intf.InterfaceServiceAdapter;
@@ -78,6 +80,7 @@ public class SdxL3FibTest extends AbstractIntentTest {
     private static final String DEVICE2_ID = "of:0000000000000002";
     private static final String DEVICE3_ID = "of:0000000000000003";
     private static final String DEVICE4_ID = "of:0000000000000004";
+    private static final String DEVICE5_ID = "of:0000000000000005";
 
     private static final String PEER1_IP = "192.168.10.1";
     private static final String PEER2_IP = "192.168.10.2";
@@ -111,6 +114,10 @@ public class SdxL3FibTest extends AbstractIntentTest {
             DeviceId.deviceId(DEVICE4_ID),
             PortNumber.portNumber(1));
 
+    private static final ConnectPoint CONN_POINT5 = new ConnectPoint(
+            DeviceId.deviceId(DEVICE5_ID),
+            PortNumber.portNumber(1));
+
     private SdxL3Fib sdxL3Fib;
     private IntentSynchronizationService intentSynchronizer;
     private final Set<Interface> interfaces = Sets.newHashSet();
@@ -128,6 +135,8 @@ public class SdxL3FibTest extends AbstractIntentTest {
         interfaceService = createMock(InterfaceService.class);
         interfaceService.addListener(anyObject(InterfaceListener.class));
         expectLastCall().andDelegateTo(new InterfaceServiceDelegate());
+        interfaceService.removeListener(anyObject(InterfaceListener.class));
+        expectLastCall().anyTimes();
 
         peerService = createMock(SdxL3PeerService.class);
 
@@ -150,6 +159,11 @@ public class SdxL3FibTest extends AbstractIntentTest {
         sdxL3Fib.activate();
     }
 
+    @After
+    public void tearDown() {
+        sdxL3Fib.deactivate();
+    }
+
     /**
      * Sets up InterfaceService.
      */
@@ -270,6 +284,7 @@ public class SdxL3FibTest extends AbstractIntentTest {
 
         // Send in the added event
         routeListener.event(new RouteEvent(RouteEvent.Type.ROUTE_ADDED, resRoute));
+        sdxL3Fib.flush();
 
         verify(intentSynchronizer);
     }
@@ -323,6 +338,7 @@ public class SdxL3FibTest extends AbstractIntentTest {
 
         // Send in the added event
         routeListener.event(new RouteEvent(RouteEvent.Type.ROUTE_ADDED, resRoute));
+        sdxL3Fib.flush();
 
         verify(intentSynchronizer);
     }
@@ -380,6 +396,7 @@ public class SdxL3FibTest extends AbstractIntentTest {
 
         // Send in the update event
         routeListener.event(new RouteEvent(RouteEvent.Type.ROUTE_UPDATED, resRoute));
+        sdxL3Fib.flush();
 
         verify(intentSynchronizer);
     }
@@ -435,6 +452,81 @@ public class SdxL3FibTest extends AbstractIntentTest {
 
         // Send in the removed event
         routeListener.event(new RouteEvent(RouteEvent.Type.ROUTE_REMOVED, resRoute));
+        sdxL3Fib.flush();
+
+        verify(intentSynchronizer);
+    }
+
+    /**
+     * Tests adding an interface after a route.
+     *
+     * We verify that the intent of the route is resubmitted with the new
+     * interface among the ingress points.
+     */
+    @Test
+    public void testInterfaceAdd() {
+        // Firstly add a route
+        testRouteAdd();
+
+        Interface interface5 = new Interface("test5",
+                                             CONN_POINT5,
+                                             Collections.emptyList(), MacAddress.valueOf(MAC1),
+                                             VlanId.NONE);
+        interfaces.add(interface5);
+
+        IpPrefix prefix = Ip4Prefix.valueOf("1.1.1.0/24");
+        TrafficSelector.Builder selectorBuilder =
+                DefaultTrafficSelector.builder();
+        selectorBuilder.matchEthType(Ethernet.TYPE_IPV4)
+                .matchIPDst(prefix)
+                .matchVlanId(VlanId.ANY);
+
+        TrafficTreatment.Builder treatmentBuilder =
+                DefaultTrafficTreatment.builder();
+        treatmentBuilder.setEthDst(MacAddress.valueOf(MAC1)).popVlan();
+
+        Set<ConnectPoint> ingressPoints = new HashSet<>();
+        ingressPoints.add(CONN_POINT2);
+        ingressPoints.add(CONN_POINT3);
+        ingressPoints.add(CONN_POINT4);
+        ingressPoints.add(CONN_POINT5);
+
+        MultiPointToSinglePointIntent intent =
+                MultiPointToSinglePointIntent.builder()
+                        .appId(APPID)
+                        .key(Key.of(prefix.toString(), APPID))
+                        .selector(selectorBuilder.build())
+                        .treatment(treatmentBuilder.build())
+                        .ingressPoints(ingressPoints)
+                        .egressPoint(CONN_POINT1)
+                        .constraints(SdxL3Fib.CONSTRAINTS)
+                        .build();
+
+        reset(intentSynchronizer);
+        intentSynchronizer.submit(eqExceptId(intent));
+        replay(intentSynchronizer);
+
+        interfaceListener.event(new InterfaceEvent(InterfaceEvent.Type.INTERFACE_ADDED, interface5));
+        sdxL3Fib.flush();
+
+        verify(intentSynchronizer);
+    }
+
+    /**
+     * Tests updating an interface without changing the ingress points.
+     *
+     * We verify that the intent of the route is not resubmitted.
+     */
+    @Test
+    public void testInterfaceUpdateUnchanged() {
+        // Firstly add a route
+        testRouteAdd();
+
+        reset(intentSynchronizer);
+        replay(intentSynchronizer);
+
+        interfaceListener.event(new InterfaceEvent(InterfaceEvent.Type.INTERFACE_UPDATED, interface2));
+        sdxL3Fib.flush();
 
         verify(intentSynchronizer);
     }